@@ -0,0 +1,115 @@
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+
+import java.io.FileReader;
+import java.io.Reader;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Created with IntelliJ IDEA.
+ * User: agent
+ * Date: 10/17/26
+ * Selenium Based Automation
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * Compares two JMH JSON result files (e.g. of the base commit and of the current commit) and flags regressions.
+ * Usage: BenchmarkCompare {baseline.json} {current.json} [{threshold percent} (default 10)]
+ * A benchmark regressed when its score got worse by more than the threshold - higher is better for throughput (thrpt), lower is better otherwise.
+ * Exits with status 1 when any benchmark regressed so that a build step can fail on it.
+ *
+ * History
+ * When        |Who      |What
+ * ============|=========|====================================
+ * 10/17/26    |agent    |Initial Version
+ * ============|=========|====================================
+ */
+public class BenchmarkCompare {
+
+   private static final double DefaultThreshold = 10.0;
+
+   /**
+    * @param fileName
+    * @return The scores in the JMH results file keyed by benchmark name and parameters
+    * @throws Exception
+    */
+   @SuppressWarnings("unchecked")
+   private static TreeMap<String, JSONObject> scoresOf(String fileName) throws Exception {
+      TreeMap<String, JSONObject> result = new TreeMap<String, JSONObject>();
+      Reader reader = new FileReader(fileName);
+      try {
+         JSONArray runs = (JSONArray) new JSONParser().parse(reader);
+         for (Object item : runs) {
+            JSONObject run = (JSONObject) item;
+            StringBuilder key = new StringBuilder(String.valueOf(run.get("benchmark")));
+            JSONObject params = (JSONObject) run.get("params");
+            if (params != null)
+               key.append(new TreeMap<String, Object>(params).toString());
+            result.put(key.toString(), run);
+         }
+      }
+      finally {
+         reader.close();
+      }
+      return result;
+   }
+
+   private static double scoreOf(JSONObject run) {
+      return ((Number) ((JSONObject) run.get("primaryMetric")).get("score")).doubleValue();
+   }
+
+   private static String unitOf(JSONObject run) {
+      return String.valueOf(((JSONObject) run.get("primaryMetric")).get("scoreUnit"));
+   }
+
+   public static void main(String[] args) throws Exception {
+      if (args.length < 2) {
+         System.out.println("Usage: BenchmarkCompare {baseline.json} {current.json} [{threshold percent}]");
+         System.exit(2);
+      }
+      double threshold = (args.length > 2) ? Double.parseDouble(args[2]) : DefaultThreshold;
+
+      TreeMap<String, JSONObject> baseline = scoresOf(args[0]);
+      TreeMap<String, JSONObject> current = scoresOf(args[1]);
+
+      int nRegressions = 0;
+      for (Map.Entry<String, JSONObject> entry : current.entrySet()) {
+         JSONObject base = baseline.get(entry.getKey());
+         if (base == null) {
+            System.out.println(String.format("%-8s %s", "NEW", entry.getKey()));
+            continue;
+         }
+
+         double before = scoreOf(base);
+         double after = scoreOf(entry.getValue());
+         boolean isThroughput = "thrpt".equals(entry.getValue().get("mode"));
+         // Positive change means worse
+         double change = (before == 0.0) ? 0.0 : ((isThroughput ? before - after : after - before) / before) * 100.0;
+         String status = (change > threshold) ? "REGRESS" : ((change < -threshold) ? "IMPROVE" : "SAME");
+         if (change > threshold)
+            nRegressions++;
+         System.out.println(String.format("%-8s %s: %.3f -> %.3f %s (%+.1f%%)", status, entry.getKey(), before, after, unitOf(entry.getValue()), isThroughput ? -change : change));
+      }
+
+      System.out.println(nRegressions + " regression(s) beyond " + threshold + "% found.");
+      if (nRegressions > 0)
+         System.exit(1);
+   }
+}
@@ -0,0 +1,255 @@
+import jxl.write.Label;
+import jxl.write.WritableSheet;
+import jxl.write.WritableWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * Created with IntelliJ IDEA.
+ * User: agent
+ * Date: 10/17/26
+ * Selenium Based Automation
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * Synthetic test item strings for the benchmarks and the files holding them in each of the supported file formats.
+ * Files are generated (once) into the bench folder under the data folder (DDTSettings.dataFolder()) and named Bench{rows}.{extension}
+ * - the items container (worksheet) is named 'Bench'.
+ * NOTE: .xls worksheets hold at most 65536 rows - larger .xls files are capped (MaxXlsRows).
+ *
+ * History
+ * When        |Who      |What
+ * ============|=========|====================================
+ * 10/17/26    |agent    |Initial Version
+ * ============|=========|====================================
+ */
+public class BenchmarkData {
+
+   public static final String ContainerName = "Bench";
+   public static final int MaxXlsRows = 65535;
+   private static final String[] Headers = {"Id", "Action", "LocType", "LocSpecs", "QryFunction", "Active", "Params", "Description"};
+   private static final String[] Actions = {"setVars", "findElement", "verify", "click", "newTest", "wait"};
+
+   /**
+    * A test item's strings - a mix of actions, locators and parameters (with variables) typical of test sessions
+    * @param i - the row number
+    * @return
+    */
+   public static String[] row(int i) {
+      return new String[] {
+            "Bench#",
+            Actions[i % Actions.length],
+            (i % 3 == 0) ? "" : "id",
+            (i % 3 == 0) ? "" : "field" + (i % 50),
+            (i % 2 == 0) ? "GetText" : "",
+            "",
+            "Value={value" + (i % 10) + "};CompareMode=Equals;Expected=Item" + i + ";Description=Step " + i,
+            "Step " + i + " of the {testName} benchmark"
+      };
+   }
+
+   public static String[][] rows(int n) {
+      String[][] result = new String[n][];
+      for (int i = 0; i < n; i++)
+         result[i] = row(i);
+      return result;
+   }
+
+   public static String folder() {
+      return DDTSettings.Settings().dataFolder() + "bench" + File.separator;
+   }
+
+   /**
+    * @param extension - one of the supported file extensions (without the dot)
+    * @param nRows
+    * @return The (absolute) name of a file of the given format holding nRows synthetic test items - generated if missing
+    * @throws Exception
+    */
+   public static String fileFor(String extension, int nRows) throws Exception {
+      File dir = new File(folder());
+      if (!dir.exists() && !dir.mkdirs())
+         throw new IOException("Unable to create benchmark data folder: " + dir.getAbsolutePath());
+
+      File file = new File(dir, "Bench" + nRows + "." + extension);
+      if (file.exists())
+         return file.getAbsolutePath();
+
+      switch (extension) {
+         case "txt" : writeTxt(file, nRows); break;
+         case "xml" : writeXml(file, nRows); break;
+         case "json" : writeJson(file, nRows); break;
+         case "html" : writeHtml(file, nRows); break;
+         case "xls" : writeXls(file, Math.min(nRows, MaxXlsRows)); break;
+         case "xlsx" : writeXlsx(file, nRows); break;
+         default: throw new IllegalArgumentException("Unsupported benchmark file type: " + extension);
+      }
+      return file.getAbsolutePath();
+   }
+
+   /**
+    * @param fileName
+    * @return The input specs of a file provider for the benchmark file
+    */
+   public static TestStringsProviderSpecs specsFor(String fileName) {
+      return new TestStringsProviderSpecs("File" + TestStringsProviderSpecs.SPLITTER + fileName + TestStringsProviderSpecs.SPLITTER + ContainerName);
+   }
+
+   private static Writer writerFor(File file, String charset) throws IOException {
+      return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), charset));
+   }
+
+   private static String xmlEscaped(String s) {
+      return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+   }
+
+   private static String jsonEscaped(String s) {
+      return s.replace("\\", "\\\\").replace("\"", "\\\"");
+   }
+
+   private static void writeTxt(File file, int nRows) throws IOException {
+      Writer w = writerFor(file, "UTF-8");
+      try {
+         w.write(join(Headers, "\t") + "\n");
+         for (int i = 0; i < nRows; i++)
+            w.write(join(row(i), "\t") + "\n");
+      }
+      finally {
+         w.close();
+      }
+   }
+
+   private static void writeXml(File file, int nRows) throws IOException {
+      Writer w = writerFor(file, "UTF-8");
+      try {
+         w.write("<?xml version=\"1.0\" encoding=\"utf-8\" standalone=\"yes\"?>\n");
+         w.write("<TestCase Description=\"Benchmark test items\">\n");
+         for (int i = 0; i < nRows; i++) {
+            String[] item = row(i);
+            w.write("  <TestItem Id=\"" + xmlEscaped(item[0]) + "\" Action=\"" + xmlEscaped(item[1]) + "\" LocType=\"" + xmlEscaped(item[2]) +
+                  "\" LocSpecs=\"" + xmlEscaped(item[3]) + "\" QryFunction=\"" + xmlEscaped(item[4]) + "\" Active=\"" + xmlEscaped(item[5]) +
+                  "\" Params=\"" + xmlEscaped(item[6]) + "\" Description=\"" + xmlEscaped(item[7]) + "\"></TestItem>\n");
+         }
+         w.write("</TestCase>\n");
+      }
+      finally {
+         w.close();
+      }
+   }
+
+   private static void writeJson(File file, int nRows) throws IOException {
+      String[] names = {"id", "action", "locType", "locSpecs", "qryFunction", "active", "params", "description"};
+      Writer w = writerFor(file, "UTF-8");
+      try {
+         w.write("{\n\"TestItems\": [\n");
+         for (int i = 0; i < nRows; i++) {
+            String[] item = row(i);
+            StringBuilder sb = new StringBuilder("{");
+            for (int j = 0; j < names.length; j++) {
+               if (j > 0)
+                  sb.append(",");
+               sb.append("\"" + names[j] + "\":\"" + jsonEscaped(item[j]) + "\"");
+            }
+            sb.append((i < nRows - 1) ? "},\n" : "}\n");
+            w.write(sb.toString());
+         }
+         w.write("]\n}\n");
+      }
+      finally {
+         w.close();
+      }
+   }
+
+   private static void writeHtml(File file, int nRows) throws IOException {
+      // The html provider reads its files as UTF-16
+      String[] classes = {"id", "action", "locType", "locSpecs", "qryFunction", "active", "params", "description"};
+      Writer w = writerFor(file, "UTF-16");
+      try {
+         w.write("<!DOCTYPE html>\n<html>\n<head lang=\"en\">\n<meta charset=\"UTF-16\">\n<title>Benchmark test items</title>\n</head>\n<body>\n<table>\n<tbody>\n");
+         for (int i = 0; i < nRows; i++) {
+            String[] item = row(i);
+            StringBuilder sb = new StringBuilder("<tr>");
+            for (int j = 0; j < classes.length; j++)
+               sb.append("<td class=\"" + classes[j] + "\">" + xmlEscaped(item[j]) + "</td>");
+            sb.append("</tr>\n");
+            w.write(sb.toString());
+         }
+         w.write("</tbody>\n</table>\n</body>\n</html>\n");
+      }
+      finally {
+         w.close();
+      }
+   }
+
+   private static void writeXls(File file, int nRows) throws Exception {
+      WritableWorkbook wb = jxl.Workbook.createWorkbook(file);
+      try {
+         WritableSheet sheet = wb.createSheet(ContainerName, 0);
+         for (int j = 0; j < Headers.length; j++)
+            sheet.addCell(new Label(j, 0, Headers[j]));
+         for (int i = 0; i < nRows; i++) {
+            String[] item = row(i);
+            for (int j = 0; j < item.length; j++)
+               sheet.addCell(new Label(j, i + 1, item[j]));
+         }
+         wb.write();
+      }
+      finally {
+         wb.close();
+      }
+   }
+
+   private static void writeXlsx(File file, int nRows) throws IOException {
+      SXSSFWorkbook wb = new SXSSFWorkbook(1000);
+      FileOutputStream fos = new FileOutputStream(file);
+      try {
+         Sheet sheet = wb.createSheet(ContainerName);
+         Row header = sheet.createRow(0);
+         for (int j = 0; j < Headers.length; j++)
+            header.createCell(j).setCellValue(Headers[j]);
+         for (int i = 0; i < nRows; i++) {
+            String[] item = row(i);
+            Row row = sheet.createRow(i + 1);
+            for (int j = 0; j < item.length; j++)
+               row.createCell(j).setCellValue(item[j]);
+         }
+         wb.write(fos);
+      }
+      finally {
+         fos.close();
+         wb.dispose();
+      }
+   }
+
+   private static String join(String[] values, String delim) {
+      StringBuilder sb = new StringBuilder();
+      for (int i = 0; i < values.length; i++) {
+         if (i > 0)
+            sb.append(delim);
+         sb.append(values[i]);
+      }
+      return sb.toString();
+   }
+}
@@ -0,0 +1,67 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created with IntelliJ IDEA.
+ * User: agent
+ * Date: 10/17/26
+ * Selenium Based Automation
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * Benchmarks of DDTDate parsing and evaluation of date expressions (%date...%) - as used by verifications and variables.
+ *
+ * History
+ * When        |Who      |What
+ * ============|=========|====================================
+ * 10/17/26    |agent    |Initial Version
+ * ============|=========|====================================
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DDTDateBenchmark {
+
+   @Param({"%date%", "%date+3month,year,long%", "%date-3hours,day,full%", "%date+10day,date,short%"})
+   public String input;
+
+   @Setup
+   public void setup() {
+      DDTSettings.Settings();
+   }
+
+   @Benchmark
+   public String parse() {
+      DDTDate date = new DDTDate(input);
+      return date.getOutput();
+   }
+}
@@ -0,0 +1,103 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Hashtable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created with IntelliJ IDEA.
+ * User: agent
+ * Date: 10/17/26
+ * Selenium Based Automation
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * Benchmarks of the string utilities used on every test step - variables substitution, removal of empty (reporting) tokens
+ * and parsing of delimited (params) strings into a DDTTestContext.
+ *
+ * History
+ * When        |Who      |What
+ * ============|=========|====================================
+ * 10/17/26    |agent    |Initial Version
+ * ============|=========|====================================
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringsBenchmark {
+
+   private Hashtable<String, Object> vars;
+   private String noVariables;
+   private String withVariables;
+   private String withTokens;
+   private String delimited;
+   private String customDelimited;
+   private String validDelims;
+
+   @Setup
+   public void setup() {
+      vars = new Hashtable<String, Object>();
+      for (int i = 0; i < 50; i++)
+         vars.put("value" + i, "Value Number " + i);
+      vars.put("testname", "StringsBenchmark");
+      vars.put("url", "http://compendiumdev.co.uk/selenium/calculate.php");
+
+      noVariables = "Verify the calculator's answer is displayed and not blank";
+      withVariables = "URL={url};Number1={value1};Number2={value2};Expected={value3};Description=Step of {testName} with {value49}";
+      withTokens = "{Step: 12, }{Status: PASS, }{Action: click, }{Errors}{Comments}{Exception}{Duration: 0.12 seconds}";
+      delimited = "Number1=1234;Number2=11;Action=times;Answer=574;Function=GetText;CompareMode=EndsWith;Option=IgnoreCase;Class=String";
+      customDelimited = "|Number1=1234|Number2=11|Action=times;plus|Answer=574|Function=GetText|CompareMode=EndsWith";
+      validDelims = DDTSettings.Settings().validDelims();
+   }
+
+   @Benchmark
+   public String substituteVariablesNone() {
+      return Util.substituteVariables(noVariables, vars);
+   }
+
+   @Benchmark
+   public String substituteVariables() {
+      return Util.substituteVariables(withVariables, vars);
+   }
+
+   @Benchmark
+   public String removeEmptyTokens() {
+      return Util.removeEmptyTokens(withTokens, "{", "}");
+   }
+
+   @Benchmark
+   public DDTTestContext testContextFromDelimitedString() {
+      return new DDTTestContext(delimited, ";", validDelims);
+   }
+
+   @Benchmark
+   public DDTTestContext testContextFromCustomDelimitedString() {
+      return new DDTTestContext(customDelimited, ";", validDelims);
+   }
+}
@@ -0,0 +1,76 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created with IntelliJ IDEA.
+ * User: agent
+ * Date: 10/17/26
+ * Selenium Based Automation
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * Benchmarks of TestItem.assembleTestItems() on synthetic test item strings (see BenchmarkData).
+ *
+ * History
+ * When        |Who      |What
+ * ============|=========|====================================
+ * 10/17/26    |agent    |Initial Version
+ * ============|=========|====================================
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TestItemBenchmark {
+
+   @Param({"1000", "100000"})
+   public int rows;
+
+   private String[][] strings;
+
+   @Setup(Level.Trial)
+   public void setup() {
+      DDTSettings.Settings();
+      Verb.initialize();
+   }
+
+   // assembleTestItems may modify the rows it is given - each invocation gets fresh rows
+   @Setup(Level.Invocation)
+   public void prepareRows() {
+      strings = BenchmarkData.rows(rows);
+   }
+
+   @Benchmark
+   public TestItem[] assembleTestItems() {
+      return TestItem.assembleTestItems(strings, "Bench");
+   }
+}
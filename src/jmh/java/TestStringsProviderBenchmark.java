@@ -0,0 +1,98 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created with IntelliJ IDEA.
+ * User: agent
+ * Date: 10/17/26
+ * Selenium Based Automation
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * Benchmarks of each of the file test strings providers on synthetic files of 1k / 100k test items (see BenchmarkData).
+ * Providers are invoked directly - the session's TestStringsCache is cleared before each invocation so that every file is parsed.
+ * The 'xlsxStreaming' provider is the streaming (event model) .xlsx provider used for large workbooks.
+ *
+ * History
+ * When        |Who      |What
+ * ============|=========|====================================
+ * 10/17/26    |agent    |Initial Version
+ * ============|=========|====================================
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TestStringsProviderBenchmark {
+
+   @Param({"txt", "xml", "json", "html", "xls", "xlsx", "xlsxStreaming"})
+   public String provider;
+
+   @Param({"1000", "100000"})
+   public int rows;
+
+   private String fileName;
+
+   @Setup(Level.Trial)
+   public void setup() throws Exception {
+      String extension = provider.equals("xlsxStreaming") ? "xlsx" : provider;
+      fileName = BenchmarkData.fileFor(extension, rows);
+   }
+
+   @Setup(Level.Invocation)
+   public void clearCache() {
+      TestStringsCache.clear();
+   }
+
+   private TestStringsProvider newProvider() {
+      TestStringsProviderSpecs specs = BenchmarkData.specsFor(fileName);
+      switch (provider) {
+         case "txt" : return new FileTestStringsProvider.DelimitedTestStringsProvider(specs);
+         case "xml" : return new FileTestStringsProvider.XMLTestStringsProvider(specs);
+         case "json" : return new FileTestStringsProvider.JSONTestStringsProvider(specs);
+         case "html" : return new FileTestStringsProvider.HtmlTestStringsProvider(specs);
+         case "xls" : return new FileTestStringsProvider.ExcelTestStringsProvider(specs);
+         case "xlsx" : return new FileTestStringsProvider.ExcelXSSFTestStringsProvider(specs);
+         case "xlsxStreaming" : return new FileTestStringsProvider.StreamingXSSFTestStringsProvider(specs);
+         default: throw new IllegalArgumentException("Unknown provider: " + provider);
+      }
+   }
+
+   @Benchmark
+   public String[][] provideStrings() throws Throwable {
+      TestStringsProvider stringsProvider = newProvider();
+      stringsProvider.provideStrings();
+      if (stringsProvider.hasException())
+         throw stringsProvider.getException();
+      return stringsProvider.getDataStrings();
+   }
+}
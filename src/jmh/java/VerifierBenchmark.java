@@ -0,0 +1,87 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created with IntelliJ IDEA.
+ * User: agent
+ * Date: 10/17/26
+ * Selenium Based Automation
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * Benchmarks of Verifier.verifyStrings() across its comparison modes - a new Verifier per verification, as in a test session.
+ *
+ * History
+ * When        |Who      |What
+ * ============|=========|====================================
+ * 10/17/26    |agent    |Initial Version
+ * ============|=========|====================================
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VerifierBenchmark {
+
+   @Param({"equals", "ne", "startswith", "endswith", "contains", "notcontains", "islowercase", "isuppercase", "matches", "between", "notblank"})
+   public String compareMode;
+
+   @Param({"", "ignorecase"})
+   public String option;
+
+   private String expected;
+   private String actual;
+
+   @Setup
+   public void setup() {
+      actual = "The Selenium Simplified Calculator 1234";
+      switch (compareMode) {
+         case "startswith" : expected = "The Selenium"; break;
+         case "endswith" : expected = "Calculator 1234"; break;
+         case "contains" : expected = "Simplified"; break;
+         case "notcontains" : expected = "Complicated"; break;
+         case "islowercase" : actual = actual.toLowerCase(); expected = ""; break;
+         case "isuppercase" : actual = actual.toUpperCase(); expected = ""; break;
+         case "matches" : expected = "The .* Calculator \\d+"; break;
+         case "between" : expected = "Ab" + DDTSettings.Settings().andDelim() + "Zz"; break;
+         case "notblank" : expected = ""; break;
+         case "ne" : expected = "Another Calculator"; break;
+         default: expected = actual;
+      }
+   }
+
+   @Benchmark
+   public Verifier verifyStrings() throws Exception {
+      Verifier verifier = new Verifier(expected, actual, compareMode, option, "", true);
+      verifier.verifyStrings();
+      return verifier;
+   }
+}
@@ -5,10 +5,11 @@ import org.joda.time.Period;
 
 import java.security.InvalidParameterException;
 import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Hashtable;
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
 
 import static org.apache.commons.lang3.StringUtils.*;
 
@@ -50,6 +51,7 @@ import static org.apache.commons.lang3.StringUtils.*;
  * 10/28/14  |Bey            |Inheritance from DDTBase
  * 07/23/15  |Bey            |Add Locale specification - for now, on the Settings level only (not on the fly)
  * 10/16/16  |Bey            |Adjust ddtSettings getters.
+ * 10/17/26  |agent          |Evaluate with a given reference date, reuse date formatters, day level date variables kept by DDTDateCache
  * ==========|===============|========================================================
  */
 public class DDTDate extends DDTBase{
@@ -85,6 +87,16 @@ public class DDTDate extends DDTBase{
       initialize(input);
    }
 
+   /**
+    * Evaluate the input as of the given reference date (already adjusted for time zone) - see DDTDateCache
+    * @param input
+    * @param referenceDate
+    */
+   public DDTDate(String input, MutableDateTime referenceDate) {
+      setReferenceDate(referenceDate);
+      initialize(input);
+   }
+
    // ======================== Getters / Setters ========================
 
    public void setReferenceDate(MutableDateTime value) {
@@ -314,38 +326,18 @@ public class DDTDate extends DDTBase{
       String prefix = "$";
 
       try {
-         // Build formatting objects for each of the output styles
-         DateFormat shortStyleFormatter  = DateFormat.getDateInstance(DateFormat.SHORT, getLocale());
-         DateFormat mediumStyleFormatter = DateFormat.getDateInstance(DateFormat.MEDIUM, getLocale());
-         DateFormat longStyleFormatter   = DateFormat.getDateInstance(DateFormat.LONG, getLocale());
-         DateFormat fullStyleFormatter   = DateFormat.getDateInstance(DateFormat.FULL, getLocale());
-
          // Use a dedicated variable to hold values of formatting results to facilitate debugging
          // @TODO (maybe) when done debugging - convert to inline calls to maintainDateProperty ...
          String formatValue;
 
-         // Examples reflect time around midnight of February 6 2014 - actual values DO NOT include quotes (added here for readability)
-
          MutableDateTime theReferenceDate = getReferenceDate(); //getReferenceDateAdjustedForTimeZone();
-         // Default Date using DDTSettings pattern.
-         formatValue = new SimpleDateFormat(defaultDateFormat()).format(theReferenceDate.toDate());
-         maintainDateProperty(prefix + "defaultDate", formatValue, varsMap);
-
-         // Short Date - '2/6/14'
-         formatValue = shortStyleFormatter.format(theReferenceDate.toDate());
-         maintainDateProperty(prefix + "shortDate", formatValue, varsMap);
 
-         // Medium Date - 'Feb 6, 2014'
-         formatValue = mediumStyleFormatter.format(theReferenceDate.toDate());
-         maintainDateProperty(prefix + "mediumDate", formatValue, varsMap);
+         // The date level variables (see dateProperties()) are the same all day long - those of the reference date's day are kept by DDTDateCache
+         Map<String, String> dateProperties = DDTDateCache.dateProperties(theReferenceDate, getLocale(), defaultDateFormat());
+         for (Map.Entry<String, String> dateProperty : dateProperties.entrySet())
+            maintainDateProperty(prefix + dateProperty.getKey(), dateProperty.getValue(), varsMap);
 
-         // Long Date - 'February 6, 2014'
-         formatValue = longStyleFormatter.format(theReferenceDate.toDate());
-         maintainDateProperty(prefix + "longDate", formatValue, varsMap);
-
-         // Full Date 'Thursday, February 6, 2014'
-         formatValue = fullStyleFormatter.format(theReferenceDate.toDate());
-         maintainDateProperty(prefix + "fullDate", formatValue, varsMap);
+         // Examples reflect time around midnight of February 6 2014 - actual values DO NOT include quotes (added here for readability)
 
          // hours : minutes : seconds : milliseconds (broken to separate components)  -
          formatValue = theReferenceDate.toString("hh:mm:ss:SSS");
@@ -379,69 +371,15 @@ public class DDTDate extends DDTBase{
          formatValue = theReferenceDate.toString("hh:mm:ss");
          maintainDateProperty(prefix + "timeStamp", formatValue, varsMap);
 
-         // Short Year - '14'
-         formatValue = theReferenceDate.toString("yy");
-         maintainDateProperty(prefix + "shortYear", formatValue, varsMap);
-
-         // Long Year - '2014'
-         formatValue = theReferenceDate.toString("yyyy");
-         maintainDateProperty(prefix + "longYear", formatValue, varsMap);
-
-         // Short Month - '2'
-         formatValue = theReferenceDate.toString("M");
-         maintainDateProperty(prefix + "shortMonth", formatValue, varsMap);
-
-         // Padded Month - '02'
-         formatValue = theReferenceDate.toString("MM");
-         maintainDateProperty(prefix + "paddedMonth", formatValue, varsMap);
-
-         // Short Month Name - 'Feb'
-         formatValue = theReferenceDate.toString("MMM");
-         maintainDateProperty(prefix + "shortMonthName", formatValue, varsMap);
-
-         // Long Month Name - 'February'
-         formatValue = theReferenceDate.toString("MMMM");
-         maintainDateProperty(prefix + "longMonthName", formatValue, varsMap);
-
-         // Week in Year - '2014' (the year in which this week falls)
-         formatValue = String.valueOf(theReferenceDate.getWeekyear());
-         maintainDateProperty(prefix + "weekYear", formatValue, varsMap);
-
-         // Short Day in date stamp - '6'
-         formatValue = theReferenceDate.toString("d");
-         maintainDateProperty(prefix + "shortDay", formatValue, varsMap);
-
-         // Padded Day in date stamp - possibly with leading 0 - '06'
-         formatValue = theReferenceDate.toString("dd");
-         maintainDateProperty(prefix + "paddedDay", formatValue, varsMap);
-
-         // Day of Year - '37'
-         formatValue = theReferenceDate.toString("D");
-         maintainDateProperty(prefix + "yearDay", formatValue, varsMap);
-
-         // Short Day Name - 'Thu'
-         formatValue = theReferenceDate.toString("E");
-         maintainDateProperty(prefix + "shortDayName", formatValue, varsMap);
-
-         // Long Day Name - 'Thursday'
-         DateTime dt = new DateTime(theReferenceDate.toDate());
-         DateTime.Property dowDTP = dt.dayOfWeek();
-         formatValue = dowDTP.getAsText();
-         maintainDateProperty(prefix + "longDayName", formatValue, varsMap);
-
          // AM/PM - 'AM'
          formatValue = theReferenceDate.toString("a");
          maintainDateProperty(prefix + "ampm", formatValue, varsMap);
 
-         // Era - (BC/AD)
-         formatValue = theReferenceDate.toString("G");
-         maintainDateProperty(prefix + "era", formatValue, varsMap);
-
          // Time Zone - 'EST'
          formatValue = theReferenceDate.toString("zzz");
          maintainDateProperty(prefix + "zone", formatValue, varsMap);
 
-         addComment("Date variables replenished for date: " + fullStyleFormatter.format(theReferenceDate.toDate()));
+         addComment("Date variables replenished for date: " + dateProperties.get("fullDate"));
          addComment(theReferenceDate.toString());
          System.out.println(getComments());
       }
@@ -450,6 +388,58 @@ public class DDTDate extends DDTBase{
       }
    }
 
+   /**
+    * The date variables of the reference date that do not depend on the time of day (named without their prefix)
+    * Examples reflect February 6 2014 - actual values DO NOT include quotes (added here for readability)
+    * @param theReferenceDate
+    * @param locale - the locale of the date style variables (short, medium, long, full date)
+    * @param defaultFormat - the DDTSettings date pattern of the default date
+    * @return
+    */
+   public static Map<String, String> dateProperties(MutableDateTime theReferenceDate, Locale locale, String defaultFormat) {
+      Map<String, String> result = new LinkedHashMap<String, String>();
+      Date theDate = theReferenceDate.toDate();
+
+      // Default Date using DDTSettings pattern.
+      result.put("defaultDate", DDTDateCache.simpleDateFormat(defaultFormat).format(theDate));
+      // Short Date - '2/6/14'
+      result.put("shortDate", DDTDateCache.dateInstance(DateFormat.SHORT, locale).format(theDate));
+      // Medium Date - 'Feb 6, 2014'
+      result.put("mediumDate", DDTDateCache.dateInstance(DateFormat.MEDIUM, locale).format(theDate));
+      // Long Date - 'February 6, 2014'
+      result.put("longDate", DDTDateCache.dateInstance(DateFormat.LONG, locale).format(theDate));
+      // Full Date 'Thursday, February 6, 2014'
+      result.put("fullDate", DDTDateCache.dateInstance(DateFormat.FULL, locale).format(theDate));
+      // Short Year - '14'
+      result.put("shortYear", theReferenceDate.toString("yy"));
+      // Long Year - '2014'
+      result.put("longYear", theReferenceDate.toString("yyyy"));
+      // Short Month - '2'
+      result.put("shortMonth", theReferenceDate.toString("M"));
+      // Padded Month - '02'
+      result.put("paddedMonth", theReferenceDate.toString("MM"));
+      // Short Month Name - 'Feb'
+      result.put("shortMonthName", theReferenceDate.toString("MMM"));
+      // Long Month Name - 'February'
+      result.put("longMonthName", theReferenceDate.toString("MMMM"));
+      // Week in Year - '2014' (the year in which this week falls)
+      result.put("weekYear", String.valueOf(theReferenceDate.getWeekyear()));
+      // Short Day in date stamp - '6'
+      result.put("shortDay", theReferenceDate.toString("d"));
+      // Padded Day in date stamp - possibly with leading 0 - '06'
+      result.put("paddedDay", theReferenceDate.toString("dd"));
+      // Day of Year - '37'
+      result.put("yearDay", theReferenceDate.toString("D"));
+      // Short Day Name - 'Thu'
+      result.put("shortDayName", theReferenceDate.toString("E"));
+      // Long Day Name - 'Thursday'
+      result.put("longDayName", new DateTime(theDate).dayOfWeek().getAsText());
+      // Era - (BC/AD)
+      result.put("era", theReferenceDate.toString("G"));
+
+      return result;
+   }
+
    /**
     * Replenish a single property in the variables map varsMap
     * @param key
@@ -494,7 +484,7 @@ public class DDTDate extends DDTBase{
          if (tmp.toLowerCase().startsWith("date")) {
             tmp = substring(tmp,4).replaceAll(" ", "");
             if (isBlank(tmp)) {
-               initializeReferenceDate();
+               getReferenceDate();
                return;
             }
 
@@ -601,30 +591,25 @@ public class DDTDate extends DDTBase{
             getReferenceDate().add(getDurationType(), getUnits() );
          }
 
-         // Create date formatters to be used for all varieties - the corresponding date variables are always set for convenience purposes
-         DateFormat shortFormatter = DateFormat.getDateInstance(DateFormat.SHORT);
-         DateFormat mediumFormatter = DateFormat.getDateInstance(DateFormat.MEDIUM);
-         DateFormat longFormatter = DateFormat.getDateInstance(DateFormat.LONG);
-         DateFormat fullFormatter = DateFormat.getDateInstance(DateFormat.FULL);
-
-         // Build the specific formatter specified
-         DateFormat formatter = null;
+         // Get the (reusable, thread bound) formatter of the style specified - for the default locale
+         int style;
          switch (getOutputStyle().toLowerCase()) {
             case "medium" : {
-               formatter = mediumFormatter;
+               style = DateFormat.MEDIUM;
                break;
             }
             case "long" : {
-               formatter = longFormatter;
+               style = DateFormat.LONG;
                break;
             }
             case "full" : {
-               formatter = fullFormatter;
+               style = DateFormat.FULL;
                break;
             }
             default:
-               formatter = shortFormatter;
+               style = DateFormat.SHORT;
          } // output style switch
+         DateFormat formatter = DDTDateCache.dateInstance(style, null);
 
          // construct the specified result - one at a time
          MutableDateTime theReferenceDate = getReferenceDate(); //getReferenceDateAdjustedForTimeZone();
@@ -0,0 +1,311 @@
+import org.joda.time.DateTime;
+import org.joda.time.DurationFieldType;
+import org.joda.time.MutableDateTime;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Created with IntelliJ IDEA.
+ * User: agent
+ * Date: 10/17/26
+ * Selenium Based Automation
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * Memoized evaluation of %date% expressions (see DDTDate).
+ * Each expression is parsed once; its output is kept by its reference date truncated to the output's resolution (day, hour, minute or second),
+ * so it is evaluated anew once that moves on.  Outputs with milliseconds are never kept.
+ * Kept outputs are dropped as the day changes or past DateCacheSize (0 - no caching).
+ *
+ * History
+ * When        |Who      |What
+ * ============|=========|====================================
+ * 10/17/26    |agent    |Initial Version
+ * ============|=========|====================================
+ */
+public class DDTDateCache {
+
+   // Bucket patterns of the output resolutions - the hour, minute and second buckets include the zone offset (distinct across daylight saving changes)
+   private static final String DayBucket = "yyyyMMdd";
+   private static final String HourBucket = "yyyyMMddHHZ";
+   private static final String MinuteBucket = "yyyyMMddHHmmZ";
+   private static final String SecondBucket = "yyyyMMddHHmmssZ";
+
+   /**
+    * The outcome of evaluating a %date% expression - its output or its error
+    */
+   public static class Evaluation {
+      private final String output;
+      private final String error;
+
+      private Evaluation(String output, String error) {
+         this.output = output;
+         this.error = error;
+      }
+
+      private static Evaluation of(DDTDate date) {
+         if (date.hasException())
+            return new Evaluation(null, date.getException().getMessage());
+         return new Evaluation(date.getOutput(), null);
+      }
+
+      public boolean hasError() {
+         return error != null;
+      }
+
+      public String getError() {
+         return error;
+      }
+
+      public String getOutput() {
+         return output;
+      }
+   }
+
+   /**
+    * A parsed expression - what its output depends on
+    */
+   private static class Spec {
+      private final int units;
+      private final DurationFieldType durationType;
+      private final String bucketPattern;
+      private final String error;
+
+      private Spec(DDTDate date) {
+         units = date.getUnits();
+         durationType = date.getDurationType();
+         error = date.hasException() ? date.getException().getMessage() : null;
+         bucketPattern = bucketPatternOf(date.getOutputType().toLowerCase(), date.getOutputStyle().toLowerCase());
+      }
+
+      private boolean isKept() {
+         return bucketPattern != null;
+      }
+
+      /**
+       * @param referenceDate - now, adjusted for time zone
+       * @return The bucket of the reference date the expression's output is derived from
+       */
+      private String bucketOf(MutableDateTime referenceDate) {
+         DateTime result = referenceDate.toDateTime();
+         if (units != 0)
+            result = result.withFieldAdded(durationType, units);
+         return result.toString(bucketPattern);
+      }
+   }
+
+   private static final ConcurrentHashMap<String, Spec> specs = new ConcurrentHashMap<String, Spec>();
+   private static final ConcurrentHashMap<String, Evaluation> outputs = new ConcurrentHashMap<String, Evaluation>();
+   private static final ConcurrentHashMap<String, Map<String, String>> dateProperties = new ConcurrentHashMap<String, Map<String, String>>();
+   // The day the kept outputs were evaluated on
+   private static volatile String currentDay = "";
+
+   private static final ThreadLocal<Map<String, DateFormat>> formats = new ThreadLocal<Map<String, DateFormat>>() {
+      @Override
+      protected Map<String, DateFormat> initialValue() {
+         return new HashMap<String, DateFormat>();
+      }
+   };
+
+   private static AtomicLong hits = new AtomicLong();
+   private static AtomicLong misses = new AtomicLong();
+   private static AtomicLong notKept = new AtomicLong();
+   private static AtomicLong dateHits = new AtomicLong();
+   private static AtomicLong dateMisses = new AtomicLong();
+   private static AtomicLong invalidations = new AtomicLong();
+
+   /**
+    * @param outputType
+    * @param outputStyle
+    * @return The bucket pattern of the output's resolution - null for outputs with milliseconds
+    */
+   private static String bucketPatternOf(String outputType, String outputStyle) {
+      switch (outputType) {
+         case "time" : return (outputStyle.equals("short")) ? SecondBucket : null;
+         case "second" : return SecondBucket;
+         case "minute" : return MinuteBucket;
+         case "hour" : case "hour24" : case "ampm" : case "zone" : return HourBucket;
+         default: return DayBucket;
+      }
+   }
+
+   /**
+    * @return Now, adjusted for time zone - as in DDTDate
+    */
+   private static MutableDateTime referenceDate() {
+      return new DateTime().plusHours(DDTSettings.Settings().getTimeZoneAdjustmentInHours()).toMutableDateTime();
+   }
+
+   /**
+    * Drop the kept outputs when the day changes or when there are too many of them
+    * @param referenceDate
+    * @param maxEntries
+    */
+   private static void expire(MutableDateTime referenceDate, int maxEntries) {
+      String today = referenceDate.toString(DayBucket);
+      if (!today.equals(currentDay)) {
+         synchronized (DDTDateCache.class) {
+            if (!today.equals(currentDay)) {
+               if (outputs.size() > 0 || dateProperties.size() > 0)
+                  invalidations.incrementAndGet();
+               outputs.clear();
+               dateProperties.clear();
+               currentDay = today;
+            }
+         }
+      }
+      if (outputs.size() >= maxEntries)
+         outputs.clear();
+      if (specs.size() >= maxEntries)
+         specs.clear();
+      if (dateProperties.size() >= maxEntries)
+         dateProperties.clear();
+   }
+
+   /**
+    * Evaluate a %date% expression - see DDTDate.initialize()
+    * @param expression
+    * @return The expression's output (or error) as of now
+    */
+   public static Evaluation evaluate(String expression) {
+      int maxEntries = DDTSettings.Settings().dateCacheSize();
+      MutableDateTime referenceDate = referenceDate();
+      if (maxEntries < 1 || expression == null)
+         return Evaluation.of(new DDTDate(expression, referenceDate));
+
+      expire(referenceDate, maxEntries);
+      Spec spec = specs.get(expression);
+      if (spec == null) {
+         // The first evaluation parses the expression - its output is kept as well
+         DDTDate date = new DDTDate(expression, referenceDate.copy());
+         spec = new Spec(date);
+         specs.put(expression, spec);
+         Evaluation result = Evaluation.of(date);
+         if (spec.error == null && spec.isKept())
+            outputs.put(keyOf(expression, spec, referenceDate), result);
+         misses.incrementAndGet();
+         return result;
+      }
+
+      // Errors do not depend on the date
+      if (spec.error != null) {
+         hits.incrementAndGet();
+         return new Evaluation(null, spec.error);
+      }
+
+      if (!spec.isKept()) {
+         notKept.incrementAndGet();
+         return Evaluation.of(new DDTDate(expression, referenceDate));
+      }
+
+      String key = keyOf(expression, spec, referenceDate);
+      Evaluation result = outputs.get(key);
+      if (result == null) {
+         misses.incrementAndGet();
+         result = Evaluation.of(new DDTDate(expression, referenceDate));
+         outputs.put(key, result);
+      }
+      else
+         hits.incrementAndGet();
+      return result;
+   }
+
+   private static String keyOf(String expression, Spec spec, MutableDateTime referenceDate) {
+      return expression + "\n" + DDTSettings.Settings().localeCode() + "\n" + DDTSettings.Settings().getTimeZoneAdjustmentInHours() + "\n" +
+            Locale.getDefault() + "\n" + spec.bucketOf(referenceDate);
+   }
+
+   /**
+    * @param referenceDate
+    * @param locale
+    * @param defaultFormat
+    * @return The date level variables of the reference date's day - see DDTDate.dateProperties()
+    */
+   public static Map<String, String> dateProperties(MutableDateTime referenceDate, Locale locale, String defaultFormat) {
+      int maxEntries = DDTSettings.Settings().dateCacheSize();
+      if (maxEntries < 1)
+         return DDTDate.dateProperties(referenceDate, locale, defaultFormat);
+
+      expire(referenceDate(), maxEntries);
+      String key = referenceDate.toString(DayBucket) + "\n" + locale + "\n" + Locale.getDefault() + "\n" + defaultFormat;
+      Map<String, String> result = dateProperties.get(key);
+      if (result == null) {
+         dateMisses.incrementAndGet();
+         result = Collections.unmodifiableMap(DDTDate.dateProperties(referenceDate, locale, defaultFormat));
+         dateProperties.put(key, result);
+      }
+      else
+         dateHits.incrementAndGet();
+      return result;
+   }
+
+   /**
+    * @param style - one of DateFormat.SHORT, MEDIUM, LONG, FULL
+    * @param locale - null for the default (format) locale
+    * @return The current thread's date format of the style and locale
+    */
+   public static DateFormat dateInstance(int style, Locale locale) {
+      Locale theLocale = (locale == null) ? Locale.getDefault(Locale.Category.FORMAT) : locale;
+      String key = "style:" + style + ":" + theLocale;
+      Map<String, DateFormat> threadFormats = formats.get();
+      DateFormat result = threadFormats.get(key);
+      if (result == null) {
+         result = DateFormat.getDateInstance(style, theLocale);
+         threadFormats.put(key, result);
+      }
+      return result;
+   }
+
+   /**
+    * @param pattern
+    * @return The current thread's date format of the pattern (for the default locale)
+    */
+   public static DateFormat simpleDateFormat(String pattern) {
+      String key = "pattern:" + pattern + ":" + Locale.getDefault(Locale.Category.FORMAT);
+      Map<String, DateFormat> threadFormats = formats.get();
+      DateFormat result = threadFormats.get(key);
+      if (result == null) {
+         result = new SimpleDateFormat(pattern);
+         threadFormats.put(key, result);
+      }
+      return result;
+   }
+
+   /**
+    * Drop all kept expressions, outputs and date variables
+    */
+   public static synchronized void invalidate() {
+      specs.clear();
+      outputs.clear();
+      dateProperties.clear();
+      invalidations.incrementAndGet();
+   }
+
+   public static String statistics() {
+      return "Date Cache: " + specs.size() + " expression(s), " + outputs.size() + " output(s) (" + hits.get() + " hit(s), " + misses.get() + " miss(es), " +
+            notKept.get() + " not kept), " + dateProperties.size() + " day(s) of date variables (" + dateHits.get() + " hit(s), " + dateMisses.get() +
+            " miss(es)), " + invalidations.get() + " invalidation(s)";
+   }
+}
@@ -0,0 +1,183 @@
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeUtils;
+import org.joda.time.DateTimeZone;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * Created by agent on 10/17/26.
+ * Selenium Based Automation Project
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * DDTDateCache - kept outputs equal fresh evaluations on either side of their bucket's boundaries, with time zone adjustments
+ * and default time zone changes (the clock is fixed with joda's DateTimeUtils)
+ *
+ * When      |Who            |What
+ * ==========|===============|========================================================
+ * 10/17/26  |agent          |Initial Version
+ * ==========|===============|========================================================
+ */
+public class DDTDateCacheTest {
+
+   private static final String TimeZoneAdjustment = DDTSettings.SystemOverridePrefix + "TimeZoneAdjustment";
+
+   private DateTimeZone defaultZone;
+
+   @BeforeMethod
+   public void setUp() {
+      defaultZone = DateTimeZone.getDefault();
+      // The boundaries below are those of the workstation's time
+      setTimeZoneAdjustment("0");
+      DDTDateCache.invalidate();
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void tearDown() {
+      DateTimeUtils.setCurrentMillisSystem();
+      DateTimeZone.setDefault(defaultZone);
+      System.clearProperty(TimeZoneAdjustment);
+      DDTSettings.reset();
+      DDTDateCache.invalidate();
+   }
+
+   private static void setClock(int year, int month, int day, int hour, int minute, int second, int millis) {
+      DateTimeUtils.setCurrentMillisFixed(new DateTime(year, month, day, hour, minute, second, millis).getMillis());
+   }
+
+   private static void setTimeZoneAdjustment(String value) {
+      System.setProperty(TimeZoneAdjustment, value);
+      DDTSettings.reset();
+   }
+
+   /**
+    * @return The expression's output evaluated without the cache
+    */
+   private static String evaluated(String expression) {
+      DDTDate date = new DDTDate(expression, new DateTime().plusHours(DDTSettings.Settings().getTimeZoneAdjustmentInHours()).toMutableDateTime());
+      assertFalse(date.hasException(), "Invalid expression " + expression);
+      return date.getOutput();
+   }
+
+   private static String cached(String expression) {
+      DDTDateCache.Evaluation result = DDTDateCache.evaluate(expression);
+      assertFalse(result.hasError(), "Invalid expression " + expression + ": " + result.getError());
+      return result.getOutput();
+   }
+
+   private static void assertCachedAsEvaluated(String expression) {
+      // The second lookup is served by the kept output (if any)
+      cached(expression);
+      assertEquals(cached(expression), evaluated(expression), expression + " as of " + new DateTime());
+   }
+
+   /**
+    * Evaluate the expression just before and at the boundary - each side of the boundary is its own bucket
+    */
+   private static void assertBoundary(String expression, int[] before, int[] at) {
+      setClock(before[0], before[1], before[2], before[3], before[4], before[5], 999);
+      assertCachedAsEvaluated(expression);
+      String previous = cached(expression);
+      setClock(at[0], at[1], at[2], at[3], at[4], at[5], 0);
+      assertCachedAsEvaluated(expression);
+      assertNotEquals(cached(expression), previous, expression + " should change at the boundary");
+   }
+
+   @Test
+   public void sameBucketIsKept() {
+      setClock(2026, 3, 10, 10, 15, 0, 0);
+      DDTDateCache.Evaluation first = DDTDateCache.evaluate("%date,hour%");
+      setClock(2026, 3, 10, 10, 45, 30, 0);
+      assertSame(DDTDateCache.evaluate("%date,hour%"), first);
+   }
+
+   @Test
+   public void outputsWithMillisecondsAreNotKept() {
+      setClock(2026, 3, 10, 10, 15, 0, 0);
+      DDTDateCache.Evaluation first = DDTDateCache.evaluate("%date,time,medium%");
+      assertNotSame(DDTDateCache.evaluate("%date,time,medium%"), first);
+   }
+
+   @Test
+   public void secondBoundary() {
+      assertBoundary("%date,second%", new int[] {2026, 3, 10, 10, 15, 59}, new int[] {2026, 3, 10, 10, 16, 0});
+   }
+
+   @Test
+   public void minuteBoundary() {
+      assertBoundary("%date,minute%", new int[] {2026, 3, 10, 10, 15, 59}, new int[] {2026, 3, 10, 10, 16, 0});
+   }
+
+   @Test
+   public void hourBoundary() {
+      assertBoundary("%date,hour%", new int[] {2026, 3, 10, 10, 59, 59}, new int[] {2026, 3, 10, 11, 0, 0});
+      assertBoundary("%date,ampm%", new int[] {2026, 3, 10, 11, 59, 59}, new int[] {2026, 3, 10, 12, 0, 0});
+   }
+
+   @Test
+   public void dayBoundary() {
+      assertBoundary("%date,day%", new int[] {2026, 3, 10, 23, 59, 59}, new int[] {2026, 3, 11, 0, 0, 0});
+      assertBoundary("%date%", new int[] {2026, 3, 31, 23, 59, 59}, new int[] {2026, 4, 1, 0, 0, 0});
+      assertBoundary("%date,year%", new int[] {2026, 12, 31, 23, 59, 59}, new int[] {2027, 1, 1, 0, 0, 0});
+   }
+
+   @Test
+   public void unitsShiftTheBoundary() {
+      // Two hours from now is the next day from 22:00 on
+      assertBoundary("%date+2hours,day%", new int[] {2026, 3, 10, 21, 59, 59}, new int[] {2026, 3, 10, 22, 0, 0});
+      assertBoundary("%date-1days,dow%", new int[] {2026, 3, 10, 23, 59, 59}, new int[] {2026, 3, 11, 0, 0, 0});
+   }
+
+   @Test
+   public void timeZoneAdjustment() {
+      setClock(2026, 3, 10, 10, 30, 0, 0);
+      String hour = cached("%date,hour%");
+      assertCachedAsEvaluated("%date,hour%");
+
+      setTimeZoneAdjustment("+5");
+      assertCachedAsEvaluated("%date,hour%");
+      assertNotEquals(cached("%date,hour%"), hour);
+
+      // The adjustment moves the day boundary as well
+      setClock(2026, 3, 10, 20, 30, 0, 0);
+      assertCachedAsEvaluated("%date,day%");
+      setTimeZoneAdjustment("-5");
+      assertCachedAsEvaluated("%date,day%");
+   }
+
+   @Test
+   public void defaultTimeZoneChange() {
+      DateTimeZone.setDefault(DateTimeZone.UTC);
+      setClock(2026, 1, 10, 10, 30, 0, 0);
+      assertCachedAsEvaluated("%date,zone%");
+      assertCachedAsEvaluated("%date,hour%");
+
+      // Same offset in January, another zone
+      DateTimeZone.setDefault(DateTimeZone.forID("Europe/London"));
+      setClock(2026, 1, 10, 10, 30, 0, 0);
+      assertCachedAsEvaluated("%date,zone%");
+      assertCachedAsEvaluated("%date,hour%");
+
+      DateTimeZone.setDefault(DateTimeZone.forID("Asia/Kolkata"));
+      assertCachedAsEvaluated("%date,zone%");
+      assertCachedAsEvaluated("%date,hour%");
+   }
+}
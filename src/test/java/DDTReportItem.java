@@ -1,3 +1,5 @@
+import org.json.simple.JSONObject;
+
 import static org.apache.commons.lang.StringUtils.isBlank;
 
 /**
@@ -28,6 +30,7 @@ import static org.apache.commons.lang.StringUtils.isBlank;
  * When      |Who            |What
  * ==========|===============|========================================================
  * 11/16/14  |Bey            |Initial Version
+ * 10/17/26  |agent          |JSON form of report items (toJSON / fromJSON) - spilled report items and shard results
  * ==========|===============|========================================================
  */
 public class DDTReportItem extends DDTBase {
@@ -145,6 +148,43 @@ public class DDTReportItem extends DDTBase {
       return sb.toString();
    }
 
+   /**
+    * @return The reported properties of this item (the test context is not included)
+    */
+   @SuppressWarnings("unchecked")
+   public JSONObject toJSON() {
+      JSONObject result = new JSONObject();
+      result.put("sessionStepNumber", getSessionStepNumber());
+      result.put("id", getId());
+      result.put("description", getDescription());
+      result.put("status", getStatus());
+      result.put("userReport", getUserReport());
+      result.put("comments", getComments());
+      result.put("errors", getErrors());
+      return result;
+   }
+
+   /**
+    * @param item - a report item's JSON form (see toJSON())
+    * @return The report item
+    */
+   public static DDTReportItem fromJSON(JSONObject item) {
+      DDTReportItem result = new DDTReportItem();
+      Object stepNumber = item.get("sessionStepNumber");
+      result.setSessionStepNumber((stepNumber instanceof Number) ? ((Number) stepNumber).longValue() : 0L);
+      result.setId(asString(item.get("id")));
+      result.setDescription(asString(item.get("description")));
+      result.setStatus(asString(item.get("status")));
+      result.setUserReport(asString(item.get("userReport")));
+      result.addComment(asString(item.get("comments")));
+      result.addError(asString(item.get("errors")));
+      return result;
+   }
+
+   private static String asString(Object value) {
+      return (value == null) ? "" : value.toString();
+   }
+
    public String reportSummary() {
       StringBuilder sb = new StringBuilder("");
 
@@ -12,7 +12,6 @@ import java.net.URL;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.List;
 
 import static org.apache.commons.lang3.StringUtils.*;
 
@@ -56,6 +55,11 @@ import static org.apache.commons.lang3.StringUtils.*;
  * 07/26/15    |Bey      |Implement Extent Reports
  * 08/21/15    |Bey      |Improve handling of Extent Reports (multiple files per test session)
  * 09/29/18    |Bey      |Use Email Message File (in addition to DDTSettings blurb
+ * 10/17/26    |agent    |Synchronize Extent instance access (parallel NewTest branches)
+ * 10/17/26    |agent    |Shard sessions keep all their report items for the ShardCoordinator
+ * 10/17/26    |agent    |Wait for pending screen images (ScreenShotPipeline) before generating reports
+ * 10/17/26    |agent    |Live reporting style - html report written step by step as the session runs (see LiveHtmlReport)
+ * 10/17/26    |agent    |Bounded memory report items - older items spill to disk and are streamed back when reporting (see ReportItemSpool)
  * ============|=========|====================================
  */
 public class DDTReporter {
@@ -80,12 +84,13 @@ public class DDTReporter {
    private static String extentReportFileName;
 
    //private List<TestEvent> testEvents;
-   private List<DDTReportItem> testItems;
+   private ReportItemSpool testItems;
    private boolean reportGenerated = false;
    private DDTSettings settings = DDTSettings.Settings();
    private Long firstReportStep = 0L;
    private Long lastReportStep = 0L;
    private ArrayList<String> failedTestsSummary = new ArrayList<>(); // Constructed here - will be part of email message body
+   private LiveHtmlReport liveReport; // The section's live html report (ReportingStyle = Live) - created with the section's first report item
 
    // These numbers are initialized by the calling TestRunner instance - they represent the processing counters for the current reported section
    // The corresponding numbers on the session level are taken from the DDTTestRunner static counters.
@@ -126,7 +131,7 @@ public class DDTReporter {
    }
 
    // Generate Extent Reporter Instance
-   public static ExtentReports getExtentReportInstance() {
+   public static synchronized ExtentReports getExtentReportInstance() {
       String reportStyle = DDTSettings.Settings().reportingStyle();
       if (!reportStyle.equalsIgnoreCase("extent"))
          return null;
@@ -161,7 +166,7 @@ public class DDTReporter {
       return (extentReport instanceof ExtentReports);
    }
 
-   public static ExtentTest getExtentTestInstance(TestItem testItem) {
+   public static synchronized ExtentTest getExtentTestInstance(TestItem testItem) {
       String reportStyle = DDTSettings.Settings().reportingStyle();
       if (!reportStyle.equalsIgnoreCase("extent"))
          return null;
@@ -229,6 +234,13 @@ public class DDTReporter {
     */
    public void addDDTest(DDTReportItem reportItem) {
       getDDTests().add(reportItem);
+      if (ShardCoordinator.isShard())
+         ShardCoordinator.keep(reportItem);
+      else if (isLiveReporting()) {
+         LiveHtmlReport report = liveReport();
+         if (report != null)
+            report.append(reportItem);
+      }
       nDone++;
       if (reportItem.getStatus().equalsIgnoreCase("pass"))
          nPass++;
@@ -238,19 +250,23 @@ public class DDTReporter {
          nSkip++;
    }
 
-   private void setDDTests(List<DDTReportItem> value) {
+   private void setDDTests(ReportItemSpool value) {
       testItems = value;
    }
 
-   public List<DDTReportItem> getDDTests() {
+   /**
+    * @return The report items of the current section - the older ones spilled to the session's tests folder
+    */
+   public synchronized ReportItemSpool getDDTests() {
       if (testItems == null)
-         setDDTests(new ArrayList<DDTReportItem>());
+         setDDTests(new ReportItemSpool(sessionTestsFolderName(), settings.reportItemWindow()));
       return testItems;
    }
 
    public void reset() {
+      liveReport = null;
       resetDuration();
-      setDDTests(new ArrayList<DDTReportItem>());
+      getDDTests().clear();
       resetFailedSteps();
       resetCounters(0, 0, 0, 0);
       setFirstReportStep(0L);
@@ -355,6 +371,8 @@ public class DDTReporter {
     * @param emailBody
     */
    public void generateReport(String description, String emailBody) {
+      // Reports refer to the screen images of their steps - have those written first
+      ScreenShotPipeline.drain();
       String reportStyle = DDTSettings.Settings().reportingStyle().toLowerCase();
       switch (reportStyle) {
          case "default":
@@ -364,6 +382,9 @@ public class DDTReporter {
             generateExtentReport(description, emailBody);
             break;
          }
+         case "live":
+            generateLiveReport(description, emailBody);
+            break;
          default:
             generateDefaultReport(description, emailBody);
       }
@@ -416,16 +437,12 @@ public class DDTReporter {
 
       String durationBlurb = " (Session duration: " + sessionDurationString() + ", Reported tests duration: " + durationString() + ")";
 
-      String projectName = settings.projectName();
-      if (isBlank(projectName))
-         projectName = "Selenium Based DDT Automation Project";
+      String projectName = reportProjectName();
       String moduleName = description;
       if (isBlank(moduleName))
          moduleName = "Selenium based DDT Test Results";
       moduleName = Util.sq(moduleName) + " as of " + new SimpleDateFormat("HH:mm:ss - yyyy, MMMM dd").format(new Date()) + durationBlurb ;
 
-      projectName = Util.sq(projectName);
-
       // @TODO - When documentation mode becomes available, weave that in... using "Documentation" instead of "Results"
       String mode = "Test Results";
       String osInfo = environmentItems[0][1];
@@ -469,6 +486,68 @@ public class DDTReporter {
       return result;
    }
 
+   private String reportProjectName() {
+      String result = settings.projectName();
+      if (isBlank(result))
+         result = "Selenium Based DDT Automation Project";
+      return Util.sq(result);
+   }
+
+   private boolean isLiveReporting() {
+      return settings.reportingStyle().equalsIgnoreCase("live");
+   }
+
+   /**
+    * The section's live html report - created (and its header written) with the section's first report item
+    * @return The live report or null if it could not be created
+    */
+   private synchronized LiveHtmlReport liveReport() {
+      if (liveReport == null) {
+         String[][] environmentItems = getEnvironmentItems();
+         try {
+            liveReport = new LiveHtmlReport(settings.reportsFolder(), reportProjectName(), environmentItems[0][1], environmentItems[1][1],
+                  environmentItems[2][1], environmentItems[3][1], settings.statusToReport(), settings.liveReportRefreshSeconds());
+            System.out.println("Live html report: " + Util.sq(liveReport.getFileSpecs()));
+         }
+         catch (IOException e) {
+            System.out.println("Exception encountered while creating the live html report: " + e.toString() + "\nReport not generated.");
+            e.printStackTrace();
+         }
+      }
+      return liveReport;
+   }
+
+   /**
+    * Finish the section's live html report - its steps were written as they were reported - and email its results
+    *
+    * @param description
+    * @param emailBody
+    */
+   public void generateLiveReport(String description, String emailBody) {
+      if (getDDTests().size() < 1) {
+         System.out.println("No Test Steps to report on.  Report Generation aborted.");
+         return;
+      }
+
+      LiveHtmlReport report = liveReport();
+      if (report == null)
+         return;
+
+      String[] summaryItems = generateReportSummary(description);
+      report.finish(summaryItems[_MODULE], summaryItems[_SECTION], summaryItems[_STATUS]);
+      reportGenerated = true;
+
+      if (isBlank(settings.emailRecipients())) {
+         System.out.println("Empty Email Recipients List - Test Results not emailed. Report Generated");
+      } else {
+
+         emailReportResults(description, emailBody, summaryItems, report.getFileName());
+
+      }
+
+      reset();
+   }
+
    /**
     * Generates the failedTestsSummary structure for placement in an email body.
     */
@@ -43,6 +43,24 @@ import static org.apache.commons.lang3.StringUtils.*;
  * 06/28/16    |Bey      |Add email and report "blurb" variable ReportTextMessage
  * 06/28/16    |Bey      |Add an optional list of attachments (in addition to extent report)
  * 09/29/18    |Bey      |Add email message file and related options
+ * 10/17/26    |agent    |Add ParallelWorkers (parallel execution of independent NewTest steps)
+ * 10/17/26    |agent    |Add TestStringsCacheSize
+ * 10/17/26    |agent    |Add StreamingXlsxSize
+ * 10/17/26    |agent    |Add DriverPoolSize, DriverPoolPrewarm, DriverPoolMaxIdleSeconds (web driver pool)
+ * 10/17/26    |agent    |SmartWait / SmartWaitMinPoll - adaptive waiting for web elements
+ * 10/17/26    |agent    |LocatorCache - reuse compiled locators and located elements on unchanged pages
+ * 10/17/26    |agent    |Shards, ShardName, ShardItems (sharded sessions - see ShardCoordinator), -Dddt.<Name> system property overrides
+ * 10/17/26    |agent    |Settings() are those of the current test session (see SessionContext)
+ * 10/17/26    |agent    |ScreenShotWorkers / ScreenShotQueueSize / ScreenShotMaxWidth - background screen image writing (see ScreenShotPipeline)
+ * 10/17/26    |agent    |ScreenShotDedup / ScreenShotDeltaTile - screen image deduplication and delta images (see ScreenShotStore)
+ * 10/17/26    |agent    |DateCacheSize - memoized %date% expression evaluation (see DDTDateCache)
+ * 10/17/26    |agent    |LiveReportRefreshSeconds - refresh rate of live html reports (see LiveHtmlReport)
+ * 10/17/26    |agent    |ReportItemWindow - bounded report items memory (see ReportItemSpool)
+ * 10/17/26    |agent    |PrefetchWorkers - background prefetch of NewTest test strings (see TestStringsPrefetcher)
+ * 10/17/26    |agent    |Add XmlSplitSize
+ * 10/17/26    |agent    |Add XmlSplitWorkers
+ * 10/17/26    |agent    |SessionStatistics - the features' statistics are reported at the end of the session only with SessionStatistics = 1
+ * 10/17/26    |agent    |Add StreamingJsonSize
  * ============|=========|====================================
  */
 public class DDTSettings {
@@ -96,11 +114,36 @@ public class DDTSettings {
    private final String DesiredCapabilityValues = "true,false,true,true,true,false,false,false,true,false,dismiss,true";
    private final boolean StripWhiteSpace = true;
    private final String ReportingStyle = "Default";
+   private final String ShardName = "";
+   private final String ShardItems = "";
    private final String ReportFileName = "DDTTestResults.html";
    private final String ReportTextMessage = "Below, please find a summary of DDT Test Session (or Section): ";
    private final String LocaleCode = "en";
    private final boolean IsNestedReporting = false;
    private final String Attachments = "";
+   private final int ParallelWorkers = 0;
+   private final int TestStringsCacheSize = 64; // in MB
+   private final int StreamingXlsxSize = 10; // in MB
+   private final int DriverPoolSize = 0;
+   private final int DriverPoolPrewarm = 0;
+   private final int DriverPoolMaxIdleSeconds = 300; // in seconds
+   private final int SmartWait = 0; // 1 = adaptive waiting (SmartWait), 0 = fixed WebDriverWait polling
+   private final int SmartWaitMinPoll = 10; // in milliseconds
+   private final int LocatorCacheSize = 0; // 0 = located elements are not kept (opt in with a size)
+   private final int Shards = 0; // 0 = one shard per available processor
+   private final int ScreenShotWorkers = 2; // 0 - screen images are written on the test thread
+   private final int ScreenShotQueueSize = 16;
+   private final int ScreenShotMaxWidth = 0; // 0 - images are kept at their original size
+   private final int ScreenShotDedup = 1; // 0 - every screen image is written to a file of its own
+   private final int ScreenShotDeltaTile = 0; // 0 - screen images are stored complete
+   private final int DateCacheSize = 256; // 0 - %date% expressions are evaluated every time
+   private final int LiveReportRefreshSeconds = 15; // 0 - live html reports do not refresh themselves
+   private final int ReportItemWindow = 1000; // 0 - report items are all kept in memory
+   private final int PrefetchWorkers = 1; // 0 - NewTest test strings are not prefetched
+   private final int XmlSplitSize = 10; // in MB
+   private final int XmlSplitWorkers = 4;
+   private final int SessionStatistics = 0; // 1 - report the features' statistics (caches, pools, waits...) at the end of the session
+   private final int StreamingJsonSize = 10; // in MB
 
    private String ddtVersion;
    private String resourcesFolder;
@@ -148,12 +191,37 @@ public class DDTSettings {
    private String desiredCapabilityValues;
    private boolean stripWhiteSpace;
    private String reportingStyle;
+   private String shardName;
+   private String shardItems;
    private String reportFileName;
    private String reportTextMessage;
    private String reportMessageFile;
    private String localeCode;
-   private static DDTSettings ddtSettings;
+   public static final String SystemOverridePrefix = "ddt.";
    private boolean isNestedReporting;
+   private int parallelWorkers = -1;
+   private int testStringsCacheSize = -1;
+   private int streamingXlsxSize = -1;
+   private int driverPoolSize = -1;
+   private int driverPoolPrewarm = -1;
+   private int driverPoolMaxIdleSeconds = -1;
+   private int smartWait = -1;
+   private int smartWaitMinPoll = -1;
+   private int locatorCacheSize = -1;
+   private int shards = -1;
+   private int screenShotWorkers = -1;
+   private int screenShotQueueSize = -1;
+   private int screenShotMaxWidth = -1;
+   private int screenShotDedup = -1;
+   private int screenShotDeltaTile = -1;
+   private int dateCacheSize = -1;
+   private int liveReportRefreshSeconds = -1;
+   private int reportItemWindow = -1;
+   private int prefetchWorkers = -1;
+   private int xmlSplitSize = -1;
+   private int xmlSplitWorkers = -1;
+   private int sessionStatistics = -1;
+   private int streamingJsonSize = -1;
 
    public DDTSettings () {
       loadProperties();
@@ -211,6 +279,20 @@ public class DDTSettings {
         blurb = "Properties loaded from ddt.Properties file.";
       }
       System.out.println(blurb);
+      applySystemOverrides();
+   }
+
+   // System properties named ddt.<SettingName> override the properties file (e.g. -Dddt.ReportsFolder=... given to a shard's JVM)
+   private void applySystemOverrides() {
+      Properties system = System.getProperties();
+      for (String key : system.stringPropertyNames()) {
+         if (!key.startsWith(SystemOverridePrefix) || key.length() <= SystemOverridePrefix.length())
+            continue;
+         if (properties == null)
+            properties = new Properties();
+         properties.setProperty(key.substring(SystemOverridePrefix.length()), system.getProperty(key));
+         System.out.println("Setting " + Util.sq(key.substring(SystemOverridePrefix.length())) + " overridden by system property.");
+      }
    }
 
    // Load the Build Properties (this is where we find the maven Version property for the project
@@ -236,7 +318,6 @@ public class DDTSettings {
     * @return Properties that has the version entry - used when the build itself does not have those
     */
    private Properties defaultBuildProperties() {
-      String currentVersion = DDTSettings.ddtSettings.getVersion();
       Properties p = new Properties();
       p.setProperty("version", "1.0.0");
       p.setProperty("groupId","com.DynaBytes.Automation");
@@ -275,20 +356,28 @@ public class DDTSettings {
    }
 
    /**
-    * @return a singleton instance of the DDTSettings object - each attribute of which is lazily initialized from a properties file or hard coded value
+    * @return the DDTSettings object of the current test session (see SessionContext) - each attribute of which is lazily initialized from a properties file or hard coded value
     */
    public static DDTSettings Settings() {
-      if (ddtSettings == null) {
-         ddtSettings = new DDTSettings();
-         initialize();
+      SessionContext session = SessionContext.current().root();
+      DDTSettings result = session.getSettings();
+      if (result == null) {
+         synchronized (session) {
+            result = session.getSettings();
+            if (result == null) {
+               result = new DDTSettings();
+               session.setSettings(result);
+               initialize(result);
+            }
+         }
       }
-      return ddtSettings;
+      return result;
    }
 
    /**
     * Initializes various aspects of the project's settings
     */
-   private static void initialize() {
+   private static void initialize(DDTSettings ddtSettings) {
       Verb.initialize();
       ddtSettings.setIsLocal(true); // Turn off when testing remotely
       // Initialize various folders
@@ -312,7 +401,7 @@ public class DDTSettings {
     * Resets the settings forcing re-reading of the properties file of the project
     */
    public static void reset() {
-      ddtSettings = null;
+      SessionContext.current().setSettings(null);
    }
 
    public String[] inputSpecsArray() {
@@ -1206,6 +1295,38 @@ public class DDTSettings {
       return reportingStyle;
    }
 
+   private void setShardName(String value) {
+      shardName = value;
+   }
+
+   /**
+    * The name of this session's shard when running as one of a ShardCoordinator's child sessions - blank otherwise
+    * @return String
+    */
+   public String shardName() {
+      if (isBlank(shardName)) {
+         String s = getPropertyOrDefaultValue(ShardName, "ShardName", true);
+         setShardName(s);
+      }
+      return shardName;
+   }
+
+   private void setShardItems(String value) {
+      shardItems = value;
+   }
+
+   /**
+    * The (comma delimited, zero based) positions of the root test's NewTest steps assigned to this shard session
+    * @return String
+    */
+   public String shardItems() {
+      if (isBlank(shardItems)) {
+         String s = getPropertyOrDefaultValue(ShardItems, "ShardItems", true);
+         setShardItems(s);
+      }
+      return shardItems;
+   }
+
    private void setIsNestedReporting(boolean value) {
       isNestedReporting = value;
    }
@@ -1220,4 +1341,372 @@ public class DDTSettings {
       return isNestedReporting;
    }
 
+   private void setParallelWorkers(int value) {
+      parallelWorkers = value;
+   }
+
+   /**
+    * Number of workers running sibling NewTest steps marked as independent (parallel=true) side by side - 0 or 1 means sequential.
+    * @return int
+    */
+   public int parallelWorkers() {
+      if (parallelWorkers < 0) /* not initialized yet */ {
+         String s = getPropertyOrDefaultValue(Integer.toString(ParallelWorkers), "ParallelWorkers", false);
+         setParallelWorkers(Integer.valueOf(s));
+      }
+      return parallelWorkers;
+   }
+
+   private void setTestStringsCacheSize(int value) {
+      testStringsCacheSize = value;
+   }
+
+   /**
+    * Size (in MB) of the session's cache of test item strings read from files - 0 turns caching off.
+    * @return int
+    */
+   public int testStringsCacheSize() {
+      if (testStringsCacheSize < 0) /* not initialized yet */ {
+         String s = getPropertyOrDefaultValue(Integer.toString(TestStringsCacheSize), "TestStringsCacheSize", false);
+         setTestStringsCacheSize(Integer.valueOf(s));
+      }
+      return testStringsCacheSize;
+   }
+
+   private void setStreamingXlsxSize(int value) {
+      streamingXlsxSize = value;
+   }
+
+   /**
+    * Size (in MB) of .xlsx files above which test items are streamed from the worksheet rather than loading the workbook.
+    * @return int
+    */
+   public int streamingXlsxSize() {
+      if (streamingXlsxSize < 0) /* not initialized yet */ {
+         String s = getPropertyOrDefaultValue(Integer.toString(StreamingXlsxSize), "StreamingXlsxSize", false);
+         setStreamingXlsxSize(Integer.valueOf(s));
+      }
+      return streamingXlsxSize;
+   }
+
+   private void setDriverPoolSize(int value) {
+      driverPoolSize = value;
+   }
+
+   /**
+    * Maximum number of idle web drivers kept warm (per browser and desired capabilities) for reuse - 0 means drivers are quit when released.
+    * @return int
+    */
+   public int driverPoolSize() {
+      if (driverPoolSize < 0) /* not initialized yet */ {
+         String s = getPropertyOrDefaultValue(Integer.toString(DriverPoolSize), "DriverPoolSize", false);
+         setDriverPoolSize(Integer.valueOf(s));
+      }
+      return driverPoolSize;
+   }
+
+   private void setDriverPoolPrewarm(int value) {
+      driverPoolPrewarm = value;
+   }
+
+   /**
+    * Number of web drivers started in the background when a web driver is created (up to DriverPoolSize).
+    * @return int
+    */
+   public int driverPoolPrewarm() {
+      if (driverPoolPrewarm < 0) /* not initialized yet */ {
+         String s = getPropertyOrDefaultValue(Integer.toString(DriverPoolPrewarm), "DriverPoolPrewarm", false);
+         setDriverPoolPrewarm(Integer.valueOf(s));
+      }
+      return driverPoolPrewarm;
+   }
+
+   private void setDriverPoolMaxIdleSeconds(int value) {
+      driverPoolMaxIdleSeconds = value;
+   }
+
+   /**
+    * Seconds an idle pooled web driver is kept before it is evicted (quit).
+    * @return int
+    */
+   public int driverPoolMaxIdleSeconds() {
+      if (driverPoolMaxIdleSeconds < 0) /* not initialized yet */ {
+         String s = getPropertyOrDefaultValue(Integer.toString(DriverPoolMaxIdleSeconds), "DriverPoolMaxIdleSeconds", false);
+         setDriverPoolMaxIdleSeconds(Integer.valueOf(s));
+      }
+      return driverPoolMaxIdleSeconds;
+   }
+
+   private void setSmartWait(int value) {
+      smartWait = value;
+   }
+
+   /**
+    * Indicates whether web elements are located with the adaptive SmartWait (1) or fixed WebDriverWait polling (0)
+    * @return int
+    */
+   public int smartWait() {
+      if (smartWait < 0) /* not initialized yet */ {
+         String s = getPropertyOrDefaultValue(Integer.toString(SmartWait), "SmartWait", false);
+         setSmartWait(Integer.valueOf(s));
+      }
+      return smartWait;
+   }
+
+   private void setSmartWaitMinPoll(int value) {
+      smartWaitMinPoll = value;
+   }
+
+   /**
+    * The first (shortest) interval (in ms) between SmartWait's checks for an element - intervals double up to WaitInterval (or a second when page changes are signaled)
+    * @return int
+    */
+   public int smartWaitMinPoll() {
+      if (smartWaitMinPoll < 0) /* not initialized yet */ {
+         String s = getPropertyOrDefaultValue(Integer.toString(SmartWaitMinPoll), "SmartWaitMinPoll", false);
+         setSmartWaitMinPoll(Integer.valueOf(s));
+      }
+      return smartWaitMinPoll;
+   }
+
+   private void setLocatorCacheSize(int value) {
+      locatorCacheSize = value;
+   }
+
+   /**
+    * The maximum number of located web elements kept (per web driver) for reuse while their page is unchanged - 0 turns element caching off
+    * @return int
+    */
+   public int locatorCacheSize() {
+      if (locatorCacheSize < 0) /* not initialized yet */ {
+         String s = getPropertyOrDefaultValue(Integer.toString(LocatorCacheSize), "LocatorCacheSize", false);
+         setLocatorCacheSize(Integer.valueOf(s));
+      }
+      return locatorCacheSize;
+   }
+
+   private void setShards(int value) {
+      shards = value;
+   }
+
+   /**
+    * The number of shard sessions (child JVMs) ShardCoordinator splits the root test's NewTest steps among - 0 means one per available processor
+    * @return int
+    */
+   public int shards() {
+      if (shards < 0) /* not initialized yet */ {
+         String s = getPropertyOrDefaultValue(Integer.toString(Shards), "Shards", false);
+         setShards(Integer.valueOf(s));
+      }
+      return shards;
+   }
+
+   private void setScreenShotWorkers(int value) {
+      screenShotWorkers = value;
+   }
+
+   /**
+    * Number of threads writing screen images in the background (see ScreenShotPipeline) - 0 writes them on the test thread
+    * @return int
+    */
+   public int screenShotWorkers() {
+      if (screenShotWorkers < 0) /* not initialized yet */ {
+         String s = getPropertyOrDefaultValue(Integer.toString(ScreenShotWorkers), "ScreenShotWorkers", false);
+         setScreenShotWorkers(Integer.valueOf(s));
+      }
+      return screenShotWorkers;
+   }
+
+   private void setScreenShotQueueSize(int value) {
+      screenShotQueueSize = value;
+   }
+
+   /**
+    * Number of screen images waiting to be written before the test thread writes images itself (back pressure)
+    * @return int
+    */
+   public int screenShotQueueSize() {
+      if (screenShotQueueSize < 0) /* not initialized yet */ {
+         String s = getPropertyOrDefaultValue(Integer.toString(ScreenShotQueueSize), "ScreenShotQueueSize", false);
+         setScreenShotQueueSize(Integer.valueOf(s));
+      }
+      return screenShotQueueSize;
+   }
+
+   private void setScreenShotMaxWidth(int value) {
+      screenShotMaxWidth = value;
+   }
+
+   /**
+    * Width (in pixels) wider screen images are scaled down to - 0 keeps images at their original size
+    * @return int
+    */
+   public int screenShotMaxWidth() {
+      if (screenShotMaxWidth < 0) /* not initialized yet */ {
+         String s = getPropertyOrDefaultValue(Integer.toString(ScreenShotMaxWidth), "ScreenShotMaxWidth", false);
+         setScreenShotMaxWidth(Integer.valueOf(s));
+      }
+      return screenShotMaxWidth;
+   }
+
+   private void setScreenShotDedup(int value) {
+      screenShotDedup = value;
+   }
+
+   /**
+    * Indicates (> 0) whether screen images identical to earlier ones share their files (see ScreenShotStore)
+    * @return int
+    */
+   public int screenShotDedup() {
+      if (screenShotDedup < 0) /* not initialized yet */ {
+         String s = getPropertyOrDefaultValue(Integer.toString(ScreenShotDedup), "ScreenShotDedup", false);
+         setScreenShotDedup(Integer.valueOf(s));
+      }
+      return screenShotDedup;
+   }
+
+   private void setScreenShotDeltaTile(int value) {
+      screenShotDeltaTile = value;
+   }
+
+   /**
+    * Tile size (in pixels) of delta screen images (the tiles changed since the previous image) - 0 stores complete images
+    * @return int
+    */
+   public int screenShotDeltaTile() {
+      if (screenShotDeltaTile < 0) /* not initialized yet */ {
+         String s = getPropertyOrDefaultValue(Integer.toString(ScreenShotDeltaTile), "ScreenShotDeltaTile", false);
+         setScreenShotDeltaTile(Integer.valueOf(s));
+      }
+      return screenShotDeltaTile;
+   }
+
+   private void setDateCacheSize(int value) {
+      dateCacheSize = value;
+   }
+
+   /**
+    * The maximum number of %date% expression evaluations kept (see DDTDateCache) - 0 turns the cache off
+    * @return int
+    */
+   public int dateCacheSize() {
+      if (dateCacheSize < 0) /* not initialized yet */ {
+         String s = getPropertyOrDefaultValue(Integer.toString(DateCacheSize), "DateCacheSize", false);
+         setDateCacheSize(Integer.valueOf(s));
+      }
+      return dateCacheSize;
+   }
+
+   private void setLiveReportRefreshSeconds(int value) {
+      liveReportRefreshSeconds = value;
+   }
+
+   /**
+    * The refresh rate (in seconds) of a live html report while its section is in progress (see LiveHtmlReport) - 0 for no refresh
+    * @return int
+    */
+   public int liveReportRefreshSeconds() {
+      if (liveReportRefreshSeconds < 0) /* not initialized yet */ {
+         String s = getPropertyOrDefaultValue(Integer.toString(LiveReportRefreshSeconds), "LiveReportRefreshSeconds", false);
+         setLiveReportRefreshSeconds(Integer.valueOf(s));
+      }
+      return liveReportRefreshSeconds;
+   }
+
+   private void setReportItemWindow(int value) {
+      reportItemWindow = value;
+   }
+
+   /**
+    * The number of report items a reporter keeps in memory - older items are spilled to disk (see ReportItemSpool) - 0 keeps them all in memory
+    * @return int
+    */
+   public int reportItemWindow() {
+      if (reportItemWindow < 0) /* not initialized yet */ {
+         String s = getPropertyOrDefaultValue(Integer.toString(ReportItemWindow), "ReportItemWindow", false);
+         setReportItemWindow(Integer.valueOf(s));
+      }
+      return reportItemWindow;
+   }
+
+   private void setPrefetchWorkers(int value) {
+      prefetchWorkers = value;
+   }
+
+   /**
+    * The number of threads prefetching the test strings of upcoming NewTest steps (see TestStringsPrefetcher) - 0 turns prefetching off
+    * @return int
+    */
+   public int prefetchWorkers() {
+      if (prefetchWorkers < 0) /* not initialized yet */ {
+         String s = getPropertyOrDefaultValue(Integer.toString(PrefetchWorkers), "PrefetchWorkers", false);
+         setPrefetchWorkers(Integer.valueOf(s));
+      }
+      return prefetchWorkers;
+   }
+
+   private void setXmlSplitSize(int value) {
+      xmlSplitSize = value;
+   }
+
+   /**
+    * Size (in MB) of .xml files above which test items are parsed in parts (split at TestItem elements) on several threads.
+    * @return int
+    */
+   public int xmlSplitSize() {
+      if (xmlSplitSize < 0) /* not initialized yet */ {
+         String s = getPropertyOrDefaultValue(Integer.toString(XmlSplitSize), "XmlSplitSize", false);
+         setXmlSplitSize(Integer.valueOf(s));
+      }
+      return xmlSplitSize;
+   }
+
+   private void setXmlSplitWorkers(int value) {
+      xmlSplitWorkers = value;
+   }
+
+   /**
+    * Number of threads parsing the parts of a large .xml file - 0 or 1 parses the file as a whole.
+    * @return int
+    */
+   public int xmlSplitWorkers() {
+      if (xmlSplitWorkers < 0) /* not initialized yet */ {
+         String s = getPropertyOrDefaultValue(Integer.toString(XmlSplitWorkers), "XmlSplitWorkers", false);
+         setXmlSplitWorkers(Integer.valueOf(s));
+      }
+      return xmlSplitWorkers;
+   }
+
+   private void setSessionStatistics(int value) {
+      sessionStatistics = value;
+   }
+
+   /**
+    * Whether the features' statistics are reported at the end of the session (1) or not (0)
+    * @return int
+    */
+   public int sessionStatistics() {
+      if (sessionStatistics < 0) /* not initialized yet */ {
+         String s = getPropertyOrDefaultValue(Integer.toString(SessionStatistics), "SessionStatistics", false);
+         setSessionStatistics(Integer.valueOf(s));
+      }
+      return sessionStatistics;
+   }
+
+   private void setStreamingJsonSize(int value) {
+      streamingJsonSize = value;
+   }
+
+   /**
+    * Size (in MB) of .json files above which test items are read from the file one at a time rather than parsing the whole document.
+    * @return int
+    */
+   public int streamingJsonSize() {
+      if (streamingJsonSize < 0) /* not initialized yet */ {
+         String s = getPropertyOrDefaultValue(Integer.toString(StreamingJsonSize), "StreamingJsonSize", false);
+         setStreamingJsonSize(Integer.valueOf(s));
+      }
+      return streamingJsonSize;
+   }
+
 }
@@ -5,6 +5,13 @@ import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Hashtable;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
@@ -52,95 +59,112 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
  * 01/01/17  |Bey            |Enable empty test name default to the test name with step number(s)
  * 01/20/17  |Bey            |Skip items with empty action
  * 02/17/17  |Bey            |Improve error trapping
+ * 10/17/26  |agent          |Run sibling NewTest steps marked as independent (parallel=true) on a worker pool (see ParallelBranch)
+ * 10/17/26  |agent          |Stream each level's JSON results as test items complete (JSONResultsWriter)
+ * 10/17/26  |agent          |Keep SmartWait's learned latencies at the end of the session
+ * 10/17/26  |agent          |Sharded sessions - run only the root steps assigned to the shard, merge shard sessions (see ShardCoordinator)
+ * 10/17/26  |agent          |Keep the session's state in the SessionContext bound to the thread rather than in static fields - runIn() runs side by side sessions
+ * 10/17/26  |agent          |Write screen images taken per TakeImagePolicy in the background (see ScreenShotPipeline)
+ * 10/17/26  |agent          |Prefetch the test strings of a level's NewTest steps as the level starts (see TestStringsPrefetcher)
+ * 10/17/26  |agent          |Features' statistics are reported only with SessionStatistics = 1 (see reportSessionStatistics())
  * ==========|===============|========================================================
  */
 public class DDTTestRunner {
 
    // ======================================= Class properties section =====================================
-   private static DDTReporter reporter;
-   private static Long nSessionSteps = 0L;
-   private static Long nReportedSessionSteps = 0L;
-   private static boolean shouldQuitTestSession;
-   private static DDTTestContext varsMap;
-   private static Hashtable<String, WebElement> elementsMap;
+   // The test session's state (variables, elements, counters, reporter...) is kept by the session bound to the current thread
+   // (see SessionContext) - parallel branches and side by side sessions each work with a session of their own.
 
-   // The test session variables hashtable is maintained by DDTTestRunner instance.
-   private static Hashtable<String, TestItem> currentTestItem = new Hashtable<String, TestItem>();
+   private static SessionContext session() {
+      return SessionContext.current();
+   }
 
-   // done, pass, fail, skip counters - on the Test Session level - reset when a new TestRunner session is launched
-   private static int[] tsCounters = {0, 0, 0, 0};
+   public static boolean isRunningBranch() {
+      return session().isBranch();
+   }
 
-   // done, pass, fail, skip counters - on the TestRunner instance level - reset when a new TestRunner instance is created
-   private static int[] trCounters = {0, 0, 0, 0};
+   private static SessionCounters tsCounters() {
+      return session().getTsCounters();
+   }
 
-   // done, pass, fail, skip counters - on the Reporter instance level - reset when session is initiated and after a Reporter generates a report
-   private static int[] rptCounters = {0, 0, 0, 0};
+   private static SessionCounters trCounters() {
+      return session().getTrCounters();
+   }
 
-   // Most Recent Web element to be propagated across testItem instances for steps requiring previously found 'anchor' elements.
-   // Static as it may be set by one instance and accessed by another instance of TestRunner
-   private static WebElement mrElement;
+   private static SessionCounters rptCounters() {
+      return session().getRptCounters();
+   }
 
-   private static String sessionFailBlurb;
-   private static String sessionPassBlurb;
+   private static Map<String, TestItem> currentTestItems() {
+      return session().getCurrentTestItems();
+   }
+
+   private static WebElement getMrElement() {
+      return session().getMrElement();
+   }
+
+   private static void setMrElement(WebElement value) {
+      session().setMrElement(value);
+   }
 
    private static int nDone() {
-      return trCounters[0];
+      return trCounters().get(SessionCounters.Done);
    }
 
    private static int nPass() {
-      return trCounters[1];
+      return trCounters().get(SessionCounters.Pass);
    }
 
    private static int nFail() {
-      return trCounters[2];
+      return trCounters().get(SessionCounters.Fail);
    }
 
    private static int nSkip() {
-      return trCounters[3];
+      return trCounters().get(SessionCounters.Skip);
    }
 
    private static int nRptDone() {
-      return rptCounters[0];
+      return rptCounters().get(SessionCounters.Done);
    }
 
    private static int nRptPass() {
-      return rptCounters[1];
+      return rptCounters().get(SessionCounters.Pass);
    }
 
    private static int nRptFail() {
-      return rptCounters[2];
+      return rptCounters().get(SessionCounters.Fail);
    }
 
    private static int nRptSkip() {
-      return rptCounters[3];
+      return rptCounters().get(SessionCounters.Skip);
    }
 
    private static void setNextStep() {
-      nSessionSteps++;
+      session().setNextStep();
    }
 
    private static void setNextReportingStep() {
-      nReportedSessionSteps++;
+      session().setNextReportingStep();
    }
 
    public static void setSessionFailBlurb(String value) {
-      sessionFailBlurb = value;
+      session().setSessionFailBlurb(value);
    }
 
    public static String getSessionFailBlurb() {
-      if (isBlank(sessionFailBlurb))
+      if (isBlank(session().getSessionFailBlurb()))
          setSessionFailBlurb("");
-      return sessionFailBlurb;
+      return session().getSessionFailBlurb();
    }
 
    public static void setSessionPassBlurb(String value) {
-      sessionPassBlurb = value;
+      session().setSessionPassBlurb(value);
    }
 
    public static String getSessionPassBlurb() {
-      if (isBlank(sessionPassBlurb))
+      if (isBlank(session().getSessionPassBlurb()))
          setSessionPassBlurb("");
-      return sessionPassBlurb;
+      return session().getSessionPassBlurb();
    }
 
    // ======================================= Class logic section =====================================
@@ -206,6 +230,29 @@ public class DDTTestRunner {
       }
    }
 
+   /**
+    * Run a test session of its own on the current thread - the session's state (settings, variables, counters, reporter) is kept apart from
+    * that of other sessions running in this JVM. A session other than the default one works with a web driver of its own.
+    * @param session - a new SessionContext for a new, independent, session
+    * @param args [0] = provider type, [1] provider source, [2] test steps container (optional)
+    * @throws Throwable
+    */
+   public static void runIn(SessionContext session, String[] args) throws Throwable {
+      SessionContext previous = SessionContext.bind(session);
+      boolean ownDriver = (session != SessionContext.defaultSession());
+      if (ownDriver)
+         Driver.beginBranch();
+      try {
+         runOn(args);
+         generateReportIfNeeded();
+      }
+      finally {
+         if (ownDriver)
+            Driver.endBranch();
+         SessionContext.bind(previous);
+      }
+   }
+
    /**
     * Invoke a Test Runner using the defaults specified by the ddt.properties file (or the hard coded defaults)
     * @return
@@ -249,29 +296,27 @@ public class DDTTestRunner {
    public static void maintainCurrentTestItem(TestItem testItem, String addOrRemove) {
       String key = testItem.getLevelKey();
 
-      TestItem tmp = currentTestItem.get(key);
+      TestItem tmp = currentTestItems().get(key);
       if (tmp instanceof TestItem) {
          // Upon starting a new level, make sure the current testItem is reflected at that level - Need to remove the current item
          // Upon ending a level - Need to remove the current item
-         currentTestItem.remove(key);
+         currentTestItems().remove(key);
       }
       if (addOrRemove.equalsIgnoreCase("add")) {
-         currentTestItem.put(key, testItem);
+         currentTestItems().put(key, testItem);
       }
    }
 
    public static void resetRptCounters() {
-      rptCounters = new int[] {0, 0, 0, 0};
+      rptCounters().reset();
    }
 
    public static DDTTestContext getVarsMap() {
-      if (varsMap == null)
-         setVarsMap(new DDTTestContext());
-      return varsMap;
+      return session().getVarsMap();
    }
 
    public static void setVarsMap(DDTTestContext aMap) {
-      varsMap = aMap;
+      session().setVarsMap(aMap);
    }
 
    public static void addVariable(String key, String value) {
@@ -309,14 +354,12 @@ public class DDTTestRunner {
       }
    }
 
-   public static void setElementsMap(Hashtable<String, WebElement> aMap) {
-      elementsMap = aMap;
+   public static void setElementsMap(Map<String, WebElement> aMap) {
+      session().setElementsMap(aMap);
    }
 
-   public static Hashtable<String, WebElement> getElementsMap() {
-      if (elementsMap == null)
-         setElementsMap(new Hashtable<String, WebElement>());
-      return elementsMap;
+   public static Map<String, WebElement> getElementsMap() {
+      return session().getElementsMap();
    }
 
    public static void addElement(String key, WebElement value) {
@@ -357,19 +400,19 @@ public class DDTTestRunner {
    }
 
    public static int nSessionDone() {
-      return tsCounters[0];
+      return tsCounters().get(SessionCounters.Done);
    }
 
    public static int nSessionPass() {
-      return tsCounters[1];
+      return tsCounters().get(SessionCounters.Pass);
    }
 
    public static int nSessionFail() {
-      return tsCounters[2];
+      return tsCounters().get(SessionCounters.Fail);
    }
 
    public static int nSessionSkip() {
-      return tsCounters[3];
+      return tsCounters().get(SessionCounters.Skip);
    }
 
    public static void setNextReportingStep(String actionName) {
@@ -379,11 +422,11 @@ public class DDTTestRunner {
    }
 
    public static Long currentSessionStep() {
-      return nSessionSteps;
+      return session().currentSessionStep();
    }
 
    public static Long currentReportedSessionStep() {
-      return nReportedSessionSteps;
+      return session().currentReportedSessionStep();
    }
 
    public static boolean isReportableAction(String actionName) {
@@ -391,11 +434,7 @@ public class DDTTestRunner {
    }
 
    public static DDTReporter getReporter() {
-      if (reporter == null) {
-         // DDTReporter.DDTXmlReporter reporter = new DDTReporter.DDTXmlReporter();
-         reporter = new DDTReporter();
-      }
-      return reporter;
+      return session().getReporter();
    }
 
    public static boolean shouldGenerateReport() {
@@ -458,6 +497,58 @@ public class DDTTestRunner {
       return "{" + getEnvironmentItemsAsJSON() + "," + getSessionStatsAsJSON() + "}";
    }
 
+   /**
+    * Fold a shard session's counters and report items into this session (see ShardCoordinator) - the items are renumbered to follow this session's steps
+    * @param counters - the shard session's done, pass, fail, skip counters
+    * @param shardSessionSteps
+    * @param shardReportedSessionSteps
+    * @param reportItems
+    * @return The number of report items merged
+    */
+   public static int mergeShardSession(int[] counters, Long shardSessionSteps, Long shardReportedSessionSteps, Iterable<DDTReportItem> reportItems) {
+      return session().merge(counters, counters, shardSessionSteps, shardReportedSessionSteps, reportItems);
+   }
+
+   /**
+    * Report a failure of the session that is not any step's (e.g. screen images that could not be written) as a failed step of its own
+    * @param id
+    * @param description
+    * @param errors
+    */
+   public static void reportSessionFailure(String id, String description, String errors) {
+      DDTReportItem reportItem = new DDTReportItem();
+      reportItem.setSessionStepNumber("testing");
+      reportItem.setId(id);
+      reportItem.setDescription(description);
+      reportItem.setStatus("fail");
+      reportItem.addError(errors);
+      tsCounters().increment(SessionCounters.Done);
+      tsCounters().increment(SessionCounters.Fail);
+      rptCounters().increment(SessionCounters.Done);
+      rptCounters().increment(SessionCounters.Fail);
+      getReporter().addDDTest(reportItem);
+      if (getReporter().firstReportStep() < 1L)
+         getReporter().setFirstReportStep(currentReportedSessionStep());
+      getReporter().setLastReportStep(currentReportedSessionStep());
+   }
+
+   /**
+    * Report the features' statistics at the end of the session - only with SessionStatistics = 1
+    */
+   private static void reportSessionStatistics() {
+      if (DDTSettings.Settings().sessionStatistics() < 1)
+         return;
+      System.out.println(TestStringsCache.statistics());
+      System.out.println(DriverPool.statistics());
+      System.out.println(Verb.statistics());
+      System.out.println(SmartWait.statistics());
+      System.out.println(LocatorCache.statistics());
+      System.out.println(ScreenShotPipeline.statistics());
+      System.out.println(ScreenShotStore.statistics());
+      System.out.println(DDTDateCache.statistics());
+      System.out.println(TestStringsPrefetcher.statistics());
+   }
+
    public static void reportSessionSummaryAsJSON() {
       String fileName = DDTSettings.asValidOSPath(getReporter().sessionTestsFolderName(), true) + File.separator + "sessionsummary.json";
       Util.fileWrite(fileName, getSessionSummaryAsJSON());
@@ -481,6 +572,8 @@ public class DDTTestRunner {
    private Long parentStepNumber; // For all but level 0 items this is > 0;
    private TestItem parentItem;   // Instrumental in nested reporting mode.
    private String errors = "";
+   // The root step being processed is one the shard runs but does not count nor report (see isUncountedStep())
+   private boolean uncountedStep;
 
    private TestItem.TestItems testItems;
 
@@ -503,31 +596,39 @@ public class DDTTestRunner {
    }
 
    private void resetTrCounters() {
-      trCounters = new int[] {0, 0, 0, 0};
+      trCounters().reset();
    }
 
    private void incrementDone() {
-      tsCounters[0]++;
-      trCounters[0]++;
-      rptCounters[0]++;
+      if (uncountedStep)
+         return;
+      tsCounters().increment(SessionCounters.Done);
+      trCounters().increment(SessionCounters.Done);
+      rptCounters().increment(SessionCounters.Done);
    }
 
    private void incrementPass() {
-      tsCounters[1]++;
-      trCounters[1]++;
-      rptCounters[1]++;
+      if (uncountedStep)
+         return;
+      tsCounters().increment(SessionCounters.Pass);
+      trCounters().increment(SessionCounters.Pass);
+      rptCounters().increment(SessionCounters.Pass);
    }
 
    private void incrementFail() {
-      tsCounters[2]++;
-      trCounters[2]++;
-      rptCounters[2]++;
+      if (uncountedStep)
+         return;
+      tsCounters().increment(SessionCounters.Fail);
+      trCounters().increment(SessionCounters.Fail);
+      rptCounters().increment(SessionCounters.Fail);
    }
 
    private void incrementSkip() {
-      tsCounters[3]++;
-      trCounters[3]++;
-      rptCounters[3]++;
+      if (uncountedStep)
+         return;
+      tsCounters().increment(SessionCounters.Skip);
+      trCounters().increment(SessionCounters.Skip);
+      rptCounters().increment(SessionCounters.Skip);
    }
 
    private void setError(String value) {
@@ -571,7 +672,14 @@ public class DDTTestRunner {
    }
 
    public void handleTestItemReporting (TestItem testItem) {
-      if (isReportableAction(testItem.getAction())) {
+      if (uncountedStep) {
+         // Reported by the first shard
+      }
+      else if (isReportableAction(testItem.getAction()) && isRunningBranch()) {
+         // Held by the branch until it is merged into the session (in step order)
+         session().getReportItems().add(new DDTReportItem(testItem));
+      }
+      else if (isReportableAction(testItem.getAction())) {
          getReporter().addDDTest(new DDTReportItem(testItem));
          if (getReporter().firstReportStep() < 1L)
             getReporter().setFirstReportStep(currentReportedSessionStep());  // Done only once - reported steps
@@ -582,6 +690,113 @@ public class DDTTestRunner {
       if (!TestItem.isNestedReporting && !testItem.isFinalReport())
          testItem.finalizeExtentTest();  // Finalize the test item (end it and flush the reporter.)
    }
+   /**
+    * Performs the initialization tasks for a test item about to be processed at step number stepNo of this runner
+    * @param testItem
+    * @param stepNo
+    */
+   private void prepareTestItem(TestItem testItem, int stepNo) {
+      incrementDone();
+
+      // Allow for developer's debugging
+      if (testItem.shouldDebug())
+      {
+         // Place a breakpoint on the next statement...
+         boolean isDebugging = true;
+      }
+
+      // Perform some initialization tasks...
+      testItem.setLevel(getLevel());
+      testItem.setParentStepNumber(getParentStepNumber());
+      testItem.setParentTestItem(testItems.getParentItem());
+
+      testItem.initialize(stepNo);
+
+      // Maintain the current test item list
+      maintainCurrentTestItem(testItem, "add");
+
+      // potentially, set the MostRecentlyUsed element
+      if (getMrElement() instanceof WebElement)
+         testItem.setMrElement(getMrElement());
+
+      // Add this step to the reporter and maintain reporter's first and last reporting and session numbers for this reporting session
+      // (A branch's steps are accounted for when the branch is merged, uncounted steps are accounted for by the first shard)
+      if (isRunningBranch() || uncountedStep)
+         return;
+      if (getReporter().firstSessionStep() < 1L)
+         getReporter().setFirstSessionStep(currentSessionStep());  // Done only once
+      getReporter().setLastSessionStep(currentSessionStep());      // Keeps incrementing
+   }
+
+   /**
+    * Indicates whether the (not yet initialized) test item is a NewTest step the user marked as independent of its siblings (parallel=true)
+    * Only the session's own thread runs branches - NewTest steps within a branch run in sequence.
+    * @param testItem
+    * @return
+    */
+   private boolean isIndependentNewTest(TestItem testItem) {
+      if (DDTSettings.Settings().parallelWorkers() < 2 || isRunningBranch())
+         return false;
+      if (!testItem.getAction().equalsIgnoreCase("newtest") || isBlank(testItem.getData()))
+         return false;
+      return Util.parseDelimitedString(testItem.getData()).getBoolean("parallel");
+   }
+
+   /**
+    * Indicates whether the step at the position is to run in this session - a shard session runs only the root test's steps assigned to it
+    * @param position - zero based position of the step among this runner's items
+    * @return
+    */
+   private boolean isAssignedStep(int position) {
+      return getLevel() > 1 || isRunningBranch() || ShardCoordinator.isAssigned(position);
+   }
+
+   /**
+    * Indicates whether the (assigned) step is one of the root test's other (not NewTest) steps that every shard runs for its effects on the shard session
+    * (variables, web driver...) - shards other than the first neither count nor report those (see ShardCoordinator.countsSharedSteps())
+    * @param testItem
+    * @return
+    */
+   private boolean isUncountedStep(TestItem testItem) {
+      return getLevel() < 2 && !isRunningBranch() && !ShardCoordinator.countsSharedSteps() && !testItem.getAction().equalsIgnoreCase("newtest");
+   }
+
+   /**
+    * Prepares the run of independent NewTest steps starting at items[from] and starts the active ones on a worker pool.
+    * A lone independent step is left to run in sequence - as are steps beyond a step not assigned to this (shard) session.
+    * @param items      - The items of this runner
+    * @param from       - Index of the first independent step in the run
+    * @param stepNo     - Step number of the first independent step in the run
+    * @param branches   - Receives the started branches keyed by their test item
+    * @return The index of the last item prepared
+    */
+   private int startParallelBranches(TestItem[] items, int from, int stepNo, Hashtable<TestItem, ParallelBranch> branches) {
+      int to = from;
+      while (to + 1 < items.length && items[to + 1] != null && !items[to + 1].isEmpty() && isAssignedStep(to + 1) && isIndependentNewTest(items[to + 1]))
+         to++;
+
+      if (to == from)
+         return from - 1;
+
+      int nWorkers = Math.min(DDTSettings.Settings().parallelWorkers(), to - from + 1);
+      ExecutorService pool = Executors.newFixedThreadPool(nWorkers);
+      for (int i = from; i <= to; i++) {
+         TestItem item = items[i];
+         prepareTestItem(item, stepNo + i - from);
+         if (!item.isActive())
+            continue;
+         ParallelBranch branch = new ParallelBranch(item);
+         branch.pool = pool;
+         branch.future = pool.submit(branch);
+         branches.put(item, branch);
+      }
+      // Let the submitted branches complete - the pool's threads go away once they are done
+      pool.shutdown();
+
+      System.out.println("Running " + branches.size() + " independent test steps on " + nWorkers + " workers.");
+      return to;
+   }
+
    /**
     * Executes each of the active TestItem instances in the current TestRunner instance.
     */
@@ -595,44 +810,45 @@ public class DDTTestRunner {
       int stepsToSkip=0;
 
       if (testItems != null && nItems() > 0) {
-         for (TestItem testItem : testItems.getItems())
+         TestItem[] items = testItems.getItems();
+         // Independent NewTest steps started on the worker pool (keyed by item) and the index of the last item already prepared for them
+         Hashtable<TestItem, ParallelBranch> branches = new Hashtable<TestItem, ParallelBranch>();
+         int preparedThrough = -1;
+         // The JSON results of this level are written as the test items complete
+         JSONResultsWriter jsonResults = JSONResultsWriter.open(testItems);
+         // The test strings of this level's NewTest steps are read in the background while the level's steps run
+         TestStringsPrefetcher.prefetch(items);
+
+         for (int i = 0; i < items.length; i++)
          {
+            TestItem testItem = items[i];
             stepNo++;
 
             // Skip empty rows in the data source
-            if ((testItem == null) || testItem.isEmpty() || testItem.getAction().isEmpty())
+            if ((testItem == null) || testItem.isEmpty() || testItem.getAction().isEmpty()) {
+               jsonResults.append(testItem);
                continue;
-
-            incrementDone();
-
-            // Allow for developer's debugging
-            if (testItem.shouldDebug())
-            {
-               // Place a breakpoint on the next statement...
-               boolean isDebugging = true;
             }
 
-            // Perform some initialization tasks...
-            testItem.setLevel(getLevel());
-            testItem.setParentStepNumber(getParentStepNumber());
-            testItem.setParentTestItem(testItems.getParentItem());
-
-            testItem.initialize(stepNo);
+            // A shard session runs only the root test's steps assigned to it
+            if (!isAssignedStep(i)) {
+               jsonResults.append(null);
+               continue;
+            }
+            uncountedStep = isUncountedStep(testItem);
 
-            // Maintain the current test item list
-            maintainCurrentTestItem(testItem, "add");
+            // A run of independent sibling NewTest steps is prepared and started all at once - each is still reported below in its original order
+            if (i > preparedThrough && stepsToSkip < 1 && isIndependentNewTest(testItem))
+               preparedThrough = startParallelBranches(items, i, stepNo, branches);
 
-            // potentially, set the MostRecentlyUsed element
-            if (mrElement instanceof WebElement)
-               testItem.setMrElement(mrElement);
+            if (i > preparedThrough)
+               prepareTestItem(testItem, stepNo);
 
-            // Add this step to the reporter and maintain reporter's first and last reporting and session numbers for this reporting session
-            if (getReporter().firstSessionStep() < 1L)
-               getReporter().setFirstSessionStep(currentSessionStep());  // Done only once
-            getReporter().setLastSessionStep(currentSessionStep());      // Keeps incrementing
+            ParallelBranch branch = branches.remove(testItem);
 
             // If any steps to skip (due to some prior test item's PostTestPolicy) - set the step to non-active and add a comment to this effect.
-            if (stepsToSkip > 0) {
+            // A branch already started is independent of its siblings and is not skipped.
+            if (stepsToSkip > 0 && branch == null) {
                testItem.setActive("no");
                stepsToSkip--;
                testItem.addComment("Skipped due to PostTestPolicy of prior step "+ stepsToSkip + " more steps to skip." );
@@ -643,7 +859,10 @@ public class DDTTestRunner {
             if (testItem.isActive()) {
                try {
                   //Vocabulary.invoke(testItem);
-                  Verb.invokeForTestItem(testItem);
+                  if (branch instanceof ParallelBranch)
+                     branch.merge();
+                  else
+                     Verb.invokeForTestItem(testItem);
                }
                catch (NullPointerException e) {
                   if (!testItem.hasException())
@@ -670,7 +889,7 @@ public class DDTTestRunner {
                   incrementPass();
                   if (testItem.getElement() instanceof WebElement) {
                      // Preserve the most recent web element
-                     mrElement = testItem.getElement();
+                     setMrElement(testItem.getElement());
                   }
                }
                // Handle screen shots based on settings - but only if this is a UI test
@@ -681,7 +900,7 @@ public class DDTTestRunner {
                   if ((takeImagePolicy.equalsIgnoreCase("always")) || (testItem.isFailure() && (takeImagePolicy.equalsIgnoreCase("onfail")))) {
                      // No sense in taking a screen shot with uninitialized web driver...
                      if (Driver.isInitialized()) {
-                        String imageFileOrError = Util.takeScreenImage(Driver.getDriver(), "", testItem.getId());
+                        String imageFileOrError = ScreenShotPipeline.takeScreenImage(Driver.getDriver(), "", testItem.getId());
                         if (!(imageFileOrError.toLowerCase().contains("error:"))) {
                            testItem.setScreenShotFileName(imageFileOrError);
                            testItem.addComment("Screen Image " + testItem.getScreenShotFileNameAsHtml() + " taken!");
@@ -695,7 +914,8 @@ public class DDTTestRunner {
                System.out.println(testItem.report());
                // Consider Test and Session termination
                shouldQuitTestCase |= testItem.shouldQuitTestCase();
-               shouldQuitTestSession |= testItem.shouldQuitTestSession();
+               if (testItem.shouldQuitTestSession())
+                  session().setShouldQuitTestSession(true);
                stepsToSkip = testItem.getStepsToSkip();
             }  // if testItem.active
             else {
@@ -703,6 +923,7 @@ public class DDTTestRunner {
             }
             handleTestItemReporting(testItem);
             // Consider Termination at the test case or test session level
+            boolean shouldQuitTestSession = session().shouldQuitTestSession();
             if (shouldQuitTestCase || shouldQuitTestSession) {
                String ptpBlurb = "";
                if (testItem.getPostTestPolicy() instanceof PostTestPolicy) {
@@ -725,16 +946,26 @@ public class DDTTestRunner {
                else
                   testItem.addComment(quitBlurb);
 
+               jsonResults.append(testItem);
                break;
             } // Should Quit Test or Session
 
+            jsonResults.append(testItem);
             maintainCurrentTestItem(testItem, "remove");
          } // For all test items.
+         uncountedStep = false;
+
+         // Branches started ahead of a terminating step are cancelled (those running are interrupted) and counted as skipped - they are not reported
+         for (ParallelBranch branch : branches.values()) {
+            branch.cancel();
+            incrementSkip();
+            System.out.println("Independent test step with ID: " + branch.testItem.getId() + " skipped - test case terminated before it.");
+         }
 
          /**
-          * Create a JSON file of the items that ran at this level - one JSON file for each level
+          * Complete the JSON file of the items that ran at this level - one JSON file for each level
           */
-         testItems.reportAsJSON();
+         jsonResults.finish();
 
          // Test Case completed - take action based on level (level 0 means we are done)
 
@@ -755,7 +986,13 @@ public class DDTTestRunner {
       // Test session level stats
       if (getLevel() < 2)  {
          // Final Report ...
+         ScreenShotPipeline.drain();
+         TestPlan.deactivate();
          reportSessionSummaryAsJSON();
+         if (ShardCoordinator.isShard())
+            ShardCoordinator.writeShardResults(tsCounters().toArray(), currentSessionStep(), currentReportedSessionStep());
+         reportSessionStatistics();
+         SmartWait.save();
          if (nSessionFail() > 0) {
             //This quits the process... - no return from here...
             setSessionFailBlurb("Test Session Failed: " + nSessionFail() + " test step(s) out of " + nSessionDone() + " step(s) failed (" + nSessionSkip() + " step(s) skipped)\n");
@@ -807,6 +1044,84 @@ public class DDTTestRunner {
       }
    }
 
+   /**
+    * Description
+    * An independent NewTest step running on a worker thread alongside its siblings.
+    * A branch works with its own web driver (see Driver.beginBranch) and its own session (see SessionContext.branch) - a copy of the variables and elements maps and its own counters.
+    * Variables set within a branch are not visible to the session once the branch ends.
+    * The report items of a branch are held by the branch's session and merged into the session reporter (renumbered to follow the session's steps)
+    * when the session reaches the branch's step - this keeps the report in the order of the test items regardless of completion order.
+    */
+   private static class ParallelBranch implements Callable<ParallelBranch> {
+      private final TestItem testItem;
+      private final SessionContext context;
+      private ExecutorService pool;
+      private Future<ParallelBranch> future;
+
+      // Constructed on the session's thread - copies the session's state as of the branch's step
+      private ParallelBranch(TestItem item) {
+         testItem = item;
+         context = session().branch();
+      }
+
+      public ParallelBranch call() {
+         SessionContext previous = SessionContext.bind(context);
+         Driver.beginBranch();
+         try {
+            Verb.invokeForTestItem(testItem);
+         }
+         catch (Exception e) {
+            if (!testItem.hasException())
+               testItem.setException(e);
+         }
+         finally {
+            Driver.endBranch();
+            SessionContext.bind(previous);
+         }
+         return this;
+      }
+
+      /**
+       * Wait for the branch to complete
+       */
+      private void await() {
+         try {
+            future.get();
+         }
+         catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            testItem.setException(e);
+         }
+         catch (ExecutionException e) {
+            if (!testItem.hasException())
+               testItem.setException(e.getCause());
+         }
+      }
+
+      /**
+       * Cancel the branch - one not yet started never starts, a running one is interrupted and waited for (its web driver is released)
+       * along with the other branches of its pool. The branch's counters and report items are not merged.
+       */
+      private void cancel() {
+         future.cancel(true);
+         pool.shutdownNow();
+         try {
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+         }
+         catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+         }
+      }
+
+      /**
+       * Wait for the branch to complete and fold its counters and report items into the session - called on the session's thread.
+       */
+      private void merge() {
+         await();
+         session().merge(context);
+      }
+   }
+
    public void pause() {
       int millisToPause = DDTSettings.Settings().getDefaultPause();
       if (millisToPause > 0) {
@@ -0,0 +1,176 @@
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.testng.Assert.*;
+
+/**
+ * Created by agent on 10/17/26.
+ * Selenium Based Automation Project
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * DDTTestRunner - a shard session runs the root test's NewTest steps assigned to it, in sequence or as parallel branches, and the root's other
+ * steps as well - those are counted and reported by the first shard only (see ShardCoordinator).
+ * Parallel branches started ahead of a step terminating the test case are counted as skipped.
+ *
+ * When      |Who            |What
+ * ==========|===============|========================================================
+ * 10/17/26  |agent          |Initial Version
+ * ==========|===============|========================================================
+ */
+public class DDTTestRunnerTest {
+
+   private static final String Headers = "Id\tAction\tLocType\tLocSpecs\tQryFunction\tActive\tData\tDescription\n";
+   private static final String[] Overrides = {"ShardName", "ShardItems", "ParallelWorkers"};
+   private static final String ChildData = "InputSpecs=File!{child}!;parallel=true";
+   // Steps of each child test
+   private static final int NChildSteps = 2;
+
+   private SessionContext session;
+   private SessionContext previous;
+   private File folder;
+
+   @BeforeMethod
+   public void setUp() throws IOException {
+      TestStringsCache.clear();
+      session = new SessionContext();
+      previous = SessionContext.bind(session);
+      folder = new File(System.getProperty("java.io.tmpdir"), "ddtrunner" + System.nanoTime());
+      folder.mkdirs();
+      StringBuilder sb = new StringBuilder(Headers);
+      for (int i = 1; i <= NChildSteps; i++)
+         sb.append(i + "\tSetVars\t\t\t\t\tChild" + i + "=" + i + "\tSet a variable\n");
+      write(new File(folder, "child.txt"), sb.toString());
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void tearDown() {
+      for (String name : Overrides)
+         System.clearProperty(DDTSettings.SystemOverridePrefix + name);
+      DDTSettings.reset();
+      SessionContext.bind(previous);
+      TestStringsCache.clear();
+      File[] files = folder.listFiles();
+      if (files != null) {
+         for (File file : files)
+            file.delete();
+      }
+      folder.delete();
+   }
+
+   private static void write(File file, String content) throws IOException {
+      FileOutputStream stream = new FileOutputStream(file);
+      try {
+         stream.write(content.getBytes("UTF-8"));
+      }
+      finally {
+         stream.close();
+      }
+   }
+
+   private static void override(String name, String value) {
+      System.setProperty(DDTSettings.SystemOverridePrefix + name, value);
+      DDTSettings.reset();
+   }
+
+   /**
+    * @return The root test's items - a SetVars step followed by independent (parallel) NewTest steps running the child test
+    */
+   private TestItem[] rootItems(int nNewTests) {
+      String[][] strings = new String[nNewTests + 1][];
+      strings[0] = new String[] {"Root0", "SetVars", "", "", "", "", "Root=Yes", "Set a root variable"};
+      for (int i = 1; i <= nNewTests; i++)
+         strings[i] = new String[] {"Root" + i, "NewTest", "", "", "", "", childData(), "Run the child test"};
+      return TestItem.assembleTestItems(strings, "");
+   }
+
+   private String childData() {
+      return ChildData.replace("{child}", new File(folder, "child.txt").getAbsolutePath());
+   }
+
+   private static DDTTestRunner run(TestItem[] items) throws Exception {
+      DDTTestRunner runner = new DDTTestRunner();
+      runner.setLevel(1);
+      TestItem.TestItems testItems = new TestItem.TestItems();
+      testItems.setItems(items);
+      runner.setTestItems(testItems);
+      runner.processTestItems();
+      return runner;
+   }
+
+   @Test
+   public void shardRunsOnlyAssignedParallelSiblings() throws Exception {
+      override("ParallelWorkers", "4");
+      override("ShardName", "shard02");
+      // As dealt by ShardCoordinator.runSharded() - the root's SetVars step and the NewTest steps at 1, 2 and 4
+      override("ShardItems", "0,1,2,4");
+      TestItem[] items = rootItems(5);
+      run(items);
+
+      // NewTest steps 3 and 5 (of another shard) are neither started nor counted
+      for (int i : new int[] {3, 5})
+         assertNull(items[i].getSessionStepNumber(), "Root step " + i + " should not run in this shard");
+      for (int i : new int[] {1, 2, 4})
+         assertFalse(items[i].isFailure(), "Root step " + i + " should pass: " + items[i].getErrors());
+      // The root's SetVars step ran but is counted by the first shard
+      assertEquals(DDTTestRunner.getVarsMap().get("root"), "Yes");
+      assertEquals(session.getTsCounters().toArray(), new int[] {3 * (1 + NChildSteps), 3 * (1 + NChildSteps), 0, 0});
+   }
+
+   @Test
+   public void firstShardCountsTheRootsOtherSteps() throws Exception {
+      override("ParallelWorkers", "4");
+      override("ShardName", "shard01");
+      override("ShardItems", "0,3");
+      TestItem[] items = rootItems(3);
+      run(items);
+
+      for (int i : new int[] {1, 2})
+         assertNull(items[i].getSessionStepNumber(), "Root step " + i + " should not run in this shard");
+      assertEquals(session.getTsCounters().toArray(), new int[] {1 + (1 + NChildSteps), 1 + (1 + NChildSteps), 0, 0});
+   }
+
+   @Test
+   public void unshardedSessionRunsAllSteps() throws Exception {
+      override("ParallelWorkers", "4");
+      TestItem[] items = rootItems(3);
+      run(items);
+      assertEquals(session.getTsCounters().toArray(), new int[] {1 + 3 * (1 + NChildSteps), 1 + 3 * (1 + NChildSteps), 0, 0});
+   }
+
+   @Test
+   public void branchesAfterTerminatingStepAreSkipped() throws Exception {
+      override("ParallelWorkers", "2");
+      String[][] strings = new String[5][];
+      // The first of the parallel NewTest steps quits the test case unconditionally
+      strings[0] = new String[] {"Root1", "NewTest", "", "", "", "", childData() + ";ptp=QTU", "Run the child test and quit"};
+      for (int i = 1; i < strings.length; i++)
+         strings[i] = new String[] {"Root" + (i + 1), "NewTest", "", "", "", "", childData(), "Run the child test"};
+      run(TestItem.assembleTestItems(strings, ""));
+
+      // All five are started (done), the first is merged, the others are cancelled
+      int[] counters = session.getTsCounters().toArray();
+      assertEquals(counters, new int[] {strings.length + NChildSteps, 1 + NChildSteps, 0, strings.length - 1});
+      assertEquals(counters[SessionCounters.Done], counters[SessionCounters.Pass] + counters[SessionCounters.Fail] + counters[SessionCounters.Skip]);
+   }
+}
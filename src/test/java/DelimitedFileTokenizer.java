@@ -0,0 +1,267 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Created with IntelliJ IDEA.
+ * User: agent
+ * Date: 10/17/26
+ * Selenium Based Automation
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * Tokenizes delimited (.txt) test item files (see FileTestStringsProvider.DelimitedTestStringsProvider) from the file's bytes
+ * (read into memory - large files are memory mapped, see Util.fileBuffer()).
+ * Tab and line break bytes are scanned in the buffer - the lines themselves are never made into strings:
+ * - The first line (headers), blank lines and # comment lines are skipped without allocating.
+ * - Strings are created only for non empty cells (in the platform's charset, as FileReader does) - empty cells share "".
+ * - Lines end with \n, \r or \r\n. As with String.split("\t") trailing empty cells do not count - a line must have 2 to 8 cells.
+ * Line ranges - an items container name of the form first-last, first- or lines:line (physical line numbers, 1 based - lines:first-last works too)
+ * reads those lines only, e.g. File!Generated.txt!1001-2000 - so NewTest steps can run parts of a large file.
+ * A bare number is not a line range (it may well be the name of a container).
+ * The line start offsets of a file are indexed as it is scanned (kept for the last few files, by path, size and modification time) -
+ * a range of an indexed file is read directly from its first line's offset.
+ * Files larger than 2GB and files in charsets that are not ASCII compatible are not tokenized (tokenize() returns null).
+ *
+ * History
+ * When        |Who      |What
+ * ============|=========|====================================
+ * 10/17/26    |agent    |Initial Version
+ * ============|=========|====================================
+ */
+public class DelimitedFileTokenizer {
+
+   private static final int NColumns = 8;
+   private static final int MaxIndexedFiles = 8;
+   // A dash or the lines: prefix is required
+   private static final Pattern LineRange = Pattern.compile("^\\s*(lines\\s*:)?\\s*(\\d+)\\s*(-\\s*(\\d*))?\\s*$", Pattern.CASE_INSENSITIVE);
+
+   /**
+    * The line start offsets of a file
+    */
+   private static class LineIndex {
+      private final int[] starts;
+      private final int nLines;
+
+      private LineIndex(int[] starts, int nLines) {
+         this.starts = starts;
+         this.nLines = nLines;
+      }
+   }
+
+   // Most recently used last
+   private static final Map<String, LineIndex> lineIndexes = new LinkedHashMap<String, LineIndex>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, LineIndex> eldest) {
+         return size() > MaxIndexedFiles;
+      }
+   };
+
+   private final ByteBuffer buffer;
+   // Bulk reads of cells' bytes
+   private final ByteBuffer reader;
+   private final int limit;
+   private final Charset charset;
+   private final String fileName;
+   private byte[] scratch = new byte[256];
+   private final int[] cellStarts = new int[NColumns + 1];
+   private final int[] cellEnds = new int[NColumns + 1];
+   private int[] lineStarts = new int[1024];
+   private int nLines;
+
+   private DelimitedFileTokenizer(String fileName, ByteBuffer buffer, Charset charset) {
+      this.fileName = fileName;
+      this.buffer = buffer;
+      this.reader = buffer.duplicate();
+      this.limit = buffer.limit();
+      this.charset = charset;
+   }
+
+   /**
+    * @param containerName
+    * @return The first and last (inclusive) line of a line range container name - null if the name is not a line range
+    */
+   public static int[] lineRange(String containerName) {
+      if (containerName == null)
+         return null;
+      Matcher matcher = LineRange.matcher(containerName);
+      if (!matcher.matches() || (matcher.group(1) == null && matcher.group(3) == null))
+         return null;
+      try {
+         int first = Math.max(1, Integer.parseInt(matcher.group(2)));
+         int last = first;
+         if (matcher.group(3) != null)
+            last = (matcher.group(4).isEmpty()) ? Integer.MAX_VALUE : Integer.parseInt(matcher.group(4));
+         return new int[] {first, last};
+      }
+      catch (NumberFormatException e) {
+         return null;
+      }
+   }
+
+   /**
+    * @return true if tabs, line breaks and # are single (ASCII) bytes in the platform's charset
+    */
+   private static boolean isAsciiCompatible(Charset charset) {
+      return charset.name().equalsIgnoreCase("UTF-8") || charset.newEncoder().maxBytesPerChar() == 1.0f;
+   }
+
+   private static String indexKey(File file) {
+      return file.getAbsolutePath() + TestStringsProviderSpecs.SPLITTER + file.length() + TestStringsProviderSpecs.SPLITTER + file.lastModified();
+   }
+
+   /**
+    * Tokenize a delimited test items file
+    * @param fileName - a valid OS path
+    * @param containerName - a line range (see lineRange()) or anything else for all lines
+    * @return The items (8 strings each) or null if the file is not tokenized (see the class description)
+    * @throws IOException
+    */
+   public static ArrayList<String[]> tokenize(String fileName, String containerName) throws IOException {
+      File file = new File(fileName);
+      Charset charset = Charset.defaultCharset();
+      if (file.length() > Integer.MAX_VALUE || !isAsciiCompatible(charset))
+         return null;
+
+      int[] range = lineRange(containerName);
+      String key = indexKey(file);
+      LineIndex index;
+      synchronized (lineIndexes) {
+         index = lineIndexes.get(key);
+      }
+
+      DelimitedFileTokenizer tokenizer = new DelimitedFileTokenizer(file.getPath(), Util.fileBuffer(file), charset);
+      ArrayList<String[]> result = new ArrayList<String[]>();
+
+      if (range != null && index != null) {
+         // Straight to the range's lines
+         if (range[0] <= index.nLines) {
+            int last = Math.min(range[1], index.nLines);
+            int to = (last < index.nLines) ? index.starts[last] : tokenizer.limit;
+            tokenizer.scan(index.starts[range[0] - 1], to, range[0], null, result);
+         }
+         return result;
+      }
+
+      tokenizer.scan(0, tokenizer.limit, 1, range, result);
+      synchronized (lineIndexes) {
+         lineIndexes.put(key, new LineIndex(Arrays.copyOf(tokenizer.lineStarts, tokenizer.nLines), tokenizer.nLines));
+      }
+      return result;
+   }
+
+   /**
+    * Scan the lines in [from, to) - indexing them if the scan starts at the top of the file
+    * @param from
+    * @param to
+    * @param firstLine - the line number of the line at from
+    * @param range - the lines to tokenize (null - all)
+    * @param result
+    */
+   private void scan(int from, int to, int firstLine, int[] range, ArrayList<String[]> result) {
+      boolean indexing = (from == 0);
+      int lineNumber = firstLine;
+      int pos = from;
+      while (pos < to) {
+         int eol = pos;
+         byte c = 0;
+         while (eol < to && (c = buffer.get(eol)) != '\n' && c != '\r')
+            eol++;
+         int next = eol;
+         if (next < to)
+            next += (c == '\r' && next + 1 < to && buffer.get(next + 1) == '\n') ? 2 : 1;
+
+         if (indexing) {
+            if (nLines == lineStarts.length)
+               lineStarts = Arrays.copyOf(lineStarts, nLines * 2);
+            lineStarts[nLines++] = pos;
+         }
+
+         // The first line is headers by convention
+         if (lineNumber > 1 && (range == null || (lineNumber >= range[0] && lineNumber <= range[1]))) {
+            String[] item = tokenizeLine(pos, eol);
+            if (item != null)
+               result.add(item);
+         }
+         lineNumber++;
+         pos = next;
+      }
+   }
+
+   /**
+    * @param from
+    * @param to
+    * @return The line's 8 cells - null for blank, comment and invalid lines
+    */
+   private String[] tokenizeLine(int from, int to) {
+      if (from >= to || buffer.get(from) == '#')
+         return null;
+
+      // Cells, up to one past the maximum, and whether the line is blank
+      int nCells = 0;
+      int nFilled = 0;
+      boolean blank = true;
+      int cellStart = from;
+      for (int i = from; i <= to; i++) {
+         byte b = (i < to) ? buffer.get(i) : (byte) '\t';
+         if (b == '\t') {
+            if (nCells <= NColumns) {
+               cellStarts[nCells] = cellStart;
+               cellEnds[nCells] = i;
+            }
+            nCells++;
+            // Trailing empty cells do not count (as with String.split())
+            if (i > cellStart)
+               nFilled = nCells;
+            cellStart = i + 1;
+         }
+         else if (blank && (b & 0xFF) > ' ')
+            blank = false;
+      }
+      if (blank)
+         return null;
+
+      if (nFilled < 2 || nFilled > NColumns) {
+         System.out.println("Invalid line encountered in " + fileName + "(" + decode(from, to) + "), line has " + nFilled + " delimiters");
+         return null;
+      }
+
+      String[] result = {"", "", "", "", "", "", "", ""};
+      for (int i = 0; i < nFilled; i++) {
+         if (cellEnds[i] > cellStarts[i])
+            result[i] = decode(cellStarts[i], cellEnds[i]);
+      }
+      return result;
+   }
+
+   private String decode(int from, int to) {
+      int length = to - from;
+      if (scratch.length < length)
+         scratch = new byte[Math.max(length, scratch.length * 2)];
+      reader.position(from);
+      reader.get(scratch, 0, length);
+      return new String(scratch, 0, length, charset);
+   }
+}
@@ -0,0 +1,202 @@
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.testng.Assert.*;
+
+/**
+ * Created by agent on 10/17/26.
+ * Selenium Based Automation Project
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * DelimitedFileTokenizer - tokenized items are those of reading the file line by line and splitting the lines on tabs
+ * (as DelimitedTestStringsProvider does for files that are not tokenized), for whole files and line ranges
+ *
+ * When      |Who            |What
+ * ==========|===============|========================================================
+ * 10/17/26  |agent          |Initial Version
+ * ==========|===============|========================================================
+ */
+public class DelimitedFileTokenizerTest {
+
+   private static final String[] Lines = {
+         "Id\tAction\tLocType\tLocSpecs\tQryFunction\tActive\tData\tDescription",
+         "1\tNavigateToPage\t\t\t\t\tURL=http://www.google.com\tNavigate",
+         "",
+         "# A comment\tline",
+         "2\tClick\txpath\t//button",
+         "   ",
+         "\t\t\t",
+         "3\tClick\t\t\t\t\t\t",
+         "\t\tLeading empty cells",
+         "NoTabs",
+         "4\tToo\tmany\tcells\tin\tthis\tline\tof\tcells",
+         "5\tTrailing\tempty\tcells\tbeyond\tthe\tlast\tone\t\t\t",
+         " #\tNot a comment",
+         "6\tUnicode \u00e9\u00e8\u4e2d\t\t\t\t\t\tlast",
+         "7\tLast line"
+   };
+
+   private File file;
+
+   @BeforeMethod
+   public void setUp() throws IOException {
+      file = File.createTempFile("ddt", ".txt");
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void tearDown() {
+      file.delete();
+   }
+
+   private void write(String lineBreak, boolean lastLineBreak) throws IOException {
+      StringBuilder sb = new StringBuilder();
+      for (int i = 0; i < Lines.length; i++) {
+         sb.append(Lines[i]);
+         if (lastLineBreak || i < Lines.length - 1)
+            sb.append(lineBreak);
+      }
+      write(sb.toString());
+   }
+
+   private void write(String content) throws IOException {
+      FileOutputStream stream = new FileOutputStream(file);
+      try {
+         stream.write(content.getBytes());
+      }
+      finally {
+         stream.close();
+      }
+   }
+
+   /**
+    * @return The file's items as read line by line and split on tabs (see DelimitedTestStringsProvider.provideStrings())
+    */
+   private List<String[]> splitItems(String containerName) throws IOException {
+      int[] lineRange = DelimitedFileTokenizer.lineRange(containerName);
+      List<String[]> result = new ArrayList<String[]>();
+      BufferedReader br = new BufferedReader(new FileReader(file));
+      try {
+         int nRows = 0;
+         String line;
+         while ((line = br.readLine()) != null) {
+            nRows++;
+            if (nRows == 1 || (lineRange != null && (nRows < lineRange[0] || nRows > lineRange[1])))
+               continue;
+            if (isBlank(line) || line.startsWith("#"))
+               continue;
+            String[] cells = line.split("\t");
+            if (cells.length < 2 || cells.length > 8)
+               continue;
+            String[] item = {"", "", "", "", "", "", "", ""};
+            System.arraycopy(cells, 0, item, 0, cells.length);
+            result.add(item);
+         }
+      }
+      finally {
+         br.close();
+      }
+      return result;
+   }
+
+   private void assertTokenizedAsSplit(String containerName) throws IOException {
+      List<String[]> expected = splitItems(containerName);
+      List<String[]> actual = DelimitedFileTokenizer.tokenize(file.getPath(), containerName);
+      assertNotNull(actual, "The file should be tokenized");
+      assertEquals(actual.size(), expected.size(), "Items of " + containerName);
+      for (int i = 0; i < expected.size(); i++)
+         assertEquals(actual.get(i), expected.get(i), "Item " + i + " of " + containerName);
+   }
+
+   @Test
+   public void lineBreaks() throws IOException {
+      for (String lineBreak : new String[] {"\n", "\r\n", "\r"}) {
+         for (boolean lastLineBreak : new boolean[] {true, false}) {
+            write(lineBreak, lastLineBreak);
+            assertTokenizedAsSplit("");
+            assertEquals(DelimitedFileTokenizer.tokenize(file.getPath(), "").size(), 8);
+         }
+      }
+   }
+
+   @Test
+   public void mixedLineBreaks() throws IOException {
+      write(Lines[0] + "\r\n" + Lines[1] + "\n\r" + Lines[4] + "\r\r\n" + Lines[7] + "\n" + Lines[14]);
+      assertTokenizedAsSplit("");
+   }
+
+   @Test
+   public void emptyFiles() throws IOException {
+      write("");
+      assertTokenizedAsSplit("");
+      write(Lines[0]);
+      assertTokenizedAsSplit("");
+      write(Lines[0] + "\n\n\n");
+      assertTokenizedAsSplit("");
+   }
+
+   @Test
+   public void lineRanges() throws IOException {
+      write("\r\n", true);
+      String[] ranges = {"1-3", "2-4", "3-", "lines:5", "Lines : 5 - 8", "8-6", "14-", "15-", "100-"};
+      for (String range : ranges)
+         assertTokenizedAsSplit(range);
+
+      // Again, from the file's line index
+      assertTokenizedAsSplit("");
+      for (String range : ranges)
+         assertTokenizedAsSplit(range);
+   }
+
+   @Test
+   public void lineRangeNames() {
+      assertEquals(DelimitedFileTokenizer.lineRange("2-4"), new int[] {2, 4});
+      assertEquals(DelimitedFileTokenizer.lineRange(" 3 - "), new int[] {3, Integer.MAX_VALUE});
+      assertEquals(DelimitedFileTokenizer.lineRange("lines:3"), new int[] {3, 3});
+      assertEquals(DelimitedFileTokenizer.lineRange("LINES:3-5"), new int[] {3, 5});
+      assertEquals(DelimitedFileTokenizer.lineRange("0-2"), new int[] {1, 2});
+      // A bare number may well be a container's name
+      assertNull(DelimitedFileTokenizer.lineRange("3"));
+      assertNull(DelimitedFileTokenizer.lineRange(""));
+      assertNull(DelimitedFileTokenizer.lineRange(null));
+      assertNull(DelimitedFileTokenizer.lineRange("Sheet1"));
+      assertNull(DelimitedFileTokenizer.lineRange("-3"));
+      assertNull(DelimitedFileTokenizer.lineRange("99999999999-"));
+   }
+
+   @Test
+   public void changedFileIsIndexedAgain() throws IOException {
+      write("\n", true);
+      assertTokenizedAsSplit("");
+      long lastModified = file.lastModified();
+      write("\r\n", true);
+      assertTrue(file.setLastModified(lastModified - 60000L));
+      for (String range : new String[] {"2-4", "5-", "lines:14"})
+         assertTokenizedAsSplit(range);
+   }
+}
@@ -48,6 +48,9 @@ import java.util.Set;
  * When      |Who            |What
  * ==========|===============|========================================================
  * 02/13/14  |Bey            |Initial Version
+ * 10/17/26  |agent          |Per-branch driver for parallel NewTest branches (beginBranch / endBranch)
+ * 10/17/26  |agent          |Lease drivers from (and release them to) DriverPool rather than creating / quitting them
+ * 10/17/26  |agent          |Recursion guard per thread, current browser per branch
  * ==========|===============|========================================================
  */
 public class Driver extends Thread {
@@ -55,14 +58,16 @@ public class Driver extends Thread {
     private static long browserStartTime = 0L;
     private static long savedTimecount = 0L;
     public static final long DEFAULT_TIMEOUT_SECONDS = 10;
-    private static boolean avoidRecursiveCall = false;
+    // Per thread - parallel branches check their drivers side by side
+    private static final ThreadLocal<Boolean> avoidRecursiveCall = new ThreadLocal<Boolean>();
     public static final String BROWSER_PROPERTY_NAME = "Driver";
 
     public enum BrowserName {FIREFOX, GOOGLECHROME, SAUCELABS, OPERA, IE, HTMLUNIT, HEADLESS}
 
     private static String driverName;
 
-    public static BrowserName currentDriver;
+    // The session's - see currentDriver()
+    private static BrowserName currentDriver;
 
     private static BrowserName useThisDriver = null;
 
@@ -74,8 +79,81 @@ public class Driver extends Thread {
     // default for fiddler: localhost:8888
     public static String PROXY = "localhost:8080";
 
+    /**
+     * The driver of a parallel NewTest branch (see DDTTestRunner) - each branch runs on its own web driver and browser choice.
+     */
+    private static class BranchDriver {
+        private WebDriver driver;
+        private BrowserName browser;
+        private BrowserName currentBrowser;
+    }
+
+    private static final ThreadLocal<BranchDriver> branchDriver = new ThreadLocal<BranchDriver>();
+
+    private static WebDriver driver() {
+        BranchDriver branch = branchDriver.get();
+        return (branch == null) ? aDriver : branch.driver;
+    }
+
+    private static void setDriver(WebDriver value) {
+        BranchDriver branch = branchDriver.get();
+        if (branch == null)
+            aDriver = value;
+        else
+            branch.driver = value;
+    }
+
+    private static BrowserName browser() {
+        BranchDriver branch = branchDriver.get();
+        return (branch == null) ? useThisDriver : branch.browser;
+    }
+
+    /**
+     * @return The browser of the (branch's or session's) driver last leased
+     */
+    public static BrowserName currentDriver() {
+        BranchDriver branch = branchDriver.get();
+        return (branch == null) ? currentDriver : branch.currentBrowser;
+    }
+
+    private static void setCurrentDriver(BrowserName value) {
+        BranchDriver branch = branchDriver.get();
+        if (branch == null)
+            currentDriver = value;
+        else
+            branch.currentBrowser = value;
+    }
+
+    private static void setBrowser(BrowserName value) {
+        BranchDriver branch = branchDriver.get();
+        if (branch == null)
+            useThisDriver = value;
+        else
+            branch.browser = value;
+    }
+
+    /**
+     * Called on a branch worker thread before the branch runs - the branch starts out with the session's browser choice and no driver.
+     */
+    public static void beginBranch() {
+        BranchDriver branch = new BranchDriver();
+        branch.browser = useThisDriver;
+        branchDriver.set(branch);
+    }
+
+    /**
+     * Called on a branch worker thread after the branch ran - releases the branch's driver (if any) to the driver pool
+     */
+    public static void endBranch() {
+        quit();
+        branchDriver.remove();
+    }
+
     public static WebDriver getDriver() {
-        return aDriver;
+        // A branch started after the session's driver was created gets a driver of its own upon first use
+        if (branchDriver.get() != null && driver() == null && aDriver != null)
+            get();
+        return driver();
     }
 
     public static void refresh(int delaySeconds) {
@@ -89,16 +167,18 @@ public class Driver extends Thread {
     }
 
     public static boolean isInitialized() {
-        return (aDriver instanceof WebDriver);
+        if (branchDriver.get() != null && aDriver != null)
+            return true;
+        return (driver() instanceof WebDriver);
     }
 
     public static void set(BrowserName aBrowser) {
-        useThisDriver = aBrowser;
+        setBrowser(aBrowser);
 
-        // close any existing driver
-        if (aDriver != null) {
-            aDriver.quit();
-            aDriver = null;
+        // release any existing driver
+        if (driver() != null) {
+            DriverPool.release(driver());
+            setDriver(null);
         }
     }
 
@@ -135,158 +215,163 @@ public class Driver extends Thread {
     }
 
     /**
-     * 06/23/2015 Ignore Certificate Errors
-     *
      * @return driver
      */
     public static WebDriver get() {
 
-        if (useThisDriver == null) {
+        if (browser() == null) {
 
             String defaultBrowser = System.getProperty(BROWSER_PROPERTY_NAME, "FIREFOX");
-            useThisDriver = asBrowserName(defaultBrowser);
+            setBrowser(asBrowserName(defaultBrowser));
         }
 
 
-        if (aDriver == null) {
-
-            long startBrowserTime = System.currentTimeMillis();
-            DesiredCapabilities capabilities;
-            Hashtable<String, Object> desiredCapabilities;
-            Set<Map.Entry<String, Object>> entries;
-
-            try {
-                switch (useThisDriver) {
-                    case FIREFOX:
-                        System.setProperty("webdriver.firefox.bin", "C:\\WebDrivers\\Firefox.exe");
-                        FirefoxProfile profile = new FirefoxProfile();
-                        profile.setEnableNativeEvents(true);
-                        profile.setAcceptUntrustedCertificates(true);
-
-                        try {
-                            aDriver = new FirefoxDriver();
-                            currentDriver = BrowserName.FIREFOX;
-                        } catch (Throwable e) {
-                            e.printStackTrace();
-                            System.out.println("Failed setting up " + useThisDriver + " Web Driver.");
-                        }
-                        break;
-
-                    case OPERA:
-
-                        aDriver = new OperaDriver();
-                        currentDriver = BrowserName.OPERA;
-                        break;
-
-                    case HTMLUNIT:
-
-                        capabilities = new DesiredCapabilities();
-                        desiredCapabilities = DDTSettings.Settings().getDesiredCapabilities();
-                        entries = desiredCapabilities.entrySet();
-                        for (Map.Entry<String, Object> entry : entries) {
-                            capabilities.setCapability(entry.getKey(), entry.getValue());
-                        }
-                        aDriver = new HtmlUnitDriver(capabilities);
-                        currentDriver = BrowserName.HTMLUNIT;
-                        break;
-
-                    case HEADLESS:
-
-                        capabilities = new DesiredCapabilities();
-                        desiredCapabilities = DDTSettings.Settings().getDesiredCapabilities();
-                        entries = desiredCapabilities.entrySet();
-                        for (Map.Entry<String, Object> entry : entries) {
-                            capabilities.setCapability(entry.getKey(), entry.getValue());
-                        }
-                        capabilities.setCapability(
-                                PhantomJSDriverService.PHANTOMJS_EXECUTABLE_PATH_PROPERTY,
-                                DDTSettings.Settings().resourcesFolder() + "phantomjs.exe");
-
-                        // Launch driver (will take care and ownership of the phantomjs process)
-                        aDriver = new PhantomJSDriver(capabilities);
-                        currentDriver = BrowserName.HEADLESS;
-                        break;
-
-                    case IE:
-
-                        setDriverPropertyIfNecessary(BrowserName.IE);
-
-                        aDriver = new InternetExplorerDriver();
-                        currentDriver = BrowserName.IE;
-                        break;
-
-                    case GOOGLECHROME:
-
-                        setDriverPropertyIfNecessary(BrowserName.GOOGLECHROME);
-
-                        ChromeOptions options = new ChromeOptions();
-                        options.addArguments("disable-plugins");
-                        options.addArguments("disable-extensions");
-
-                        aDriver = new ChromeDriver(options);
-                        currentDriver = BrowserName.GOOGLECHROME;
-                        break;
-
-                    case SAUCELABS:
-
-                        capabilities = DesiredCapabilities.firefox();
-                        capabilities.setCapability("version", "5");
-                        capabilities.setCapability("platform", Platform.XP);
-                        try {
-                            // add url to environment variables to avoid releasing with source
-                            String sauceURL = System.getenv("SAUCELABS_URL");
-                            aDriver = new RemoteWebDriver(
-                                    new URL(sauceURL),
-                                    capabilities);
-                        } catch (MalformedURLException e) {
-                            e.printStackTrace();
-                        }
-                        currentDriver = BrowserName.SAUCELABS;
-                        break;
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
-                System.out.println("Failed setting up " + useThisDriver + " Web Driver.");
-            }
+        if (driver() == null) {
 
-
-            long browserStartedTime = System.currentTimeMillis();
-            browserStartTime = browserStartedTime - startBrowserTime;
-
-            // we want to shutdown the shared brower when the tests finish
-            Runtime.getRuntime().addShutdownHook(
-                    new Thread() {
-                        public void run() {
-                            Driver.quit();
-                        }
-                    }
-            );
+            setDriver(DriverPool.lease(browser()));
+            if (driver() != null)
+                setCurrentDriver(browser());
 
         } else {
 
             try {
                 // is browser still alive
-                if (aDriver.getWindowHandle() != null) {
+                if (driver().getWindowHandle() != null) {
                     // assume it is still alive
                 }
             } catch (Exception e) {
-                if (avoidRecursiveCall) {
+                if (Boolean.TRUE.equals(avoidRecursiveCall.get())) {
                     // something has gone wrong as we have been here already
+                    avoidRecursiveCall.remove();
                     throw new RuntimeException();
                 }
 
                 quit();
-                aDriver = null;
-                avoidRecursiveCall = true;
+                setDriver(null);
+                avoidRecursiveCall.set(true);
                 return get();
             }
 
-            savedTimecount += browserStartTime;
-            System.out.println("Saved another " + browserStartTime + "ms : total saved " + savedTimecount + "ms");
+            reused();
         }
 
-        avoidRecursiveCall = false;
-        return aDriver;
+        avoidRecursiveCall.remove();
+        return driver();
+    }
+
+    /**
+     * Called when a driver is (re)used rather than created
+     */
+    static synchronized void reused() {
+        savedTimecount += browserStartTime;
+        System.out.println("Saved another " + browserStartTime + "ms : total saved " + savedTimecount + "ms");
+    }
+
+    /**
+     * Create a new driver for the browser - called by DriverPool when no idle driver is available
+     * 06/23/2015 Ignore Certificate Errors
+     *
+     * @param browser
+     * @return driver or null if the driver could not be set up
+     */
+    static WebDriver createDriver(BrowserName browser) {
+        WebDriver result = null;
+        long startBrowserTime = System.currentTimeMillis();
+        DesiredCapabilities capabilities;
+        Hashtable<String, Object> desiredCapabilities;
+        Set<Map.Entry<String, Object>> entries;
+
+        try {
+            switch (browser) {
+                case FIREFOX:
+                    System.setProperty("webdriver.firefox.bin", "C:\\WebDrivers\\Firefox.exe");
+                    FirefoxProfile profile = new FirefoxProfile();
+                    profile.setEnableNativeEvents(true);
+                    profile.setAcceptUntrustedCertificates(true);
+
+                    try {
+                        result = new FirefoxDriver();
+                    } catch (Throwable e) {
+                        e.printStackTrace();
+                        System.out.println("Failed setting up " + browser + " Web Driver.");
+                    }
+                    break;
+
+                case OPERA:
+
+                    result = new OperaDriver();
+                    break;
+
+                case HTMLUNIT:
+
+                    capabilities = new DesiredCapabilities();
+                    desiredCapabilities = DDTSettings.Settings().getDesiredCapabilities();
+                    entries = desiredCapabilities.entrySet();
+                    for (Map.Entry<String, Object> entry : entries) {
+                        capabilities.setCapability(entry.getKey(), entry.getValue());
+                    }
+                    result = new HtmlUnitDriver(capabilities);
+                    break;
+
+                case HEADLESS:
+
+                    capabilities = new DesiredCapabilities();
+                    desiredCapabilities = DDTSettings.Settings().getDesiredCapabilities();
+                    entries = desiredCapabilities.entrySet();
+                    for (Map.Entry<String, Object> entry : entries) {
+                        capabilities.setCapability(entry.getKey(), entry.getValue());
+                    }
+                    capabilities.setCapability(
+                            PhantomJSDriverService.PHANTOMJS_EXECUTABLE_PATH_PROPERTY,
+                            DDTSettings.Settings().resourcesFolder() + "phantomjs.exe");
+
+                    // Launch driver (will take care and ownership of the phantomjs process)
+                    result = new PhantomJSDriver(capabilities);
+                    break;
+
+                case IE:
+
+                    setDriverPropertyIfNecessary(BrowserName.IE);
+
+                    result = new InternetExplorerDriver();
+                    break;
+
+                case GOOGLECHROME:
+
+                    setDriverPropertyIfNecessary(BrowserName.GOOGLECHROME);
+
+                    ChromeOptions options = new ChromeOptions();
+                    options.addArguments("disable-plugins");
+                    options.addArguments("disable-extensions");
+
+                    result = new ChromeDriver(options);
+                    break;
+
+                case SAUCELABS:
+
+                    capabilities = DesiredCapabilities.firefox();
+                    capabilities.setCapability("version", "5");
+                    capabilities.setCapability("platform", Platform.XP);
+                    try {
+                        // add url to environment variables to avoid releasing with source
+                        String sauceURL = System.getenv("SAUCELABS_URL");
+                        result = new RemoteWebDriver(
+                                new URL(sauceURL),
+                                capabilities);
+                    } catch (MalformedURLException e) {
+                        e.printStackTrace();
+                    }
+                    break;
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.out.println("Failed setting up " + browser + " Web Driver.");
+        }
+
+        long browserStartedTime = System.currentTimeMillis();
+        browserStartTime = browserStartedTime - startBrowserTime;
+
+        return result;
     }
 
     private static void setDriverPropertyIfNecessary(BrowserName browserName) {
@@ -351,18 +436,18 @@ public class Driver extends Thread {
 
     public static WebDriver get(String aURL, boolean maximize) {
         get();
-        aDriver.get(aURL);
+        driver().get(aURL);
 
         if (maximize) {
             try {
-                aDriver.manage().window().maximize();
+                driver().manage().window().maximize();
             } catch (UnsupportedCommandException e) {
                 System.out.println("Remote Driver does not support maximise");
             } catch (UnsupportedOperationException e) {
                 System.out.println("Opera driver does not support maximize yet");
             }
         }
-        return aDriver;
+        return driver();
     }
 
     public static WebDriver get(String aURL) {
@@ -370,11 +455,11 @@ public class Driver extends Thread {
     }
 
     public static void quit() {
-        if (aDriver != null) {
+        if (driver() != null) {
             System.out.println("total time saved by reusing browsers " + savedTimecount + "ms");
             try {
-                aDriver.quit();
-                aDriver = null;
+                DriverPool.release(driver());
+                setDriver(null);
             } catch (Exception e) {
                 // I don't care about errors at this point
             }
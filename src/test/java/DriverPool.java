@@ -0,0 +1,336 @@
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.TreeMap;
+
+/**
+ * Created with IntelliJ IDEA.
+ * User: agent
+ * Date: 10/17/26
+ * Selenium Based Automation
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * A pool of warm web drivers keyed by browser and the desired capabilities (DDTSettings.getDesiredCapabilities()).
+ * Driver leases its drivers from the pool and releases them back rather than quitting them so that later sessions
+ * (and parallel NewTest branches) avoid the browser's start up time.
+ * - A released driver is reset (cookies deleted, extra windows closed, navigated to about:blank) before it is kept.
+ * - A driver failing its reset or health check (window handle query) is quit and dropped.
+ * - Up to DDTSettings.driverPoolSize() idle drivers are kept per key - drivers idle longer than DDTSettings.driverPoolMaxIdleSeconds() are evicted.
+ * - prewarm() starts drivers in the background (up to DDTSettings.driverPoolPrewarm()).
+ * With DriverPoolSize = 0 (the default) released drivers are quit - the legacy behavior.
+ * Releasing a driver drops the elements located with it (see LocatorCache).
+ *
+ * History
+ * When        |Who      |What
+ * ============|=========|====================================
+ * 10/17/26    |agent    |Initial Version
+ * 10/17/26    |agent    |Invalidate the released driver's located elements
+ * ============|=========|====================================
+ */
+public class DriverPool {
+
+   private static final String BlankPage = "about:blank";
+
+   /**
+    * An idle driver and the time it was released
+    */
+   private static class IdleDriver {
+      private final WebDriver driver;
+      private final long idleSince;
+
+      private IdleDriver(WebDriver driver) {
+         this.driver = driver;
+         this.idleSince = System.currentTimeMillis();
+      }
+   }
+
+   private static Hashtable<String, LinkedList<IdleDriver>> idleDrivers = new Hashtable<String, LinkedList<IdleDriver>>();
+   private static IdentityHashMap<WebDriver, String> leasedDrivers = new IdentityHashMap<WebDriver, String>();
+   private static Hashtable<String, Integer> warmingUp = new Hashtable<String, Integer>();
+   private static boolean isShutdownHooked = false;
+   private static long created = 0L;
+   private static long reused = 0L;
+   private static long evicted = 0L;
+
+   private static int maxIdle() {
+      return DDTSettings.Settings().driverPoolSize();
+   }
+
+   private static long maxIdleMillis() {
+      return DDTSettings.Settings().driverPoolMaxIdleSeconds() * 1000L;
+   }
+
+   /**
+    * @param browser
+    * @return The pool key of the browser - the browser name and the (sorted) desired capabilities
+    */
+   public static String keyOf(Driver.BrowserName browser) {
+      Hashtable<String, Object> capabilities = DDTSettings.Settings().getDesiredCapabilities();
+      TreeMap<String, Object> sorted = new TreeMap<String, Object>();
+      if (capabilities != null)
+         sorted.putAll(capabilities);
+      return browser.name() + TestStringsProviderSpecs.SPLITTER + sorted.toString();
+   }
+
+   /**
+    * Lease a driver for the browser - a healthy idle driver if one is available, else a newly created one.
+    * @param browser
+    * @return The leased driver or null if a driver could not be created
+    */
+   public static WebDriver lease(Driver.BrowserName browser) {
+      String key = keyOf(browser);
+      WebDriver result;
+      while ((result = checkout(key)) != null) {
+         if (isHealthy(result)) {
+            synchronized (DriverPool.class) {
+               leasedDrivers.put(result, key);
+               reused++;
+            }
+            Driver.reused();
+            return result;
+         }
+         quietlyQuit(result);
+         synchronized (DriverPool.class) {
+            evicted++;
+         }
+      }
+
+      result = Driver.createDriver(browser);
+      if (result != null) {
+         synchronized (DriverPool.class) {
+            leasedDrivers.put(result, key);
+            created++;
+            hookShutdown();
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Return a leased driver to the pool - the driver is reset and kept if there is room for it, else it is quit.
+    * @param driver
+    */
+   public static void release(WebDriver driver) {
+      if (driver == null)
+         return;
+
+      LocatorCache.invalidate(driver);
+      String key;
+      synchronized (DriverPool.class) {
+         key = leasedDrivers.remove(driver);
+      }
+
+      if (key == null || maxIdle() < 1 || !reset(driver)) {
+         quietlyQuit(driver);
+         return;
+      }
+
+      synchronized (DriverPool.class) {
+         evictExpired();
+         LinkedList<IdleDriver> idle = idleOf(key);
+         if (idle.size() < maxIdle()) {
+            idle.addLast(new IdleDriver(driver));
+            return;
+         }
+      }
+      quietlyQuit(driver);
+   }
+
+   /**
+    * Start drivers for the browser in the background until count drivers (no more than DriverPoolSize) are idle for it.
+    * @param browser
+    * @param count
+    */
+   public static void prewarm(final Driver.BrowserName browser, int count) {
+      final String key = keyOf(browser);
+      int needed;
+      synchronized (DriverPool.class) {
+         int warming = warmingUp.containsKey(key) ? warmingUp.get(key) : 0;
+         needed = Math.min(count, maxIdle()) - idleOf(key).size() - warming;
+         if (needed < 1)
+            return;
+         warmingUp.put(key, warming + needed);
+      }
+
+      for (int i = 0; i < needed; i++) {
+         Thread thread = new Thread("DriverPool-" + browser.name() + "-" + i) {
+            public void run() {
+               WebDriver driver = null;
+               try {
+                  driver = Driver.createDriver(browser);
+               }
+               finally {
+                  synchronized (DriverPool.class) {
+                     warmingUp.put(key, warmingUp.get(key) - 1);
+                     if (driver != null) {
+                        created++;
+                        hookShutdown();
+                        LinkedList<IdleDriver> idle = idleOf(key);
+                        if (idle.size() < maxIdle()) {
+                           idle.addLast(new IdleDriver(driver));
+                           driver = null;
+                        }
+                     }
+                  }
+                  if (driver != null)
+                     quietlyQuit(driver);
+               }
+            }
+         };
+         thread.setDaemon(true);
+         thread.start();
+      }
+   }
+
+   /**
+    * Quit all idle drivers
+    */
+   public static void shutdown() {
+      ArrayList<WebDriver> drivers = new ArrayList<WebDriver>();
+      synchronized (DriverPool.class) {
+         for (LinkedList<IdleDriver> idle : idleDrivers.values()) {
+            for (IdleDriver entry : idle)
+               drivers.add(entry.driver);
+         }
+         idleDrivers.clear();
+      }
+      for (WebDriver driver : drivers)
+         quietlyQuit(driver);
+   }
+
+   public static synchronized String statistics() {
+      int idle = 0;
+      for (LinkedList<IdleDriver> list : idleDrivers.values())
+         idle += list.size();
+      return "Driver Pool: " + created + " driver(s) created, " + reused + " reused, " + evicted + " evicted, " +
+            idle + " idle, " + leasedDrivers.size() + " leased";
+   }
+
+   private static synchronized WebDriver checkout(String key) {
+      evictExpired();
+      LinkedList<IdleDriver> idle = idleDrivers.get(key);
+      if (idle == null || idle.isEmpty())
+         return null;
+      // Most recently released first - the least likely to have gone stale
+      return idle.removeLast().driver;
+   }
+
+   private static LinkedList<IdleDriver> idleOf(String key) {
+      LinkedList<IdleDriver> result = idleDrivers.get(key);
+      if (result == null) {
+         result = new LinkedList<IdleDriver>();
+         idleDrivers.put(key, result);
+      }
+      return result;
+   }
+
+   /**
+    * Quit (in the background) idle drivers that were idle longer than DriverPoolMaxIdleSeconds - called while holding the pool's lock
+    */
+   private static void evictExpired() {
+      long oldest = System.currentTimeMillis() - maxIdleMillis();
+      final ArrayList<WebDriver> expired = new ArrayList<WebDriver>();
+      for (LinkedList<IdleDriver> idle : idleDrivers.values()) {
+         Iterator<IdleDriver> itr = idle.iterator();
+         while (itr.hasNext()) {
+            IdleDriver entry = itr.next();
+            if (entry.idleSince < oldest) {
+               expired.add(entry.driver);
+               itr.remove();
+               evicted++;
+            }
+         }
+      }
+      if (expired.isEmpty())
+         return;
+
+      Thread thread = new Thread("DriverPool-Evict") {
+         public void run() {
+            for (WebDriver driver : expired)
+               quietlyQuit(driver);
+         }
+      };
+      thread.setDaemon(true);
+      thread.start();
+   }
+
+   private static boolean isHealthy(WebDriver driver) {
+      try {
+         return driver.getWindowHandle() != null;
+      } catch (Exception e) {
+         return false;
+      }
+   }
+
+   /**
+    * Bring a driver back to a clean state - no cookies, a single window showing a blank page
+    * @param driver
+    * @return true if the driver was reset successfully
+    */
+   private static boolean reset(WebDriver driver) {
+      try {
+         driver.manage().deleteAllCookies();
+         String keep = null;
+         for (String handle : driver.getWindowHandles()) {
+            if (keep == null) {
+               keep = handle;
+               continue;
+            }
+            driver.switchTo().window(handle);
+            driver.close();
+         }
+         if (keep == null)
+            return false;
+         driver.switchTo().window(keep);
+         driver.get(BlankPage);
+         return true;
+      } catch (Exception e) {
+         return false;
+      }
+   }
+
+   private static void quietlyQuit(WebDriver driver) {
+      try {
+         driver.quit();
+      } catch (Exception e) {
+         // I don't care about errors at this point
+      }
+   }
+
+   /**
+    * We want to shutdown all pooled browsers when the tests finish - called while holding the pool's lock
+    */
+   private static void hookShutdown() {
+      if (isShutdownHooked)
+         return;
+      isShutdownHooked = true;
+      Runtime.getRuntime().addShutdownHook(
+            new Thread() {
+               public void run() {
+                  Driver.quit();
+                  DriverPool.shutdown();
+               }
+            }
+      );
+   }
+}
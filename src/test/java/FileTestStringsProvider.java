@@ -1,25 +1,40 @@
 import jxl.Sheet;
 import jxl.Workbook;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
 import org.apache.poi.xssf.usermodel.XSSFRow;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
+import org.json.simple.parser.ContentHandler;
 import org.json.simple.parser.JSONParser;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.helpers.DefaultHandler;
 
-import javax.xml.stream.XMLEventReader;
+import javax.xml.parsers.SAXParserFactory;
 import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.events.Attribute;
-import javax.xml.stream.events.EndElement;
-import javax.xml.stream.events.StartElement;
-import javax.xml.stream.events.XMLEvent;
+import javax.xml.stream.XMLStreamReader;
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
@@ -57,6 +72,12 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
  * 07/02/14     |Bey      |Initial Version
  * 10/28/14     |Bey      |Subclass from BaseDDT
  * 09/06/15     |Bey      |Move boolean isSetupValid here to avoid repetition in subclasses
+ * 10/17/26     |agent    |Excel providers share opened workbooks through TestStringsCache
+ * 10/17/26     |agent    |Excel providers borrow kept workbooks (TestStringsCache.acquireWorkbook()) rather than share them
+ * 10/17/26     |agent    |Add StreamingXSSFTestStringsProvider for large .xlsx files
+ * 10/17/26     |agent    |Add CompiledTestStringsProvider for compiled test plans (.ddtplan)
+ * 10/17/26     |agent    |XML test items are parsed with a cursor (XMLStreamReader), large files in parts on several threads
+ * 10/17/26     |agent    |Add StreamingJSONTestStringsProvider for large .json files
  * =============|=========|====================================
  */
 public abstract class FileTestStringsProvider extends TestStringsProvider {
@@ -141,8 +162,15 @@ public abstract class FileTestStringsProvider extends TestStringsProvider {
 
          int nRows = 0;
          try {
-            File inputWorkbook = new File(DDTSettings.asValidOSPath(inputFile, true));
-            wb = Workbook.getWorkbook(inputWorkbook);
+            // Borrow the workbook kept by the cache for this file (if any) - otherwise, open it (it is offered to the cache when done)
+            Object cachedWorkbook = TestStringsCache.acquireWorkbook(inputFile);
+            if (cachedWorkbook instanceof Workbook)
+               wb = (Workbook) cachedWorkbook;
+            else {
+               File inputWorkbook = new File(DDTSettings.asValidOSPath(inputFile, true));
+               wb = Workbook.getWorkbook(inputWorkbook);
+            }
+
             Sheet sheet = wb.getSheet(worksheetName);
             nRows = sheet.getRows();
             setDataStrings(new String[nRows-1][8]);
@@ -170,7 +198,7 @@ public abstract class FileTestStringsProvider extends TestStringsProvider {
             System.out.println("Failed to get test items from worksheet named: " + Util.sq(worksheetName) + " in file: " + inputFile);
          }
          finally {
-            if (wb instanceof Workbook) {
+            if (wb instanceof Workbook && !TestStringsCache.releaseWorkbook(inputFile, wb)) {
                wb.close();
                wb = null;
             }
@@ -251,10 +279,21 @@ public abstract class FileTestStringsProvider extends TestStringsProvider {
          }
          else {
             try {
-               File inputWorkbook = new File(DDTSettings.asValidOSPath(inputFile, true));
+               // Borrow the workbook kept by the cache for this file (if any) - otherwise, parse it (it is offered to the cache when done)
+               Object cachedWorkbook = TestStringsCache.acquireWorkbook(inputFile);
+               if (cachedWorkbook instanceof XSSFWorkbook)
+                  workbook = (XSSFWorkbook) cachedWorkbook;
+               else {
+                  File inputWorkbook = new File(DDTSettings.asValidOSPath(inputFile, true));
+                  FileInputStream fis = new FileInputStream(inputWorkbook);
+                  try {
+                     workbook = new XSSFWorkbook(fis);
+                  }
+                  finally {
+                     fis.close();
+                  }
+               }
 
-               FileInputStream fis = new FileInputStream(inputWorkbook);
-               workbook = new XSSFWorkbook(fis);
                XSSFSheet worksheet = workbook.getSheet(worksheetName);
 
                nRows = worksheet.getLastRowNum();
@@ -277,6 +316,8 @@ public abstract class FileTestStringsProvider extends TestStringsProvider {
                setException(e);
                System.out.println(e.getMessage().toString());
             } finally {
+               if (workbook != null && !TestStringsCache.releaseWorkbook(inputFile, workbook))
+                  TestStringsCache.closeWorkbook(workbook);
                workbook = null;
                System.out.println(String.valueOf(nRows) + " test items found on worksheet " + worksheetName + " in file: " + inputFile);
             }
@@ -284,6 +325,234 @@ public abstract class FileTestStringsProvider extends TestStringsProvider {
       }
    }
 
+   /**
+    * Created with IntelliJ IDEA.
+    * User: agent
+    * Date: 10/17/26
+    * Selenium Based Automation
+    *
+    * =============================================================================
+    * Copyright 2014 Avraham (Bey) Melamed.
+    *
+    * Licensed under the Apache License, Version 2.0 (the "License");
+    * you may not use this file except in compliance with the License.
+    * You may obtain a copy of the License at
+    *
+    * http://www.apache.org/licenses/LICENSE-2.0
+    *
+    * Unless required by applicable law or agreed to in writing, software
+    * distributed under the License is distributed on an "AS IS" BASIS,
+    * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    * See the License for the specific language governing permissions and
+    * limitations under the License.
+    * =============================================================================
+    *
+    * Description - Provides test items from a (large) Excel (.xlsx) spreadsheet without loading the workbook.
+    *               The requested worksheet is streamed (SAX) through the XSSF event model (XSSFReader and its shared strings table)
+    *               and only the first 8 columns of each row are kept.
+    *               Cell contents are the same as those provided by ExcelXSSFTestStringsProvider (cell values as strings).
+    *
+    * NOTE: This class is one of several test item strings provider classes - this is used for .xlsx files larger than DDTSettings.streamingXlsxSize()
+    *
+    * History
+    * When        |Who      |What
+    * ============|=========|====================================
+    * 10/17/26    |agent    |Initial Version
+    * ============|=========|====================================
+    */
+   public static class StreamingXSSFTestStringsProvider extends FileTestStringsProvider {
+
+      private static final int NColumns = 8;
+
+      public StreamingXSSFTestStringsProvider() {
+      }
+
+      public StreamingXSSFTestStringsProvider(TestStringsProviderSpecs inputSpecs) {
+         setTestStringsProviderSpecs(inputSpecs);
+         addError(getTestStringsProviderSpecs().getErrors());
+      }
+
+      public StreamingXSSFTestStringsProvider(String[] inputSpecs) {
+         setTestStringsProviderSpecs(inputSpecs);
+         addError(getTestStringsProviderSpecs().getErrors());
+      }
+
+      public StreamingXSSFTestStringsProvider(String inputSpecs) {
+         setTestStringsProviderSpecs(inputSpecs);
+         addError(getTestStringsProviderSpecs().getErrors());
+      }
+
+      @Override
+      void provideStrings() throws IOException {
+
+         // Setup errors are set by the constructor - if any.
+         if (!isBlank(getErrors()) || !isSetupValid())
+            return;
+
+         String inputFile = getSourceName();
+         String worksheetName = getItemsContainerName();
+
+         OPCPackage pkg = null;
+         int nRows = 0;
+
+         if (isBlank(inputFile) || isBlank(worksheetName))  {
+            System.out.println("Either File or Worksheet name(s) is / are empty - please explore");
+            return;
+         }
+
+         try {
+            pkg = OPCPackage.open(DDTSettings.asValidOSPath(inputFile, true), PackageAccess.READ);
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg);
+
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            boolean found = false;
+            while (sheets.hasNext() && !found) {
+               InputStream sheet = sheets.next();
+               try {
+                  if (!sheets.getSheetName().equalsIgnoreCase(worksheetName))
+                     continue;
+                  found = true;
+
+                  SAXParserFactory factory = SAXParserFactory.newInstance();
+                  factory.setNamespaceAware(true);
+                  SheetHandler handler = new SheetHandler(sharedStrings);
+                  factory.newSAXParser().parse(new InputSource(sheet), handler);
+
+                  stringifyTestItems(handler.getRows());
+                  nRows = handler.getRows().size();
+               }
+               finally {
+                  sheet.close();
+               }
+            }
+
+            if (!found)
+               addError("Worksheet named: " + Util.sq(worksheetName) + " not found in file: " + inputFile);
+         }
+         catch (Exception e) {
+            setException(e);
+            System.out.println("Failed to get test items from worksheet named: " + Util.sq(worksheetName) + " in file: " + inputFile + " - " + e.getMessage());
+         }
+         finally {
+            if (pkg != null)
+               pkg.revert(); // Opened for reading - nothing to save
+            System.out.println(String.valueOf(nRows) + " test items found on worksheet " + worksheetName + " in file: " + inputFile);
+         }
+      }
+
+      /**
+       * @param cellReference - A cell reference such as "AB12"
+       * @return The zero based column index of the reference (or -1 if there is no reference)
+       */
+      private static int columnIndex(String cellReference) {
+         if (isBlank(cellReference))
+            return -1;
+         int result = 0;
+         for (int i = 0; i < cellReference.length(); i++) {
+            char c = cellReference.charAt(i);
+            if (!Character.isLetter(c))
+               break;
+            result = (result * 26) + (Character.toUpperCase(c) - 'A' + 1);
+         }
+         return result - 1;
+      }
+
+      private static String[] emptyRow() {
+         String[] result = new String[NColumns];
+         for (int i = 0; i < NColumns; i++)
+            result[i] = "";
+         return result;
+      }
+
+      /**
+       * SAX handler of a worksheet's xml - collects the first 8 cells of each row following the (title) row 1.
+       * Rows missing from the worksheet's xml (never populated) are provided as empty rows.
+       */
+      private static class SheetHandler extends DefaultHandler {
+         private final ReadOnlySharedStringsTable sharedStrings;
+         private final ArrayList<String[]> rows = new ArrayList<String[]>();
+         private final StringBuilder value = new StringBuilder();
+         private String[] currentRow;
+         private int rowIndex = -1;
+         private int column = -1;
+         private String cellType;
+         private boolean isValue;
+
+         private SheetHandler(ReadOnlySharedStringsTable sharedStrings) {
+            this.sharedStrings = sharedStrings;
+         }
+
+         private ArrayList<String[]> getRows() {
+            return rows;
+         }
+
+         @Override
+         public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+               case "row": {
+                  String r = attributes.getValue("r");
+                  rowIndex = isBlank(r) ? rowIndex + 1 : Integer.parseInt(r) - 1;
+                  column = -1;
+                  currentRow = null;
+                  // Row 1 (index 0) holds the column titles
+                  if (rowIndex < 1)
+                     break;
+                  while (rows.size() < rowIndex - 1)
+                     rows.add(emptyRow());
+                  currentRow = emptyRow();
+                  break;
+               }
+               case "c": {
+                  int index = columnIndex(attributes.getValue("r"));
+                  column = (index < 0) ? column + 1 : index;
+                  cellType = attributes.getValue("t");
+                  value.setLength(0);
+                  break;
+               }
+               case "v":
+               case "t":
+                  isValue = true;
+                  break;
+            }
+         }
+
+         @Override
+         public void characters(char[] ch, int start, int length) {
+            if (isValue)
+               value.append(ch, start, length);
+         }
+
+         @Override
+         public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+               case "v":
+               case "t":
+                  isValue = false;
+                  break;
+               case "c":
+                  if (currentRow != null && column >= 0 && column < NColumns)
+                     currentRow[column] = cellValue();
+                  break;
+               case "row":
+                  if (currentRow != null)
+                     rows.add(currentRow);
+                  currentRow = null;
+                  break;
+            }
+         }
+
+         private String cellValue() {
+            String content = value.toString();
+            if ("s".equals(cellType))
+               return isBlank(content) ? "" : sharedStrings.getEntryAt(Integer.parseInt(content.trim()));
+            if ("b".equals(cellType))
+               return "1".equals(content.trim()) ? "TRUE" : "FALSE";
+            return content;
+         }
+      }
+   }
+
    /**
     * Created with IntelliJ IDEA.
     * User: Avraham (Bey) Melamed
@@ -481,6 +750,243 @@ public abstract class FileTestStringsProvider extends TestStringsProvider {
       }
    }
 
+   /**
+    * Created with IntelliJ IDEA.
+    * User: agent
+    * Date: 10/17/26
+    * Selenium Based Automation
+    *
+    * =============================================================================
+    * Copyright 2014 Avraham (Bey) Melamed.
+    *
+    * Licensed under the Apache License, Version 2.0 (the "License");
+    * you may not use this file except in compliance with the License.
+    * You may obtain a copy of the License at
+    *
+    * http://www.apache.org/licenses/LICENSE-2.0
+    *
+    * Unless required by applicable law or agreed to in writing, software
+    * distributed under the License is distributed on an "AS IS" BASIS,
+    * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    * See the License for the specific language governing permissions and
+    * limitations under the License.
+    * =============================================================================
+    *
+    * Description - Provides test items from a (large) json file without parsing the entire document into a tree.
+    *               The objects of the top level "TestItems" array are read one at a time (json-simple's ContentHandler - see ItemsHandler)
+    *               and only the 8 known properties of each item are kept - other properties are skipped as they are read.
+    *               Each item's strings go straight into the provided String[][] - memory used is that of the items' strings.
+    *               Property values are the same as those provided by JSONTestStringsProvider (values as strings, "" for missing or null values).
+    *
+    * NOTE: This class is one of several test item strings provider classes - this is used for .json files larger than DDTSettings.streamingJsonSize()
+    *       The test runner takes the file's items as a whole (shards, parallel steps and results are by item position) - all items are provided at once.
+    *
+    * History
+    * When        |Who      |What
+    * ============|=========|====================================
+    * 10/17/26    |agent    |Initial Version
+    * ============|=========|====================================
+    */
+   public static class StreamingJSONTestStringsProvider extends FileTestStringsProvider {
+
+      public StreamingJSONTestStringsProvider() {
+      }
+
+      public StreamingJSONTestStringsProvider(TestStringsProviderSpecs inputSpecs) {
+         setTestStringsProviderSpecs(inputSpecs);
+         addError(getTestStringsProviderSpecs().getErrors());
+      }
+
+      @Override
+      void provideStrings() throws IOException {
+
+         // Setup errors are set by the constructor - if any.
+         if (!isBlank(getErrors()) || !isSetupValid())
+            return;
+
+         String inputFile = getSourceName();
+         ItemsHandler handler = new ItemsHandler();
+         Reader reader = null;
+
+         try {
+            reader = new BufferedReader(new FileReader(new File(DDTSettings.asValidOSPath(inputFile, true))));
+            new JSONParser().parse(reader, handler);
+
+            int nItems = handler.nItems;
+            if (nItems > 0) {
+               setDataStrings((nItems == handler.items.length) ? handler.items : Arrays.copyOf(handler.items, nItems));
+               System.out.println(nItems + " Items found on file " + inputFile);
+               addComment(nItems + " Items found on file " + inputFile);
+            }
+            else {
+               System.out.println("No Items found on file " + inputFile);
+               addError("No Items found on file " + inputFile);
+            }
+         }
+         catch (Exception e) {
+            setException(e);
+            throw new java.io.IOException("Failed to get test item strings from json file: " + e.toString());
+         }
+         finally {
+            if (reader != null)
+               reader.close();
+         }
+      }
+
+      /**
+       * @param name
+       * @return The item string of a property - -1 for properties not kept
+       */
+      private static int columnOf(String name) {
+         // Note: the names of the properties are case sensitive (as with JSONTestStringsProvider)
+         switch (name) {
+            case "id" : return 0;
+            case "action" : return 1;
+            case "locType" : return 2;
+            case "locSpecs" : return 3;
+            case "qryFunction" : return 4;
+            case "active" : return 5;
+            case "params" : return 6;
+            case "description" : return 7;
+            default: return -1;
+         }
+      }
+
+      /**
+       * Keeps the 8 strings of each item of the TestItems array as the item is read - in the order of the spreadsheet provider.
+       * Stops the parser at the end of the TestItems array (the rest of the document is not read).
+       */
+      private static class ItemsHandler implements ContentHandler {
+         private static final String ItemsName = "TestItems";
+
+         // The items read so far (the first nItems rows) - grown as needed
+         private String[][] items = new String[256][];
+         private int nItems;
+         // Depth of the current object / array, that of the TestItems array (0 - not in it, -1 - its value is next)
+         private int depth;
+         private int itemsDepth;
+         private String[] current;
+         private int column = -1;
+         // A kept property's object / array value - built only for those (rare) values
+         private LinkedList<Object> valueStack = new LinkedList<Object>();
+         private LinkedList<String> keyStack = new LinkedList<String>();
+         private boolean done;
+
+         @Override
+         public void startJSON() {
+         }
+
+         @Override
+         public void endJSON() {
+         }
+
+         private boolean isCapturing() {
+            return !valueStack.isEmpty();
+         }
+
+         @SuppressWarnings("unchecked")
+         private void captured(Object value) {
+            Object parent = valueStack.peek();
+            if (parent instanceof JSONObject)
+               ((JSONObject) parent).put(keyStack.peek(), value);
+            else
+               ((JSONArray) parent).add(value);
+         }
+
+         private void startCapture(Object container) {
+            if (isCapturing())
+               captured(container);
+            valueStack.push(container);
+         }
+
+         private void endCapture() {
+            Object value = valueStack.pop();
+            if (!isCapturing())
+               current[column] = value.toString();
+         }
+
+         @Override
+         public boolean startObject() {
+            depth++;
+            if (current != null && column > -1)
+               startCapture(new JSONObject());
+            else if (itemsDepth > 0 && depth == itemsDepth + 1) {
+               current = new String[] {"", "", "", "", "", "", "", ""};
+               column = -1;
+            }
+            return true;
+         }
+
+         @Override
+         public boolean endObject() {
+            depth--;
+            if (isCapturing())
+               endCapture();
+            else if (current != null && depth == itemsDepth) {
+               if (nItems == items.length)
+                  items = Arrays.copyOf(items, 2 * nItems);
+               items[nItems++] = current;
+               current = null;
+            }
+            return true;
+         }
+
+         @Override
+         public boolean startObjectEntry(String key) {
+            if (isCapturing())
+               keyStack.push(key);
+            else if (current != null && depth == itemsDepth + 1)
+               column = columnOf(key);
+            else if (depth == 1 && itemsDepth == 0 && ItemsName.equals(key))
+               // The next array is the items array
+               itemsDepth = -1;
+            return true;
+         }
+
+         @Override
+         public boolean endObjectEntry() {
+            if (isCapturing())
+               keyStack.pop();
+            else if (current != null && depth == itemsDepth + 1)
+               column = -1;
+            else if (itemsDepth < 0)
+               // Not an array - there are no items
+               itemsDepth = 0;
+            return true;
+         }
+
+         @Override
+         public boolean startArray() {
+            depth++;
+            if (current != null && column > -1)
+               startCapture(new JSONArray());
+            else if (itemsDepth < 0 && depth == 2)
+               itemsDepth = depth;
+            return true;
+         }
+
+         @Override
+         public boolean endArray() {
+            depth--;
+            if (isCapturing())
+               endCapture();
+            else if (itemsDepth > 0 && depth < itemsDepth)
+               // Done with the items - the rest of the document is not read
+               done = true;
+            return !done;
+         }
+
+         @Override
+         public boolean primitive(Object value) {
+            if (isCapturing())
+               captured(value);
+            else if (current != null && column > -1 && depth == itemsDepth + 1)
+               current[column] = (value == null) ? "" : value.toString();
+            return true;
+         }
+      }
+   }
+
    /**
     * Created with IntelliJ IDEA.
     * User: Avraham (Bey) Melamed
@@ -659,6 +1165,7 @@ public abstract class FileTestStringsProvider extends TestStringsProvider {
     * ============|=========|====================================
     * 8/30/15     |Bey      |Initial Version
     * 10/31/15    |Bey      |Change the name of "Data" element to "Params" - improved readability
+    * 10/17/26    |agent    |Tokenize memory mapped files (see DelimitedFileTokenizer), support line ranges as the items container
     * ============|=========|====================================
     */
    public static class DelimitedTestStringsProvider extends FileTestStringsProvider {
@@ -683,6 +1190,7 @@ public abstract class FileTestStringsProvider extends TestStringsProvider {
        * Lines starting with # are ignored.
        * The first line is headers by convention and is ignored
        * Must have at least two columns (one tab) per line
+       * An items container name of the form first-last, first- or lines:line (line numbers) reads those lines only - e.g. File!Generated.txt!1001-2000
        *
        * Here is an example of a file with two test steps (^t denotes a tab character)
        *
@@ -713,8 +1221,17 @@ public abstract class FileTestStringsProvider extends TestStringsProvider {
          try {
             File theFile;
             theFile = new File(DDTSettings.asValidOSPath(inputFile, true));
-            FileReader fr = new FileReader(theFile);
-            BufferedReader br = new BufferedReader(fr);
+            int[] lineRange = DelimitedFileTokenizer.lineRange(getItemsContainerName());
+
+            // Files that cannot be mapped are read line by line
+            ArrayList<String[]> mappedItems = DelimitedFileTokenizer.tokenize(theFile.getPath(), getItemsContainerName());
+            if (mappedItems != null) {
+               itemList = mappedItems;
+               nItems = itemList.size();
+               done = true;
+            }
+
+            BufferedReader br = done ? null : new BufferedReader(new FileReader(theFile));
 
             while (!done) {
                theLine = br.readLine();
@@ -723,6 +1240,8 @@ public abstract class FileTestStringsProvider extends TestStringsProvider {
                   nRows++;
                   if (nRows == 1)
                      continue;
+                  if (lineRange != null && (nRows < lineRange[0] || nRows > lineRange[1]))
+                     continue;
                   if (isBlank(theLine))
                      continue;
                   if (theLine.startsWith("#"))
@@ -762,6 +1281,85 @@ public abstract class FileTestStringsProvider extends TestStringsProvider {
       }
    }
 
+   /**
+    * Created with IntelliJ IDEA.
+    * User: agent
+    * Date: 10/17/26
+    * Selenium Based Automation
+    *
+    * =============================================================================
+    * Copyright 2014 Avraham (Bey) Melamed.
+    *
+    * Licensed under the Apache License, Version 2.0 (the "License");
+    * you may not use this file except in compliance with the License.
+    * You may obtain a copy of the License at
+    *
+    * http://www.apache.org/licenses/LICENSE-2.0
+    *
+    * Unless required by applicable law or agreed to in writing, software
+    * distributed under the License is distributed on an "AS IS" BASIS,
+    * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    * See the License for the specific language governing permissions and
+    * limitations under the License.
+    * =============================================================================
+    *
+    * Description - Provides the root test items of a compiled test plan (.ddtplan - see TestPlan).
+    *               The plan file is memory mapped and activated - the NewTest steps' segments of the session are served from the plan.
+    *               If the root's source changed since the plan was compiled the root items are provided from the source.
+    *
+    * NOTE: This class is one of several test item strings provider classes - this is used for .ddtplan files
+    *
+    * History
+    * When        |Who      |What
+    * ============|=========|====================================
+    * 10/17/26    |agent    |Initial Version
+    * ============|=========|====================================
+    */
+   public static class CompiledTestStringsProvider extends FileTestStringsProvider {
+
+      public CompiledTestStringsProvider() {
+      }
+
+      public CompiledTestStringsProvider(TestStringsProviderSpecs inputSpecs) {
+         setTestStringsProviderSpecs(inputSpecs);
+         addError(getTestStringsProviderSpecs().getErrors());
+      }
+
+      @Override
+      void provideStrings() throws IOException {
+
+         // Setup errors are set by the constructor - if any.
+         if (!isBlank(getErrors()) || !isSetupValid())
+            return;
+
+         String inputFile = getSourceName();
+         try {
+            TestPlan plan = TestPlan.open(inputFile);
+            plan.activate();
+            String[][] strings = plan.rootStrings();
+            if (strings == null) {
+               // Stale root - provided from its source (the plan's fresh segments are still served)
+               TestStringsProviderSpecs rootSpecs = new TestStringsProviderSpecs(plan.getRootInputSpecs());
+               strings = TestStringsProvider.provideTestStrings(rootSpecs, DDTSettings.Settings().dataFolder());
+            }
+
+            if (strings != null && strings.length > 0) {
+               setDataStrings(strings);
+               System.out.println(strings.length + " Items found on test plan " + inputFile);
+               addComment(strings.length + " Items found on test plan " + inputFile);
+            }
+            else {
+               System.out.println("No Items found on test plan " + inputFile);
+               addError("No Items found on test plan " + inputFile);
+            }
+         }
+         catch (Exception e) {
+            setException(e);
+            throw new java.io.IOException("Failed to get test item strings from test plan: " + e.toString());
+         }
+      }
+   }
+
    /**
     * Created with IntelliJ IDEA.
     * User: Avraham (Bey) Melamed
@@ -786,6 +1384,7 @@ public abstract class FileTestStringsProvider extends TestStringsProvider {
     * =============================================================================
     *
     * Description  - Gets test items to process from an XML file
+    *                Files larger than DDTSettings.xmlSplitSize() are parsed in parts (runs of TestItem elements) by DDTSettings.xmlSplitWorkers() threads
     *
     * NOTE: This class is one of several test items provider classes - this is the XML version
     *
@@ -793,10 +1392,14 @@ public abstract class FileTestStringsProvider extends TestStringsProvider {
     * When        |Who      |What
     * ============|=========|====================================
     * 07/02/14    |Bey      |Initial Version
+    * 10/17/26    |agent    |Parse large files in parts on several threads, share the XMLInputFactory
     * ============|=========|====================================
     */
    public static class XMLTestStringsProvider extends FileTestStringsProvider {
 
+      // Creating readers is thread safe once the factory is set up
+      private static final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+
       public XMLTestStringsProvider() {
       }
 
@@ -868,12 +1471,15 @@ public abstract class FileTestStringsProvider extends TestStringsProvider {
        * =============================================================================
        *
        * Description  - Parses XML file to extract test items strings from it
+       *                Each TestItem element is an item - attributes not set carry over from the previous item ("" for the first item)
        *
        * History
        * When        |Who      |What
        * ============|=========|====================================
        * 07/02/14    |Bey      |Initial Version
        * 10/31/15    |Bey      |Change the name of "Data" element to "Params" - improved readability
+       * 10/17/26    |agent    |Cursor parsing (XMLStreamReader)
+       * 10/17/26    |agent    |Parse large files in parts (split at TestItem elements) on several threads
        * ============|=========|====================================
        */
       public class DDTestParser {
@@ -886,6 +1492,11 @@ public abstract class FileTestStringsProvider extends TestStringsProvider {
          static final String ACTIVE = "Active";
          static final String DATA = "Params";
          static final String DESCRIPTION = "Description";
+         // Wraps the TestItem elements of a part of the file
+         static final String PART = "DDTPart";
+
+         // The attributes in the order of a test item's strings (literals are interned)
+         private final String[] columns = {ID, ACTION, LOCTYPE, LOCSPECS, QRYFUNCTION, ACTIVE, DATA, DESCRIPTION};
 
          private Exception exception;
 
@@ -904,68 +1515,364 @@ public abstract class FileTestStringsProvider extends TestStringsProvider {
           * Build the instances ArrayList<String[]>
           * @param inputFile
           */
-         @SuppressWarnings("unchecked")
          public void buildTestStrings(String inputFile) {
-            ArrayList<String[]> itemsList = new ArrayList<String[]>();
+            ArrayList<String[]> itemsList = null;
 
             try {
-               // Create a new XMLInputFactory
-               XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-               // Setup a new eventReader
-               InputStream in = new FileInputStream(inputFile);
-               XMLEventReader eventReader = inputFactory.createXMLEventReader(in);
-
-               String id = "";
-               String action = "";
-               String locType = "";
-               String locSpecs = "";
-               String qryFunction = "";
-               String active = "";
-               String data = "";
-               String description = "";
-
-               while (eventReader.hasNext()) {
-                  XMLEvent event = eventReader.nextEvent();
-
-                  if (event.isStartElement()) {
-                     StartElement startElement = event.asStartElement();
-                     // If we have an item element, we create a new item
-                     if (startElement.getName().getLocalPart() == (TESTITEM)) {
-                        // We read the attributes from this tag and add the date
-                        // attribute to our object
-                        Iterator<Attribute> attributes = startElement.getAttributes();
-                        while (attributes.hasNext()) {
-                           Attribute attribute = attributes.next();
-                           switch (attribute.getName().toString()) {
-                              case ID : id = attribute.getValue() ; break;
-                              case ACTION : action = attribute.getValue() ; break;
-                              case LOCTYPE : locType = attribute.getValue() ; break;
-                              case LOCSPECS : locSpecs = attribute.getValue() ; break;
-                              case QRYFUNCTION : qryFunction = attribute.getValue() ; break;
-                              case ACTIVE: active = attribute.getValue() ; break;
-                              case DATA : data = attribute.getValue() ; break;
-                              case DESCRIPTION : description = attribute.getValue() ; break;
-                           }
-                        }
-                        String[] item = {id, action, locType, locSpecs, qryFunction, active, data, description};
-                        itemsList.add(item);
-                        count++;
-                     }
-                     else
-                        continue;
-                  } // Trip on the next start element
-                  // Upon reaching the end of an item - skip to the next
-                  if (event.isEndElement()) {
-                     EndElement endElement = event.asEndElement();
+               File file = new File(inputFile);
+               int nWorkers = DDTSettings.Settings().xmlSplitWorkers();
+               if (nWorkers > 1 && file.length() > DDTSettings.Settings().xmlSplitSize() * 1024L * 1024L)
+                  itemsList = parseInParts(file, nWorkers);
+
+               if (itemsList == null) {
+                  itemsList = new ArrayList<String[]>();
+                  InputStream in = new BufferedInputStream(new FileInputStream(inputFile));
+                  try {
+                     XMLStreamReader reader = inputFactory.createXMLStreamReader(in);
+                     parseItems(reader, itemsList, "");
+                     reader.close();
                   }
-               } // While event reader hasNext()
+                  finally {
+                     in.close();
+                  }
+               }
             } catch (FileNotFoundException e) {
                setException(e);
             } catch (XMLStreamException e) {
                setException(e);
+            } catch (IOException e) {
+               setException(e);
             }
-            stringifyTestItems(itemsList);
+            count = (itemsList == null) ? 0 : itemsList.size();
+            stringifyTestItems((itemsList == null) ? new ArrayList<String[]>() : itemsList);
          } // BuildTestStrings
+
+         /**
+          * @param name
+          * @return The test item string of an attribute - -1 for other attributes
+          */
+         private int columnOf(String name) {
+            // Parsers keep names in (interned) symbol tables - compare references first
+            for (int i = 0; i < columns.length; i++) {
+               if (columns[i] == name)
+                  return i;
+            }
+            for (int i = 0; i < columns.length; i++) {
+               if (columns[i].equals(name))
+                  return i;
+            }
+            return -1;
+         }
+
+         /**
+          * Add the TestItem elements' strings to the items - a cursor over the document.
+          * Attributes not set carry over from the previous item (the row is re-used - each item gets a copy)
+          * @param reader
+          * @param items
+          * @param initial - the value of attributes not set by any item so far ("" - null for the parts following the first, see joinParts())
+          * @throws XMLStreamException
+          */
+         private void parseItems(XMLStreamReader reader, ArrayList<String[]> items, String initial) throws XMLStreamException {
+            String[] row = new String[columns.length];
+            Arrays.fill(row, initial);
+            while (reader.hasNext()) {
+               if (reader.next() != XMLStreamConstants.START_ELEMENT)
+                  continue;
+               String name = reader.getLocalName();
+               if (name != TESTITEM && !TESTITEM.equals(name))
+                  continue;
+
+               for (int i = 0, n = reader.getAttributeCount(); i < n; i++) {
+                  if (!isBlank(reader.getAttributeNamespace(i)))
+                     continue;
+                  int column = columnOf(reader.getAttributeLocalName(i));
+                  if (column > -1)
+                     row[column] = reader.getAttributeValue(i);
+               }
+               items.add(row.clone());
+            }
+         }
+
+         /**
+          * Parse a large file in parts (each a run of TestItem elements) on several threads
+          * @param file
+          * @param nWorkers
+          * @return The items in document order - null if the file cannot be split (the file is then parsed as a whole)
+          */
+         private ArrayList<String[]> parseInParts(File file, int nWorkers) {
+            if (file.length() > Integer.MAX_VALUE)
+               return null;
+
+            ExecutorService pool = null;
+            try {
+               final ByteBuffer bytes = Util.fileBuffer(file);
+
+               ItemScanner scanner = new ItemScanner(bytes);
+               if (!scanner.scan() || scanner.nItems < nWorkers)
+                  return null;
+
+               // Contiguous runs of (about) the same number of items
+               final String encoding = scanner.encoding;
+               int nParts = nWorkers;
+               List<Future<ArrayList<String[]>>> parts = new ArrayList<Future<ArrayList<String[]>>>();
+               pool = Executors.newFixedThreadPool(nParts);
+               for (int p = 0; p < nParts; p++) {
+                  int first = (int) ((long) scanner.nItems * p / nParts);
+                  int last = (int) ((long) scanner.nItems * (p + 1) / nParts) - 1;
+                  final int from = scanner.starts[first];
+                  final int to = scanner.ends[last];
+                  // Attributes the first items of later parts do not set are carried over from the previous part (see joinParts())
+                  final String initial = (p == 0) ? "" : null;
+                  parts.add(pool.submit(new Callable<ArrayList<String[]>>() {
+                     public ArrayList<String[]> call() throws Exception {
+                        return parsePart(bytes, from, to, encoding, initial);
+                     }
+                  }));
+               }
+
+               ArrayList<String[]> result = new ArrayList<String[]>(scanner.nItems);
+               for (Future<ArrayList<String[]>> part : parts)
+                  joinPart(result, part.get());
+               if (result.size() != scanner.nItems)
+                  return null;
+               return result;
+            }
+            catch (Exception e) {
+               System.out.println("Could not parse " + Util.sq(file.getPath()) + " in parts (" + e.toString() + ") - parsing it as a whole");
+               return null;
+            }
+            finally {
+               if (pool != null)
+                  pool.shutdownNow();
+            }
+         }
+
+         /**
+          * Append the items of a part - attributes the part did not set yet (null) are those of the last item before the part
+          * @param items
+          * @param part
+          */
+         private void joinPart(ArrayList<String[]> items, ArrayList<String[]> part) {
+            String[] previous = items.isEmpty() ? null : items.get(items.size() - 1);
+            for (String[] item : part) {
+               for (int i = 0; i < item.length; i++) {
+                  if (item[i] == null)
+                     item[i] = (previous == null) ? "" : previous[i];
+               }
+               items.add(item);
+               previous = item;
+            }
+         }
+
+         /**
+          * @return The items of the bytes [from, to) - parsed as the content of a PART element
+          */
+         private ArrayList<String[]> parsePart(ByteBuffer bytes, int from, int to, String encoding, String initial) throws XMLStreamException, IOException {
+            final ByteBuffer part = bytes.duplicate();
+            part.position(from);
+            part.limit(to);
+            InputStream partStream = new InputStream() {
+               @Override
+               public int read() {
+                  return part.hasRemaining() ? (part.get() & 0xFF) : -1;
+               }
+
+               @Override
+               public int read(byte[] b, int off, int len) {
+                  if (!part.hasRemaining())
+                     return -1;
+                  int n = Math.min(len, part.remaining());
+                  part.get(b, off, n);
+                  return n;
+               }
+            };
+            InputStream in = new SequenceInputStream(Collections.enumeration(Arrays.asList(
+                  new ByteArrayInputStream(("<" + PART + ">").getBytes(encoding)), partStream,
+                  new ByteArrayInputStream(("</" + PART + ">").getBytes(encoding)))));
+
+            ArrayList<String[]> result = new ArrayList<String[]>();
+            XMLStreamReader reader = inputFactory.createXMLStreamReader(in, encoding);
+            try {
+               parseItems(reader, result, initial);
+            }
+            finally {
+               reader.close();
+            }
+            return result;
+         }
+
+         /**
+          * Finds the byte ranges of the TestItem elements without parsing the document - comments, CDATA sections, processing instructions
+          * and quoted attribute values are skipped. A document is split only if its TestItem elements are siblings (children of the same element -
+          * a part must not close and open their parents), its encoding is UTF-8 or a single byte ASCII compatible one and it has no DOCTYPE
+          * (entities and default attributes need the DTD).
+          */
+         private class ItemScanner {
+            private final ByteBuffer bytes;
+            private final int limit;
+            private String encoding = "UTF-8";
+            private int[] starts = new int[1024];
+            private int[] ends = new int[1024];
+            private int nItems;
+
+            private ItemScanner(ByteBuffer bytes) {
+               this.bytes = bytes;
+               this.limit = bytes.limit();
+            }
+
+            private boolean startsWith(int at, String text) {
+               if (at + text.length() > limit)
+                  return false;
+               for (int i = 0; i < text.length(); i++) {
+                  if ((bytes.get(at + i) & 0xFF) != text.charAt(i))
+                     return false;
+               }
+               return true;
+            }
+
+            private int indexOf(int from, String text) {
+               for (int i = from; i + text.length() <= limit; i++) {
+                  if (startsWith(i, text))
+                     return i;
+               }
+               return -1;
+            }
+
+            /**
+             * @return The index of the '>' closing the tag starting at from (quoted values may have '>') - -1 if none
+             */
+            private int tagEnd(int from) {
+               byte quote = 0;
+               for (int i = from; i < limit; i++) {
+                  byte b = bytes.get(i);
+                  if (quote != 0) {
+                     if (b == quote)
+                        quote = 0;
+                  }
+                  else if (b == '"' || b == '\'')
+                     quote = b;
+                  else if (b == '>')
+                     return i;
+               }
+               return -1;
+            }
+
+            private boolean isItemTag(int at) {
+               if (!startsWith(at, TESTITEM) || at + TESTITEM.length() >= limit)
+                  return false;
+               byte next = bytes.get(at + TESTITEM.length());
+               return next == '>' || next == '/' || next == ' ' || next == '\t' || next == '\r' || next == '\n';
+            }
+
+            private void add(int start, int end) {
+               if (nItems == starts.length) {
+                  starts = Arrays.copyOf(starts, nItems * 2);
+                  ends = Arrays.copyOf(ends, nItems * 2);
+               }
+               starts[nItems] = start;
+               ends[nItems] = end;
+               nItems++;
+            }
+
+            /**
+             * @param declarationEnd
+             * @return false if the declared encoding is not one the parts can be parsed in
+             */
+            private boolean readEncoding(int declarationEnd) {
+               byte[] declaration = new byte[declarationEnd];
+               ByteBuffer view = bytes.duplicate();
+               view.position(0);
+               view.get(declaration);
+               java.util.regex.Matcher matcher = java.util.regex.Pattern.compile("encoding\\s*=\\s*[\"']([A-Za-z0-9._\\-]+)[\"']").matcher(new String(declaration, java.nio.charset.Charset.forName("US-ASCII")));
+               if (!matcher.find())
+                  return true;
+               String declared = matcher.group(1);
+               switch (declared.toUpperCase()) {
+                  case "UTF-8" : case "UTF8" : case "US-ASCII" : case "ASCII" : case "ISO-8859-1" : case "LATIN1" : case "WINDOWS-1252" :
+                     encoding = declared;
+                     return true;
+                  default:
+                     return false;
+               }
+            }
+
+            /**
+             * @return true if the document can be split at its TestItem elements
+             */
+            private boolean scan() {
+               int i = 0;
+               // UTF-8 byte order mark - other marks are UTF-16 / UTF-32
+               if (startsWith(0, "\u00EF\u00BB\u00BF"))
+                  i = 3;
+               else if (limit > 1 && ((bytes.get(0) & 0xFF) == 0xFE || (bytes.get(0) & 0xFF) == 0xFF || bytes.get(0) == 0 || bytes.get(1) == 0))
+                  return false;
+
+               int depth = 0;
+               int itemDepth = -1;
+               int openItem = -1;
+               // The items' parent element ended - no more items
+               boolean parentEnded = false;
+               while (i < limit) {
+                  if (bytes.get(i) != '<') {
+                     i++;
+                     continue;
+                  }
+                  int end;
+                  if (startsWith(i, "<!--")) {
+                     end = indexOf(i + 4, "-->");
+                     if (end < 0)
+                        return false;
+                     i = end + 3;
+                  }
+                  else if (startsWith(i, "<![CDATA[")) {
+                     end = indexOf(i + 9, "]]>");
+                     if (end < 0)
+                        return false;
+                     i = end + 3;
+                  }
+                  else if (startsWith(i, "<?")) {
+                     end = indexOf(i + 2, "?>");
+                     if (end < 0 || (startsWith(i, "<?xml ") && !readEncoding(end)))
+                        return false;
+                     i = end + 2;
+                  }
+                  else if (startsWith(i, "<!"))
+                     return false;
+                  else if (startsWith(i, "</")) {
+                     end = tagEnd(i + 2);
+                     if (end < 0)
+                        return false;
+                     depth--;
+                     if (openItem > -1 && depth == itemDepth) {
+                        add(openItem, end + 1);
+                        openItem = -1;
+                     }
+                     else if (depth < itemDepth)
+                        parentEnded = true;
+                     i = end + 1;
+                  }
+                  else {
+                     end = tagEnd(i + 1);
+                     if (end < 0)
+                        return false;
+                     boolean selfClosing = bytes.get(end - 1) == '/';
+                     if (isItemTag(i + 1)) {
+                        if (openItem > -1 || parentEnded || (itemDepth > -1 && itemDepth != depth))
+                           return false;
+                        itemDepth = depth;
+                        if (selfClosing)
+                           add(i, end + 1);
+                        else
+                           openItem = i;
+                     }
+                     if (!selfClosing)
+                        depth++;
+                     i = end + 1;
+                  }
+               }
+               return depth == 0 && openItem < 0;
+            }
+         }
       } // DDTestParser
    } // XMLTestStringsProvider
 }
@@ -0,0 +1,204 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Created with IntelliJ IDEA.
+ * User: agent
+ * Date: 10/17/26
+ * Selenium Based Automation
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * Writes the JSON results file of a level's test items (TestItem.TestItems) incrementally - each test item is appended (and flushed)
+ * as soon as it completes while pass / fail / skip counts are kept along the way.
+ * The results of the steps that completed survive a session that dies before finishing and memory use does not grow with the number of steps.
+ * The file's keys, their order and values are those of TestItems.asJSONArray() (size is the number of the section's items):
+ * the header holds size and room for the nPass, nFail and nSkip counts (quoted, padded with blanks) - the counts are written in place upon finish().
+ * The file's name and location and the items' representation (TestItem.asJSONString()) are the same as those of TestItems.asJSONArray()
+ *
+ * History
+ * When        |Who      |What
+ * ============|=========|====================================
+ * 10/17/26    |agent    |Initial Version
+ * ============|=========|====================================
+ */
+public class JSONResultsWriter {
+
+   // Width (in bytes) of a count's room in the header - a quoted count followed by blanks
+   private static final int CountWidth = 16;
+   private static final String[] CountKeys = {"nPass", "nFail", "nSkip"};
+
+   private final TestItem.TestItems testItems;
+   private FileOutputStream stream;
+   private Writer writer;
+   private final long[] countOffsets = new long[CountKeys.length];
+   private int nAppended = 0;   // Positions (of testItems' items) consumed so far - including empty positions
+   private int nWritten = 0;
+   private int nPass = 0;
+   private int nFail = 0;
+   private int nSkip = 0;
+
+   private JSONResultsWriter(TestItem.TestItems testItems) {
+      this.testItems = testItems;
+   }
+
+   /**
+    * Create the JSON results file of the test items and write the section's header
+    * @param testItems
+    * @return The writer - results are not written (but still counted) if the file could not be created
+    */
+   public static JSONResultsWriter open(TestItem.TestItems testItems) {
+      JSONResultsWriter result = new JSONResultsWriter(testItems);
+      String outputFileName = testItems.getJSONFileName();
+      if (isBlank(outputFileName)) {
+         System.out.println("Test Case Not Reported - Empty File Name Encountered!");
+         return result;
+      }
+      outputFileName = DDTTestRunner.getReporter().sessionTestsFolderName() + File.separator + outputFileName;
+
+      try {
+         File output = new File(DDTSettings.asValidOSPath(outputFileName, true));
+         if (output.getParentFile() != null)
+            output.getParentFile().mkdirs();
+         result.stream = new FileOutputStream(output);
+         result.writer = new BufferedWriter(new OutputStreamWriter(result.stream, "UTF-8"));
+
+         StringBuilder sb = new StringBuilder("{");
+         sb.append(Util.dq("inputProvider") + ":" + Util.dq(Util.jsonify(testItems.getInputProvider())) + ",");
+         sb.append(Util.dq("inputSegment") + ":" + Util.dq(testItems.getInputSegment()) + ",");
+         sb.append(Util.dq("jsonFileName") + ":" + Util.dq(Util.jsonify((testItems.getJSONFileName()))) + ",");
+         sb.append(Util.dq("size") + ":" + Util.dq(String.valueOf(testItems.getSize())));
+         for (int i = 0; i < CountKeys.length; i++) {
+            sb.append("," + Util.dq(CountKeys[i]) + ":");
+            result.countOffsets[i] = sb.toString().getBytes("UTF-8").length;
+            sb.append(countText(0));
+         }
+         if (testItems.getSize() > 0)
+            sb.append("," + Util.dq("tests") + ":[\n");
+         result.write(sb.toString());
+      } catch (IOException e) {
+         System.out.println("Test Case Not Reported - Failed to create JSON results file: " + outputFileName + " (" + e.getMessage() + ")");
+         result.close();
+      }
+      return result;
+   }
+
+   /**
+    * @param count
+    * @return The count quoted and padded with blanks to CountWidth
+    */
+   private static String countText(int count) {
+      StringBuilder sb = new StringBuilder(Util.dq(String.valueOf(count)));
+      while (sb.length() < CountWidth)
+         sb.append(' ');
+      return sb.toString();
+   }
+
+   private void close() {
+      try {
+         if (writer != null)
+            writer.close();
+         else if (stream != null)
+            stream.close();
+      } catch (IOException e) {
+         // Nothing more to do
+      }
+      writer = null;
+      stream = null;
+   }
+
+   private void write(String text) throws IOException {
+      if (writer == null)
+         return;
+      writer.write(text);
+      writer.flush();
+   }
+
+   /**
+    * Append the next test item of the section - null (empty) positions are consumed but not written
+    * @param testItem
+    */
+   public synchronized void append(TestItem testItem) {
+      nAppended++;
+      if (testItem == null)
+         return;
+
+      String status = testItem.getStatus();
+      if (status.equalsIgnoreCase("pass"))
+         nPass++;
+      else if (status.equalsIgnoreCase("fail"))
+         nFail++;
+      else if (status.equalsIgnoreCase("skip"))
+         nSkip++;
+
+      try {
+         write((nWritten > 0 ? ",\n" : "") + testItem.asJSONString());
+      } catch (IOException e) {
+         System.out.println("Failed writing JSON results of test item: " + testItem.getId() + " (" + e.getMessage() + ")");
+      }
+      nWritten++;
+   }
+
+   /**
+    * Append the section's items not appended yet (steps not reached, e.g. following a terminating step), write the counts and close the file
+    */
+   public synchronized void finish() {
+      TestItem[] items = testItems.getItems();
+      while (items != null && nAppended < items.length)
+         append(items[nAppended]);
+
+      try {
+         write((testItems.getSize() > 0) ? "\n]}" : "}");
+         if (stream != null) {
+            // Positional writes - the stream's own position (the end of the file) is left as is
+            int[] counts = {nPass, nFail, nSkip};
+            for (int i = 0; i < counts.length; i++)
+               stream.getChannel().write(ByteBuffer.wrap(countText(counts[i]).getBytes("UTF-8")), countOffsets[i]);
+         }
+      } catch (IOException e) {
+         System.out.println("Failed completing JSON results file (" + e.getMessage() + ")");
+      }
+      close();
+   }
+
+   /**
+    * @return The number of test items written
+    */
+   public int getSize() {
+      return nWritten;
+   }
+
+   public int getNPass() {
+      return nPass;
+   }
+
+   public int getNFail() {
+      return nFail;
+   }
+
+   public int getNSkip() {
+      return nSkip;
+   }
+}
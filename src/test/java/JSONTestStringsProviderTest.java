@@ -0,0 +1,141 @@
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.testng.Assert.*;
+
+/**
+ * Created by agent on 10/17/26.
+ * Selenium Based Automation Project
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * FileTestStringsProvider.StreamingJSONTestStringsProvider - json files read one item at a time (StreamingJsonSize of 0) provide the
+ * same test strings as files parsed as a whole (JSONTestStringsProvider)
+ *
+ * When      |Who            |What
+ * ==========|===============|========================================================
+ * 10/17/26  |agent          |Initial Version
+ * ==========|===============|========================================================
+ */
+public class JSONTestStringsProviderTest {
+
+   private static final String StreamingJsonSize = DDTSettings.SystemOverridePrefix + "StreamingJsonSize";
+   private static final String[] Properties = {"id", "action", "locType", "locSpecs", "qryFunction", "active", "params", "description"};
+
+   private File file;
+
+   @BeforeMethod
+   public void setUp() throws IOException {
+      TestStringsCache.clear();
+      file = File.createTempFile("ddt", ".json");
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void tearDown() {
+      System.clearProperty(StreamingJsonSize);
+      DDTSettings.reset();
+      TestStringsCache.clear();
+      file.delete();
+   }
+
+   private void write(String content) throws IOException {
+      FileOutputStream stream = new FileOutputStream(file);
+      try {
+         stream.write(content.getBytes("UTF-8"));
+      }
+      finally {
+         stream.close();
+      }
+   }
+
+   /**
+    * @return An item setting some of the properties only - with values of several json types and properties that are not kept
+    */
+   private static String item(int n) {
+      StringBuilder sb = new StringBuilder("{");
+      for (int i = 0; i < Properties.length; i++) {
+         if ((n + i) % 4 == 0)
+            continue;
+         sb.append("\"" + Properties[i] + "\": ");
+         switch ((n + i) % 7) {
+            case 0 : sb.append(n); break;
+            case 1 : sb.append("null"); break;
+            case 2 : sb.append((n % 2 == 0) ? "true" : "1.5"); break;
+            case 3 : sb.append("{\"a\": [1, {\"b\": \"c\"}], \"d\": null}"); break;
+            default : sb.append("\"" + Properties[i] + " " + n + " \\\"quoted\\\" \\u00e9\u4e2d\"");
+         }
+         sb.append(", ");
+         if (n % 3 == 0)
+            sb.append("\"other\": {\"action\": \"not an item's\", \"list\": [{\"id\": \"nested\"}]}, ");
+      }
+      sb.append("\"last\": [\"not kept\"]}");
+      return sb.toString();
+   }
+
+   private static String document(int nItems) {
+      StringBuilder sb = new StringBuilder("{\"Description\": \"Streaming test\", \"Other\": [{\"action\": \"not an item\"}],\n\"TestItems\": [\n");
+      for (int n = 0; n < nItems; n++)
+         sb.append((n > 0 ? ",\n" : "") + "  " + item(n));
+      sb.append("\n],\n\"After\": {\"TestItems\": [{\"action\": \"not an item\"}]}}\n");
+      return sb.toString();
+   }
+
+   private String[][] provided(int streamingJsonSize) {
+      System.setProperty(StreamingJsonSize, Integer.toString(streamingJsonSize));
+      DDTSettings.reset();
+      TestStringsCache.clear();
+      String[][] result = TestStringsProvider.provideTestStrings("File!" + file.getAbsolutePath() + "!Items", DDTSettings.Settings().dataFolder());
+      TestStringsCache.clear();
+      return result;
+   }
+
+   @Test
+   public void streamedAsWhole() throws IOException {
+      // More items than the initial capacity of the streaming provider
+      for (int nItems : new int[] {1, 7, 600}) {
+         write(document(nItems));
+         String[][] expected = provided(10);
+         assertNotNull(expected);
+         assertEquals(expected.length, nItems);
+         assertEquals(provided(0), expected, "Items of a document of " + nItems);
+      }
+   }
+
+   @Test
+   public void missingAndNullValuesAreBlank() throws IOException {
+      write("{\"TestItems\": [{\"action\": \"Click\", \"id\": null}, {\"id\": 2, \"active\": false}]}");
+      String[][] strings = provided(0);
+      assertEquals(strings, new String[][] {{"", "Click", "", "", "", "", "", ""}, {"2", "", "", "", "", "false", "", ""}});
+   }
+
+   @Test
+   public void documentsWithoutItems() throws IOException {
+      write("{\"Description\": \"No items\", \"TestItems\": []}");
+      String[][] strings = provided(0);
+      assertTrue(strings == null || strings.length == 0);
+
+      write("{\"Description\": \"No items\", \"TestItems\": \"none\", \"Other\": [{\"action\": \"not an item\"}]}");
+      strings = provided(0);
+      assertTrue(strings == null || strings.length == 0);
+   }
+}
@@ -0,0 +1,234 @@
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Created with IntelliJ IDEA.
+ * User: agent
+ * Date: 10/17/26
+ * Selenium Based Automation
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * The html report of a report section (ReportingStyle = Live) written step by step as the session runs - the same layout as the
+ * default report (automation.xsl) produced directly, without the xml file and its xsl transformation.
+ * - The report file is created in the reports folder with the section's first report item: the page header, the project, mode, operating system,
+ *   environment, java and user rows and the steps table's header.
+ * - Each report item (of the statuses to report) is appended as a step row and flushed - the report can be viewed while the session runs;
+ *   while the section is in progress the page refreshes itself every DDTSettings.liveReportRefreshSeconds() seconds.
+ * - When the report is generated (DDTReporter.generateReport()) the module and summary rows are appended, the html is closed and the
+ *   page's refresh tag is overwritten (in place) by a comment of the same length.
+ *
+ * History
+ * When        |Who      |What
+ * ============|=========|====================================
+ * 10/17/26    |agent    |Initial Version
+ * ============|=========|====================================
+ */
+public class LiveHtmlReport {
+
+   private static final Charset Utf8 = Charset.forName("UTF-8");
+   private static final String HeaderCell = "<td width=\"20%\" style=\"background-color:#011414; color:#ffffff;\"><b>";
+   private static final String ValueCell = "<td bgcolor=\"5BF7F7\"><b>";
+   private static final String LogoUrl = "https://github.com/BeyMelamed/JavaDDT/blob/master/src/main/resources/Images/Client.png?raw=true";
+
+   private final String fileSpecs;
+   private final String statusToReport;
+   private Writer writer;
+   // Position and length of the page's refresh tag - overwritten when the report is finished
+   private long refreshTagOffset;
+   private int refreshTagLength;
+   private int nSteps;
+   private boolean finished;
+
+   /**
+    * Create the report file and write its header
+    * @param folder - the reports folder
+    * @param project - the project, operating system, environment, java and user items known when the section starts (see DDTReporter.generateReportSummary())
+    * @param os
+    * @param env
+    * @param java
+    * @param user
+    * @param statusToReport - the statuses of the report items to include in the report
+    * @param refreshSeconds - the page's refresh rate while the report is in progress (0 - no refresh)
+    * @throws IOException
+    */
+   public LiveHtmlReport(String folder, String project, String os, String env, String java, String user, String statusToReport, int refreshSeconds) throws IOException {
+      Util.setupReportFolder(DDTSettings.asValidOSPath(folder, true));
+      this.fileSpecs = DDTSettings.asValidOSPath(folder + File.separator + new SimpleDateFormat("yyyyMMdd-HHmmss.SSS").format(new Date()) + ".html", true);
+      this.statusToReport = statusToReport;
+
+      String head = "<html>\n<head>\n";
+      String refreshTag = (refreshSeconds > 0) ? "<meta http-equiv=\"refresh\" content=\"" + refreshSeconds + "\"/>\n" : "";
+      refreshTagOffset = head.getBytes(Utf8).length;
+      refreshTagLength = refreshTag.getBytes(Utf8).length;
+
+      StringBuilder sb = new StringBuilder(head);
+      sb.append(refreshTag);
+      sb.append("<meta http-equiv=\"Content-Type\" content=\"text/html; charset=UTF-8\"/>\n");
+      sb.append("</head>\n<body title=\"Automation Test Result\">\n");
+      sb.append("<table align=\"center\" width=\"80%\" border=\"0\" cellspacing=\"1\" bgcolor=\"#000000\" id=\"alternate\">\n<tr><td>\n");
+      sb.append("<table align=\"center\" width=\"100%\" height=\"10%\" border=\"0\" cellspacing=\"1\" bgcolor=\"#000000\" id=\"alternate\">\n<tr>\n");
+      sb.append("<td width=\"50\" bgcolor=\"#011414\"><img width=\"100\" src=\"" + LogoUrl + "\" alt=\"" + LogoUrl + "\"></img></td>\n");
+      sb.append("<td width=\"100%\" height=\"100%\">\n");
+      sb.append("<table align=\"center\" width=\"100%\" height=\"100%\" border=\"0\" cellspacing=\"0\" bgcolor=\"#000000\" id=\"alternate\">\n");
+      sb.append(headerRow("Project Name", project));
+      sb.append(headerRow("Reporting Mode", "Test Results (live - the module and summary are shown at the end of the report)"));
+      sb.append(headerRow("Operating System", os));
+      sb.append(headerRow("Environment", env));
+      sb.append(headerRow("Java", java));
+      sb.append(headerRow("User", user));
+      sb.append("</table>\n</td>\n</tr>\n</table>\n</td></tr>\n");
+      sb.append("<tr><td>\n<table align=\"center\" width=\"100%\" border=\"0\" cellspacing=\"1\" bgcolor=\"#000000\" id=\"alternate\">\n");
+      sb.append("<thead>\n<tr style=\"background-color:#000055; color:#ffffff;\">\n");
+      sb.append("<th width=\"5%\"><font face=\"verdana\" size=\"2\">Step #</font></th>\n");
+      sb.append("<th width=\"65%\"><font face=\"verdana\" size=\"2\">Action and Step Detail</font></th>\n");
+      sb.append("<th width=\"30%\"><font face=\"verdana\" size=\"2\">Execution Errors and Comments</font></th>\n");
+      sb.append("<th><font face=\"verdana\" size=\"2\">Status</font></th>\n");
+      sb.append("</tr>\n</thead>\n<tbody>\n");
+
+      writer = new OutputStreamWriter(new FileOutputStream(fileSpecs), Utf8);
+      writer.write(sb.toString());
+      writer.flush();
+   }
+
+   public String getFileSpecs() {
+      return fileSpecs;
+   }
+
+   /**
+    * @return The report's file name (in the reports folder)
+    */
+   public String getFileName() {
+      return new File(fileSpecs).getName();
+   }
+
+   private static String headerRow(String title, String value) {
+      return "<tr>" + HeaderCell + title + "</b></td>" + ValueCell + escaped(value) + "</b></td></tr>\n";
+   }
+
+   /**
+    * @param text
+    * @return The text escaped for html text (the report items' step detail and errors are html already and are not escaped)
+    */
+   private static String escaped(String text) {
+      if (isBlank(text))
+         return "";
+      return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+   }
+
+   private static String statusCell(String status) {
+      switch (String.valueOf(status).toUpperCase()) {
+         case "PASS" : return "<font color=\"darkgreen\" face=\"verdana\" size=\"2\"><b>Pass</b></font>";
+         case "FAIL" : return "<font color=\"red\" face=\"verdana\" size=\"4\"><b>Fail</b></font>";
+         case "SKIP" : return "<font color=\"blue\" face=\"verdana\" size=\"2\" font-style=\"italic\"><b>Skip</b></font>";
+         default: return "";
+      }
+   }
+
+   private void writeStep(String id, String name, String errors, String status) throws IOException {
+      String color = (++nSteps % 2 == 0) ? "099D9D" : "5BF7F7";
+      writer.write("<tr bgcolor=\"" + color + "\">" +
+            "<td><b><font face=\"verdana\" size=\"2\">" + escaped(id) + "</font></b></td>" +
+            "<td><b><font face=\"verdana\" size=\"2\">" + name + "</font></b></td>" +
+            "<td>" + errors + "</td>" +
+            "<td>" + statusCell(status) + "</td></tr>\n");
+   }
+
+   /**
+    * Append a report item's step row (if its status is reported) and flush it to the file
+    * @param reportItem
+    */
+   public synchronized void append(DDTReportItem reportItem) {
+      if (finished || writer == null)
+         return;
+      // Only report the statuses indicated for reporting in the settings.
+      if (!(statusToReport.contains(reportItem.getStatus())))
+         return;
+      try {
+         String errors = reportItem.getErrors();
+         writeStep(reportItem.paddedReportedStepNumber(), Util.xmlize(reportItem.getUserReport()), (errors == null) ? "" : errors, reportItem.getStatus());
+         writer.flush();
+      }
+      catch (IOException e) {
+         System.out.println("Exception encountered in live html report construction: " + e.toString() + " - steps are no longer added to " + Util.sq(fileSpecs));
+         close();
+      }
+   }
+
+   /**
+    * Append the module and summary rows, close the html and remove the page's refresh tag
+    * @param module
+    * @param section
+    * @param summary
+    */
+   public synchronized void finish(String module, String section, String summary) {
+      if (finished || writer == null)
+         return;
+      finished = true;
+      try {
+         // If no reportable steps recorded, write a step row to indicate so...
+         if (nSteps < 1)
+            writeStep("------", "*** No Reportable Steps encountered ***", "", "");
+
+         writer.write("</tbody>\n</table>\n</td></tr>\n<tr><td>\n");
+         writer.write("<table align=\"center\" width=\"100%\" border=\"0\" cellspacing=\"0\" bgcolor=\"#000000\" id=\"alternate\">\n");
+         writer.write(headerRow("Module Name", module));
+         writer.write(headerRow("Section", section));
+         writer.write(headerRow("Summary", summary));
+         writer.write("</table>\n</td></tr>\n</table>\n</body>\n</html>\n");
+         writer.close();
+         writer = null;
+
+         if (refreshTagLength > 0) {
+            // The finished report no longer refreshes - the tag is overwritten by a comment of the same length
+            char[] padding = new char[Math.max(0, refreshTagLength - "<!---->\n".length())];
+            Arrays.fill(padding, ' ');
+            try (RandomAccessFile file = new RandomAccessFile(fileSpecs, "rw")) {
+               file.seek(refreshTagOffset);
+               file.write(("<!--" + new String(padding) + "-->\n").getBytes(Utf8));
+            }
+         }
+      }
+      catch (IOException e) {
+         System.out.println("Exception encountered in live html report construction: " + e.toString());
+         e.printStackTrace();
+         close();
+      }
+   }
+
+   private void close() {
+      try {
+         if (writer != null)
+            writer.close();
+      }
+      catch (IOException e) {
+         // Nothing more to do
+      }
+      writer = null;
+   }
+}
@@ -0,0 +1,223 @@
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Created with IntelliJ IDEA.
+ * User: agent
+ * Date: 10/17/26
+ * Selenium Based Automation
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * Caches compiled locators (By chains, by locator text) and, per web driver, the elements they located along with the page's fingerprint.
+ * A kept element is reused only while the page's fingerprint is unchanged and the element is still attached and displayed.
+ * Navigation verbs and DriverPool.release() invalidate a driver's elements.  Opted into with LocatorCacheSize above 0 (default 0).
+ *
+ * History
+ * When        |Who      |What
+ * ============|=========|====================================
+ * 10/17/26    |agent    |Initial Version
+ * ============|=========|====================================
+ */
+public class LocatorCache {
+
+   private static final int MaxCompiledLocators = 10000;
+
+   // Returns [fingerprint, element is usable] - the fingerprint is null when the page cannot count its DOM changes - arguments: element (or null)
+   private static final String FingerprintScript =
+         "var w = window, e = arguments[0], usable = false;" +
+         "if (w.__ddtDomGeneration === undefined) {" +
+         "  w.__ddtPageId = String(new Date().getTime()) + '-' + String(Math.random()).substring(2);" +
+         "  w.__ddtDomGeneration = -1;" +
+         "  if (w.MutationObserver) {" +
+         "    w.__ddtDomGeneration = 0;" +
+         "    new MutationObserver(function() { w.__ddtDomGeneration++; })" +
+         "      .observe(document.documentElement || document, {childList: true, subtree: true, attributes: true, characterData: true});" +
+         "  }" +
+         "}" +
+         "if (e) usable = (e.isConnected !== false) && document.documentElement.contains(e) && !!(e.offsetWidth || e.offsetHeight || e.getClientRects().length) &&" +
+         "  (w.getComputedStyle(e).visibility !== 'hidden');" +
+         "return [(w.__ddtDomGeneration < 0) ? null : w.__ddtPageId + '|' + location.href + '|' + w.__ddtDomGeneration, usable];";
+
+   /**
+    * A located element and the fingerprint of the page it was located on
+    */
+   private static class LocatedElement {
+      private final WebElement element;
+      private final String fingerprint;
+
+      private LocatedElement(WebElement element, String fingerprint) {
+         this.element = element;
+         this.fingerprint = fingerprint;
+      }
+   }
+
+   private static ConcurrentHashMap<String, By[]> compiledLocators = new ConcurrentHashMap<String, By[]>();
+   // Located elements per driver - each in least recently used order
+   private static WeakHashMap<WebDriver, LinkedHashMap<String, LocatedElement>> locatedElements = new WeakHashMap<WebDriver, LinkedHashMap<String, LocatedElement>>();
+
+   private static AtomicLong compiledHits = new AtomicLong();
+   private static AtomicLong compiledMisses = new AtomicLong();
+   private static AtomicLong elementHits = new AtomicLong();
+   private static AtomicLong elementMisses = new AtomicLong();
+   private static AtomicLong elementsStale = new AtomicLong();
+   private static AtomicLong invalidations = new AtomicLong();
+
+   /**
+    * @param locType
+    * @param locSpecs
+    * @return The cache key of a locator
+    */
+   public static String keyOf(String locType, String locSpecs) {
+      return locType + "\n" + locSpecs;
+   }
+
+   /**
+    * @param key - see keyOf()
+    * @return The previously compiled By chain of the locator or null if it was not compiled yet
+    */
+   public static By[] compiledOf(String key) {
+      By[] result = compiledLocators.get(key);
+      if (result == null)
+         compiledMisses.incrementAndGet();
+      else
+         compiledHits.incrementAndGet();
+      return result;
+   }
+
+   public static void keepCompiled(String key, By[] chain) {
+      if (compiledLocators.size() >= MaxCompiledLocators)
+         compiledLocators.clear();
+      compiledLocators.put(key, chain);
+   }
+
+   private static int maxElements() {
+      return DDTSettings.Settings().locatorCacheSize();
+   }
+
+   /**
+    * @param driver
+    * @param key - see keyOf()
+    * @return The element previously located by the locator if its page is unchanged and it is still attached and displayed - else null
+    */
+   public static WebElement locatedOf(WebDriver driver, String key) {
+      if (maxElements() < 1 || !(driver instanceof JavascriptExecutor))
+         return null;
+
+      LocatedElement located;
+      synchronized (LocatorCache.class) {
+         LinkedHashMap<String, LocatedElement> elements = locatedElements.get(driver);
+         located = (elements == null) ? null : elements.get(key);
+      }
+      if (located == null) {
+         elementMisses.incrementAndGet();
+         return null;
+      }
+
+      List<?> state = null;
+      try {
+         Object result = ((JavascriptExecutor) driver).executeScript(FingerprintScript, located.element);
+         if (result instanceof List)
+            state = (List<?>) result;
+      }
+      catch (Exception e) {
+         // A stale element (or a failing script) - the element has to be located again
+      }
+
+      if (state != null && state.size() == 2 && located.fingerprint.equals(state.get(0)) && Boolean.TRUE.equals(state.get(1))) {
+         elementHits.incrementAndGet();
+         return located.element;
+      }
+
+      elementsStale.incrementAndGet();
+      synchronized (LocatorCache.class) {
+         LinkedHashMap<String, LocatedElement> elements = locatedElements.get(driver);
+         if (elements != null)
+            elements.remove(key);
+      }
+      return null;
+   }
+
+   /**
+    * Keep an element located by the locator along with the fingerprint of its (present) page
+    * @param driver
+    * @param key - see keyOf()
+    * @param element
+    */
+   public static void keepLocated(WebDriver driver, String key, WebElement element) {
+      final int maxElements = maxElements();
+      if (maxElements < 1 || element == null || !(driver instanceof JavascriptExecutor))
+         return;
+
+      String fingerprint = null;
+      try {
+         Object result = ((JavascriptExecutor) driver).executeScript(FingerprintScript, (Object) null);
+         if (result instanceof List && !((List<?>) result).isEmpty() && ((List<?>) result).get(0) instanceof String)
+            fingerprint = (String) ((List<?>) result).get(0);
+      }
+      catch (Exception e) {
+         return;
+      }
+      if (fingerprint == null)
+         return;
+
+      synchronized (LocatorCache.class) {
+         LinkedHashMap<String, LocatedElement> elements = locatedElements.get(driver);
+         if (elements == null) {
+            elements = new LinkedHashMap<String, LocatedElement>(16, 0.75f, true) {
+               protected boolean removeEldestEntry(Map.Entry<String, LocatedElement> eldest) {
+                  return size() > maxElements;
+               }
+            };
+            locatedElements.put(driver, elements);
+         }
+         elements.put(key, new LocatedElement(element, fingerprint));
+      }
+   }
+
+   /**
+    * Drop the elements located with the driver - called by navigation verbs and when a driver is released
+    * @param driver
+    */
+   public static void invalidate(WebDriver driver) {
+      if (driver == null)
+         return;
+      synchronized (LocatorCache.class) {
+         if (locatedElements.remove(driver) != null)
+            invalidations.incrementAndGet();
+      }
+   }
+
+   public static synchronized String statistics() {
+      int nElements = 0;
+      for (LinkedHashMap<String, LocatedElement> elements : locatedElements.values())
+         nElements += elements.size();
+      return "Locator Cache: " + compiledLocators.size() + " compiled locator(s) (" + compiledHits.get() + " hit(s), " + compiledMisses.get() + " miss(es)), " +
+            nElements + " located element(s) (" + elementHits.get() + " hit(s), " + elementMisses.get() + " miss(es), " + elementsStale.get() + " stale), " +
+            invalidations.get() + " invalidation(s)";
+   }
+}
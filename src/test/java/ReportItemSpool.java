@@ -0,0 +1,243 @@
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Created with IntelliJ IDEA.
+ * User: agent
+ * Date: 10/17/26
+ * Selenium Based Automation
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * The report items of a reporter kept in memory up to a window of ReportItemWindow items - full windows are spilled to a
+ * JSON lines file (one DDTReportItem.toJSON() per line) in the session's tests folder and streamed back when iterated.
+ * Spilled items do not keep their test context.  read() streams the items of any such file (see ShardCoordinator).
+ *
+ * History
+ * When        |Who      |What
+ * ============|=========|====================================
+ * 10/17/26    |agent    |Initial Version
+ * ============|=========|====================================
+ */
+public class ReportItemSpool implements Iterable<DDTReportItem> {
+
+   private static final AtomicInteger nSpools = new AtomicInteger();
+
+   private final String folder;
+   private final int windowSize;
+   private List<DDTReportItem> window = new ArrayList<DDTReportItem>();
+   private File spillFile;
+   private Writer spillWriter;
+   private int nSpilled;
+   private boolean spillFailed;
+
+   /**
+    * @param folder - the folder of the spill file (created when first needed)
+    * @param windowSize - the number of items kept in memory (0 - all items are kept in memory)
+    */
+   public ReportItemSpool(String folder, int windowSize) {
+      this.folder = folder;
+      this.windowSize = windowSize;
+   }
+
+   public synchronized void add(DDTReportItem reportItem) {
+      window.add(reportItem);
+      if (windowSize > 0 && window.size() >= windowSize && !spillFailed)
+         spill();
+   }
+
+   public synchronized int size() {
+      return nSpilled + window.size();
+   }
+
+   public synchronized int spilled() {
+      return nSpilled;
+   }
+
+   /**
+    * Append the window's items to the spill file and empty the window
+    */
+   private void spill() {
+      try {
+         if (spillWriter == null) {
+            File dir = new File(DDTSettings.asValidOSPath(folder, true));
+            dir.mkdirs();
+            spillFile = new File(dir, "reportitems-" + nSpools.incrementAndGet() + ".jsonl");
+            spillWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(spillFile, false), "UTF-8"));
+         }
+         for (DDTReportItem reportItem : window) {
+            // JSON strings escape line breaks - an item is a single line
+            spillWriter.write(reportItem.toJSON().toJSONString());
+            spillWriter.write("\n");
+         }
+         spillWriter.flush();
+         nSpilled += window.size();
+         window = new ArrayList<DDTReportItem>();
+      }
+      catch (IOException e) {
+         // Keep the items in memory from now on
+         spillFailed = true;
+         System.out.println("Failed to spill report items to " + ((spillFile == null) ? Util.sq(folder) : Util.sq(spillFile.getAbsolutePath())) +
+               " - report items are kept in memory: " + e.getMessage());
+      }
+   }
+
+   /**
+    * @return The items in the order they were added - the spilled items are read (one at a time) from the spill file
+    */
+   @Override
+   public synchronized Iterator<DDTReportItem> iterator() {
+      final List<DDTReportItem> inMemory = new ArrayList<DDTReportItem>(window);
+      if (nSpilled < 1)
+         return inMemory.iterator();
+
+      try {
+         spillWriter.flush();
+      }
+      catch (IOException e) {
+         System.out.println("Failed to read spilled report items from " + Util.sq(spillFile.getAbsolutePath()) + " - " + nSpilled + " item(s) not reported: " + e.getMessage());
+         return inMemory.iterator();
+      }
+      return readItems(spillFile, nSpilled, inMemory.iterator());
+   }
+
+   /**
+    * @param file - a JSON lines file of report items (one DDTReportItem.toJSON() per line)
+    * @return The file's items - read one line at a time each time the items are iterated
+    */
+   public static Iterable<DDTReportItem> read(final File file) {
+      return new Iterable<DDTReportItem>() {
+         @Override
+         public Iterator<DDTReportItem> iterator() {
+            return readItems(file, Integer.MAX_VALUE, new ArrayList<DDTReportItem>().iterator());
+         }
+      };
+   }
+
+   /**
+    * @param file
+    * @param nToRead - the number of items to read from the file (at most)
+    * @param then - the items following those read from the file
+    * @return The items read from the file (one line at a time) followed by those of then
+    */
+   private static Iterator<DDTReportItem> readItems(final File file, final int nToRead, final Iterator<DDTReportItem> then) {
+      final BufferedReader reader;
+      try {
+         reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+      }
+      catch (IOException e) {
+         System.out.println("Failed to read report items from " + Util.sq(file.getAbsolutePath()) + " - items not reported: " + e.getMessage());
+         return then;
+      }
+
+      return new Iterator<DDTReportItem>() {
+         private final JSONParser parser = new JSONParser();
+         private final Iterator<DDTReportItem> windowItems = then;
+         private int nRead;
+         private DDTReportItem next = readNext();
+
+         private DDTReportItem readNext() {
+            if (nRead < nToRead) {
+               try {
+                  String line = reader.readLine();
+                  if (line != null) {
+                     nRead++;
+                     DDTReportItem result = DDTReportItem.fromJSON((JSONObject) parser.parse(line));
+                     if (nRead == nToRead)
+                        close();
+                     return result;
+                  }
+               }
+               catch (Exception e) {
+                  System.out.println("Failed to read report item " + (nRead + 1) + " from " + Util.sq(file.getAbsolutePath()) + ": " + e.getMessage());
+               }
+               // Done with the spilled items
+               nRead = nToRead;
+               close();
+            }
+            return windowItems.hasNext() ? windowItems.next() : null;
+         }
+
+         private void close() {
+            try {
+               reader.close();
+            }
+            catch (IOException e) {
+               // Nothing more to do
+            }
+         }
+
+         @Override
+         public boolean hasNext() {
+            return next != null;
+         }
+
+         @Override
+         public DDTReportItem next() {
+            if (next == null)
+               throw new NoSuchElementException();
+            DDTReportItem result = next;
+            next = readNext();
+            return result;
+         }
+
+         @Override
+         public void remove() {
+            throw new UnsupportedOperationException("Report items are not removed");
+         }
+      };
+   }
+
+   /**
+    * Drop all items and delete the spill file
+    */
+   public synchronized void clear() {
+      window = new ArrayList<DDTReportItem>();
+      nSpilled = 0;
+      spillFailed = false;
+      if (spillWriter != null) {
+         try {
+            spillWriter.close();
+         }
+         catch (IOException e) {
+            // Nothing more to do
+         }
+         spillWriter = null;
+      }
+      if (spillFile != null) {
+         if (!spillFile.delete())
+            spillFile.deleteOnExit();
+         spillFile = null;
+      }
+   }
+}
@@ -0,0 +1,168 @@
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+/**
+ * Created by agent on 10/17/26.
+ * Selenium Based Automation Project
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * ReportItemSpool - report items come back from toJSON() / fromJSON() and from the spill file as they were added, in order
+ *
+ * When      |Who            |What
+ * ==========|===============|========================================================
+ * 10/17/26  |agent          |Initial Version
+ * ==========|===============|========================================================
+ */
+public class ReportItemSpoolTest {
+
+   private File folder;
+
+   @BeforeMethod
+   public void setUp() {
+      // The spool's folder is lower cased (see DDTSettings.asValidOSPath())
+      folder = new File(System.getProperty("java.io.tmpdir"), "ddtspool" + System.nanoTime());
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void tearDown() {
+      File[] files = folder.listFiles();
+      if (files != null) {
+         for (File file : files)
+            file.delete();
+      }
+      folder.delete();
+   }
+
+   private static DDTReportItem item(int n) {
+      DDTReportItem result = new DDTReportItem();
+      result.setSessionStepNumber((long) n);
+      result.setId("Step" + n);
+      result.setDescription("Description of \"step\" " + n + "\twith a tab,\nline breaks\r\nand \u00e9\u00e8\u4e2d");
+      result.setStatus((n % 2 == 0) ? "Pass" : "Fail");
+      result.setUserReport("<b>Report</b> " + n + " \\ /");
+      result.addComment("Comment " + n);
+      result.addComment("another comment");
+      if (n % 2 != 0)
+         result.addError("Error " + n);
+      return result;
+   }
+
+   private static void assertSameItem(DDTReportItem actual, DDTReportItem expected) {
+      assertEquals(actual.getSessionStepNumber(), expected.getSessionStepNumber());
+      assertEquals(actual.getId(), expected.getId());
+      assertEquals(actual.getDescription(), expected.getDescription());
+      assertEquals(actual.getStatus(), expected.getStatus());
+      assertEquals(actual.getUserReport(), expected.getUserReport());
+      assertEquals(actual.getComments(), expected.getComments());
+      assertEquals(actual.getErrors(), expected.getErrors());
+   }
+
+   private static void assertSameItems(Iterable<DDTReportItem> actual, int nItems) {
+      int n = 0;
+      for (DDTReportItem reportItem : actual)
+         assertSameItem(reportItem, item(++n));
+      assertEquals(n, nItems);
+   }
+
+   @Test
+   public void jsonRoundTrip() throws Exception {
+      for (int n = 1; n <= 2; n++) {
+         DDTReportItem expected = item(n);
+         String line = expected.toJSON().toJSONString();
+         assertFalse(line.contains("\n") || line.contains("\r"), "A report item's JSON form should be a single line");
+         assertSameItem(DDTReportItem.fromJSON((JSONObject) new JSONParser().parse(line)), expected);
+      }
+   }
+
+   @Test
+   public void unsetPropertiesComeBackBlank() throws Exception {
+      DDTReportItem expected = new DDTReportItem();
+      expected.setSessionStepNumber(7L);
+      DDTReportItem actual = DDTReportItem.fromJSON((JSONObject) new JSONParser().parse(expected.toJSON().toJSONString()));
+      assertEquals(actual.getSessionStepNumber(), Long.valueOf(7L));
+      assertEquals(actual.getId(), "");
+      assertEquals(actual.getStatus(), "");
+      assertEquals(actual.getComments(), "");
+      assertEquals(actual.getErrors(), "");
+   }
+
+   @Test
+   public void itemsAreKeptInMemoryWithinTheWindow() {
+      ReportItemSpool spool = new ReportItemSpool(folder.getPath(), 5);
+      for (int n = 1; n <= 4; n++)
+         spool.add(item(n));
+      assertEquals(spool.spilled(), 0);
+      assertFalse(folder.exists());
+      assertSameItems(spool, 4);
+   }
+
+   @Test
+   public void spilledItemsComeBackInOrder() {
+      ReportItemSpool spool = new ReportItemSpool(folder.getPath(), 3);
+      for (int n = 1; n <= 10; n++)
+         spool.add(item(n));
+      assertEquals(spool.size(), 10);
+      assertEquals(spool.spilled(), 9);
+      assertSameItems(spool, 10);
+      // Each iteration reads the spill file anew
+      assertSameItems(spool, 10);
+
+      // Items added after an iteration are spilled after those already spilled
+      for (int n = 11; n <= 12; n++)
+         spool.add(item(n));
+      assertEquals(spool.spilled(), 12);
+      assertSameItems(spool, 12);
+   }
+
+   @Test
+   public void clearDeletesTheSpillFile() {
+      ReportItemSpool spool = new ReportItemSpool(folder.getPath(), 2);
+      for (int n = 1; n <= 5; n++)
+         spool.add(item(n));
+      assertEquals(folder.listFiles().length, 1);
+
+      spool.clear();
+      assertEquals(spool.size(), 0);
+      assertFalse(spool.iterator().hasNext());
+      assertEquals(folder.listFiles().length, 0);
+   }
+
+   @Test
+   public void readSpillFile() {
+      ReportItemSpool spool = new ReportItemSpool(folder.getPath(), 4);
+      for (int n = 1; n <= 8; n++)
+         spool.add(item(n));
+      File[] files = folder.listFiles();
+      assertEquals(files.length, 1);
+
+      List<DDTReportItem> items = new ArrayList<DDTReportItem>();
+      for (DDTReportItem reportItem : ReportItemSpool.read(files[0]))
+         items.add(reportItem);
+      assertSameItems(items, 8);
+   }
+}
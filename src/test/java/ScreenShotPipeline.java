@@ -0,0 +1,197 @@
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Created with IntelliJ IDEA.
+ * User: agent
+ * Date: 10/17/26
+ * Selenium Based Automation
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * Writes the screen images taken per the TakeImagePolicy setting off the test thread - the file name is returned right away.
+ * Up to ScreenShotWorkers threads scale the images down (ScreenShotMaxWidth) and store them (see ScreenShotStore); a full queue
+ * (ScreenShotQueueSize) has the test thread write its own image.  drain() waits for pending images and reports those that failed.
+ * With ScreenShotWorkers = 0 images are written on the test thread (Util.takeScreenImage).
+ *
+ * History
+ * When        |Who      |What
+ * ============|=========|====================================
+ * 10/17/26    |agent    |Initial Version
+ * ============|=========|====================================
+ */
+public class ScreenShotPipeline {
+
+   private static ThreadPoolExecutor writers;
+   private static final Object drained = new Object();
+   private static final AtomicInteger pending = new AtomicInteger();
+   private static final AtomicLong queued = new AtomicLong();
+   private static final AtomicLong written = new AtomicLong();
+   private static final AtomicLong writtenInline = new AtomicLong();
+   private static final AtomicLong failed = new AtomicLong();
+   // The images that could not be written since the last drain() - file name and error
+   private static final ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<String>();
+
+   /**
+    * An image waiting to be written
+    */
+   private static class ImageWrite implements Runnable {
+      private final byte[] image;
+      private final ScreenShotStore.Frame frame;
+      private final int maxWidth;
+      private final int tile;
+
+      private ImageWrite(byte[] image, ScreenShotStore.Frame frame, int maxWidth, int tile) {
+         this.image = image;
+         this.frame = frame;
+         this.maxWidth = maxWidth;
+         this.tile = tile;
+      }
+
+      public void run() {
+         try {
+            ScreenShotStore.write(frame, image, maxWidth, tile);
+            written.incrementAndGet();
+         }
+         catch (Exception e) {
+            failed.incrementAndGet();
+            // Later identical images are not to share the missing file
+            ScreenShotStore.writeFailed(frame);
+            failures.add(Util.sq(frame.getFile().getAbsolutePath()) + " - " + e.getMessage());
+            System.out.println("ERROR: Failed to write screen image " + Util.sq(frame.getFile().getAbsolutePath()) + " - " + e.getMessage());
+         }
+         finally {
+            if (pending.decrementAndGet() == 0) {
+               synchronized (drained) {
+                  drained.notifyAll();
+               }
+            }
+         }
+      }
+   }
+
+   private static synchronized ThreadPoolExecutor writers() {
+      if (writers == null) {
+         int nWorkers = DDTSettings.Settings().screenShotWorkers();
+         int queueSize = Math.max(1, DDTSettings.Settings().screenShotQueueSize());
+         writers = new ThreadPoolExecutor(nWorkers, nWorkers, 30L, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(queueSize),
+               new ThreadFactory() {
+                  private final AtomicInteger count = new AtomicInteger();
+                  public Thread newThread(Runnable r) {
+                     Thread result = new Thread(r, "ScreenShotPipeline-" + count.incrementAndGet());
+                     result.setDaemon(true);
+                     return result;
+                  }
+               },
+               new RejectedExecutionHandler() {
+                  // The queue is full - the test thread writes the image itself
+                  public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+                     writtenInline.incrementAndGet();
+                     r.run();
+                  }
+               });
+         writers.allowCoreThreadTimeOut(true);
+      }
+      return writers;
+   }
+
+   /**
+    * Take a screen image and have it written in the background
+    * @param driver
+    * @param folder - The images folder (the session's images folder if blank)
+    * @param fileName - The image's file name prefix (typically the test item's id)
+    * @return The (absolute) name of the image file (to be written) or a string containing "ERROR:" if the image could not be taken
+    */
+   public static String takeScreenImage(WebDriver driver, String folder, String fileName) {
+      if (DDTSettings.Settings().screenShotWorkers() < 1)
+         return Util.takeScreenImage(driver, folder, fileName);
+
+      if (!(driver instanceof TakesScreenshot))
+         return "ERROR: Driver " + Util.sq(String.valueOf(driver)) + " cannot take screen shots.  Screen shot not taken";
+
+      byte[] image;
+      try {
+         image = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+      }
+      catch (Exception e) {
+         return "ERROR: Failed to take screen shot - " + e.getMessage();
+      }
+      if (image == null || image.length < 1)
+         return "ERROR: Failed to take screen shot";
+
+      String imagesFolder = (isBlank(folder)) ? DDTTestRunner.getReporter().sessionImagesFolderName() : folder;
+      String actualFileName = fileName + " - " + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+      int tile = DDTSettings.Settings().screenShotDeltaTile();
+      ScreenShotStore.Frame frame = ScreenShotStore.frameFor(image, new File(DDTSettings.asValidOSPath(imagesFolder, true)),
+            DDTSettings.asValidOSPath(actualFileName, true), DDTSettings.Settings().screenShotDedup() > 0, tile);
+
+      queued.incrementAndGet();
+      if (!frame.isDuplicate()) {
+         pending.incrementAndGet();
+         writers().execute(new ImageWrite(image, frame, DDTSettings.Settings().screenShotMaxWidth(), tile));
+      }
+      return frame.getFile().getAbsolutePath();
+   }
+
+   /**
+    * Wait for the pending images to be written - called before reports are generated and at the end of the session
+    */
+   public static void drain() {
+      synchronized (drained) {
+         while (pending.get() > 0) {
+            try {
+               drained.wait(100L);
+            }
+            catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+               return;
+            }
+         }
+      }
+
+      StringBuilder sb = new StringBuilder();
+      int nFailures = 0;
+      String failure;
+      while ((failure = failures.poll()) != null) {
+         sb.append((nFailures > 0 ? "\n" : "") + failure);
+         nFailures++;
+      }
+      if (nFailures > 0)
+         DDTTestRunner.reportSessionFailure("ScreenShotPipeline", nFailures + " screen image(s) could not be written", sb.toString());
+   }
+
+   public static String statistics() {
+      return "Screen Shot Pipeline: " + queued.get() + " image(s) taken, " + written.get() + " written (" + writtenInline.get() +
+            " on the test thread), " + failed.get() + " failed, " + pending.get() + " pending";
+   }
+}
@@ -0,0 +1,499 @@
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+
+/**
+ * Created with IntelliJ IDEA.
+ * User: agent
+ * Date: 10/17/26
+ * Selenium Based Automation
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * The screen image files of an images folder.
+ * ScreenShotDedup > 0: an image identical to an earlier one in the folder shares its file.
+ * ScreenShotDeltaTile > 0: an image is stored as the tiles changed since the previous image (*.delta.png, listed in deltas.txt),
+ * with a complete image every KeyFrameInterval images.  Steps and reports link the delta images - their complete images are rebuilt
+ * only when viewed (reconstruct(), writeCompleteImage() or running ScreenShotStore on an images folder or a delta image).
+ *
+ * History
+ * When        |Who      |What
+ * ============|=========|====================================
+ * 10/17/26    |agent    |Initial Version
+ * ============|=========|====================================
+ */
+public class ScreenShotStore {
+
+   public static final String DeltaSuffix = ".delta.png";
+   public static final String IndexFileName = "deltas.txt";
+   public static final int KeyFrameInterval = 25;
+   private static final String Separator = "\t";
+   // A frame with more than this fraction of its tiles changed is stored complete
+   private static final double MaxDeltaFraction = 0.6;
+
+   /**
+    * The images taken in a folder - by content hash - and the most recent one
+    */
+   private static class FolderState {
+      private final HashMap<String, File> byHash = new HashMap<String, File>();
+      private byte[] previousImage;
+      private File previousFile;
+      private int framesSinceKey;
+   }
+
+   /**
+    * Where (and how) a screen image is to be stored
+    */
+   public static class Frame {
+      private final File file;
+      private final boolean isDuplicate;
+      private final byte[] base;
+      private final File baseFile;
+
+      private Frame(File file, boolean isDuplicate, byte[] base, File baseFile) {
+         this.file = file;
+         this.isDuplicate = isDuplicate;
+         this.base = base;
+         this.baseFile = baseFile;
+      }
+
+      /**
+       * @return The file the image is stored in (and steps and reports link) - a delta image for delta frames
+       */
+      public File getFile() {
+         return file;
+      }
+
+      /**
+       * @return Indicates whether an identical image was already stored (in getFile()) - nothing to write
+       */
+      public boolean isDuplicate() {
+         return isDuplicate;
+      }
+
+      public boolean isDelta() {
+         return base != null;
+      }
+   }
+
+   private static final HashMap<String, FolderState> folders = new HashMap<String, FolderState>();
+   private static long duplicates = 0L;
+   private static long deltas = 0L;
+   private static long bytesSaved = 0L;
+
+   /**
+    * Decide where the screen image is stored - called in the order the images are taken
+    * @param image - PNG bytes
+    * @param folder - the images folder
+    * @param fileName - the image's file name without extension
+    * @param dedup - share the file of an identical image taken earlier
+    * @param tile - tile size of delta images - 0 stores complete images
+    * @return
+    */
+   public static synchronized Frame frameFor(byte[] image, File folder, String fileName, boolean dedup, int tile) {
+      FolderState state = folders.get(folder.getAbsolutePath());
+      if (state == null) {
+         state = new FolderState();
+         folders.put(folder.getAbsolutePath(), state);
+      }
+
+      String hash = dedup ? hashOf(image) : null;
+      if (hash != null) {
+         File existing = state.byHash.get(hash);
+         if (existing != null) {
+            duplicates++;
+            bytesSaved += image.length;
+            state.previousImage = image;
+            state.previousFile = existing;
+            return new Frame(existing, true, null, null);
+         }
+      }
+
+      boolean isDelta = tile > 0 && state.previousImage != null && state.framesSinceKey < KeyFrameInterval - 1;
+      File file = new File(folder, fileName + (isDelta ? DeltaSuffix : ".png"));
+      Frame result = new Frame(file, false, isDelta ? state.previousImage : null, isDelta ? state.previousFile : null);
+      state.framesSinceKey = isDelta ? state.framesSinceKey + 1 : 0;
+      state.previousImage = image;
+      state.previousFile = file;
+      if (hash != null)
+         state.byHash.put(hash, file);
+      return result;
+   }
+
+   /**
+    * Forget the frame whose image could not be written - later identical images do not share its file and the next image is not a delta of it
+    * @param frame
+    */
+   public static synchronized void writeFailed(Frame frame) {
+      FolderState state = folders.get(frame.file.getParentFile().getAbsolutePath());
+      if (state == null)
+         return;
+      state.byHash.values().removeAll(Collections.singleton(frame.file));
+      if (frame.file.equals(state.previousFile)) {
+         state.previousImage = null;
+         state.previousFile = null;
+      }
+   }
+
+   /**
+    * Write the frame's image - a delta frame is written as its changed tiles (or complete, not listed in the index, if most of it changed)
+    * @param frame
+    * @param image - PNG bytes
+    * @param maxWidth - scale wider images down to this width - 0 keeps the image's size
+    * @param tile
+    * @throws IOException
+    */
+   public static void write(Frame frame, byte[] image, int maxWidth, int tile) throws IOException {
+      if (frame.isDuplicate)
+         return;
+
+      File folder = frame.file.getParentFile();
+      if (folder != null && !folder.isDirectory() && !folder.mkdirs() && !folder.isDirectory())
+         throw new IOException("Unable to create images folder " + Util.sq(folder.getAbsolutePath()));
+
+      if (frame.isDelta()) {
+         BufferedImage current = scaledDown(ImageIO.read(new ByteArrayInputStream(image)), maxWidth);
+         BufferedImage base = scaledDown(ImageIO.read(new ByteArrayInputStream(frame.base)), maxWidth);
+         BufferedImage delta = deltaOf(base, current, tile);
+         if (delta != null) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            ImageIO.write(delta, "png", baos);
+            writeBytes(frame.file, baos.toByteArray());
+            addToIndex(folder, frame.file, frame.baseFile);
+            synchronized (ScreenShotStore.class) {
+               deltas++;
+               bytesSaved += Math.max(0, image.length - baos.size());
+            }
+            return;
+         }
+         // Complete image stored in the delta's file - not listed in the index (it is read as is, by viewers and later deltas)
+         if (current != null) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            ImageIO.write(current, "png", baos);
+            writeBytes(frame.file, baos.toByteArray());
+            return;
+         }
+      }
+      writeBytes(frame.file, scaledDown(image, maxWidth));
+   }
+
+   /**
+    * @param base
+    * @param current
+    * @param tile
+    * @return An image of current's size, transparent but for the tiles in which current differs from base -
+    *         null if the sizes differ or most tiles changed (a complete image is better stored then)
+    */
+   private static BufferedImage deltaOf(BufferedImage base, BufferedImage current, int tile) {
+      if (base == null || current == null || base.getWidth() != current.getWidth() || base.getHeight() != current.getHeight())
+         return null;
+
+      int width = current.getWidth();
+      int height = current.getHeight();
+      int nTiles = 0;
+      int nChanged = 0;
+      BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+      int[] baseRow = new int[tile];
+      int[] currentRow = new int[tile];
+      for (int ty = 0; ty < height; ty += tile) {
+         int th = Math.min(tile, height - ty);
+         for (int tx = 0; tx < width; tx += tile) {
+            int tw = Math.min(tile, width - tx);
+            nTiles++;
+            boolean changed = false;
+            for (int y = ty; y < ty + th && !changed; y++) {
+               base.getRGB(tx, y, tw, 1, baseRow, 0, tw);
+               current.getRGB(tx, y, tw, 1, currentRow, 0, tw);
+               for (int x = 0; x < tw; x++) {
+                  if (baseRow[x] != currentRow[x]) {
+                     changed = true;
+                     break;
+                  }
+               }
+            }
+            if (changed) {
+               nChanged++;
+               for (int y = ty; y < ty + th; y++) {
+                  current.getRGB(tx, y, tw, 1, currentRow, 0, tw);
+                  for (int x = 0; x < tw; x++)
+                     currentRow[x] |= 0xFF000000;
+                  result.setRGB(tx, y, tw, 1, currentRow, 0, tw);
+               }
+            }
+         }
+      }
+      return (nChanged > nTiles * MaxDeltaFraction) ? null : result;
+   }
+
+   private static synchronized void addToIndex(File folder, File delta, File base) throws IOException {
+      Writer w = new OutputStreamWriter(new FileOutputStream(new File(folder, IndexFileName), true), "UTF-8");
+      try {
+         w.write(delta.getName() + Separator + base.getName() + "\n");
+      }
+      finally {
+         w.close();
+      }
+   }
+
+   /**
+    * @param folder
+    * @return The delta images of the folder and the images they are relative to (by file name)
+    * @throws IOException
+    */
+   private static HashMap<String, String> indexOf(File folder) throws IOException {
+      HashMap<String, String> result = new HashMap<String, String>();
+      File index = new File(folder, IndexFileName);
+      if (!index.exists())
+         return result;
+      BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(index), "UTF-8"));
+      try {
+         String line;
+         while ((line = reader.readLine()) != null) {
+            String[] names = line.split(Separator);
+            if (names.length == 2)
+               result.put(names[0], names[1]);
+         }
+      }
+      finally {
+         reader.close();
+      }
+      return result;
+   }
+
+   /**
+    * @param file - a screen image file
+    * @return The complete image of a delta image file (its name without the .delta part) - file itself otherwise
+    */
+   public static File linkedFileOf(File file) {
+      String name = file.getName();
+      if (!name.endsWith(DeltaSuffix))
+         return file;
+      return new File(file.getParentFile(), name.substring(0, name.length() - DeltaSuffix.length()) + ".png");
+   }
+
+   /**
+    * Rebuild the complete image of a delta image (as the delta's name without the .delta part) - unless it was already rebuilt
+    * @param fileName - the (absolute) name of a screen image file
+    * @return The name of the complete image - fileName itself if it is not a delta image
+    * @throws IOException
+    */
+   public static String reconstruct(String fileName) throws IOException {
+      File file = new File(fileName);
+      if (!fileName.endsWith(DeltaSuffix))
+         return fileName;
+
+      File result = linkedFileOf(file);
+      if (!result.exists())
+         ImageIO.write(imageOf(file, indexOf(file.getParentFile())), "png", result);
+      return result.getAbsolutePath();
+   }
+
+   /**
+    * Write the complete image of a screen image file as PNG - for viewers (e.g. a servlet serving report images) - nothing is written to the images folder
+    * @param fileName - the (absolute) name of a screen image file - a delta image is drawn over the images it is relative to
+    * @param out
+    * @throws IOException
+    */
+   public static void writeCompleteImage(String fileName, OutputStream out) throws IOException {
+      File file = new File(fileName);
+      if (!fileName.endsWith(DeltaSuffix)) {
+         FileInputStream fis = new FileInputStream(file);
+         try {
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = fis.read(buffer)) > 0)
+               out.write(buffer, 0, n);
+         }
+         finally {
+            fis.close();
+         }
+         return;
+      }
+      File complete = linkedFileOf(file);
+      ImageIO.write(complete.exists() ? ImageIO.read(complete) : imageOf(file, indexOf(file.getParentFile())), "png", out);
+   }
+
+   /**
+    * @param file
+    * @param index
+    * @return The complete image of the file - delta images are drawn over the (complete) images they are relative to
+    * @throws IOException
+    */
+   private static BufferedImage imageOf(File file, HashMap<String, String> index) throws IOException {
+      BufferedImage image = ImageIO.read(file);
+      if (image == null)
+         throw new IOException("Not an image file: " + Util.sq(file.getAbsolutePath()));
+      String baseName = index.get(file.getName());
+      if (baseName == null)
+         return image;
+
+      // A base already reconstructed is read as is
+      File baseFile = new File(file.getParentFile(), baseName);
+      File completeBase = linkedFileOf(baseFile);
+      BufferedImage base = (completeBase != baseFile && completeBase.exists()) ? ImageIO.read(completeBase) : imageOf(baseFile, index);
+      if (base == null)
+         throw new IOException("Not an image file: " + Util.sq(completeBase.getAbsolutePath()));
+      BufferedImage result = new BufferedImage(base.getWidth(), base.getHeight(), BufferedImage.TYPE_INT_RGB);
+      Graphics2D g = result.createGraphics();
+      try {
+         g.drawImage(base, 0, 0, null);
+         g.drawImage(image, 0, 0, null);
+      }
+      finally {
+         g.dispose();
+      }
+      return result;
+   }
+
+   /**
+    * @param image - PNG bytes
+    * @param maxWidth - 0 or less keeps the image as is
+    * @return The PNG bytes of the image scaled down (preserving its aspect ratio) to maxWidth pixels wide - the image itself if it is not wider than that
+    * @throws IOException
+    */
+   public static byte[] scaledDown(byte[] image, int maxWidth) throws IOException {
+      if (maxWidth < 1)
+         return image;
+
+      BufferedImage source = ImageIO.read(new ByteArrayInputStream(image));
+      if (source == null || source.getWidth() <= maxWidth)
+         return image;
+
+      ByteArrayOutputStream baos = new ByteArrayOutputStream(image.length / 2);
+      ImageIO.write(scaledDown(source, maxWidth), "png", baos);
+      return baos.toByteArray();
+   }
+
+   private static BufferedImage scaledDown(BufferedImage source, int maxWidth) {
+      if (source == null || maxWidth < 1 || source.getWidth() <= maxWidth)
+         return source;
+
+      int height = Math.max(1, (int) Math.round((double) source.getHeight() * maxWidth / source.getWidth()));
+      BufferedImage result = new BufferedImage(maxWidth, height, BufferedImage.TYPE_INT_RGB);
+      Graphics2D g = result.createGraphics();
+      try {
+         g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+         g.drawImage(source, 0, 0, maxWidth, height, null);
+      }
+      finally {
+         g.dispose();
+      }
+      return result;
+   }
+
+   private static void writeBytes(File file, byte[] bytes) throws IOException {
+      FileOutputStream fos = new FileOutputStream(file);
+      try {
+         fos.write(bytes);
+         fos.flush();
+      }
+      finally {
+         fos.close();
+      }
+   }
+
+   /**
+    * For screen image files written by others (Util.takeScreenImage) - drop the file if an identical image was already taken in its folder
+    * @param file - a (complete) screen image file
+    * @return The file holding the image - file itself or the file of the identical image taken earlier
+    */
+   public static File deduplicated(File file) {
+      byte[] image;
+      try {
+         FileInputStream fis = new FileInputStream(file);
+         try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream((int) file.length());
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = fis.read(buffer)) > 0)
+               baos.write(buffer, 0, n);
+            image = baos.toByteArray();
+         }
+         finally {
+            fis.close();
+         }
+      }
+      catch (IOException e) {
+         return file;
+      }
+
+      String name = file.getName();
+      Frame frame = frameFor(image, file.getParentFile(), name.endsWith(".png") ? name.substring(0, name.length() - 4) : name, true, 0);
+      if (frame.isDuplicate() && !frame.getFile().equals(file) && file.delete())
+         return frame.getFile();
+      return file;
+   }
+
+   /**
+    * @param image
+    * @return Hex SHA-1 digest of the image bytes - null if no digest is available
+    */
+   private static String hashOf(byte[] image) {
+      try {
+         byte[] digest = MessageDigest.getInstance("SHA-1").digest(image);
+         StringBuilder sb = new StringBuilder(digest.length * 2);
+         for (byte b : digest)
+            sb.append(String.format("%02x", b & 0xFF));
+         return sb.toString();
+      }
+      catch (NoSuchAlgorithmException e) {
+         return null;
+      }
+   }
+
+   public static synchronized String statistics() {
+      return "Screen Shot Store: " + duplicates + " duplicate image(s), " + deltas + " delta image(s), " + (bytesSaved / 1024L) + "KB saved";
+   }
+
+   /**
+    * Reconstruct the complete images of delta images - to view them (or the report linking them) outside the session
+    * @param args [0] = an images folder or a delta image file
+    */
+   public static void main(String[] args) throws IOException {
+      if (args.length < 1) {
+         System.out.println("Usage: ScreenShotStore <images folder | delta image file>");
+         return;
+      }
+      File target = new File(args[0]);
+      File[] files = target.isDirectory() ? target.listFiles() : new File[] {target};
+      int n = 0;
+      for (File file : (files == null) ? new File[0] : files) {
+         if (file.getName().endsWith(DeltaSuffix)) {
+            System.out.println("Reconstructed: " + reconstruct(file.getAbsolutePath()));
+            n++;
+         }
+      }
+      System.out.println(n + " delta image(s) reconstructed");
+   }
+}
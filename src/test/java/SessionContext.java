@@ -0,0 +1,308 @@
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Created with IntelliJ IDEA.
+ * User: agent
+ * Date: 10/17/26
+ * Selenium Based Automation
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * The state of a test session - settings, reporter, variables and elements maps, the current test items, counters,
+ * session steps, most recent element and termination flag - formerly held in static fields of DDTTestRunner and DDTSettings.
+ * A session is bound to the threads running it (bind()) - DDTTestRunner, DDTSettings (and thus the verbs and providers calling them)
+ * work with the session bound to the current thread (current()) or, on threads bound to none, with the process' default session.
+ * This allows several sessions to run side by side in one JVM (see DDTTestRunner.runIn()).
+ * A branch (see branch()) is a session of its own running a parallel NewTest step - it starts out with a copy of its parent's variables,
+ * elements and current test items, shares its parent's settings, reporter and termination flag, and keeps its counters and report items
+ * until they are merged into its parent (merge()).
+ * Counters are striped (SessionCounters), steps are atomic and maps are concurrent so that a session's state may be updated by any of its threads.
+ *
+ * History
+ * When        |Who      |What
+ * ============|=========|====================================
+ * 10/17/26    |agent    |Initial Version
+ * 10/17/26    |agent    |The session's compiled test plans (see TestPlan)
+ * ============|=========|====================================
+ */
+public class SessionContext {
+
+   // The session of threads not bound to a session of their own
+   private static final SessionContext defaultSession = new SessionContext(null);
+   private static final ThreadLocal<SessionContext> boundSession = new ThreadLocal<SessionContext>();
+
+   private final SessionContext parent;
+   private volatile DDTSettings settings;
+   private volatile DDTReporter reporter;
+   private volatile DDTTestContext varsMap;
+   private volatile Map<String, WebElement> elementsMap;
+   private final Map<String, TestItem> currentTestItems = new ConcurrentHashMap<String, TestItem>();
+
+   // done, pass, fail, skip counters - on the Test Session level
+   private final SessionCounters tsCounters = new SessionCounters();
+   // done, pass, fail, skip counters - on the TestRunner instance level - reset when a new TestRunner instance is created
+   private final SessionCounters trCounters = new SessionCounters();
+   // done, pass, fail, skip counters - on the Reporter instance level - reset after a Reporter generates a report
+   private final SessionCounters rptCounters = new SessionCounters();
+
+   private final AtomicLong nSessionSteps = new AtomicLong();
+   private final AtomicLong nReportedSessionSteps = new AtomicLong();
+   private volatile WebElement mrElement;
+   private volatile boolean shouldQuitTestSession;
+   private volatile String sessionFailBlurb;
+   private volatile String sessionPassBlurb;
+
+   // The report items of a branch - held until the branch is merged into its parent
+   private final List<DDTReportItem> reportItems = Collections.synchronizedList(new ArrayList<DDTReportItem>());
+   // The compiled test plans serving the session's file segments (see TestPlan) - branches use their root session's
+   private final List<TestPlan> testPlans = new CopyOnWriteArrayList<TestPlan>();
+
+   public SessionContext() {
+      this(null);
+   }
+
+   private SessionContext(SessionContext parent) {
+      this.parent = parent;
+   }
+
+   /**
+    * @return The session bound to the current thread - the default session if none is
+    */
+   public static SessionContext current() {
+      SessionContext result = boundSession.get();
+      return (result == null) ? defaultSession : result;
+   }
+
+   public static SessionContext defaultSession() {
+      return defaultSession;
+   }
+
+   /**
+    * Bind the session to the current thread
+    * @param session - null unbinds the current thread (which then works with the default session)
+    * @return The session previously bound to the current thread (or null) - to be restored by bind() when done
+    */
+   public static SessionContext bind(SessionContext session) {
+      SessionContext result = boundSession.get();
+      if (session == null)
+         boundSession.remove();
+      else
+         boundSession.set(session);
+      return result;
+   }
+
+   /**
+    * Create a branch of this session - called on this session's thread so that the branch copies the session's state as of the branch's step
+    * @return
+    */
+   @SuppressWarnings("unchecked")
+   public SessionContext branch() {
+      SessionContext result = new SessionContext(this);
+      result.getVarsMap().putAll(getVarsMap());
+      result.getElementsMap().putAll(getElementsMap());
+      result.currentTestItems.putAll(currentTestItems);
+      result.mrElement = mrElement;
+      return result;
+   }
+
+   public boolean isBranch() {
+      return parent != null;
+   }
+
+   /**
+    * @return The session this (possibly nested) branch was branched off of
+    */
+   public SessionContext root() {
+      SessionContext result = this;
+      while (result.parent != null)
+         result = result.parent;
+      return result;
+   }
+
+   public DDTSettings getSettings() {
+      return root().settings;
+   }
+
+   public void setSettings(DDTSettings value) {
+      root().settings = value;
+   }
+
+   public DDTReporter getReporter() {
+      SessionContext root = root();
+      if (root.reporter == null) {
+         synchronized (root) {
+            if (root.reporter == null)
+               root.reporter = new DDTReporter();
+         }
+      }
+      return root.reporter;
+   }
+
+   public DDTTestContext getVarsMap() {
+      if (varsMap == null) {
+         synchronized (this) {
+            if (varsMap == null)
+               varsMap = new DDTTestContext();
+         }
+      }
+      return varsMap;
+   }
+
+   public void setVarsMap(DDTTestContext value) {
+      varsMap = value;
+   }
+
+   public Map<String, WebElement> getElementsMap() {
+      if (elementsMap == null) {
+         synchronized (this) {
+            if (elementsMap == null)
+               elementsMap = new ConcurrentHashMap<String, WebElement>();
+         }
+      }
+      return elementsMap;
+   }
+
+   public void setElementsMap(Map<String, WebElement> value) {
+      elementsMap = value;
+   }
+
+   public Map<String, TestItem> getCurrentTestItems() {
+      return currentTestItems;
+   }
+
+   public SessionCounters getTsCounters() {
+      return tsCounters;
+   }
+
+   public SessionCounters getTrCounters() {
+      return trCounters;
+   }
+
+   public SessionCounters getRptCounters() {
+      return rptCounters;
+   }
+
+   public Long currentSessionStep() {
+      return nSessionSteps.get();
+   }
+
+   public Long currentReportedSessionStep() {
+      return nReportedSessionSteps.get();
+   }
+
+   public void setNextStep() {
+      nSessionSteps.incrementAndGet();
+   }
+
+   public void setNextReportingStep() {
+      nReportedSessionSteps.incrementAndGet();
+   }
+
+   public WebElement getMrElement() {
+      return mrElement;
+   }
+
+   public void setMrElement(WebElement value) {
+      mrElement = value;
+   }
+
+   public boolean shouldQuitTestSession() {
+      return root().shouldQuitTestSession;
+   }
+
+   public void setShouldQuitTestSession(boolean value) {
+      root().shouldQuitTestSession = value;
+   }
+
+   public String getSessionFailBlurb() {
+      return root().sessionFailBlurb;
+   }
+
+   public void setSessionFailBlurb(String value) {
+      root().sessionFailBlurb = value;
+   }
+
+   public String getSessionPassBlurb() {
+      return root().sessionPassBlurb;
+   }
+
+   public void setSessionPassBlurb(String value) {
+      root().sessionPassBlurb = value;
+   }
+
+   public List<TestPlan> getTestPlans() {
+      return root().testPlans;
+   }
+
+   public List<DDTReportItem> getReportItems() {
+      return reportItems;
+   }
+
+   /**
+    * Fold a branch's counters, steps and report items into this session
+    * @param branch
+    */
+   public void merge(SessionContext branch) {
+      synchronized (branch.reportItems) {
+         merge(branch.tsCounters.toArray(), branch.rptCounters.toArray(), branch.currentSessionStep(), branch.currentReportedSessionStep(), branch.reportItems);
+      }
+   }
+
+   /**
+    * Fold the counters, steps and report items of another session (a branch or a shard) into this session -
+    * the report items are renumbered to follow this session's steps
+    * @param counters - the other session's done, pass, fail, skip counters
+    * @param rptCounters - the other session's counters yet to be reported
+    * @param otherSessionSteps
+    * @param otherReportedSessionSteps
+    * @param otherReportItems - iterated once (they may be streamed from a file)
+    * @return The number of report items merged
+    */
+   public synchronized int merge(int[] counters, int[] rptCounters, Long otherSessionSteps, Long otherReportedSessionSteps, Iterable<DDTReportItem> otherReportItems) {
+      tsCounters.addAll(counters);
+      this.rptCounters.addAll(rptCounters);
+
+      Long stepBase = nSessionSteps.getAndAdd(otherSessionSteps);
+      Long reportedSteps = nReportedSessionSteps.addAndGet(otherReportedSessionSteps);
+
+      DDTReporter reporter = getReporter();
+      int nMerged = 0;
+      for (DDTReportItem reportItem : otherReportItems) {
+         reportItem.setSessionStepNumber(stepBase + reportItem.getSessionStepNumber());
+         reporter.addDDTest(reportItem);
+         nMerged++;
+      }
+      if (nMerged > 0) {
+         if (reporter.firstReportStep() < 1L)
+            reporter.setFirstReportStep(reportedSteps - otherReportedSessionSteps + 1);
+         reporter.setLastReportStep(reportedSteps);
+      }
+      if (reporter.firstSessionStep() < 1L)
+         reporter.setFirstSessionStep(stepBase + 1);
+      reporter.setLastSessionStep(currentSessionStep());
+      return nMerged;
+   }
+}
@@ -0,0 +1,180 @@
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+/**
+ * Created by agent on 10/17/26.
+ * Selenium Based Automation Project
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * SessionContext - merging shard sessions (as ShardCoordinator does, see DDTTestRunner.mergeShardSession()) and branches adds their counters
+ * and steps to the session and renumbers their report items to follow the session's steps
+ *
+ * When      |Who            |What
+ * ==========|===============|========================================================
+ * 10/17/26  |agent          |Initial Version
+ * ==========|===============|========================================================
+ */
+public class SessionContextTest {
+
+   private SessionContext session;
+   private SessionContext previous;
+   private File itemsFile;
+
+   @BeforeMethod
+   public void setUp() {
+      session = new SessionContext();
+      previous = SessionContext.bind(session);
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void tearDown() {
+      SessionContext.bind(previous);
+      if (itemsFile != null)
+         itemsFile.delete();
+   }
+
+   /**
+    * Run steps in the session - the reported ones pass
+    */
+   private static void runSteps(SessionContext context, int nSteps, int nReported) {
+      for (int i = 0; i < nSteps; i++) {
+         context.setNextStep();
+         context.getTsCounters().increment(SessionCounters.Done);
+         if (i < nReported) {
+            context.setNextReportingStep();
+            context.getTsCounters().increment(SessionCounters.Pass);
+         }
+      }
+   }
+
+   private static List<DDTReportItem> reportItems(long... stepNumbers) {
+      List<DDTReportItem> result = new ArrayList<DDTReportItem>();
+      for (long stepNumber : stepNumbers) {
+         DDTReportItem reportItem = new DDTReportItem();
+         reportItem.setSessionStepNumber(stepNumber);
+         reportItem.setId("Step" + stepNumber);
+         reportItem.setStatus("Pass");
+         result.add(reportItem);
+      }
+      return result;
+   }
+
+   private List<Long> reportedStepNumbers() {
+      List<Long> result = new ArrayList<Long>();
+      for (DDTReportItem reportItem : session.getReporter().getDDTests())
+         result.add(reportItem.getSessionStepNumber());
+      return result;
+   }
+
+   private static List<Long> steps(long... stepNumbers) {
+      List<Long> result = new ArrayList<Long>();
+      for (long stepNumber : stepNumbers)
+         result.add(stepNumber);
+      return result;
+   }
+
+   @Test
+   public void shardCountsAndStepsAreAdded() {
+      runSteps(session, 5, 3);
+      int nMerged = DDTTestRunner.mergeShardSession(new int[] {6, 3, 2, 1}, 6L, 4L, reportItems(1, 2, 4, 6));
+
+      assertEquals(nMerged, 4);
+      assertEquals(session.getTsCounters().toArray(), new int[] {11, 6, 2, 1});
+      assertEquals(session.getRptCounters().toArray(), new int[] {6, 3, 2, 1});
+      assertEquals(session.currentSessionStep(), Long.valueOf(11L));
+      assertEquals(session.currentReportedSessionStep(), Long.valueOf(7L));
+      // The shard's steps follow the session's
+      assertEquals(reportedStepNumbers(), steps(6, 7, 9, 11));
+      assertEquals(session.getReporter().firstReportStep(), Long.valueOf(4L));
+      assertEquals(session.getReporter().lastReportStep(), Long.valueOf(7L));
+   }
+
+   @Test
+   public void shardsFollowEachOther() {
+      assertEquals(DDTTestRunner.mergeShardSession(new int[] {3, 3, 0, 0}, 3L, 3L, reportItems(1, 2, 3)), 3);
+      assertEquals(DDTTestRunner.mergeShardSession(new int[] {2, 1, 1, 0}, 4L, 2L, reportItems(2, 4)), 2);
+      assertEquals(DDTTestRunner.mergeShardSession(new int[] {1, 0, 0, 1}, 1L, 1L, reportItems(1)), 1);
+
+      assertEquals(session.getTsCounters().toArray(), new int[] {6, 4, 1, 1});
+      assertEquals(session.currentSessionStep(), Long.valueOf(8L));
+      assertEquals(session.currentReportedSessionStep(), Long.valueOf(6L));
+      assertEquals(reportedStepNumbers(), steps(1, 2, 3, 5, 7, 8));
+      assertEquals(session.getReporter().firstReportStep(), Long.valueOf(1L));
+      assertEquals(session.getReporter().lastReportStep(), Long.valueOf(6L));
+   }
+
+   @Test
+   public void shardWithoutReportItems() {
+      runSteps(session, 2, 2);
+      assertEquals(DDTTestRunner.mergeShardSession(new int[] {3, 0, 0, 3}, 3L, 0L, new ArrayList<DDTReportItem>()), 0);
+
+      assertEquals(session.getTsCounters().toArray(), new int[] {5, 2, 0, 3});
+      assertEquals(session.currentSessionStep(), Long.valueOf(5L));
+      assertEquals(session.currentReportedSessionStep(), Long.valueOf(2L));
+      assertFalse(session.getReporter().getDDTests().iterator().hasNext());
+      assertEquals(session.getReporter().firstReportStep(), Long.valueOf(0L));
+   }
+
+   @Test
+   public void shardReportItemsFile() throws IOException {
+      // As written by ShardCoordinator.writeShardResults() and read by its merge()
+      itemsFile = File.createTempFile("ddt", ".jsonl");
+      Writer writer = new OutputStreamWriter(new FileOutputStream(itemsFile), "UTF-8");
+      try {
+         for (DDTReportItem reportItem : reportItems(1, 2, 3, 5, 8))
+            writer.write(reportItem.toJSON().toJSONString() + "\n");
+      }
+      finally {
+         writer.close();
+      }
+
+      runSteps(session, 10, 10);
+      int nMerged = DDTTestRunner.mergeShardSession(new int[] {8, 5, 0, 0}, 8L, 5L, ReportItemSpool.read(itemsFile));
+      assertEquals(nMerged, 5);
+      assertEquals(reportedStepNumbers(), steps(11, 12, 13, 15, 18));
+      assertEquals(session.getTsCounters().get(SessionCounters.Done), 18);
+   }
+
+   @Test
+   public void branchesAreMerged() {
+      runSteps(session, 4, 4);
+      SessionContext branch = session.branch();
+      runSteps(branch, 3, 2);
+      branch.getRptCounters().addAll(branch.getTsCounters());
+      branch.getReportItems().addAll(reportItems(1, 2));
+
+      session.merge(branch);
+      assertEquals(session.getTsCounters().toArray(), new int[] {7, 6, 0, 0});
+      assertEquals(session.getRptCounters().toArray(), new int[] {3, 2, 0, 0});
+      assertEquals(session.currentSessionStep(), Long.valueOf(7L));
+      assertEquals(session.currentReportedSessionStep(), Long.valueOf(6L));
+      assertEquals(reportedStepNumbers(), steps(5, 6));
+   }
+}
@@ -0,0 +1,119 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Created with IntelliJ IDEA.
+ * User: agent
+ * Date: 10/17/26
+ * Selenium Based Automation
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * The done, pass, fail, skip counters of a test session (see SessionContext) - safe to increment from any number of threads.
+ * Each thread increments a stripe (cell) of its own, chosen by the thread's id, so that concurrent steps do not contend on the same counters;
+ * the counters are the sums of their stripes.
+ * Stripes are padded to a cache line apart (Stride longs) to keep threads on different stripes from invalidating each other's caches.
+ *
+ * History
+ * When        |Who      |What
+ * ============|=========|====================================
+ * 10/17/26    |agent    |Initial Version
+ * ============|=========|====================================
+ */
+public class SessionCounters {
+
+   public static final int Done = 0;
+   public static final int Pass = 1;
+   public static final int Fail = 2;
+   public static final int Skip = 3;
+   public static final int Size = 4;
+
+   // 16 longs (128 bytes) between stripes - the Size counters of a stripe share its first cache line
+   private static final int Stride = 16;
+   private static final int Stripes = stripesFor(Runtime.getRuntime().availableProcessors());
+
+   private final AtomicLongArray cells = new AtomicLongArray(Stripes * Stride);
+
+   /**
+    * @param nProcessors
+    * @return The smallest power of 2 that is at least twice the number of processors (no more than 64)
+    */
+   private static int stripesFor(int nProcessors) {
+      int result = 1;
+      while (result < 2 * nProcessors && result < 64)
+         result <<= 1;
+      return result;
+   }
+
+   private static int stripeBase() {
+      long id = Thread.currentThread().getId();
+      return (int) ((id ^ (id >>> 16)) & (Stripes - 1)) * Stride;
+   }
+
+   public void increment(int counter) {
+      cells.incrementAndGet(stripeBase() + counter);
+   }
+
+   public void add(int counter, long value) {
+      if (value != 0L)
+         cells.addAndGet(stripeBase() + counter, value);
+   }
+
+   /**
+    * @param counter
+    * @return The sum of the counter's stripes - exact once the threads incrementing it are done
+    */
+   public long sum(int counter) {
+      long result = 0L;
+      for (int i = counter; i < cells.length(); i += Stride)
+         result += cells.get(i);
+      return result;
+   }
+
+   public int get(int counter) {
+      return (int) sum(counter);
+   }
+
+   /**
+    * Fold the other counters into these
+    * @param other
+    */
+   public void addAll(SessionCounters other) {
+      for (int i = 0; i < Size; i++)
+         add(i, other.sum(i));
+   }
+
+   public void addAll(int[] values) {
+      for (int i = 0; i < Size && i < values.length; i++)
+         add(i, values[i]);
+   }
+
+   public void reset() {
+      for (int i = 0; i < cells.length(); i++)
+         cells.set(i, 0L);
+   }
+
+   /**
+    * @return The done, pass, fail, skip counters
+    */
+   public int[] toArray() {
+      int[] result = new int[Size];
+      for (int i = 0; i < Size; i++)
+         result[i] = get(i);
+      return result;
+   }
+}
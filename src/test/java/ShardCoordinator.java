@@ -0,0 +1,428 @@
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Created with IntelliJ IDEA.
+ * User: agent
+ * Date: 10/17/26
+ * Selenium Based Automation
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * Runs a test session as several shard sessions (a JVM each) and merges their results into one session report.
+ * The root test's NewTest steps are dealt to DDTSettings.shards() shards - its other steps run in every shard (ahead of, or in between,
+ * the shard's NewTest steps as in the root test) but are counted and reported by the first shard only. Their session step numbers are
+ * still taken in the other shards - the merged session's step numbers may skip some numbers.
+ * Usage: ShardCoordinator [inputSpecs [shards]] - the input specs default to the settings' InputSpecs.
+ * NOTE: Only root tests whose NewTest steps are independent of each other should be sharded.
+ *
+ * History
+ * When        |Who      |What
+ * ============|=========|====================================
+ * 10/17/26    |agent    |Initial Version
+ * ============|=========|====================================
+ */
+public class ShardCoordinator {
+
+   public static final String ResultsFileName = "shardresults.json";
+   public static final String ReportItemsFileName = "shardreportitems.jsonl";
+   private static final String SummaryFileName = "sessionsummary.json";
+
+   // Shard session side - the report items of the session (kept regardless of reports generated along the way) and the assigned root steps
+   private static ReportItemSpool shardReportItems;
+   private static HashSet<Integer> assignedItems;
+   private static String assignedItemsSetting;
+
+   /**
+    * @return true if this session is a shard of a sharded session
+    */
+   public static boolean isShard() {
+      return !isBlank(DDTSettings.Settings().shardName());
+   }
+
+   /**
+    * @return true if this session counts and reports the root test's other (not NewTest) steps - the first shard (or a session that is not a shard)
+    */
+   public static boolean countsSharedSteps() {
+      return !isShard() || shardName(0).equals(DDTSettings.Settings().shardName());
+   }
+
+   /**
+    * Indicates whether the root test's step at the position is to run in this session - always true when not a shard
+    * @param position - zero based position of the step among the root test's items
+    * @return
+    */
+   public static synchronized boolean isAssigned(int position) {
+      if (!isShard())
+         return true;
+      String setting = DDTSettings.Settings().shardItems();
+      if (assignedItems == null || !setting.equals(assignedItemsSetting)) {
+         assignedItems = new HashSet<Integer>();
+         assignedItemsSetting = setting;
+         for (String s : setting.split(",")) {
+            try {
+               assignedItems.add(Integer.valueOf(s.trim()));
+            }
+            catch (NumberFormatException e) {
+               // Blank or invalid positions are not assigned
+            }
+         }
+      }
+      return assignedItems.contains(position);
+   }
+
+   /**
+    * Keep a report item of the shard session - called by the reporter as items are added
+    * @param reportItem
+    */
+   public static synchronized void keep(DDTReportItem reportItem) {
+      if (shardReportItems == null)
+         shardReportItems = new ReportItemSpool(DDTTestRunner.getReporter().sessionTestsFolderName(), DDTSettings.Settings().reportItemWindow());
+      shardReportItems.add(reportItem);
+   }
+
+   /**
+    * Write the shard session's report items and counters for the coordinator - called at the end of the shard session
+    * @param counters - done, pass, fail, skip
+    * @param nSessionSteps
+    * @param nReportedSessionSteps
+    */
+   @SuppressWarnings("unchecked")
+   public static synchronized void writeShardResults(int[] counters, Long nSessionSteps, Long nReportedSessionSteps) {
+      JSONObject results = new JSONObject();
+      results.put("shardName", DDTSettings.Settings().shardName());
+      JSONArray jsonCounters = new JSONArray();
+      for (int counter : counters)
+         jsonCounters.add((long) counter);
+      results.put("counters", jsonCounters);
+      results.put("sessionSteps", nSessionSteps);
+      results.put("reportedSessionSteps", nReportedSessionSteps);
+
+      String folder = DDTSettings.asValidOSPath(DDTTestRunner.getReporter().sessionTestsFolderName(), true);
+      try {
+         Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(new File(folder, ReportItemsFileName)), "UTF-8"));
+         try {
+            // JSON strings escape line breaks - an item is a single line
+            for (DDTReportItem reportItem : (shardReportItems == null) ? new ArrayList<DDTReportItem>() : shardReportItems) {
+               writer.write(reportItem.toJSON().toJSONString());
+               writer.write("\n");
+            }
+         }
+         finally {
+            writer.close();
+         }
+      }
+      catch (IOException e) {
+         System.out.println("Failed to write the report items of shard " + DDTSettings.Settings().shardName() + ": " + e.getMessage());
+      }
+      if (shardReportItems != null)
+         shardReportItems.clear();
+
+      // Written last - the coordinator merges shards whose results file exists
+      Util.fileWrite(folder + File.separator + ResultsFileName, results.toJSONString());
+   }
+
+   // ======================================= Coordinator side =====================================
+
+   /**
+    * A shard session - its child JVM and folder
+    */
+   private static class Shard {
+      private final String name;
+      private final File folder;
+      private final ArrayList<Integer> items = new ArrayList<Integer>();
+      private Process process;
+      private int exitCode = -1;
+
+      private Shard(String name, File folder) {
+         this.name = name;
+         this.folder = folder;
+      }
+
+      private String itemsAsString() {
+         StringBuilder sb = new StringBuilder();
+         for (Integer item : items)
+            sb.append((sb.length() > 0 ? "," : "") + item);
+         return sb.toString();
+      }
+   }
+
+   /**
+    * Run a sharded session
+    * @param args [0] - input specs (optional - defaults to the settings' InputSpecs), [1] - number of shards (optional - defaults to the Shards setting)
+    */
+   public static void main(String[] args) {
+      DDTSettings.reset();
+      String[] specs = (args.length > 0) ? args[0].split(TestStringsProviderSpecs.SPLITTER) : DDTSettings.Settings().inputSpecsArrayWithDataFolder();
+      int nShards = DDTSettings.Settings().shards();
+      if (args.length > 1)
+         nShards = Integer.valueOf(args[1]);
+      if (nShards < 1)
+         nShards = Runtime.getRuntime().availableProcessors();
+
+      boolean failed = true;
+      try {
+         failed = runSharded(specs, nShards);
+      }
+      catch (Exception e) {
+         System.out.println("Sharded session failed: " + e.getMessage());
+         e.printStackTrace();
+      }
+      System.exit(failed ? -1 : 0);
+   }
+
+   /**
+    * @param specs - the root test's input specs
+    * @param nShards - the (maximum) number of shards to run
+    * @return true if the session failed
+    * @throws Exception
+    */
+   public static boolean runSharded(String[] specs, int nShards) throws Exception {
+      TestStringsProviderSpecs providerSpecs = new TestStringsProviderSpecs(specs);
+      if (!providerSpecs.isSetupValid())
+         throw new IllegalArgumentException("Invalid Test Strings Provider - " + providerSpecs.getErrors());
+
+      // Expand the root test - find its NewTest steps
+      String[][] strings = TestStringsProvider.provideTestStrings(providerSpecs, DDTSettings.Settings().dataFolder());
+      TestItem[] items = TestItem.assembleTestItems(strings, providerSpecs.getItemsContainerName());
+      ArrayList<Integer> newTests = new ArrayList<Integer>();
+      ArrayList<Integer> otherSteps = new ArrayList<Integer>();
+      for (int i = 0; i < items.length; i++) {
+         if (items[i] == null || items[i].isEmpty() || items[i].getAction().isEmpty())
+            continue;
+         if (items[i].getAction().equalsIgnoreCase("newtest"))
+            newTests.add(i);
+         else
+            otherSteps.add(i);
+      }
+      if (newTests.isEmpty())
+         throw new IllegalArgumentException("The root test has no NewTest steps to shard.");
+
+      // Deal the NewTest steps to the shards
+      DDTReporter reporter = DDTTestRunner.getReporter();
+      File sessionFolder = new File(DDTSettings.asValidOSPath(reporter.sessionTestsFolderName(), true)).getParentFile();
+      nShards = Math.min(nShards, newTests.size());
+      Shard[] shards = new Shard[nShards];
+      for (int i = 0; i < nShards; i++) {
+         String name = shardName(i);
+         shards[i] = new Shard(name, new File(new File(sessionFolder, "shards"), name));
+      }
+      for (int i = 0; i < newTests.size(); i++)
+         shards[i % nShards].items.add(newTests.get(i));
+      // The root's other steps (setting variables, navigating...) run in every shard in their original order among its steps - counted by the first shard only
+      for (Shard shard : shards) {
+         shard.items.addAll(otherSteps);
+         Collections.sort(shard.items);
+      }
+
+      String inputSpecs = join(specs, TestStringsProviderSpecs.SPLITTER);
+      System.out.println("Running " + newTests.size() + " NewTest step(s) of " + Util.sq(inputSpecs) + " on " + nShards + " shard(s) - session folder: " + sessionFolder.getAbsolutePath());
+
+      for (Shard shard : shards)
+         launch(shard, inputSpecs);
+
+      for (Shard shard : shards) {
+         try {
+            shard.exitCode = shard.process.waitFor();
+         }
+         catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            shard.process.destroy();
+         }
+         System.out.println("Shard " + shard.name + " (root steps at " + shard.itemsAsString() + ") ended with exit code " + shard.exitCode);
+      }
+
+      for (Shard shard : shards)
+         merge(shard);
+
+      DDTTestRunner.reportSessionSummaryAsJSON();
+      DDTTestRunner.generateReportIfNeeded();
+
+      boolean failed = DDTTestRunner.nSessionFail() > 0;
+      System.out.println("Sharded Test Session " + (failed ? "Failed: " + DDTTestRunner.nSessionFail() + " test step(s) out of " : "Pass: " + DDTTestRunner.nSessionPass() + " test step(s) out of ") +
+            DDTTestRunner.nSessionDone() + " step(s) " + (failed ? "failed" : "passed") + " (" + DDTTestRunner.nSessionSkip() + " step(s) skipped)");
+      for (Shard shard : shards) {
+         if (shard.exitCode != 0 && !failed) {
+            System.out.println("Shard " + shard.name + " exited abnormally - see " + new File(shard.folder, shard.name + ".log").getAbsolutePath());
+            failed = true;
+         }
+      }
+      return failed;
+   }
+
+   /**
+    * Start the shard's JVM - the class path and java of this JVM with the shard's settings overrides
+    * (-Dddt.<SettingName>: ShardName, ShardItems, a ReportsFolder of its own, blank EmailRecipients - this JVM's ddt.* properties are passed on)
+    * @param shard
+    * @param inputSpecs
+    * @throws IOException
+    */
+   private static void launch(Shard shard, String inputSpecs) throws IOException {
+      if (!shard.folder.exists() && !shard.folder.mkdirs())
+         throw new IOException("Unable to create shard folder: " + shard.folder.getAbsolutePath());
+
+      ArrayList<String> command = new ArrayList<String>();
+      command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+      command.add("-cp");
+      command.add(System.getProperty("java.class.path"));
+      for (String key : System.getProperties().stringPropertyNames()) {
+         if (key.startsWith(DDTSettings.SystemOverridePrefix) && !Arrays.asList("ddt.ShardName", "ddt.ShardItems", "ddt.ReportsFolder", "ddt.EmailRecipients").contains(key))
+            command.add("-D" + key + "=" + System.getProperty(key));
+      }
+      command.add("-D" + DDTSettings.SystemOverridePrefix + "ShardName=" + shard.name);
+      command.add("-D" + DDTSettings.SystemOverridePrefix + "ShardItems=" + shard.itemsAsString());
+      command.add("-D" + DDTSettings.SystemOverridePrefix + "ReportsFolder=" + shard.folder.getAbsolutePath() + File.separator);
+      command.add("-D" + DDTSettings.SystemOverridePrefix + "EmailRecipients=");
+      command.add(DDTTestRunner.class.getName());
+      command.add(inputSpecs);
+
+      ProcessBuilder builder = new ProcessBuilder(command);
+      builder.directory(new File(System.getProperty("user.dir")));
+      builder.redirectErrorStream(true);
+      builder.redirectOutput(new File(shard.folder, shard.name + ".log"));
+      shard.process = builder.start();
+   }
+
+   /**
+    * Merge the shard's results into this session - its counters, report items (renumbered to follow this session's steps) and per level JSON files
+    * @param shard
+    */
+   private static void merge(Shard shard) {
+      File testsFolder = findTestsFolder(shard.folder);
+      File resultsFile = (testsFolder == null) ? null : new File(testsFolder, ResultsFileName);
+      if (resultsFile == null || !resultsFile.exists()) {
+         System.out.println("Shard " + shard.name + " has no results to merge (" + ResultsFileName + " not found under " + shard.folder.getAbsolutePath() + ")");
+         return;
+      }
+
+      JSONObject results;
+      try {
+         Reader reader = new InputStreamReader(new FileInputStream(resultsFile), "UTF-8");
+         try {
+            results = (JSONObject) new JSONParser().parse(reader);
+         }
+         finally {
+            reader.close();
+         }
+      }
+      catch (Exception e) {
+         System.out.println("Failed to read the results of shard " + shard.name + ": " + e.getMessage());
+         return;
+      }
+
+      JSONArray jsonCounters = (JSONArray) results.get("counters");
+      int[] counters = new int[4];
+      for (int i = 0; i < 4 && jsonCounters != null && i < jsonCounters.size(); i++)
+         counters[i] = ((Number) jsonCounters.get(i)).intValue();
+
+      File itemsFile = new File(testsFolder, ReportItemsFileName);
+      Iterable<DDTReportItem> reportItems = itemsFile.exists() ? ReportItemSpool.read(itemsFile) : new ArrayList<DDTReportItem>();
+      int nMerged = DDTTestRunner.mergeShardSession(counters, asLong(results.get("sessionSteps")), asLong(results.get("reportedSessionSteps")), reportItems);
+
+      // The shard's per level JSON files join this session's
+      File mergedFolder = new File(DDTSettings.asValidOSPath(DDTTestRunner.getReporter().sessionTestsFolderName(), true));
+      File[] files = testsFolder.listFiles();
+      for (int i = 0; files != null && i < files.length; i++) {
+         String name = files[i].getName();
+         if (!files[i].isFile() || !name.toLowerCase().endsWith(".json") || name.equals(ResultsFileName) || name.equals(SummaryFileName))
+            continue;
+         try {
+            copy(files[i], new File(mergedFolder, shard.name + "-" + name));
+         }
+         catch (IOException e) {
+            System.out.println("Failed to copy " + files[i].getAbsolutePath() + " of shard " + shard.name + ": " + e.getMessage());
+         }
+      }
+      System.out.println("Merged shard " + shard.name + ": " + nMerged + " report item(s), " + counters[0] + " step(s) done.");
+   }
+
+   /**
+    * @param shardFolder
+    * @return The tests folder of the (most recent) session under the shard's reports folder - null if none
+    */
+   private static File findTestsFolder(File shardFolder) {
+      File result = null;
+      File[] sessions = shardFolder.listFiles();
+      if (sessions == null)
+         return null;
+      Arrays.sort(sessions);
+      for (File session : sessions) {
+         File tests = new File(session, "tests");
+         if (session.isDirectory() && new File(tests, ResultsFileName).exists())
+            result = tests;
+      }
+      return result;
+   }
+
+   private static void copy(File from, File to) throws IOException {
+      InputStream is = new FileInputStream(from);
+      try {
+         OutputStream os = new FileOutputStream(to);
+         try {
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = is.read(buffer)) > 0)
+               os.write(buffer, 0, n);
+         }
+         finally {
+            os.close();
+         }
+      }
+      finally {
+         is.close();
+      }
+   }
+
+   /**
+    * @param index - zero based index of the shard
+    * @return The shard's name (also its folder's name)
+    */
+   private static String shardName(int index) {
+      return String.format("shard%02d", index + 1);
+   }
+
+   private static Long asLong(Object value) {
+      return (value instanceof Number) ? ((Number) value).longValue() : 0L;
+   }
+
+   private static String join(String[] values, String delim) {
+      StringBuilder sb = new StringBuilder();
+      for (int i = 0; i < values.length; i++)
+         sb.append((i > 0 ? delim : "") + values[i]);
+      return sb.toString();
+   }
+}
@@ -0,0 +1,416 @@
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Created with IntelliJ IDEA.
+ * User: agent
+ * Date: 10/17/26
+ * Selenium Based Automation
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * An adaptive wait for a web element to become visible (in lieu of WebDriverWait with visibilityOfElementLocated).
+ * Checks start at SmartWaitMinPoll ms apart and back off exponentially - on pages that count their DOM changes a check follows each change.
+ * Each locator's learned latency is kept in SmartWait.properties (see save()).  Opted into with SmartWait = 1 (default 0).
+ *
+ * History
+ * When        |Who      |What
+ * ============|=========|====================================
+ * 10/17/26    |agent    |Initial Version
+ * ============|=========|====================================
+ */
+public class SmartWait {
+
+   private static final String StatsFileName = "SmartWait.properties";
+   // Weight of the latest sample in a locator's latency estimate
+   private static final double Alpha = 0.3;
+   // Shorter intervals are plain sleeps - the script's round trip would outweigh the signal
+   private static final int MinSignaledPollMillis = 100;
+   private static final int MaxSignaledPollMillis = 1000;
+   // How often a signaled wait reads the page's change count
+   private static final int ChangeCheckMillis = 50;
+   private static final int MaxReportedLocators = 20;
+
+   // Counts (in the page) the changes of the DOM and of the document's ready state - the observer is installed once per document
+   private static final String ChangeCountScript =
+         "var w = window;" +
+         "if (!w.__ddtSmartWait) {" +
+         "  w.__ddtSmartWait = {changes: 0};" +
+         "  var count = function() { w.__ddtSmartWait.changes++; };" +
+         "  if (w.MutationObserver)" +
+         "    new MutationObserver(count).observe(document.documentElement || document, {childList: true, subtree: true, attributes: true, characterData: true});" +
+         "  document.addEventListener('readystatechange', count);" +
+         "}" +
+         "return w.__ddtSmartWait.changes;";
+
+   /**
+    * A locator's learned latency (over sessions) and its wait statistics (for this session)
+    */
+   private static class LocatorStats {
+      private final String key;
+      private double estimate = -1.0;
+      private long samples = 0L;
+      private long waits = 0L;
+      private long checks = 0L;
+      private long signals = 0L;
+      private long timeouts = 0L;
+      private long waitedMillis = 0L;
+
+      private LocatorStats(String key) {
+         this.key = key;
+      }
+
+      private synchronized void record(long elapsed, boolean found, int nChecks, int nSignals) {
+         waits++;
+         checks += nChecks;
+         signals += nSignals;
+         waitedMillis += elapsed;
+         if (!found) {
+            timeouts++;
+            return;
+         }
+         estimate = (samples == 0L || estimate < 0.0) ? elapsed : (Alpha * elapsed) + ((1.0 - Alpha) * estimate);
+         samples++;
+      }
+
+      private synchronized LocatorStats copy() {
+         LocatorStats result = new LocatorStats(key);
+         result.estimate = estimate;
+         result.samples = samples;
+         result.waits = waits;
+         result.checks = checks;
+         result.signals = signals;
+         result.timeouts = timeouts;
+         result.waitedMillis = waitedMillis;
+         return result;
+      }
+
+      public synchronized String toString() {
+         return String.format("%-60s %6d wait(s) %6d check(s) %6d signal(s) %4d timeout(s)  waited: %8dms  estimate: %8.1fms",
+               key, waits, checks, signals, timeouts, waitedMillis, Math.max(estimate, 0.0));
+      }
+   }
+
+   private static ConcurrentHashMap<String, LocatorStats> locators = new ConcurrentHashMap<String, LocatorStats>();
+   private static boolean isLoaded = false;
+   // Drivers known to run (true) or fail (false) the signal script
+   private static WeakHashMap<WebDriver, Boolean> signaling = new WeakHashMap<WebDriver, Boolean>();
+
+   private final WebDriver driver;
+   private final long timeoutMillis;
+   private final int pollMillis;
+   private long elapsedMillis = 0L;
+   private int nChecks = 0;
+   private int nSignals = 0;
+
+   /**
+    * @param driver
+    * @param timeoutSeconds - the time to wait for an element before giving up
+    * @param pollMillis - the longest interval between checks (when the page does not signal its changes)
+    */
+   public SmartWait(WebDriver driver, long timeoutSeconds, int pollMillis) {
+      this.driver = driver;
+      this.timeoutMillis = Math.max(timeoutSeconds, 0L) * 1000L;
+      this.pollMillis = Math.max(pollMillis, 1);
+   }
+
+   /**
+    * Wait for the element located by the by to be displayed
+    * @param by
+    * @return The visible element
+    * @throws TimeoutException if the element is not visible within the timeout (as WebDriverWait would)
+    */
+   public WebElement untilVisible(By by) {
+      LocatorStats stats = statsOf(by.toString());
+      long start = System.currentTimeMillis();
+      long deadline = start + timeoutMillis;
+      boolean canSignal = canSignal();
+      int maxInterval = canSignal ? Math.max(pollMillis, MaxSignaledPollMillis) : pollMillis;
+      long interval = Math.min(Math.max(DDTSettings.Settings().smartWaitMinPoll(), 1), maxInterval);
+
+      double estimate;
+      synchronized (stats) {
+         estimate = stats.estimate;
+      }
+      // Go straight to (most of) the learned latency - a signaling page wakes the wait up earlier if it changes before then
+      long next = (estimate > interval) ? (long) (estimate * 0.8) : interval;
+
+      WebElement result = null;
+      RuntimeException lastException = null;
+      try {
+         while (true) {
+            nChecks++;
+            try {
+               result = visibleElement(by);
+            }
+            catch (NotFoundException | StaleElementReferenceException e) {
+               result = null;
+               lastException = e;
+            }
+            if (result != null)
+               return result;
+
+            long now = System.currentTimeMillis();
+            if (now >= deadline)
+               throw new TimeoutException("Expected condition failed: waiting for visibility of element located by " + by +
+                     " (tried for " + (timeoutMillis / 1000L) + " second(s) with " + nChecks + " check(s))", lastException);
+
+            canSignal = pause(Math.min(next, deadline - now), canSignal);
+            if (!canSignal)
+               maxInterval = pollMillis;
+            interval = Math.min(interval * 2L, maxInterval);
+            next = interval;
+         }
+      }
+      finally {
+         elapsedMillis = System.currentTimeMillis() - start;
+         stats.record(elapsedMillis, result != null, nChecks, nSignals);
+      }
+   }
+
+   /**
+    * @return A blurb about the last wait - for the step's comments
+    */
+   public String summary() {
+      return "(waited " + elapsedMillis + "ms, " + nChecks + " check(s)" + ((nSignals > 0) ? ", " + nSignals + " page signal(s)" : "") + ")";
+   }
+
+   private WebElement visibleElement(By by) {
+      WebElement element = driver.findElement(by);
+      return element.isDisplayed() ? element : null;
+   }
+
+   /**
+    * Wait until the page changes (signaling drivers) or the time is up
+    * @param millis
+    * @param canSignal
+    * @return false if the driver failed to signal (and should no longer be asked to)
+    */
+   private boolean pause(long millis, boolean canSignal) {
+      if (millis <= 0L)
+         return canSignal;
+
+      if (canSignal && millis >= MinSignaledPollMillis) {
+         try {
+            long until = System.currentTimeMillis() + millis;
+            Object changes = changeCount();
+            long left;
+            while ((left = until - System.currentTimeMillis()) > 0L) {
+               Thread.sleep(Math.min(left, ChangeCheckMillis));
+               if (!changes.equals(changeCount())) {
+                  nSignals++;
+                  break;
+               }
+            }
+            return true;
+         }
+         catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+         }
+         catch (Exception e) {
+            synchronized (SmartWait.class) {
+               signaling.put(driver, false);
+            }
+            canSignal = false;
+         }
+      }
+
+      try {
+         Thread.sleep(millis);
+      }
+      catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      }
+      return canSignal;
+   }
+
+   /**
+    * @return The page's change count (see ChangeCountScript)
+    */
+   private Object changeCount() {
+      Object result = ((JavascriptExecutor) driver).executeScript(ChangeCountScript);
+      if (!(result instanceof Number))
+         throw new IllegalStateException("The page did not count its changes");
+      return result;
+   }
+
+   /**
+    * Indicates whether the driver's pages can count their changes (found out once per driver)
+    * @return
+    */
+   private boolean canSignal() {
+      if (!(driver instanceof JavascriptExecutor))
+         return false;
+
+      synchronized (SmartWait.class) {
+         Boolean known = signaling.get(driver);
+         if (known != null)
+            return known;
+      }
+
+      boolean result = true;
+      try {
+         changeCount();
+      }
+      catch (Exception e) {
+         result = false;
+      }
+      synchronized (SmartWait.class) {
+         signaling.put(driver, result);
+      }
+      return result;
+   }
+
+   private static LocatorStats statsOf(String key) {
+      load();
+      LocatorStats result = locators.get(key);
+      if (result == null) {
+         LocatorStats stats = new LocatorStats(key);
+         result = locators.putIfAbsent(key, stats);
+         if (result == null)
+            result = stats;
+      }
+      return result;
+   }
+
+   private static String fileName() {
+      return DDTSettings.Settings().dataFolder() + StatsFileName;
+   }
+
+   /**
+    * Load the learned latencies of previous sessions (once)
+    */
+   private static synchronized void load() {
+      if (isLoaded)
+         return;
+      isLoaded = true;
+
+      File file = new File(fileName());
+      if (!file.exists())
+         return;
+
+      Properties properties = new Properties();
+      try {
+         InputStream is = new FileInputStream(file);
+         try {
+            properties.load(is);
+         }
+         finally {
+            is.close();
+         }
+      }
+      catch (IOException e) {
+         System.out.println("Failed to load smart wait estimates from " + Util.sq(file.getAbsolutePath()) + ": " + e.getMessage());
+         return;
+      }
+
+      for (String key : properties.stringPropertyNames()) {
+         String[] values = properties.getProperty(key).split(",");
+         if (values.length != 2)
+            continue;
+         try {
+            LocatorStats stats = new LocatorStats(key);
+            stats.estimate = Double.valueOf(values[0]);
+            stats.samples = Long.valueOf(values[1]);
+            locators.putIfAbsent(key, stats);
+         }
+         catch (NumberFormatException e) {
+            // Ignore corrupt entries - the locator is learned again
+         }
+      }
+   }
+
+   /**
+    * Keep the learned latencies (estimate and number of samples per locator) for later sessions
+    */
+   public static synchronized void save() {
+      if (!isLoaded || locators.isEmpty())
+         return;
+
+      Properties properties = new Properties();
+      for (LocatorStats stats : locators.values()) {
+         synchronized (stats) {
+            if (stats.samples > 0L)
+               properties.setProperty(stats.key, stats.estimate + "," + stats.samples);
+         }
+      }
+
+      File file = new File(fileName());
+      try {
+         OutputStream os = new FileOutputStream(file);
+         try {
+            properties.store(os, "SmartWait - learned latency (ms) and number of samples per locator");
+         }
+         finally {
+            os.close();
+         }
+      }
+      catch (IOException e) {
+         System.out.println("Failed to save smart wait estimates to " + Util.sq(file.getAbsolutePath()) + ": " + e.getMessage());
+      }
+   }
+
+   /**
+    * @return The session's wait statistics - totals and the locators waited for the longest
+    */
+   public static String statistics() {
+      ArrayList<LocatorStats> waited = new ArrayList<LocatorStats>();
+      long waits = 0L;
+      long timeouts = 0L;
+      long millis = 0L;
+      for (LocatorStats stats : locators.values()) {
+         LocatorStats copy = stats.copy();
+         if (copy.waits == 0L)
+            continue;
+         waits += copy.waits;
+         timeouts += copy.timeouts;
+         millis += copy.waitedMillis;
+         waited.add(copy);
+      }
+
+      Collections.sort(waited, new Comparator<LocatorStats>() {
+         public int compare(LocatorStats s1, LocatorStats s2) {
+            return Long.compare(s2.waitedMillis, s1.waitedMillis);
+         }
+      });
+
+      StringBuilder sb = new StringBuilder("Smart Wait: " + waits + " wait(s) on " + waited.size() + " locator(s), " + timeouts + " timeout(s), " + millis + "ms waited");
+      for (int i = 0; i < waited.size() && i < MaxReportedLocators; i++)
+         sb.append("\n   " + waited.get(i).toString());
+      return sb.toString();
+   }
+}
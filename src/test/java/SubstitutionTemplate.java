@@ -0,0 +1,160 @@
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+/**
+ * Created with IntelliJ IDEA.
+ * User: agent
+ * Date: 10/17/26
+ * Selenium Based Automation
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * A compiled form of a string with {variable} tokens - the string is scanned once into literal and variable segments
+ * and each rendering is a single pass over those segments against a variables dictionary (e.g. DDTTestRunner.getVarsMap()).
+ * Rendering gives the same results as Util.substituteVariables - including its edge cases:
+ * - A string whose first closing brace is at position 2 or less renders as an empty string.
+ * - Scanning stops at the first remaining closing brace at position 2 or less - the rest of the string is taken as is.
+ * - A string where a closing brace precedes the opening one is left to Util.substituteVariables (which rejects it).
+ * Templates are kept by their source text so that the same text (loops, re-runs of the same sheet) is compiled once per session.
+ *
+ * History
+ * When        |Who      |What
+ * ============|=========|====================================
+ * 10/17/26    |agent    |Initial Version
+ * ============|=========|====================================
+ */
+public class SubstitutionTemplate {
+   private static final char Open = '{';
+   private static final char Close = '}';
+   private static final int MaxCachedTemplates = 10000;
+
+   private static ConcurrentHashMap<String, SubstitutionTemplate> templates = new ConcurrentHashMap<String, SubstitutionTemplate>();
+
+   private final String source;
+   // literals[0], variables[0], literals[1], variables[1], ... literals[n] - variable names are in lower case
+   private final String[] literals;
+   private final String[] variables;
+   // Set when the source is left to Util.substituteVariables
+   private final boolean isFallback;
+
+   private SubstitutionTemplate(String source, String[] literals, String[] variables, boolean isFallback) {
+      this.source = source;
+      this.literals = literals;
+      this.variables = variables;
+      this.isFallback = isFallback;
+   }
+
+   private static SubstitutionTemplate literal(String source, String text) {
+      return new SubstitutionTemplate(source, new String[] {text}, new String[0], false);
+   }
+
+   /**
+    * @param text - The string to compile
+    * @return The (possibly previously) compiled template of the text
+    */
+   public static SubstitutionTemplate compile(String text) {
+      if (text == null)
+         return new SubstitutionTemplate(null, new String[0], new String[0], true);
+
+      SubstitutionTemplate result = templates.get(text);
+      if (result == null) {
+         result = scan(text);
+         if (templates.size() >= MaxCachedTemplates)
+            templates.clear();
+         templates.put(text, result);
+      }
+      return result;
+   }
+
+   /**
+    * Break the text into segments the same way Util.substituteVariables walks it
+    * @param text
+    * @return
+    */
+   private static SubstitutionTemplate scan(String text) {
+      int idxOpen = text.indexOf(Open);
+      int idxClose = text.indexOf(Close);
+
+      // The case there are no variables to substitute
+      if (idxOpen < 0 || idxClose < 0 || isBlank(text))
+         return literal(text, text);
+
+      if (idxClose <= 2)
+         return literal(text, "");
+
+      ArrayList<String> literals = new ArrayList<String>();
+      ArrayList<String> variables = new ArrayList<String>();
+      String rest = text;
+      while (isNotBlank(rest) && (idxOpen >= 0) && (idxClose > 2)) {
+         if (idxClose < idxOpen)
+            return new SubstitutionTemplate(text, new String[0], new String[0], true);
+
+         literals.add(rest.substring(0, idxOpen));
+         variables.add(rest.substring(idxOpen + 1, idxClose).toLowerCase());
+
+         rest = rest.substring(idxClose + 1);
+         idxOpen = rest.indexOf(Open);
+         idxClose = rest.indexOf(Close);
+      }
+      literals.add(rest);
+
+      return new SubstitutionTemplate(text, literals.toArray(new String[literals.size()]), variables.toArray(new String[variables.size()]), false);
+   }
+
+   /**
+    * Indicates whether this template was compiled from the given text
+    * @param text
+    * @return
+    */
+   public boolean isCompiledFrom(String text) {
+      return (source == null) ? (text == null) : source.equals(text);
+   }
+
+   public boolean hasVariables() {
+      return isFallback || variables.length > 0;
+   }
+
+   /**
+    * @param dict - Variables dictionary - keys in lower case
+    * @return The source string with its variables substituted by their values in dict (missing variables are substituted by empty strings)
+    */
+   public String render(Hashtable<String, Object> dict) {
+      if (isFallback)
+         return Util.substituteVariables(source, dict);
+      if (variables.length == 0)
+         return literals[0];
+
+      StringBuilder sb = new StringBuilder(source.length() + 16 * variables.length);
+      for (int i = 0; i < variables.length; i++) {
+         sb.append(literals[i]);
+         Object value = dict.get(variables[i]);
+         if (value != null)
+            sb.append(value);
+      }
+      sb.append(literals[variables.length]);
+      return sb.toString();
+   }
+
+   public String toString() {
+      return source;
+   }
+}
@@ -48,6 +48,9 @@ import static org.apache.commons.lang.StringUtils.*;
  * 12/30/16    |Bey      |Adjust ExtentTest report - Avoid returning when LogStatus.UNKNOWN
  * 01/01/17    |Bey      |Default test id to test specs resource container (test name) with test number
  * 01/15/17    |Bey      |Add isFinalReport to indicate whether this is the final reporting step
+ * 10/17/26    |agent    |Substitute variables through compiled templates (SubstitutionTemplate) of the basic strings
+ * 10/17/26    |agent    |Resolve the action to its verb (VerbHandle) upon assembly
+ * 10/17/26    |agent    |TestItems reports its JSON results through JSONResultsWriter (streamed rather than built as one string)
  * ============|=========|============================================================================================================
  */
 public class TestItem extends DDTBase{
@@ -80,6 +83,9 @@ public class TestItem extends DDTBase{
    private TestItem parentTestItem;          // The instance's parent testItem
    private TestStringsProviderSpecs providerSpecs;
    private ExtentTest extentTest;            // This is needed when the reporting session is the Extent reporting
+   private SubstitutionTemplate[] templates = new SubstitutionTemplate[8]; // Compiled basic strings (id, action, ... description) - see substituteVariables
+   private VerbHandle verbHandle;             // The verb implementing the action - resolved upon assembly (see getVerbHandle)
+   private String verbHandleAction;           // The action verbHandle was resolved from
 
    DDTDate.DDTDuration duration;
 
@@ -229,6 +235,35 @@ public class TestItem extends DDTBase{
       active = _active.isEmpty()? "Yes" : _active;
       data = _data.isEmpty()? "" : _data;
       description = _description.isEmpty()? "" : _description;
+
+      // Compile the basic strings for variables substitution upfront (see initialize)
+      substituteVariables(0, id, null);
+      substituteVariables(1, action, null);
+      substituteVariables(2, locType, null);
+      substituteVariables(3, locSpecs, null);
+      substituteVariables(4, qryFunction, null);
+      substituteVariables(5, active, null);
+      substituteVariables(6, data, null);
+      substituteVariables(7, description, null);
+
+      // Resolve the action upfront - it is resolved again only if variables substitution changes it
+      getVerbHandle();
+   }
+
+   /**
+    * Substitute variables in one of the basic strings using the string's compiled template - the template is compiled once for a given text
+    * @param index   - The basic string's index (0 = id ... 7 = description)
+    * @param text    - The basic string's text
+    * @param dict    - Variables dictionary (null - compile only)
+    * @return The text with variables substituted (same as Util.substituteVariables)
+    */
+   private String substituteVariables(int index, String text, DDTTestContext dict) {
+      SubstitutionTemplate template = templates[index];
+      if (template == null || !template.isCompiledFrom(text)) {
+         template = SubstitutionTemplate.compile(text);
+         templates[index] = template;
+      }
+      return (dict == null) ? text : template.render(dict);
    }
 
    /**
@@ -245,18 +280,19 @@ public class TestItem extends DDTBase{
       initDuration();
 
       // Substitute variables in the basic strings on the data source - each property may have substitution value in runner's dictionary
-      id = Util.substituteVariables(id, DDTTestRunner.getVarsMap());
+      DDTTestContext varsMap = DDTTestRunner.getVarsMap();
+      id = substituteVariables(0, id, varsMap);
       if (id.endsWith("#")) {
          // Generate a numeric suffix using stepNo
          id = replace(id, "#","") + "." + String.format("%03d", stepNo);
       }
-      action = Util.substituteVariables(action, DDTTestRunner.getVarsMap());
-      locType = Util.substituteVariables(locType, DDTTestRunner.getVarsMap());
-      locSpecs = Util.substituteVariables(locSpecs, DDTTestRunner.getVarsMap());
-      qryFunction = Util.substituteVariables(qryFunction, DDTTestRunner.getVarsMap());
-      active = Util.substituteVariables(active, DDTTestRunner.getVarsMap());
-      data = Util.substituteVariables(data, DDTTestRunner.getVarsMap());
-      description = Util.substituteVariables(description, DDTTestRunner.getVarsMap());
+      action = substituteVariables(1, action, varsMap);
+      locType = substituteVariables(2, locType, varsMap);
+      locSpecs = substituteVariables(3, locSpecs, varsMap);
+      qryFunction = substituteVariables(4, qryFunction, varsMap);
+      active = substituteVariables(5, active, varsMap);
+      data = substituteVariables(6, data, varsMap);
+      description = substituteVariables(7, description, varsMap);
 
       // Create HashTables off of the appropriate attributes (data, locType...)
       // Values that give context to the various Vocabulary entries use the entries in the dataProperties
@@ -321,6 +357,17 @@ public class TestItem extends DDTBase{
       return action;
    }
 
+   /**
+    * @return The handle of the verb implementing the action (or null if no verb implements it) - resolved once per action string
+    */
+   public VerbHandle getVerbHandle() {
+      if (verbHandleAction == null || !verbHandleAction.equals(action)) {
+         verbHandle = Verb.handleOf(action);
+         verbHandleAction = action;
+      }
+      return verbHandle;
+   }
+
    public void setLocType(String value) {
       locType = value;
    }
@@ -537,7 +584,8 @@ public class TestItem extends DDTBase{
          return true;
       if (!(isBlank(locType + locSpecs + qryFunction)))
          return true;
-      return Verb.isUIVerb(getAction());
+      VerbHandle handle = getVerbHandle();
+      return (handle != null) && handle.isUIVerb();
    }
 
    private void setPostTestPolicy(PostTestPolicy policy) {
@@ -905,6 +953,7 @@ public class TestItem extends DDTBase{
     * 07/24/15    |Bey      |Include Level in report templates
     * 07/27/15    |Bey      |Implement Extent Reporting
     * 08/21/15    |Bey      |Adopt Extent Reporting to multiple reporting per session
+    * 10/17/26    |agent    |Stream JSON results (JSONResultsWriter), count statuses in a single pass
     * ============|=========|====================================
     */
    public static class TestItems {
@@ -1028,20 +1077,40 @@ public class TestItem extends DDTBase{
          return countItemsStatus("skip");
       }
 
+      /**
+       * Count the pass, fail and skip items in a single pass
+       * @return int[] {nPass, nFail, nSkip}
+       */
+      public int[] countStatuses() {
+         int[] result = new int[3];
+         for (int i = 0; i < getSize(); i++ ) {
+            String status = getItems()[i].getStatus();
+            if (status.equalsIgnoreCase("pass"))
+               result[0]++;
+            else if (status.equalsIgnoreCase("fail"))
+               result[1]++;
+            else if (status.equalsIgnoreCase("skip"))
+               result[2]++;
+         }
+         return result;
+      }
+
       /**
        * Creates a JSON string representing this section of test steps
+       * NOTE: The string holds the entire section - use JSONResultsWriter for writing the section's results
        * @return
        */
       public String asJSONArray() {
          StringBuilder sb = new StringBuilder("");
+         int[] counts = countStatuses();
          // Section Summary
          sb.append(Util.dq("inputProvider") + ":" + Util.dq(Util.jsonify(getInputProvider())) + ",");
          sb.append(Util.dq("inputSegment") + ":" + Util.dq(getInputSegment()) + ",");
          sb.append(Util.dq("jsonFileName") + ":" + Util.dq(Util.jsonify((getJSONFileName()))) + ",");
          sb.append(Util.dq("size") + ":" + Util.dq(String.valueOf(getSize())) + ",");
-         sb.append(Util.dq("nPass") + ":" + Util.dq(String.valueOf(getNPass())) + ",");
-         sb.append(Util.dq("nFail") + ":" + Util.dq(String.valueOf(getNFail())) + ",");
-         sb.append(Util.dq("nSkip") + ":" + Util.dq(String.valueOf(getNSkip())));
+         sb.append(Util.dq("nPass") + ":" + Util.dq(String.valueOf(counts[0])) + ",");
+         sb.append(Util.dq("nFail") + ":" + Util.dq(String.valueOf(counts[1])) + ",");
+         sb.append(Util.dq("nSkip") + ":" + Util.dq(String.valueOf(counts[2])));
 
          if (getSize() < 1)
             return "{" + sb.toString() + "}";
@@ -1054,15 +1123,12 @@ public class TestItem extends DDTBase{
          return "{" + sb.toString() + "}";
       }
 
+      /**
+       * Write the JSON results file of the section all at once - DDTTestRunner streams the results as items complete (see JSONResultsWriter)
+       */
       public void reportAsJSON() {
-         String jsonRepresentation = asJSONArray();
-         String outputFileName = getJSONFileName();
-         if (isBlank(outputFileName)) {
-            System.out.println("Test Case Not Reported - Empty File Name Encountered!");
-           return;
-         }
-         outputFileName = DDTTestRunner.getReporter().sessionTestsFolderName() + File.separator + outputFileName;
-         Util.fileWrite(outputFileName, jsonRepresentation);
+         JSONResultsWriter writer = JSONResultsWriter.open(this);
+         writer.finish();
       }
 
    }
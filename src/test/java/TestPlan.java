@@ -0,0 +1,490 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Created with IntelliJ IDEA.
+ * User: agent
+ * Date: 10/17/26
+ * Selenium Based Automation
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * A compiled test plan - the test strings of a root test and of all the file based NewTest segments it (recursively) refers to,
+ * in a single binary (.ddtplan) file.
+ * - Compile: TestPlan <root InputSpecs> [<plan file>] (see compile()) - the NewTest tree is resolved from the root InputSpecs
+ *   (InputSpecs with {variables} and inline providers are left out - they are provided as usual when their steps run).
+ * - Run: use the plan as the root InputSpecs (e.g. File!DDTRoot.ddtplan) - the plan file is read (see Util.fileBuffer()) and becomes one of
+ *   the session's active plans: the root's and the NewTest steps' segments are materialized from it (when first needed) rather than parsed
+ *   from their sources. The session's plans are dropped when the session ends (see deactivate()).
+ * - Segments are keyed by their file's canonical path and their (lower case) container name.
+ * - Each source file is kept with its size, modification time and CRC32 checksum. A source whose size or modification time changed is
+ *   checksummed again - a source whose contents changed is stale and its segments are provided (parsed) from the source itself.
+ *
+ * File layout (big endian):
+ * Header   - magic (8 bytes), version, number of strings, sources and segments, root segment, root InputSpecs (string id),
+ *            offsets of the strings index, sources and segments
+ * Strings  - offsets (number of strings + 1 ints, relative to the strings' data) followed by the UTF-8 data of the (interned) strings
+ * Sources  - path (string id), size, modification time, CRC32 - per source file
+ * Segments - key (string id), source, offset of the segment's rows - per segment, followed by the rows of the segments:
+ *            number of rows, then per row: number of columns followed by their string ids (-1 for null)
+ *
+ * History
+ * When        |Who      |What
+ * ============|=========|====================================
+ * 10/17/26    |agent    |Initial Version
+ * 10/17/26    |agent    |Version 2 - canonical (not lower case) paths, active plans per session
+ * ============|=========|====================================
+ */
+public class TestPlan {
+
+   public static final String Extension = ".ddtplan";
+   private static final byte[] Magic = {'D', 'D', 'T', 'P', 'L', 'A', 'N', '1'};
+   private static final int Version = 2;
+   private static final int HeaderSize = 8 + 6 * 4 + 3 * 8;
+   private static final int SourceSize = 4 + 3 * 8;
+   private static final int SegmentSize = 4 + 4 + 8;
+   private static final Charset Utf8 = Charset.forName("UTF-8");
+
+   // Plans opened (by path, modification time and size) - the plans serving a session's segments are the session's (SessionContext.getTestPlans())
+   private static final Map<String, TestPlan> plans = new ConcurrentHashMap<String, TestPlan>();
+
+   private final String fileName;
+   private final ByteBuffer buffer;
+   private final int nStrings;
+   private final int nSources;
+   private final int nSegments;
+   private final int rootSegment;
+   private final int rootInputSpecs;
+   private final int stringsIndex;
+   private final int stringsData;
+   private final int sources;
+   private final int segments;
+   private final String[] strings;
+   private final Map<String, Integer> segmentIndex = new HashMap<String, Integer>();
+   // Per source: null - not verified yet, TRUE - fresh, FALSE - stale
+   private final Boolean[] sourceFresh;
+
+   private TestPlan(String fileName, ByteBuffer buffer) throws IOException {
+      this.fileName = fileName;
+      this.buffer = buffer;
+      byte[] magic = new byte[Magic.length];
+      buffer.duplicate().get(magic);
+      if (!java.util.Arrays.equals(magic, Magic) || buffer.getInt(8) != Version)
+         throw new IOException("Not a test plan (or a test plan of another version): " + Util.sq(fileName));
+
+      nStrings = buffer.getInt(12);
+      nSources = buffer.getInt(16);
+      nSegments = buffer.getInt(20);
+      rootSegment = buffer.getInt(24);
+      rootInputSpecs = buffer.getInt(28);
+      stringsIndex = (int) buffer.getLong(32);
+      sources = (int) buffer.getLong(40);
+      segments = (int) buffer.getLong(48);
+      stringsData = stringsIndex + 4 * (nStrings + 1);
+
+      strings = new String[nStrings];
+      sourceFresh = new Boolean[nSources];
+      for (int i = 0; i < nSegments; i++)
+         segmentIndex.put(string(buffer.getInt(segments + i * SegmentSize)), i);
+   }
+
+   /**
+    * @param fileName
+    * @param containerName
+    * @return The key of a file's segment - the file's canonical path and the container name (lower case)
+    */
+   public static String segmentKey(String fileName, String containerName) {
+      return TestStringsCache.canonicalPath(fileName) + TestStringsProviderSpecs.SPLITTER + ((containerName == null) ? "" : containerName.toLowerCase());
+   }
+
+   /**
+    * @param id
+    * @return The interned string - decoded when first needed
+    */
+   private String string(int id) {
+      if (id < 0)
+         return null;
+      String result = strings[id];
+      if (result == null) {
+         int from = buffer.getInt(stringsIndex + 4 * id);
+         int to = buffer.getInt(stringsIndex + 4 * (id + 1));
+         byte[] bytes = new byte[to - from];
+         ByteBuffer data = buffer.duplicate();
+         data.position(stringsData + from);
+         data.get(bytes);
+         result = new String(bytes, Utf8);
+         strings[id] = result;
+      }
+      return result;
+   }
+
+   private static long checksumOf(File file) throws IOException {
+      CRC32 crc = new CRC32();
+      byte[] bytes = new byte[64 * 1024];
+      InputStream is = new FileInputStream(file);
+      try {
+         int n;
+         while ((n = is.read(bytes)) > 0)
+            crc.update(bytes, 0, n);
+      }
+      finally {
+         is.close();
+      }
+      return crc.getValue();
+   }
+
+   /**
+    * @param source
+    * @return true if the source file did not change since the plan was compiled - verified once per session
+    */
+   private synchronized boolean isFresh(int source) {
+      if (sourceFresh[source] == null) {
+         int at = sources + source * SourceSize;
+         File file = new File(string(buffer.getInt(at)));
+         boolean result = file.exists();
+         if (result && (file.length() != buffer.getLong(at + 4) || file.lastModified() != buffer.getLong(at + 12))) {
+            // Touched or copied files may still have the same contents
+            try {
+               result = file.length() == buffer.getLong(at + 4) && checksumOf(file) == buffer.getLong(at + 20);
+            }
+            catch (IOException e) {
+               result = false;
+            }
+         }
+         if (!result)
+            System.out.println("Test plan " + Util.sq(fileName) + " is stale for " + Util.sq(file.getPath()) + " - its test strings are read from the file (compile the plan again)");
+         sourceFresh[source] = result;
+      }
+      return sourceFresh[source];
+   }
+
+   /**
+    * @param segment
+    * @return A new copy of the segment's rows or null if the segment's source is stale
+    */
+   private String[][] materialize(int segment) {
+      int at = segments + segment * SegmentSize;
+      if (!isFresh(buffer.getInt(at + 4)))
+         return null;
+      int offset = (int) buffer.getLong(at + 8);
+      int nRows = buffer.getInt(offset);
+      offset += 4;
+      String[][] result = new String[nRows][];
+      for (int i = 0; i < nRows; i++) {
+         int nCols = buffer.getInt(offset);
+         offset += 4;
+         String[] row = new String[nCols];
+         for (int j = 0; j < nCols; j++) {
+            row[j] = string(buffer.getInt(offset));
+            offset += 4;
+         }
+         result[i] = row;
+      }
+      return result;
+   }
+
+   public String getFileName() {
+      return fileName;
+   }
+
+   /**
+    * @return The InputSpecs the plan was compiled from
+    */
+   public String getRootInputSpecs() {
+      return string(rootInputSpecs);
+   }
+
+   /**
+    * @return The root test's strings or null if its source is stale
+    */
+   public String[][] rootStrings() {
+      return materialize(rootSegment);
+   }
+
+   /**
+    * @param fileName
+    * @param containerName
+    * @return The segment's strings or null if the plan does not have the segment or its source is stale
+    */
+   public String[][] strings(String fileName, String containerName) {
+      Integer segment = segmentIndex.get(segmentKey(fileName, containerName));
+      return (segment == null) ? null : materialize(segment);
+   }
+
+   /**
+    * Have the plan serve the NewTest segments of the (current thread's) session
+    */
+   public void activate() {
+      List<TestPlan> activePlans = SessionContext.current().getTestPlans();
+      synchronized (activePlans) {
+         if (!activePlans.contains(this))
+            activePlans.add(0, this);
+      }
+   }
+
+   /**
+    * Drop the session's active plans (and forget their files) - called at the end of the session
+    */
+   public static void deactivate() {
+      List<TestPlan> activePlans = SessionContext.current().getTestPlans();
+      synchronized (activePlans) {
+         for (TestPlan plan : activePlans)
+            plans.values().remove(plan);
+         activePlans.clear();
+      }
+   }
+
+   /**
+    * @param specs - file based InputSpecs (with valid file path)
+    * @return The segment's strings from the session's active plans or null if none has them (fresh)
+    */
+   public static String[][] provide(TestStringsProviderSpecs specs) {
+      List<TestPlan> activePlans = SessionContext.current().getTestPlans();
+      if (activePlans.isEmpty() || specs.getFileName().toLowerCase().endsWith(Extension))
+         return null;
+      for (TestPlan plan : activePlans) {
+         String[][] result = plan.strings(specs.getFileName(), specs.getItemsContainerName());
+         if (result != null)
+            return result;
+      }
+      return null;
+   }
+
+   /**
+    * Read a plan file (see Util.fileBuffer()) - a plan is read once (and again if the file changes or its sessions ended)
+    * @param fileName
+    * @return
+    * @throws IOException
+    */
+   public static TestPlan open(String fileName) throws IOException {
+      File file = new File(TestStringsCache.canonicalPath(fileName));
+      String key = file.getPath() + TestStringsProviderSpecs.SPLITTER + file.lastModified() + TestStringsProviderSpecs.SPLITTER + file.length();
+      TestPlan result = plans.get(key);
+      if (result == null) {
+         result = new TestPlan(file.getPath(), Util.fileBuffer(file));
+         plans.put(key, result);
+      }
+      return result;
+   }
+
+   // ======================================= Compiling =====================================
+
+   /**
+    * Interns the strings of a plan being compiled
+    */
+   private static class StringTable {
+      private final Map<String, Integer> ids = new HashMap<String, Integer>();
+      private final ByteArrayOutputStream data = new ByteArrayOutputStream();
+      private final List<Integer> offsets = new ArrayList<Integer>();
+
+      private int idOf(String value) {
+         if (value == null)
+            return -1;
+         Integer result = ids.get(value);
+         if (result == null) {
+            result = offsets.size();
+            offsets.add(data.size());
+            byte[] bytes = value.getBytes(Utf8);
+            data.write(bytes, 0, bytes.length);
+            ids.put(value, result);
+         }
+         return result;
+      }
+   }
+
+   private static DDTTestContext paramsOf(String[] row) {
+      return Util.parseDelimitedString(row[6]);
+   }
+
+   /**
+    * Resolve the NewTest tree of the root InputSpecs and write its test strings to a plan file
+    * @param rootInputSpecs - file based InputSpecs (e.g. File!DDTRoot.xlsx!Root)
+    * @param planFileName - the plan file to write (the root file's name with the .ddtplan extension if blank)
+    * @return The plan file's name
+    * @throws IOException
+    */
+   public static String compile(String rootInputSpecs, String planFileName) throws IOException {
+      String dataFolder = DDTSettings.Settings().dataFolder();
+      TestStringsProviderSpecs rootSpecs = new TestStringsProviderSpecs(rootInputSpecs);
+      if (!rootSpecs.isSetupValid() || !rootSpecs.isFileProvider())
+         throw new IOException("A test plan is compiled from file based InputSpecs - " + Util.sq(rootInputSpecs) + " is not");
+      rootSpecs.ensureFilePathIsValid(dataFolder);
+
+      String result = planFileName;
+      if (isBlank(result)) {
+         result = rootSpecs.getFileName();
+         int dot = result.lastIndexOf('.');
+         result = ((dot > 0) ? result.substring(0, dot) : result) + Extension;
+      }
+
+      StringTable table = new StringTable();
+      // Segments (by key) and their strings, sources (by path) and their indices, in the order resolved
+      LinkedHashMap<String, String[][]> segmentStrings = new LinkedHashMap<String, String[][]>();
+      LinkedHashMap<String, Integer> segmentSources = new LinkedHashMap<String, Integer>();
+      LinkedHashMap<String, Integer> sourceIndex = new LinkedHashMap<String, Integer>();
+
+      LinkedList<TestStringsProviderSpecs> pending = new LinkedList<TestStringsProviderSpecs>();
+      pending.add(rootSpecs);
+      while (!pending.isEmpty()) {
+         TestStringsProviderSpecs specs = pending.removeFirst();
+         String key = segmentKey(specs.getFileName(), specs.getItemsContainerName());
+         if (segmentStrings.containsKey(key))
+            continue;
+
+         String[][] strings = TestStringsProvider.provideTestStrings(specs, dataFolder);
+         if (strings == null || strings.length < 1) {
+            if (specs == rootSpecs)
+               throw new IOException("No test strings provided by the root InputSpecs " + Util.sq(rootInputSpecs));
+            System.out.println("No test strings provided by " + Util.sq(specs.getInputSpecs()) + " - left out of the plan");
+            continue;
+         }
+
+         String path = TestStringsCache.canonicalPath(specs.getFileName());
+         Integer source = sourceIndex.get(path);
+         if (source == null) {
+            source = sourceIndex.size();
+            sourceIndex.put(path, source);
+         }
+         segmentStrings.put(key, strings);
+         segmentSources.put(key, source);
+
+         // The NewTest steps of the segment
+         for (String[] row : strings) {
+            if (row == null || row.length < 7 || row[1] == null || !row[1].trim().equalsIgnoreCase("newtest") || isBlank(row[6]))
+               continue;
+            String inputSpecs = paramsOf(row).getString("inputspecs");
+            // Specs with variables are resolved only when the step runs
+            if (isBlank(inputSpecs) || inputSpecs.indexOf('{') > -1)
+               continue;
+            TestStringsProviderSpecs newTestSpecs = new TestStringsProviderSpecs(inputSpecs);
+            if (!newTestSpecs.isSetupValid() || !newTestSpecs.isFileProvider() || newTestSpecs.getFileName().toLowerCase().endsWith(Extension))
+               continue;
+            newTestSpecs.ensureFilePathIsValid(dataFolder);
+            pending.add(newTestSpecs);
+         }
+      }
+
+      // Sources
+      ByteArrayOutputStream sourceBytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(sourceBytes);
+      for (String path : sourceIndex.keySet()) {
+         File file = new File(path);
+         out.writeInt(table.idOf(path));
+         out.writeLong(file.length());
+         out.writeLong(file.lastModified());
+         out.writeLong(checksumOf(file));
+      }
+
+      // Segments' rows - their offsets are set once the strings' size is known
+      ByteArrayOutputStream rowBytes = new ByteArrayOutputStream();
+      out = new DataOutputStream(rowBytes);
+      List<Integer> rowOffsets = new ArrayList<Integer>();
+      List<Integer> keyIds = new ArrayList<Integer>();
+      for (Map.Entry<String, String[][]> segment : segmentStrings.entrySet()) {
+         keyIds.add(table.idOf(segment.getKey()));
+         rowOffsets.add(out.size());
+         String[][] strings = segment.getValue();
+         out.writeInt(strings.length);
+         for (String[] row : strings) {
+            int nCols = (row == null) ? 0 : row.length;
+            out.writeInt(nCols);
+            for (int j = 0; j < nCols; j++)
+               out.writeInt(table.idOf(row[j]));
+         }
+      }
+      int rootInputSpecsId = table.idOf(rootInputSpecs);
+
+      int nStrings = table.offsets.size();
+      long stringsIndex = HeaderSize;
+      long sources = stringsIndex + 4L * (nStrings + 1) + table.data.size();
+      long segments = sources + sourceBytes.size();
+      long rows = segments + (long) SegmentSize * segmentStrings.size();
+
+      File planFile = new File(DDTSettings.asValidOSPath(result, true));
+      if (planFile.getParentFile() != null)
+         planFile.getParentFile().mkdirs();
+      out = new DataOutputStream(new java.io.BufferedOutputStream(new FileOutputStream(planFile)));
+      try {
+         out.write(Magic);
+         out.writeInt(Version);
+         out.writeInt(nStrings);
+         out.writeInt(sourceIndex.size());
+         out.writeInt(segmentStrings.size());
+         out.writeInt(0); // The root is the first segment resolved
+         out.writeInt(rootInputSpecsId);
+         out.writeLong(stringsIndex);
+         out.writeLong(sources);
+         out.writeLong(segments);
+
+         for (int offset : table.offsets)
+            out.writeInt(offset);
+         out.writeInt(table.data.size());
+         table.data.writeTo(out);
+
+         sourceBytes.writeTo(out);
+
+         int i = 0;
+         for (String key : segmentStrings.keySet()) {
+            out.writeInt(keyIds.get(i));
+            out.writeInt(segmentSources.get(key));
+            out.writeLong(rows + rowOffsets.get(i));
+            i++;
+         }
+         rowBytes.writeTo(out);
+      }
+      finally {
+         out.close();
+      }
+
+      System.out.println("Test plan " + Util.sq(planFile.getAbsolutePath()) + " compiled: " + segmentStrings.size() + " segment(s) from " +
+            sourceIndex.size() + " source file(s), " + nStrings + " distinct string(s), " + planFile.length() + " bytes");
+      return planFile.getAbsolutePath();
+   }
+
+   /**
+    * Compile a test plan
+    * @param args - [0] root InputSpecs (the settings' InputSpecs if none), [1] plan file (optional)
+    */
+   public static void main(String[] args) {
+      String rootInputSpecs = (args.length > 0) ? args[0] : DDTSettings.Settings().inputSpecs();
+      String planFileName = (args.length > 1) ? args[1] : "";
+      try {
+         compile(rootInputSpecs, planFileName);
+      }
+      catch (IOException e) {
+         System.out.println("Test plan not compiled: " + e.getMessage());
+      }
+   }
+}
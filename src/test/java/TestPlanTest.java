@@ -0,0 +1,185 @@
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.testng.Assert.*;
+
+/**
+ * Created by agent on 10/17/26.
+ * Selenium Based Automation Project
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * TestPlan - a compiled plan provides the test strings of its NewTest tree until a source's contents change
+ * (size, modification time and CRC32 checksum) - stale sources are provided from the files themselves
+ *
+ * When      |Who            |What
+ * ==========|===============|========================================================
+ * 10/17/26  |agent          |Initial Version
+ * ==========|===============|========================================================
+ */
+public class TestPlanTest {
+
+   private static final String Headers = "Id\tAction\tLocType\tLocSpecs\tQryFunction\tActive\tData\tDescription\n";
+   private static final String ChildLines = Headers +
+         "1\tNavigateToPage\t\t\t\t\tURL=http://www.google.com\tNavigate\n" +
+         "2\tClick\txpath\t//button\t\t\t\tClick the button\n";
+   // Same size, other contents
+   private static final String ChangedChildLines = ChildLines.replace("Click the button", "Click the BUTTON");
+
+   private File folder;
+   private File root;
+   private File child;
+
+   @BeforeMethod
+   public void setUp() throws IOException {
+      TestStringsCache.clear();
+      // Plan files are lower cased (see DDTSettings.asValidOSPath())
+      folder = new File(System.getProperty("java.io.tmpdir"), "ddtplan" + System.nanoTime());
+      folder.mkdirs();
+      child = new File(folder, "child.txt");
+      write(child, ChildLines);
+      root = new File(folder, "root.txt");
+      write(root, Headers +
+            "1\tNewTest\t\t\t\t\tInputSpecs=File!" + child.getAbsolutePath() + "!\tRun the child test\n" +
+            "2\tNewTest\t\t\t\t\tInputSpecs=File!{dataFolder}other.txt!\tResolved when it runs\n");
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void tearDown() {
+      TestPlan.deactivate();
+      TestStringsCache.clear();
+      File[] files = folder.listFiles();
+      if (files != null) {
+         for (File file : files)
+            file.delete();
+      }
+      folder.delete();
+   }
+
+   private static void write(File file, String content) throws IOException {
+      FileOutputStream stream = new FileOutputStream(file);
+      try {
+         stream.write(content.getBytes("UTF-8"));
+      }
+      finally {
+         stream.close();
+      }
+   }
+
+   private static String inputSpecsOf(File file) {
+      return "File!" + file.getAbsolutePath() + "!";
+   }
+
+   private TestPlan compile() throws IOException {
+      String planFileName = TestPlan.compile(inputSpecsOf(root), new File(folder, "test" + TestPlan.Extension).getPath());
+      // Parsed from the files from now on
+      TestStringsCache.clear();
+      return TestPlan.open(planFileName);
+   }
+
+   private static String[][] parsed(File file) {
+      TestStringsCache.clear();
+      String[][] result = TestStringsProvider.provideTestStrings(inputSpecsOf(file), DDTSettings.Settings().dataFolder());
+      TestStringsCache.clear();
+      assertTrue(result != null && result.length == 2, "Test strings of " + file.getName());
+      return result;
+   }
+
+   @Test
+   public void planHasTheNewTestTree() throws IOException {
+      TestPlan plan = compile();
+      assertEquals(plan.getRootInputSpecs(), inputSpecsOf(root));
+      assertEquals(plan.rootStrings(), parsed(root));
+      assertEquals(plan.strings(child.getAbsolutePath(), ""), parsed(child));
+      // Specs with variables are left out
+      assertNull(plan.strings(new File(folder, "other.txt").getAbsolutePath(), ""));
+   }
+
+   @Test
+   public void materializedStringsAreCopies() throws IOException {
+      TestPlan plan = compile();
+      plan.strings(child.getAbsolutePath(), "")[0][1] = "Changed";
+      assertEquals(plan.strings(child.getAbsolutePath(), "")[0][1], "NavigateToPage");
+   }
+
+   @Test
+   public void touchedSourceWithSameContentsIsFresh() throws IOException {
+      String planFileName = compile().getFileName();
+      assertTrue(child.setLastModified(child.lastModified() - 60000L));
+      TestPlan.deactivate();
+
+      TestPlan plan = TestPlan.open(planFileName);
+      assertEquals(plan.strings(child.getAbsolutePath(), ""), parsed(child));
+   }
+
+   @Test
+   public void checksumMismatchIsStale() throws IOException {
+      TestPlan plan = compile();
+      long lastModified = child.lastModified();
+      write(child, ChangedChildLines);
+      assertTrue(child.setLastModified(lastModified - 60000L));
+      assertEquals(child.length(), (long) ChildLines.length());
+
+      assertNull(plan.strings(child.getAbsolutePath(), ""));
+      // Other sources are still provided by the plan
+      assertNotNull(plan.rootStrings());
+   }
+
+   @Test
+   public void sizeChangeIsStale() throws IOException {
+      TestPlan plan = compile();
+      write(child, ChildLines + "3\tClick\txpath\t//a\t\t\t\tOne more step\n");
+      assertNull(plan.strings(child.getAbsolutePath(), ""));
+   }
+
+   @Test
+   public void deletedSourceIsStale() throws IOException {
+      TestPlan plan = compile();
+      assertTrue(child.delete());
+      assertNull(plan.strings(child.getAbsolutePath(), ""));
+   }
+
+   @Test
+   public void activePlanProvidesFreshSegments() throws IOException {
+      compile().activate();
+      TestStringsProviderSpecs specs = new TestStringsProviderSpecs(inputSpecsOf(child));
+      assertEquals(TestPlan.provide(specs), parsed(child));
+   }
+
+   @Test
+   public void activePlanDoesNotProvideStaleSegments() throws IOException {
+      compile().activate();
+      write(child, ChangedChildLines);
+      assertTrue(child.setLastModified(child.lastModified() + 60000L));
+
+      TestStringsProviderSpecs specs = new TestStringsProviderSpecs(inputSpecsOf(child));
+      assertNull(TestPlan.provide(specs));
+      String[][] strings = TestStringsProvider.provideTestStrings(specs, DDTSettings.Settings().dataFolder());
+      assertEquals(strings[1][7], "Click the BUTTON");
+   }
+
+   @Test(expectedExceptions = IOException.class)
+   public void otherFilesAreNotPlans() throws IOException {
+      TestPlan.open(child.getAbsolutePath());
+   }
+}
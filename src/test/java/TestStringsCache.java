@@ -0,0 +1,326 @@
+import jxl.Workbook;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Created with IntelliJ IDEA.
+ * User: agent
+ * Date: 10/17/26
+ * Selenium Based Automation
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description - A test session wide cache of test item strings provided by file based test strings providers.
+ *               Segments (file + worksheet / container) are keyed by the file's canonical path, the container name and the file's modification time
+ *               and size - a file modified during the session is read again.  Paths are not case folded - distinct files never share a key.
+ *               The cache is bounded by DDTSettings.testStringsCacheSize() (MB, estimated) - the least recently used segments are evicted first.
+ *               In addition, the most recently opened workbooks (up to MaxWorkbooks) are kept so that other worksheets of the same workbook are
+ *               provided without parsing the workbook again.  Kept workbooks count against the cache size (estimated from their file's size) -
+ *               a workbook is kept only in the space segments leave and workbooks are evicted (and closed) ahead of segments.  A kept workbook is lent to one provider at a time (acquireWorkbook() / releaseWorkbook())
+ *               - it is out of the cache while in use, hence never closed (evicted) while being read.
+ *
+ * NOTE: Callers get their own copy of the cached strings - TestItem.assembleTestItems modifies the rows it is given.
+ *
+ * History
+ * When         |Who      |What
+ * =============|=========|====================================
+ * 10/17/26     |agent    |Initial Version
+ * 10/17/26     |agent    |contains() - segments prefetched on a background thread (see TestStringsPrefetcher)
+ * 10/17/26     |agent    |Canonical (not case folded) paths in keys, workbooks lent to one provider at a time
+ * =============|=========|====================================
+ */
+public class TestStringsCache {
+
+   // Number of raw workbooks kept for serving other worksheets of the same file
+   private static final int MaxWorkbooks = 2;
+   // Estimated heap footprint of a parsed workbook relative to its file's size
+   private static final long WorkbookSizeFactor = 8L;
+
+   /**
+    * A workbook kept for serving other worksheets of its file and its estimated heap footprint
+    */
+   private static class KeptWorkbook {
+      private final Object workbook;
+      private final long size;
+
+      private KeptWorkbook(Object workbook, long size) {
+         this.workbook = workbook;
+         this.size = size;
+      }
+   }
+
+   private static LinkedHashMap<String, String[][]> segments = new LinkedHashMap<String, String[][]>(16, 0.75f, true);
+   private static LinkedHashMap<String, KeptWorkbook> workbooks = new LinkedHashMap<String, KeptWorkbook>(4, 0.75f, true);
+   // Estimated bytes of the cached segments and of the kept workbooks (included in usedBytes)
+   private static long usedBytes = 0L;
+   private static long workbookBytes = 0L;
+   private static long hits = 0L;
+   private static long misses = 0L;
+   private static long evictions = 0L;
+
+   private static long maxBytes() {
+      return DDTSettings.Settings().testStringsCacheSize() * 1024L * 1024L;
+   }
+
+   public static boolean isEnabled() {
+      return maxBytes() > 0L;
+   }
+
+   /**
+    * @param fileName
+    * @return The file's canonical path (its absolute path if it cannot be resolved)
+    */
+   public static String canonicalPath(String fileName) {
+      File file = new File(DDTSettings.asValidOSPath(fileName, false));
+      try {
+         return file.getCanonicalPath();
+      }
+      catch (IOException e) {
+         return file.getAbsolutePath();
+      }
+   }
+
+   /**
+    * The part of the keys identifying a given version of a file - path, modification time and size
+    * @param fileName
+    * @return
+    */
+   private static String fileKey(String fileName) {
+      File file = new File(canonicalPath(fileName));
+      return file.getPath() + TestStringsProviderSpecs.SPLITTER + file.lastModified() + TestStringsProviderSpecs.SPLITTER + file.length();
+   }
+
+   private static String segmentKey(String fileName, String containerName) {
+      return fileKey(fileName) + TestStringsProviderSpecs.SPLITTER + (containerName == null ? "" : containerName.toLowerCase());
+   }
+
+   /**
+    * Estimated heap footprint of a segment - used for bounding the cache
+    * @param strings
+    * @return
+    */
+   private static long estimatedSize(String[][] strings) {
+      long result = 16L + 8L * strings.length;
+      for (String[] row : strings) {
+         if (row == null)
+            continue;
+         result += 16L + 8L * row.length;
+         for (String s : row) {
+            if (s != null)
+               result += 40L + 2L * s.length();
+         }
+      }
+      return result;
+   }
+
+   private static String[][] copyOf(String[][] strings) {
+      String[][] result = new String[strings.length][];
+      for (int i = 0; i < strings.length; i++) {
+         result[i] = (strings[i] == null) ? null : strings[i].clone();
+      }
+      return result;
+   }
+
+   /**
+    * @param fileName
+    * @param containerName
+    * @return A copy of the cached strings of the segment or null if the segment is not cached
+    */
+   public static synchronized String[][] get(String fileName, String containerName) {
+      if (!isEnabled())
+         return null;
+      String[][] result = segments.get(segmentKey(fileName, containerName));
+      if (result == null) {
+         misses++;
+         return null;
+      }
+      hits++;
+      return copyOf(result);
+   }
+
+   /**
+    * @param fileName
+    * @param containerName
+    * @return true if the segment (of the current version of its file) is cached - hits and misses are not counted
+    */
+   public static synchronized boolean contains(String fileName, String containerName) {
+      return isEnabled() && segments.containsKey(segmentKey(fileName, containerName));
+   }
+
+   /**
+    * Cache the strings of a segment evicting the least recently used segments as needed to stay within the cache size.
+    * @param fileName
+    * @param containerName
+    * @param strings
+    */
+   public static synchronized void put(String fileName, String containerName, String[][] strings) {
+      if (!isEnabled() || strings == null || strings.length < 1)
+         return;
+
+      long size = estimatedSize(strings);
+      if (size > maxBytes())
+         return;
+
+      String key = segmentKey(fileName, containerName);
+      String[][] previous = segments.put(key, copyOf(strings));
+      if (previous != null)
+         usedBytes -= estimatedSize(previous);
+      usedBytes += size;
+      evict(key);
+   }
+
+   /**
+    * Evict the least recently used workbooks, then segments, until the cache is within its size
+    * @param keptKey - the key of the segment just cached (not evicted)
+    */
+   private static void evict(String keptKey) {
+      Iterator<Map.Entry<String, KeptWorkbook>> wbItr = workbooks.entrySet().iterator();
+      while (usedBytes > maxBytes() && wbItr.hasNext()) {
+         KeptWorkbook kept = wbItr.next().getValue();
+         wbItr.remove();
+         drop(kept);
+         evictions++;
+      }
+
+      Iterator<Map.Entry<String, String[][]>> itr = segments.entrySet().iterator();
+      while (usedBytes > maxBytes() && itr.hasNext()) {
+         Map.Entry<String, String[][]> entry = itr.next();
+         if (entry.getKey().equals(keptKey))
+            continue;
+         usedBytes -= estimatedSize(entry.getValue());
+         itr.remove();
+         evictions++;
+      }
+   }
+
+   /**
+    * Account for a workbook no longer kept and close it
+    * @param kept
+    */
+   private static void drop(KeptWorkbook kept) {
+      usedBytes -= kept.size;
+      workbookBytes -= kept.size;
+      closeWorkbook(kept.workbook);
+   }
+
+   /**
+    * Close a workbook - a jxl workbook or a closeable one (POI)
+    * @param workbook
+    */
+   public static void closeWorkbook(Object workbook) {
+      if (workbook instanceof Workbook)
+         ((Workbook) workbook).close();
+      else if (workbook instanceof Closeable) {
+         try {
+            ((Closeable) workbook).close();
+         }
+         catch (IOException e) {
+            // Nothing more to release
+         }
+      }
+   }
+
+   /**
+    * Take the workbook kept for the current version of the file - the caller has it to itself until it is released
+    * @param fileName
+    * @return The workbook or null if none is kept (or it is in use)
+    */
+   public static synchronized Object acquireWorkbook(String fileName) {
+      if (!isEnabled())
+         return null;
+      KeptWorkbook kept = workbooks.remove(fileKey(fileName));
+      if (kept == null)
+         return null;
+      usedBytes -= kept.size;
+      workbookBytes -= kept.size;
+      return kept.workbook;
+   }
+
+   /**
+    * Keep a workbook the caller is done with - the least recently used workbooks beyond MaxWorkbooks or the cache size are dropped (and closed).
+    * Kept workbooks are not in use - a workbook is never closed while being read.
+    * @param fileName
+    * @param workbook
+    * @return true if the workbook is kept (the caller should not close it) - false if the cache is off, the workbook is too large to keep
+    *         or another workbook of the file is kept (the caller should close it)
+    */
+   public static synchronized boolean releaseWorkbook(String fileName, Object workbook) {
+      if (!isEnabled() || workbook == null)
+         return false;
+
+      String key = fileKey(fileName);
+      long size = WorkbookSizeFactor * new File(canonicalPath(fileName)).length();
+      if (workbooks.containsKey(key) || size > maxBytes())
+         return false;
+      workbooks.put(key, new KeptWorkbook(workbook, size));
+      usedBytes += size;
+      workbookBytes += size;
+
+      // Older workbooks make room for this one - segments are not evicted for a workbook
+      Iterator<Map.Entry<String, KeptWorkbook>> itr = workbooks.entrySet().iterator();
+      while ((workbooks.size() > MaxWorkbooks || usedBytes > maxBytes()) && itr.hasNext()) {
+         Map.Entry<String, KeptWorkbook> entry = itr.next();
+         if (entry.getKey().equals(key))
+            continue;
+         itr.remove();
+         drop(entry.getValue());
+         evictions++;
+      }
+      if (usedBytes > maxBytes()) {
+         workbooks.remove(key);
+         usedBytes -= size;
+         workbookBytes -= size;
+         return false;
+      }
+      return true;
+   }
+
+   public static synchronized long hits() {
+      return hits;
+   }
+
+   public static synchronized long misses() {
+      return misses;
+   }
+
+   public static synchronized long evictions() {
+      return evictions;
+   }
+
+   public static synchronized String statistics() {
+      return "Test Strings Cache: " + hits + " hit(s), " + misses + " miss(es), " + evictions + " eviction(s), " +
+            segments.size() + " segment(s) and " + workbooks.size() + " workbook(s) cached (~" + ((usedBytes - workbookBytes) / 1024L) + " KB and ~" +
+            (workbookBytes / 1024L) + " KB)";
+   }
+
+   /**
+    * Drop all cached segments and workbooks
+    */
+   public static synchronized void clear() {
+      for (KeptWorkbook kept : workbooks.values())
+         closeWorkbook(kept.workbook);
+      workbooks.clear();
+      segments.clear();
+      usedBytes = 0L;
+      workbookBytes = 0L;
+   }
+}
@@ -0,0 +1,227 @@
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+/**
+ * Created by agent on 10/17/26.
+ * Selenium Based Automation Project
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * TestStringsCache - cached segments are those of the current version (modification time and size) of their file.
+ * Kept workbooks count against the cache size and are closed once no longer kept.
+ *
+ * When      |Who            |What
+ * ==========|===============|========================================================
+ * 10/17/26  |agent          |Initial Version
+ * ==========|===============|========================================================
+ */
+public class TestStringsCacheTest {
+
+   private static final String[][] Strings = {{"1", "NewTest", "", "", "", "", "InputSpecs=File!Tests.xml!Login", "Login"}};
+
+   private static final String CacheSize = DDTSettings.SystemOverridePrefix + "TestStringsCacheSize";
+
+   private File file;
+   private final List<File> workbookFiles = new ArrayList<File>();
+
+   /**
+    * A workbook that tells whether it was closed
+    */
+   private static class StubWorkbook implements Closeable {
+      private boolean closed;
+
+      public void close() {
+         closed = true;
+      }
+   }
+
+   @BeforeMethod
+   public void setUp() throws IOException {
+      TestStringsCache.clear();
+      file = File.createTempFile("ddt", ".txt");
+      write("Id\tAction\n1\tNewTest\n");
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void tearDown() {
+      TestStringsCache.clear();
+      System.clearProperty(CacheSize);
+      DDTSettings.reset();
+      file.delete();
+      for (File workbookFile : workbookFiles)
+         workbookFile.delete();
+      workbookFiles.clear();
+   }
+
+   private static void setCacheSize(int megaBytes) {
+      System.setProperty(CacheSize, Integer.toString(megaBytes));
+      DDTSettings.reset();
+   }
+
+   /**
+    * @return The name of a workbook file of the size given
+    */
+   private String workbookFile(int kiloBytes) throws IOException {
+      File result = File.createTempFile("ddt", ".xlsx");
+      workbookFiles.add(result);
+      FileOutputStream stream = new FileOutputStream(result);
+      try {
+         stream.write(new byte[kiloBytes * 1024]);
+      }
+      finally {
+         stream.close();
+      }
+      return result.getAbsolutePath();
+   }
+
+   /**
+    * @return Strings of a segment estimated at over kiloBytes
+    */
+   private static String[][] segmentOf(int kiloBytes) {
+      char[] chars = new char[kiloBytes * 512];
+      Arrays.fill(chars, 'x');
+      return new String[][] {{"1", "Click", "", "", "", "", new String(chars), "Large"}};
+   }
+
+   private void write(String content) throws IOException {
+      long lastModified = file.lastModified();
+      FileOutputStream stream = new FileOutputStream(file);
+      try {
+         stream.write(content.getBytes("UTF-8"));
+      }
+      finally {
+         stream.close();
+      }
+      // Keep the modification time as is - only the size tells the versions apart
+      if (lastModified > 0L)
+         file.setLastModified(lastModified);
+   }
+
+   private String path() {
+      return file.getAbsolutePath();
+   }
+
+   @Test
+   public void cachedSegmentIsACopy() {
+      assertTrue(TestStringsCache.isEnabled(), "TestStringsCacheSize should be above 0 by default");
+      TestStringsCache.put(path(), "Sheet1", Strings);
+
+      String[][] cached = TestStringsCache.get(path(), "SHEET1");
+      assertEquals(cached, Strings);
+      cached[0][0] = "changed";
+      assertEquals(TestStringsCache.get(path(), "Sheet1")[0][0], "1");
+   }
+
+   @Test
+   public void sizeChangeInvalidates() throws IOException {
+      TestStringsCache.put(path(), "Sheet1", Strings);
+      assertTrue(TestStringsCache.contains(path(), "Sheet1"));
+
+      write("Id\tAction\n1\tNewTest\n2\tClick\n");
+      assertFalse(TestStringsCache.contains(path(), "Sheet1"));
+      assertNull(TestStringsCache.get(path(), "Sheet1"));
+   }
+
+   @Test
+   public void modificationTimeChangeInvalidates() {
+      TestStringsCache.put(path(), "Sheet1", Strings);
+      assertTrue(TestStringsCache.contains(path(), "Sheet1"));
+
+      assertTrue(file.setLastModified(file.lastModified() - 60000L));
+      assertFalse(TestStringsCache.contains(path(), "Sheet1"));
+      assertNull(TestStringsCache.get(path(), "Sheet1"));
+   }
+
+   @Test
+   public void workbooksCountAgainstTheCacheSize() throws IOException {
+      setCacheSize(1);
+      // Each estimated at 8 x 96KB
+      String first = workbookFile(96);
+      String second = workbookFile(96);
+      StubWorkbook firstWorkbook = new StubWorkbook();
+      StubWorkbook secondWorkbook = new StubWorkbook();
+
+      assertTrue(TestStringsCache.releaseWorkbook(first, firstWorkbook));
+      assertTrue(TestStringsCache.statistics().contains("1 workbook(s)"), TestStringsCache.statistics());
+      assertTrue(TestStringsCache.releaseWorkbook(second, secondWorkbook));
+      assertTrue(firstWorkbook.closed, "The least recently kept workbook should be evicted (and closed)");
+      assertFalse(secondWorkbook.closed);
+      assertNull(TestStringsCache.acquireWorkbook(first));
+      assertSame(TestStringsCache.acquireWorkbook(second), secondWorkbook);
+   }
+
+   @Test
+   public void workbooksTooLargeAreNotKept() throws IOException {
+      setCacheSize(1);
+      String name = workbookFile(160);
+      StubWorkbook workbook = new StubWorkbook();
+      assertFalse(TestStringsCache.releaseWorkbook(name, workbook));
+      // Closed by the caller
+      assertFalse(workbook.closed);
+      assertNull(TestStringsCache.acquireWorkbook(name));
+   }
+
+   @Test
+   public void workbooksDoNotEvictSegments() throws IOException {
+      setCacheSize(1);
+      TestStringsCache.put(path(), "Large", segmentOf(400));
+      StubWorkbook workbook = new StubWorkbook();
+      assertFalse(TestStringsCache.releaseWorkbook(workbookFile(96), workbook));
+      assertTrue(TestStringsCache.contains(path(), "Large"));
+   }
+
+   @Test
+   public void segmentsEvictWorkbooks() throws IOException {
+      setCacheSize(1);
+      String name = workbookFile(96);
+      StubWorkbook workbook = new StubWorkbook();
+      assertTrue(TestStringsCache.releaseWorkbook(name, workbook));
+      TestStringsCache.put(path(), "Large", segmentOf(400));
+      assertTrue(workbook.closed);
+      assertNull(TestStringsCache.acquireWorkbook(name));
+      assertTrue(TestStringsCache.contains(path(), "Large"));
+   }
+
+   @Test
+   public void clearClosesKeptWorkbooks() throws IOException {
+      StubWorkbook first = new StubWorkbook();
+      StubWorkbook second = new StubWorkbook();
+      assertTrue(TestStringsCache.releaseWorkbook(workbookFile(1), first));
+      assertTrue(TestStringsCache.releaseWorkbook(workbookFile(1), second));
+      TestStringsCache.clear();
+      assertTrue(first.closed && second.closed);
+   }
+
+   @Test
+   public void otherSegmentsAreKeptApart() {
+      TestStringsCache.put(path(), "Sheet1", Strings);
+      assertNull(TestStringsCache.get(path(), "Sheet2"));
+      assertNull(TestStringsCache.get(path() + ".other", "Sheet1"));
+   }
+}
@@ -0,0 +1,202 @@
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Created with IntelliJ IDEA.
+ * User: agent
+ * Date: 10/17/26
+ * Selenium Based Automation
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * Look ahead reading of the test strings of a level's NewTest steps into the session's TestStringsCache, on up to PrefetchWorkers threads.
+ * InputSpecs with {variables} are skipped.  A step reaching a segment being prefetched waits for that segment only (see await()).
+ *
+ * History
+ * When        |Who      |What
+ * ============|=========|====================================
+ * 10/17/26    |agent    |Initial Version
+ * ============|=========|====================================
+ */
+public class TestStringsPrefetcher {
+
+   private static ThreadPoolExecutor prefetchers;
+   // Segments queued and not provided yet - by segment key
+   private static final ConcurrentHashMap<String, Future<String[][]>> inFlight = new ConcurrentHashMap<String, Future<String[][]>>();
+   // Set on prefetching threads - those do not wait for segments in flight
+   private static final ThreadLocal<Boolean> isPrefetching = new ThreadLocal<Boolean>();
+   private static final AtomicLong nQueued = new AtomicLong();
+   private static final AtomicLong nProvided = new AtomicLong();
+   private static final AtomicLong nFailed = new AtomicLong();
+   private static final AtomicLong nAwaited = new AtomicLong();
+
+   /**
+    * Provide a segment into the TestStringsCache
+    */
+   private static class Prefetch implements Callable<String[][]> {
+      private final String key;
+      private final TestStringsProviderSpecs specs;
+      private final String dataFolder;
+      private final SessionContext session;
+
+      private Prefetch(String key, TestStringsProviderSpecs specs, String dataFolder, SessionContext session) {
+         this.key = key;
+         this.specs = specs;
+         this.dataFolder = dataFolder;
+         this.session = session;
+      }
+
+      public String[][] call() {
+         SessionContext previous = SessionContext.bind(session);
+         isPrefetching.set(Boolean.TRUE);
+         try {
+            String[][] strings = TestStringsProvider.provideTestStrings(specs, dataFolder);
+            if (strings != null && strings.length > 0)
+               nProvided.incrementAndGet();
+            else
+               nFailed.incrementAndGet();
+            return strings;
+         }
+         catch (Exception e) {
+            nFailed.incrementAndGet();
+            System.out.println("Failed to prefetch test strings of " + Util.sq(specs.getInputSpecs()) + ": " + e.getMessage());
+            return null;
+         }
+         finally {
+            // Steps coming later take the segment from the cache
+            inFlight.remove(key);
+            isPrefetching.remove();
+            SessionContext.bind(previous);
+         }
+      }
+   }
+
+   /**
+    * @param specs - file based specs (with valid file path)
+    * @return The key of the specs' segment - the file's canonical path and the container name
+    */
+   private static String keyOf(TestStringsProviderSpecs specs) {
+      return TestStringsCache.canonicalPath(specs.getFileName()) + TestStringsProviderSpecs.SPLITTER + String.valueOf(specs.getItemsContainerName()).toLowerCase();
+   }
+
+   private static synchronized ThreadPoolExecutor prefetchers() {
+      if (prefetchers == null) {
+         int nWorkers = DDTSettings.Settings().prefetchWorkers();
+         prefetchers = new ThreadPoolExecutor(nWorkers, nWorkers, 30L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+               new ThreadFactory() {
+                  private final AtomicInteger count = new AtomicInteger();
+                  public Thread newThread(Runnable r) {
+                     Thread result = new Thread(r, "TestStringsPrefetcher-" + count.incrementAndGet());
+                     result.setDaemon(true);
+                     // The test thread comes first
+                     result.setPriority(Thread.NORM_PRIORITY - 1);
+                     return result;
+                  }
+               });
+         prefetchers.allowCoreThreadTimeOut(true);
+      }
+      return prefetchers;
+   }
+
+   public static boolean isEnabled() {
+      return DDTSettings.Settings().prefetchWorkers() > 0 && TestStringsCache.isEnabled();
+   }
+
+   /**
+    * Queue the file segments of the NewTest items for prefetching
+    * @param items - the items of a level about to be processed
+    */
+   public static void prefetch(TestItem[] items) {
+      if (items == null || !isEnabled())
+         return;
+
+      String dataFolder = DDTSettings.Settings().dataFolder();
+      for (TestItem item : items) {
+         if (item == null || item.isEmpty() || !item.getAction().equalsIgnoreCase("newtest") || isBlank(item.getData()))
+            continue;
+
+         String inputSpecs = Util.parseDelimitedString(item.getData()).getString("inputspecs");
+         // Specs with variables are resolved only when the step runs
+         if (isBlank(inputSpecs) || inputSpecs.indexOf('{') > -1)
+            continue;
+
+         TestStringsProviderSpecs specs = new TestStringsProviderSpecs(inputSpecs);
+         if (!specs.isSetupValid() || !specs.getSourceType().equalsIgnoreCase("file"))
+            continue;
+
+         specs.ensureFilePathIsValid(dataFolder);
+         if (TestStringsCache.contains(specs.getFileName(), specs.getItemsContainerName()))
+            continue;
+
+         String key = keyOf(specs);
+         FutureTask<String[][]> task = new FutureTask<String[][]>(new Prefetch(key, specs, dataFolder, SessionContext.current()));
+         if (inFlight.putIfAbsent(key, task) != null)
+            continue;
+
+         nQueued.incrementAndGet();
+         prefetchers().execute(task);
+      }
+   }
+
+   /**
+    * Wait for a segment being prefetched - only for that segment and only if it is in flight
+    * @param specs - file based specs (with valid file path)
+    * @return A copy of the segment's strings or null if the segment is not in flight (or failed to be provided)
+    */
+   public static String[][] await(TestStringsProviderSpecs specs) {
+      if (inFlight.isEmpty() || Boolean.TRUE.equals(isPrefetching.get()))
+         return null;
+      Future<String[][]> future = inFlight.get(keyOf(specs));
+      if (future == null)
+         return null;
+      try {
+         String[][] strings = future.get();
+         if (strings == null || strings.length < 1)
+            return null;
+         nAwaited.incrementAndGet();
+         // Items are assembled from the rows they are given - each step gets its own rows
+         String[][] result = new String[strings.length][];
+         for (int i = 0; i < strings.length; i++)
+            result[i] = (strings[i] == null) ? null : strings[i].clone();
+         return result;
+      }
+      catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         return null;
+      }
+      catch (ExecutionException e) {
+         return null;
+      }
+   }
+
+   public static String statistics() {
+      return "Test Strings Prefetcher: " + nQueued.get() + " segment(s) queued, " + nProvided.get() + " provided, " + nFailed.get() + " failed, " +
+            nAwaited.get() + " waited for, " + inFlight.size() + " pending";
+   }
+}
@@ -1,3 +1,4 @@
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Iterator;
 
@@ -35,6 +36,11 @@ import java.util.Iterator;
  * When         |Who      |What
  * =============|=========|====================================
  * 07/01/14     |Bey      |Initial Version
+ * 10/17/26     |agent    |Serve file based test strings from the session's TestStringsCache
+ * 10/17/26     |agent    |A segment being prefetched is waited for (see TestStringsPrefetcher.await())
+ * 10/17/26     |agent    |Stream .xlsx files larger than DDTSettings.streamingXlsxSize()
+ * 10/17/26     |agent    |Serve file segments from the session's compiled test plans (see TestPlan)
+ * 10/17/26     |agent    |Read .json files larger than DDTSettings.streamingJsonSize() one item at a time
  * =============|=========|====================================
  */
 public abstract class TestStringsProvider extends DDTBase{
@@ -74,11 +80,36 @@ public abstract class TestStringsProvider extends DDTBase{
       String[][] result = new String[0][];
 
       TestStringsProvider stringsProvider = null;
+      boolean isFileProvider = inputType.equalsIgnoreCase("file");
 
-      if (inputType.equalsIgnoreCase("file")) {
+      // A file segment of a compiled test plan (whose source did not change) is materialized from the plan
+      if (isFileProvider) {
+         String[][] plannedStrings = TestPlan.provide(specs);
+         if (plannedStrings != null)
+            return plannedStrings;
+      }
+
+      // A file segment provided earlier in the session (and not modified since) is taken from the cache
+      if (isFileProvider) {
+         String[][] cachedStrings = TestStringsCache.get(specs.getFileName(), specs.getItemsContainerName());
+         if (cachedStrings != null)
+            return cachedStrings;
+      }
+
+      // A file segment being prefetched is waited for - other segments are not
+      if (isFileProvider) {
+         String[][] prefetchedStrings = TestStringsPrefetcher.await(specs);
+         if (prefetchedStrings != null)
+            return prefetchedStrings;
+      }
+
+      if (isFileProvider) {
 
          String fileName = specs.getFileName().toLowerCase();
-         if (specs.getArgs().length > 1 && fileName.endsWith(".xml")) {
+         if (fileName.endsWith(TestPlan.Extension)) {
+            stringsProvider = new FileTestStringsProvider.CompiledTestStringsProvider(specs);
+         }
+         else if (specs.getArgs().length > 1 && fileName.endsWith(".xml")) {
             stringsProvider = new FileTestStringsProvider.XMLTestStringsProvider(specs);
          }
          else if (specs.getArgs().length > 1 && fileName.endsWith(".html")) {
@@ -88,13 +119,23 @@ public abstract class TestStringsProvider extends DDTBase{
             stringsProvider = new FileTestStringsProvider.ExcelTestStringsProvider(specs);
          }
          else if (specs.getArgs().length == 3 && fileName.endsWith(".xlsx")) {
-            stringsProvider = new FileTestStringsProvider.ExcelXSSFTestStringsProvider(specs);
+            // Large workbooks are streamed rather than loaded
+            long fileSize = new File(DDTSettings.asValidOSPath(specs.getFileName(), true)).length();
+            if (fileSize > DDTSettings.Settings().streamingXlsxSize() * 1024L * 1024L)
+               stringsProvider = new FileTestStringsProvider.StreamingXSSFTestStringsProvider(specs);
+            else
+               stringsProvider = new FileTestStringsProvider.ExcelXSSFTestStringsProvider(specs);
          }
          else if (specs.getArgs().length > 1 && fileName.endsWith(".txt")) {
             stringsProvider = new FileTestStringsProvider.DelimitedTestStringsProvider(specs);
          }
          else if (specs.getArgs().length > 1 && fileName.endsWith(".json")) {
-            stringsProvider = new FileTestStringsProvider.JSONTestStringsProvider(specs);
+            // Large json files are read item by item rather than parsed as a whole
+            long fileSize = new File(DDTSettings.asValidOSPath(specs.getFileName(), true)).length();
+            if (fileSize > DDTSettings.Settings().streamingJsonSize() * 1024L * 1024L)
+               stringsProvider = new FileTestStringsProvider.StreamingJSONTestStringsProvider(specs);
+            else
+               stringsProvider = new FileTestStringsProvider.JSONTestStringsProvider(specs);
          }
          else {
             System.out.println("Invalid / Unsupported Input File Type: " + sq(fileName));
@@ -110,7 +151,13 @@ public abstract class TestStringsProvider extends DDTBase{
       }
 
       try {
-         if (stringsProvider instanceof TestStringsProvider) {
+         if (isFileProvider) {
+            stringsProvider.provideStrings();
+            result = stringsProvider.getDataStrings();
+            if (!stringsProvider.hasErrors() && !stringsProvider.hasException())
+               TestStringsCache.put(specs.getFileName(), specs.getItemsContainerName(), result);
+         }
+         else if (stringsProvider instanceof TestStringsProvider) {
             stringsProvider.provideStrings();
             result = stringsProvider.getDataStrings();
          }
@@ -38,13 +38,14 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
  * 10/28/14  |Bey            |Initial Version
  * 08/30/15  |Bey            |Added .txt file extension
  * 09/06/15  |Bey            |Added .json file extension
+ * 10/17/26  |agent          |Added .ddtplan (compiled test plan) file extension
  * ==========|===============|========================================================
  */
 public class TestStringsProviderSpecs extends DDTBase{
 
    public static final String SPLITTER = "!";
 
-   private final String supportedFileExtensions = ",.xml,.xls,.xlsx,.html,.txt,.json,";
+   private final String supportedFileExtensions = ",.xml,.xls,.xlsx,.html,.txt,.json,.ddtplan,";
    private String inputSpecs;
    private String[] args;
 
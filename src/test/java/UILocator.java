@@ -1,9 +1,13 @@
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.pagefactory.ByChained;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
@@ -40,6 +44,10 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
  * 10/26/14    |Bey      |Introduce DDTTestContext usage in addition to TestItem
  * 10/28/14    |Bey      |Inherit from DDTBase
  * 06/26/15    |Bey      |Remove references to initialization and locate based on TestItem instance
+ * 10/17/26    |agent    |UILocatorByTag snapshot mode (values of the traversed sub-tree fetched in one script call)
+ * 10/17/26    |agent    |WebUILocator waits with SmartWait (adaptive polling) unless SmartWait = 0
+ * 10/17/26    |agent    |WebUILocator reuses compiled locators and located elements (LocatorCache)
+ * 10/17/26    |agent    |UILocatorByTag verifies candidates with the verifier's compiled predicate (VerifierPredicate)
  * ============|=========|====================================
  */
 public abstract class UILocator extends DDTBase{
@@ -175,12 +183,23 @@ public abstract class UILocator extends DDTBase{
     *                       |Fixed message text bug (cosmetic)
     * 08/23/15    |Bey      |Changed Locator Array Delimiter to '`' from '^' which did not split
     * 03/30/17    |Bey      |Created Locator Type synonyms ("classname" / "class", "tagname" / "tag")
+    * 10/17/26    |agent    |Adaptive waiting (SmartWait) in place of fixed WebDriverWait polling
+    * 10/17/26    |agent    |Reuse compiled locators and (on unchanged pages) located elements - see LocatorCache
     * ============|=========|====================================
     */
    public static class WebUILocator extends UILocator {
+      private String waitSummary = "";
+
       public WebUILocator() {
       }
 
+      /**
+       * @return A blurb about the (adaptive) wait for the located element - empty when WebDriverWait was used
+       */
+      public String getWaitSummary() {
+         return waitSummary;
+      }
+
       @Override
       /**
        * Locates a WebUI Element based on the context in testContext.
@@ -240,9 +259,24 @@ public abstract class UILocator extends DDTBase{
          if (!isBlank(getErrors()))
             return null;
 
+         // An element located by this locator on the (unchanged) page is reused
+         String cacheKey = LocatorCache.keyOf(getLocType(), getLocSpecs());
+         element = LocatorCache.locatedOf(Driver.getDriver(), cacheKey);
+         if (element != null) {
+            waitSummary = "(reused)";
+            return element;
+         }
+
          try {
+            // Wait adaptively (checks at growing intervals that end early when the page changes) - help handling Ajax pages
+            if (DDTSettings.Settings().smartWait() > 0) {
+               By by = (getBy().length > 1) ? new ByChained(getBy()) : getBy()[0];
+               SmartWait wait = new SmartWait(Driver.getDriver(), getWaitTimeInSeconds(), getWaitPollPeriod());
+               element = wait.untilVisible(by);
+               waitSummary = wait.summary();
+            }
             // Create a waiting web driver with delays specified - help handling Ajax pages
-            if (getBy().length > 1)
+            else if (getBy().length > 1)
                element = new WebDriverWait(Driver.getDriver(), getWaitTimeInSeconds(), getWaitPollPeriod()).until(ExpectedConditions.
                   visibilityOfElementLocated(new ByChained(getBy())));
             else {
@@ -255,6 +289,8 @@ public abstract class UILocator extends DDTBase{
             // Do not overwrite previous exceptions!
             addError("Exception generated in Locator instance. (" + e.getMessage().toString());
          }
+         if (element != null)
+            LocatorCache.keepLocated(Driver.getDriver(), cacheKey, element);
          //System.out.println(element.getLocation().toString());
          return element;
 
@@ -278,6 +314,14 @@ public abstract class UILocator extends DDTBase{
             return;
          }
 
+         // Locators are compiled once per session
+         String cacheKey = LocatorCache.keyOf(how, searchValue);
+         chainedSpecs = LocatorCache.compiledOf(cacheKey);
+         if (chainedSpecs != null) {
+            setBy(chainedSpecs);
+            return;
+         }
+
          /**
           * Implement a version of Chaining made of comma delimited 'how' and 'searchValue' fragments.
           */
@@ -358,6 +402,8 @@ public abstract class UILocator extends DDTBase{
          }
 
          setBy(chainedSpecs);
+         if (isBlank(getErrors()))
+            LocatorCache.keepCompiled(cacheKey, chainedSpecs);
 
          return;
 
@@ -403,24 +449,51 @@ public abstract class UILocator extends DDTBase{
     * 2. Traverse through fourth ul tag, second li tag, first div
     * 3. For each 'sibling' div element so discovered, verify the element using the appropriate 'verifier' (defined by 'standard' properties)
     *    Return the first item successfully verified
+    * Snapshot mode (Snapshot=true in the test context):
+    * The values (per qryFunction / queryParam) of all the elements along the traversal are fetched in a single script call rather than
+    * querying each element over the wire. The traversal and verification run locally on that snapshot (with the same order and instance logic)
+    * and only the element found is resolved back to a WebElement.
+    * Supported functions: GetText, GetTagName, GetAttribute, IsEnabled, IsSelected - other functions (or a failing script) use the element by element traversal.
+    * NOTE: GetText is taken from the element's rendered text (innerText) which may differ from WebElement.getText() in white space.
     * History
     * When        |Who      |What
     * ============|=========|====================================
     * 06/25/15    |Bey      |Initial Version
     * 07/14/15    |Bey      |Introduce instancesFoFind logic allowing for finding the nth element that matches search.
+    * 10/17/26    |agent    |Snapshot mode
     * ============|=========|====================================
     */
    public class UILocatorByTag extends WebUILocator {
+      // Collects the values of the elements along the tags (nested arrays - one level per tag) - arguments: root element, tags, function, parameter
+      private static final String SnapshotScript =
+            "var root = arguments[0], tags = arguments[1], fn = arguments[2], param = arguments[3];" +
+            UIQuery.WebElementQuery.ScriptValueOf +
+            "function walk(e, i) {" +
+            "  var list = e.getElementsByTagName(tags[i]), out = [];" +
+            "  for (var k = 0; k < list.length; k++) out.push((i < tags.length - 1) ? walk(list[k], i + 1) : valueOf(list[k], fn, param));" +
+            "  return out;" +
+            "}" +
+            "return walk(root, 0);";
+
+      // Resolves the element at a path (of indices - one per tag) from the root element - arguments: root element, tags, path
+      private static final String ResolveScript =
+            "var e = arguments[0], tags = arguments[1], path = arguments[2];" +
+            "for (var i = 0; i < path.length; i++) e = e.getElementsByTagName(tags[i])[path[i]];" +
+            "return e;";
+
       private String[] tagsArray; // the array of tags to traverses through
       private boolean isInitialized = false;
       private WebElement foundElement = null;
       private UIQuery.WebElementQuery uiQuery = new UIQuery.WebElementQuery();
       private Verifier verifier = null;
+      private VerifierPredicate predicate = null;
       private DDTTestContext testContext;
       private int elementsInspected = 0;
       private int instanceToFind = 0;
       private int instancesFound = 0;
       private int iteration = 1;
+      private List<Long> foundPath = null; // Snapshot mode - the path (indices per tag level) of the element found
+      private String foundValue = null;
 
       public UILocatorByTag() {
 
@@ -467,8 +540,11 @@ public abstract class UILocator extends DDTBase{
 
          // Create a verifier for the (dis)qualification of an element.
          verifier = Verifier.getVerifier(context);
+         // ... compiled once for all the candidates
+         predicate = verifier.compile();
          // The web element to traverse from is the instance's element found at the root of the traversal
-         traverseFromParentElement(getElement(), tagsArray, 0);
+         if (!(context.getBoolean("snapshot") && locateInSnapshot(getElement())))
+            traverseFromParentElement(getElement(), tagsArray, 0);
 
          if (foundElement()) {
             context.setProperty("element", foundElement);
@@ -478,6 +554,98 @@ public abstract class UILocator extends DDTBase{
             addError("Element not found (inspected: " + elementsInspected + " elements.)");
       }
 
+      /**
+       * Snapshot mode - fetch the values of the traversed elements in one script call, traverse and verify them locally and resolve the element found.
+       * @param root - the element at the root of the traversal
+       * @return false if snapshot mode is not applicable (unsupported function or script failure) - the caller should traverse element by element
+       */
+      private boolean locateInSnapshot(WebElement root) {
+         String function = testContext.getString("qryFunction");
+         String param = testContext.getString("queryParam");
+         if (!UIQuery.WebElementQuery.isScriptable(function, param))
+            return false;
+
+         WebDriver driver = Driver.getDriver();
+         if (!(driver instanceof JavascriptExecutor))
+            return false;
+
+         List<String> tags = Arrays.asList(tagsArray);
+         Object snapshot;
+         try {
+            snapshot = ((JavascriptExecutor) driver).executeScript(SnapshotScript, root, tags, function.toLowerCase(), isBlank(param) ? "" : param);
+         }
+         catch (Exception e) {
+            return false;
+         }
+         if (!(snapshot instanceof List))
+            return false;
+
+         traverseSnapshot((List<?>) snapshot, tagsArray, 0, new ArrayList<Long>());
+
+         if (foundPath != null) {
+            try {
+               Object element = ((JavascriptExecutor) driver).executeScript(ResolveScript, root, tags, foundPath);
+               if (element instanceof WebElement) {
+                  foundElement = (WebElement) element;
+                  testContext.setProperty("element", foundElement);
+                  testContext.saveVariableIfNeeded(foundValue);
+               }
+            }
+            catch (Exception e) {
+               addError("Element found (" + Util.sq(foundValue) + ") but could not be resolved: " + e.getMessage());
+            }
+         }
+         return true;
+      }
+
+      /**
+       * The local counterpart of traverseFromParentElement - same traversal order, instance logic and verification but over the snapshot's values
+       * @param nodes - the snapshot's nodes at this level (nested lists above the verification level, values at the verification level)
+       * @param tags
+       * @param index
+       * @param path - the indices (per tag level) leading to the nodes
+       */
+      private void traverseSnapshot(List<?> nodes, String[] tags, int index, ArrayList<Long> path) {
+         if (index >= tags.length)
+            return;
+
+         if (index < (tags.length -1)) {
+            for (int i = 0; i < nodes.size(); i++) {
+               if (!(nodes.get(i) instanceof List))
+                  continue;
+               path.add((long) i);
+               traverseSnapshot((List<?>) nodes.get(i), tags, index + 1, path);
+               path.remove(path.size() - 1);
+               if (foundPath != null) {
+                  instancesFound++;
+                  if (instancesFound >= instanceToFind)
+                     break;
+               }
+            }
+         }
+         else {
+            iteration++;
+
+            for (int i = 0; i < nodes.size(); i++) {
+               clearErrors();
+               elementsInspected++;
+               try {
+                  String actualValue = (nodes.get(i) == null) ? "" : nodes.get(i).toString();
+                  if (predicate.test(actualValue)) {
+                     foundPath = new ArrayList<Long>(path);
+                     foundPath.add((long) i);
+                     foundValue = actualValue;
+                     addComment("Element found (element number: " + elementsInspected + ", Tag Level: " + (index + 1) + ", iteration: " + iteration + ", snapshot)");
+                     break;
+                  }
+               }
+               catch(Exception ex) {
+                  continue;
+               }
+            }
+         }
+      }
+
       private void traverseFromParentElement(WebElement element, String[] tags, int index) {
          // Terminate the traversal if the allowed depth of the traversal has been exceeded
          if (index >= tags.length)
@@ -511,11 +679,8 @@ public abstract class UILocator extends DDTBase{
                   // Get the actual value using a ui query and the web element from the context
                   String actualValue = uiQuery.query(testContext);
 
-                  verifier.clearErrors();
-                  verifier.setAv(actualValue);
                   //System.out.println("Actual: '" + actualValue + "\nExpected: '" + verifier.getEv() + "', Element Number: " + elementNumber +", Tag Level: " + (index + 1));
-                  verifier.verify();
-                  if (verifier.isPass()) {
+                  if (predicate.test(actualValue)) {
                      foundElement = e2;
                      addComment("Element found (element number: " + elementsInspected + ", Tag Level: " + (index + 1) + ", iteration: " + iteration);
                      break;
@@ -35,6 +35,7 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
  * 10/02/14    |Bey      |Initial Version
  * 10/26/14    |Bey      |Introduce DDTTestContext functionality
  * 10/28/14    |Bey      |Inherit from DDTBase
+ * 10/17/26    |agent    |WebElementQuery's script counterpart (ScriptValueOf) for queries batched in one script call
  * ============|=========|====================================
  */
 public abstract class UIQuery extends DDTBase{
@@ -255,12 +256,44 @@ public abstract class UIQuery extends DDTBase{
     * ============|=========|====================================
     * 10/02/14    |Bey      |Initial Version
     * 10/26/14    |Bey      |Introduce DDTTestContext functionality
+    * 10/17/26    |agent    |ScriptValueOf / isScriptable
     * ============|=========|====================================
     */
    public static class WebElementQuery extends UIQuery {
+      private static final String ScriptedFunctions = ",gettext,gettagname,getattribute,isenabled,isselected,";
+
+      /**
+       * The script counterpart of doTheQuery for the functions in ScriptedFunctions - a javascript function valueOf(e, fn, param)
+       * to be included in scripts that query many elements in one call (fn is the function name in lower case).
+       * NOTE: GetText is taken from the element's rendered text (innerText) which may differ from WebElement.getText() in white space.
+       */
+      public static final String ScriptValueOf =
+            "function valueOf(e, fn, param) {" +
+            "  switch (fn) {" +
+            "    case 'gettext': var t = (e.innerText === undefined) ? e.textContent : e.innerText; return (t === null) ? '' : String(t).trim();" +
+            "    case 'gettagname': return e.tagName.toLowerCase();" +
+            "    case 'isenabled': return e.disabled ? 'false' : 'true';" +
+            "    case 'isselected': return (e.selected || e.checked) ? 'true' : 'false';" +
+            "    case 'getattribute': var v = e.getAttribute(param); if (v === null && (param in e)) v = e[param]; return (v === null || v === undefined) ? '' : String(v);" +
+            "  }" +
+            "  return '';" +
+            "}";
+
       private WebElement element;
       private String queryParam;
 
+      /**
+       * Indicates whether a query can be run by ScriptValueOf
+       * @param fName - the query function name
+       * @param qryParam - the query parameter (required by GetAttribute)
+       * @return
+       */
+      public static boolean isScriptable(String fName, String qryParam) {
+         if (isBlank(fName) || !ScriptedFunctions.contains("," + fName.toLowerCase() + ","))
+            return false;
+         return !(fName.equalsIgnoreCase("getattribute") && isBlank(qryParam));
+      }
+
       public WebElementQuery() {
 
       }
@@ -5,6 +5,8 @@ import org.json.simple.JSONObject;
 import org.openqa.selenium.*;
 import org.openqa.selenium.remote.CapabilityType;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.security.NoSuchAlgorithmException;
 import java.text.SimpleDateFormat;
 import java.util.*;
@@ -43,9 +45,14 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
  * 12/31/13    |Bey      |Initial Version
  * 12/26/14    |Bey      |Cleanup - remove unused methods & imports
  * 09/18/16    |Bey      |Added Encryption / Decryption support
+ * 10/17/26    |agent    |Deduplicate screen images (see ScreenShotStore)
+ * 10/17/26    |agent    |fileBuffer() - a file's bytes in memory (memory mapped only when large)
  * ============|=========|====================================
  */
 public class Util {
+   // Files up to this size are read into memory by fileBuffer() - larger files are memory mapped
+   public static final long MaxHeapFileBuffer = 64L * 1024L * 1024L;
+
    public static String sq(String str) { return surroundedBy("'", str, "'"); }
 
    public static String dq(String str) { return surroundedBy("\"", str, "\""); }
@@ -475,6 +482,8 @@ public class Util {
          }
 
          result = tmpFile.getAbsolutePath();
+         if (DDTSettings.Settings().screenShotDedup() > 0)
+            result = ScreenShotStore.deduplicated(tmpFile).getAbsolutePath();
       }
       else {
          // Create Base64 screen shot file on the remote driver and store it locally
@@ -502,6 +511,8 @@ public class Util {
          }
 
          result = tmpFile.getAbsolutePath();
+         if (DDTSettings.Settings().screenShotDedup() > 0)
+            result = ScreenShotStore.deduplicated(tmpFile).getAbsolutePath();
       }
 
       return result;
@@ -603,6 +614,31 @@ public class Util {
       return result;
    }
 
+   /**
+    * The bytes of a file for random access - read into memory if the file is not larger than MaxHeapFileBuffer, memory mapped (read only) otherwise.
+    * NOTE: A mapped file remains mapped (and, on Windows, locked) until its buffer is garbage collected - hence mapping large files only
+    * @param file
+    * @return The file's bytes (positioned at 0)
+    * @throws IOException if the file cannot be read or is larger than 2GB
+    */
+   public static ByteBuffer fileBuffer(File file) throws IOException {
+      RandomAccessFile raf = new RandomAccessFile(file, "r");
+      try {
+         long length = raf.length();
+         if (length > Integer.MAX_VALUE)
+            throw new IOException("File larger than 2GB: " + sq(file.getAbsolutePath()));
+         if (length > MaxHeapFileBuffer)
+            return raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0L, length);
+         byte[] bytes = new byte[(int) length];
+         raf.readFully(bytes);
+         return ByteBuffer.wrap(bytes);
+      }
+      finally {
+         // A mapping remains valid once the file is closed
+         raf.close();
+      }
+   }
+
    /**
     * Gets the contents of a text file named fileName
     * @param fileName
@@ -9,6 +9,8 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Set;
@@ -60,17 +62,23 @@ import static org.apache.commons.lang3.StringUtils.split;
  * 10/29/14    |Bey      |Initial Version
  * 06/06/15    |Bey      |Introduce WaitUntil and BranchOnValue, verb names are now case-insensitive
  * 09/29/18    |Bey      |Modify call to Utils.readFile (add boolean params indicating stripping of new line markers.)
+ * 10/17/26    |agent    |Verbs invoked by parallel NewTest branches run on their own instance
+ * 10/17/26    |agent    |CreateWebDriver leases its driver from DriverPool
+ * 10/17/26    |agent    |Dispatch through VerbHandle - a fresh verb instance per invocation, per verb invocation statistics
+ * 10/17/26    |agent    |FindCell (and thus ClickCell) batched cell scanning (Batch=true)
+ * 10/17/26    |agent    |FindElement comments on the element's (adaptive) wait
+ * 10/17/26    |agent    |NavigateToPage and SwitchTo invalidate the driver's located elements (LocatorCache)
  * ============|=========|====================================
  */
 
 public abstract class Verb extends DDTBase {
 
-   private static Hashtable<String, Verb> verbs;
+   private static Hashtable<String, VerbHandle> verbs;
 
    private DDTTestContext testContext = null;
    private String id;
 
-   private static Hashtable<String, Verb> getVerbs() {
+   private static Hashtable<String, VerbHandle> getVerbs() {
       if (verbs == null)
          initializeVerbs();
       return verbs;
@@ -87,7 +95,7 @@ public abstract class Verb extends DDTBase {
    private static void initializeVerbs() {
       //Class<?>[] subClasses = Verb.class.getDeclaredClasses();
 
-      verbs = new Hashtable<String, Verb>();
+      Hashtable<String, VerbHandle> handles = new Hashtable<String, VerbHandle>();
 
       java.lang.Class<?>[] subClasses = Verb.class.getDeclaredClasses();
       int nClasses = subClasses.length;
@@ -108,7 +116,7 @@ public abstract class Verb extends DDTBase {
 
             try {
                inst = (Verb) c.newInstance();
-               verbs.put(key.toLowerCase(), inst);
+               handles.put(key.toLowerCase(), new VerbHandle(key, inst.getClass(), inst.isUIVerb()));
                System.out.println("Added Verb '" + key + "' to the Verbs 'Dictionary'");
             }
             catch (Exception e) {
@@ -126,9 +134,46 @@ public abstract class Verb extends DDTBase {
          }
       }
 
+      verbs = handles;
       System.out.println(verbs.size() + " Verbs loaded into the 'Dictionary'");
    }
 
+   /**
+    * Resolve an action to the handle of the verb implementing it
+    * @param action
+    * @return The verb's handle or null if no verb implements the action
+    */
+   public static VerbHandle handleOf(String action) {
+      if (isBlank(action))
+         return null;
+      return getVerbs().get(action.toLowerCase());
+   }
+
+   /**
+    * @return The handles of all verbs (with their invocation statistics) ordered by name
+    */
+   public static List<VerbHandle> handles() {
+      List<VerbHandle> result = new ArrayList<VerbHandle>(getVerbs().values());
+      Collections.sort(result, new Comparator<VerbHandle>() {
+         public int compare(VerbHandle a, VerbHandle b) {
+            return a.getName().compareToIgnoreCase(b.getName());
+         }
+      });
+      return result;
+   }
+
+   /**
+    * @return A report of the invocation statistics of the verbs invoked so far
+    */
+   public static String statistics() {
+      StringBuilder sb = new StringBuilder("Verb Statistics:");
+      for (VerbHandle handle : handles()) {
+         if (handle.invocations() > 0)
+            sb.append("\n   " + handle.toString());
+      }
+      return sb.toString();
+   }
+
    public static void invokeForTestItem(TestItem testItem) {
       // Ensure testItem's action is not blank
       if(testItem.getAction().isEmpty()) {
@@ -136,22 +181,16 @@ public abstract class Verb extends DDTBase {
          return;
       }
 
-      // Ensure testItem's action is represented in the getVerbs() hashMap
-      if (!getVerbs().containsKey(testItem.getAction().toLowerCase())) {
+      // Ensure testItem's action is represented in the verbs dictionary - the action is resolved when the test item is assembled
+      VerbHandle handle = testItem.getVerbHandle();
+      if (handle == null) {
          testItem.addError("Invalid TestItem - 'Action' ('" + testItem.getAction() + "') is not implemented yet!");
          return;
       }
 
-      // Ensure testItem's action is indeed, a valid Verb
-      // It is OK to check for null as the hashtable's values are Verb instances.
-      if ((getVerbs().get(testItem.getAction().toLowerCase()) == null)) {
-         testItem.addError("Invalid TestItem - 'Action' ('" + testItem.getAction() + "') does not correspond to a valid 'Verb'");
-         return;
-      }
-
-      // invoke this verb - basicDoIt catches errors too
+      // invoke this verb on an instance of its own - basicDoIt catches errors too
       try {
-         getVerbs().get(testItem.getAction().toLowerCase()).basicDoIt(testItem);
+         handle.invoke(testItem);
       }
       catch (Exception e) {
          if (!testItem.hasErrors())
@@ -167,7 +206,7 @@ public abstract class Verb extends DDTBase {
     */
    public static boolean isUIVerb(String action) {
       try {
-         return getVerbs().get(action.toLowerCase()).isUIVerb();
+         return handleOf(action).isUIVerb();
       }
       catch (Exception e) {
          return false;
@@ -778,10 +817,12 @@ public abstract class Verb extends DDTBase {
    /**
     * Description
     * CreateWebDriver starts in instance of the session's web driver type and navigates to the specified URL
+    * The driver is leased from DriverPool (a warm driver is reused when one is available) and further drivers are pre-warmed per DDTSettings.driverPoolPrewarm()
     * History
     * When        |Who      |What
     * ============|=========|====================================
     * 10/31/14    |Bey      |Initial Version
+    * 10/17/26    |agent    |Lease from DriverPool, pre-warm drivers
     * ============|=========|====================================
     */
 
@@ -819,6 +860,7 @@ public abstract class Verb extends DDTBase {
                return;
             }
             Verb.basicAddComment(this, "Web Driver created for URL " + Util.sq(url));
+            DriverPool.prewarm(browserType, DDTSettings.Settings().driverPoolPrewarm());
 
          } catch (Exception e) {
             setException(e);
@@ -841,16 +883,46 @@ public abstract class Verb extends DDTBase {
     * In the latter case (precursor to clicking) the top (table or tbody) element was already found and the FindElement find the children of this element
     * If the table is found, the tokens in the DDTTestContext are used to (potentially) restrict the search to some row, or column or row/column combination
     * Note: if the cell is found, it remains as the DDTTestContext.getElement() and can be clicked on (or acted upon) subsequently
+    * Batched scanning (Batch=true in the test context):
+    * The values (per qryFunction / queryParam) of the cells to examine (and of their alternate tag elements) are extracted in a single script call
+    * into a local matrix rather than querying each cell over the wire. The search and verification run locally on that matrix (same order, counts and comments)
+    * and only the resulting cell is resolved back to a WebElement by its row / column (/ alternate element) index.
+    * Supported functions are those of UIQuery.WebElementQuery.isScriptable() - other functions (or a failing script) scan cell by cell.
     * <p/>
     * History
     * When        |Who      |What
     * ============|=========|====================================
     * 11/02/14    |Bey      |Initial Version
+    * 10/17/26    |agent    |Batched scanning
+    * 10/17/26    |agent    |Cells not reported on are verified by the verifier's compiled predicate (VerifierPredicate)
     * ============|=========|====================================
     */
 
    public static class FindCell extends Verb {
 
+      // Extracts the values of the cells in a row range (one or all columns) - arguments: table, function, parameter, alternate tag, first row, last row, column
+      // Returns [nRows, row, row, ...] where row is [nCols, cell, cell, ...] and cell is [value, alternate value, alternate value, ...]
+      private static final String ScanScript =
+            "var table = arguments[0], fn = arguments[1], param = arguments[2], altTag = arguments[3], first = arguments[4], last = arguments[5], col = arguments[6];" +
+            UIQuery.WebElementQuery.ScriptValueOf +
+            "var rows = table.getElementsByTagName('tr'), out = [rows.length];" +
+            "if (last < 1 || last > rows.length) last = rows.length;" +
+            "for (var r = Math.max(first, 1); r <= last; r++) {" +
+            "  var cells = rows[r - 1].getElementsByTagName('td'), row = [cells.length];" +
+            "  for (var c = (col > 0) ? col : 1; c <= cells.length && (col < 1 || c == col); c++) {" +
+            "    var cell = [valueOf(cells[c - 1], fn, param)];" +
+            "    if (altTag) { var alts = cells[c - 1].getElementsByTagName(altTag); for (var a = 0; a < alts.length; a++) cell.push(valueOf(alts[a], fn, param)); }" +
+            "    row.push(cell);" +
+            "  }" +
+            "  out.push(row);" +
+            "}" +
+            "return out;";
+
+      // Resolves a cell (or one of its alternate tag elements) by its indices - arguments: table, row index, column index, alternate tag, alternate index (-1 for the cell)
+      private static final String ResolveScript =
+            "var cell = arguments[0].getElementsByTagName('tr')[arguments[1]].getElementsByTagName('td')[arguments[2]];" +
+            "return (arguments[4] < 0) ? cell : cell.getElementsByTagName(arguments[3])[arguments[4]];";
+
       public boolean isUIVerb() { return true;}
 
 
@@ -931,6 +1003,8 @@ public abstract class Verb extends DDTBase {
             boolean reportEachTableCell = DDTSettings.Settings().reportEachTableCell();
             // Get a template verifier
             Verifier verifier = Verifier.getVerifier(getContext());
+            // ... and its compiled form for the cells not reported on
+            VerifierPredicate predicate = verifier.compile();
 
             // Determine the (optionally) requested column or row in the table to look at
             colNo = getContext().getStringAsInteger("col");
@@ -986,6 +1060,9 @@ public abstract class Verb extends DDTBase {
 
             if ((getElement() instanceof WebElement)) {
 
+               if (getContext().getBoolean("batch") && findCellBatched(colNo, rowNo, findRange, firstRowToExamine, lastRowToExamine, nCellsToFind, alternateTag, verifier, predicate, reportEachTableCell))
+                  return;
+
                // Assume all rows are represented by "tr" tag.
                List<WebElement> rows = getElement().findElements(By.tagName("tr"));
                nRows = rows.size();
@@ -1046,10 +1123,7 @@ public abstract class Verb extends DDTBase {
                                  Verb.basicAddError(this, "Table Cell [" + rowIndex + "," + colIndex + "]. Cell search aborted.");
                                  return;
                               }
-                              verifier.clearErrors();
-                              verifier.setAv(actualValue);
-                              verifier.verify();
-                              if (verifier.isPass()) {
+                              if (verifies(verifier, predicate, actualValue, reportEachTableCell)) {
                                  foundCell = true;
                                  nCellsFound++;
 
@@ -1077,10 +1151,7 @@ public abstract class Verb extends DDTBase {
                                     }
 
                                     // Verify the present cell for specified value.
-                                    verifier.clearErrors();
-                                    verifier.setAv(actualValue);
-                                    verifier.verify();
-                                    if (verifier.isPass()) {
+                                    if (verifies(verifier, predicate, actualValue, reportEachTableCell)) {
                                        if (reportEachTableCell) {
                                           Verb.basicAddComment(this, "Cell Found - " + verifier.getComments() + " - Found table cell with specified value at [" + rowIndex + "," + colIndex + "].");
                                        }
@@ -1121,27 +1192,7 @@ public abstract class Verb extends DDTBase {
                      } // for row in rows (row search)
 
                      // All rows searched - evaluate results.
-                     if (doneSearching) {
-                        String comment = "Cell search succeeded. ";
-                        comment += nCellsExamined + " " + ((nCellsExamined > 1) ? " cells " : " cell ") + "examined. ";
-                        comment += nCellsFound + " " + ((nCellsFound > 1) ? " cells " : " cell ") + "found. ";
-
-                        Verb.basicAddComment(this, comment);
-                     }  // doneSearching
-                     else {
-                        // All rows searched but number of cells to find is less than number of cells found
-
-                        String error = "Cell search failed. ";
-
-                        error += nCellsExamined + " " + ((nCellsExamined > 1) ? " cells " : " cell ") + "examined. ";
-                        error += nCellsFound + " " + ((nCellsFound != 1) ? " cells " : " cell ") + "found. ".replace("1", "no");
-
-                        if (nCellsToFind > 0) {
-                           error += nCellsToFind + ((nCellsToFind != 1) ? " cells " : " cell ") + " should have been found. ";
-                        }
-
-                        Verb.basicAddError(this, error);
-                     } // cell not found in this row.
+                     addSearchResults(doneSearching, nCellsExamined, nCellsFound, nCellsToFind);
                   } // startRow <= nRows
                   else {
                      if (nRows > 0) {
@@ -1161,6 +1212,214 @@ public abstract class Verb extends DDTBase {
                setException(e);
          }
       }
+
+      /**
+       * Verify a cell's value - cells reported on (reportEachTableCell) are verified by the verifier (whose comments and errors are reported)
+       * others by the verifier's compiled predicate
+       * @param verifier
+       * @param predicate
+       * @param actualValue
+       * @param reportEachTableCell
+       * @return
+       * @throws Exception
+       */
+      private boolean verifies(Verifier verifier, VerifierPredicate predicate, String actualValue, boolean reportEachTableCell) throws Exception {
+         if (!reportEachTableCell)
+            return predicate.test(actualValue);
+         verifier.clearErrors();
+         verifier.setAv(actualValue);
+         verifier.verify();
+         return verifier.isPass();
+      }
+
+      /**
+       * Batched scanning - extract the cells to examine in one script call, search and verify them locally and resolve the resulting cell.
+       * Mirrors the cell by cell search of doIt (same row / column logic, counts, comments and errors).
+       * @return false if batched scanning is not applicable (unsupported function or script failure) - the caller should scan cell by cell
+       */
+      private boolean findCellBatched(int colNo, int rowNo, boolean findRange, int firstRowToExamine, int lastRowToExamine, int nCellsToFind,
+                                      String alternateTag, Verifier verifier, VerifierPredicate predicate, boolean reportEachTableCell) throws Exception {
+         String function = getContext().getString("qryFunction");
+         String param = getContext().getString("queryParam");
+         if (!UIQuery.WebElementQuery.isScriptable(function, param))
+            return false;
+
+         WebDriver driver = Driver.getDriver();
+         if (!(driver instanceof JavascriptExecutor))
+            return false;
+
+         int startCol = (colNo > 0) ? colNo : 0;
+         int startRow = (rowNo > 0) ? rowNo : 0;
+         // The rows the cell by cell search would examine - from the start row (or the range's first row) on - no further than the range's last row
+         int firstRow = (findRange) ? firstRowToExamine : startRow;
+         WebElement table = getElement();
+         Object snapshot;
+         try {
+            snapshot = ((JavascriptExecutor) driver).executeScript(ScanScript, table, function.toLowerCase(), isBlank(param) ? "" : param,
+                  alternateTag, Math.max(firstRow, 1), lastRowToExamine, startCol);
+         }
+         catch (Exception e) {
+            return false;
+         }
+         if (!(snapshot instanceof List) || ((List<?>) snapshot).isEmpty())
+            return false;
+
+         List<?> rows = (List<?>) snapshot;
+         int nRows = ((Number) rows.get(0)).intValue();
+         if (nRows < 1) {
+            Verb.basicAddError(this, "No rows found in table - Cell search aborted.");
+            return true;
+         }
+
+         if (startRow > 0 && (findRange && firstRowToExamine == lastRowToExamine) && firstRowToExamine != startRow) {
+            // Abandon Search
+            Verb.basicAddError(this, "Conflicting 'Row' and 'RowRange' specification (Single row-range specified that is different than row to examine).  Find cell aborted.");
+            return true;
+         }
+
+         if (lastRowToExamine > nRows) {
+            Verb.basicAddError(this, "Invalid 'RowRange' specification (last row to examine " + Util.sq(String.valueOf(lastRowToExamine)) + " exceeds number of rows in range " + Util.sq(String.valueOf(nRows)) + ".  Search cell aborted.");
+            return true;
+         }
+
+         if (startRow > nRows) {
+            Verb.basicAddError(this, "Specified row number (" + startRow + ") is greater than table's number of rows (" + nRows + "). Cell search aborted.");
+            return true;
+         }
+
+         int nCellsExamined = 0;
+         int nCellsFound = 0;
+         boolean doneSearching = false;
+         boolean foundCell = false;
+         int rowIndex = Math.max(firstRow, 1) - 1;
+         // The indices of the cell (and alternate element) the cell by cell search would leave as the element - and its value
+         int lastRow = -1;
+         int lastCol = -1;
+         int lastAlternate = -1;
+         String lastValue = null;
+
+         for (int r = 1; r < rows.size(); r++) {
+            rowIndex++;
+            List<?> cells = (List<?>) rows.get(r);
+            int nCols = ((Number) cells.get(0)).intValue();
+            int colIndex = (startCol > 0) ? startCol - 1 : 0;
+            if (startCol <= nCols) {
+               for (int c = 1; c < cells.size(); c++) {
+                  colIndex++;
+                  foundCell = false;
+                  List<?> cell = (List<?>) cells.get(c);
+
+                  nCellsExamined++;
+                  String actualValue = String.valueOf(cell.get(0));
+                  lastRow = rowIndex;
+                  lastCol = colIndex;
+                  lastAlternate = -1;
+                  lastValue = actualValue;
+
+                  if (verifies(verifier, predicate, actualValue, reportEachTableCell)) {
+                     foundCell = true;
+                     nCellsFound++;
+
+                     if (reportEachTableCell) {
+                        Verb.basicAddComment(this, "Cell Found - " + verifier.getComments() + " - Found table cell with specified value at [" + rowIndex + "," + colIndex + "].");
+                     }
+
+                     if (nCellsFound >= nCellsToFind) {
+                        doneSearching = true;
+                        break;
+                     }
+                  }
+                  else {
+                     if (reportEachTableCell) {
+                        Verb.basicAddComment(this, "Cell Not Found - " + verifier.getErrors() + " - at table cell [" + rowIndex + "," + colIndex + "].");
+                     }
+                     // Look for alternate elements 'deeper' in the cell
+                     for (int a = 1; a < cell.size(); a++) {
+                        actualValue = String.valueOf(cell.get(a));
+                        lastAlternate = a - 1;
+                        lastValue = actualValue;
+
+                        if (verifies(verifier, predicate, actualValue, reportEachTableCell)) {
+                           if (reportEachTableCell) {
+                              Verb.basicAddComment(this, "Cell Found - " + verifier.getComments() + " - Found table cell with specified value at [" + rowIndex + "," + colIndex + "].");
+                           }
+                           foundCell = true;
+                           nCellsFound++;
+                           if (nCellsFound >= nCellsToFind) {
+                              doneSearching = true;
+                              break;
+                           }
+                        }
+                     }
+                  }
+               }
+
+               if (doneSearching)
+                  break;
+            }
+            else {
+               if (nCols > 0) {
+                  if (reportEachTableCell)
+                     Verb.basicAddComment(this, "Specified cell number (" + startCol + ") is greater than table's number of columns at row: " + rowIndex + ", nCols: " + nCols + ". Row skipped, Cell search continued.");
+                  continue;
+               }
+            }
+
+            if (foundCell) {
+               doneSearching = (doneSearching || (nCellsFound >= nCellsToFind));
+               if (doneSearching) {
+                  break;
+               }
+            }
+            if (rowIndex >= lastRowToExamine && lastRowToExamine > 0)
+               break;
+         }
+
+         // Resolve the resulting cell (the one found or the last one examined) - the table remains the element if no cell was examined
+         if (lastRow > 0) {
+            try {
+               Object element = ((JavascriptExecutor) driver).executeScript(ResolveScript, table, lastRow - 1, lastCol - 1, alternateTag, lastAlternate);
+               if (element instanceof WebElement) {
+                  setElement((WebElement) element);
+                  getContext().saveVariableIfNeeded(lastValue);
+               }
+            }
+            catch (Exception e) {
+               Verb.basicAddError(this, "Table Cell [" + lastRow + "," + lastCol + "] could not be resolved: " + e.getMessage());
+               return true;
+            }
+         }
+
+         addSearchResults(doneSearching, nCellsExamined, nCellsFound, nCellsToFind);
+         return true;
+      }
+
+      /**
+       * Report the outcome of the cell search - a comment if all cells to find were found, else an error
+       */
+      private void addSearchResults(boolean doneSearching, int nCellsExamined, int nCellsFound, int nCellsToFind) {
+         if (doneSearching) {
+            String comment = "Cell search succeeded. ";
+            comment += nCellsExamined + " " + ((nCellsExamined > 1) ? " cells " : " cell ") + "examined. ";
+            comment += nCellsFound + " " + ((nCellsFound > 1) ? " cells " : " cell ") + "found. ";
+
+            Verb.basicAddComment(this, comment);
+         }  // doneSearching
+         else {
+            // All rows searched but number of cells to find is less than number of cells found
+
+            String error = "Cell search failed. ";
+
+            error += nCellsExamined + " " + ((nCellsExamined > 1) ? " cells " : " cell ") + "examined. ";
+            error += nCellsFound + " " + ((nCellsFound != 1) ? " cells " : " cell ") + "found. ".replace("1", "no");
+
+            if (nCellsToFind > 0) {
+               error += nCellsToFind + ((nCellsToFind != 1) ? " cells " : " cell ") + " should have been found. ";
+            }
+
+            Verb.basicAddError(this, error);
+         } // cell not found in this row.
+      }
    }
 
    /**
@@ -1222,7 +1481,7 @@ public abstract class Verb extends DDTBase {
             return;
 
          this.setElement(locator.getElement());
-         Verb.basicAddComment(this, "Element Found!");
+         Verb.basicAddComment(this, "Element Found!" + (isBlank(locator.getWaitSummary()) ? "" : " " + locator.getWaitSummary()));
 
          // Support for saving elements in TestRunner's elements Map
          String eKey = getContext().getString("saveelementas");
@@ -1724,6 +1983,7 @@ public abstract class Verb extends DDTBase {
          }
 
          WebDriver driver = Driver.getDriver();
+         LocatorCache.invalidate(driver);
 
          try {
             // Determine where user wants to navigate to...
@@ -2826,6 +3086,7 @@ public abstract class Verb extends DDTBase {
          }
 
          WebDriver driver = Driver.get();
+         LocatorCache.invalidate(driver);
 
          String itemType = getContext().getString("type").toLowerCase();
          if (isBlank(itemType))
@@ -0,0 +1,178 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Created with IntelliJ IDEA.
+ * User: agent
+ * Date: 10/17/26
+ * Selenium Based Automation
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * A resolved action - the Verb subclass implementing the action and its invocation statistics.
+ * TestItem resolves its action to a handle when it is assembled (see TestItem.getVerbHandle()) so that dispatching a step
+ * does not look up the verbs dictionary.
+ * Each invocation runs on a fresh instance of the verb - verbs keep their context while they run and can thus run concurrently.
+ * Statistics (invocations, failures, latency histogram) are kept per verb and are queried via Verb.handles() / Verb.handleOf()
+ *
+ * NOTE: This class is deliberately not nested in Verb - Verb's nested classes are taken to be the verbs (see Verb.initializeVerbs())
+ *
+ * History
+ * When        |Who      |What
+ * ============|=========|====================================
+ * 10/17/26    |agent    |Initial Version
+ * ============|=========|====================================
+ */
+public class VerbHandle {
+
+   // Upper bounds (in milliseconds) of the latency histogram's buckets - the last bucket takes anything slower
+   private static final long[] BucketBounds = {1L, 2L, 5L, 10L, 20L, 50L, 100L, 200L, 500L, 1000L, 2000L, 5000L, 10000L, 30000L, 60000L};
+
+   private final String name;
+   private final Class<? extends Verb> verbClass;
+   private final boolean isUIVerb;
+
+   private final AtomicLong invocations = new AtomicLong();
+   private final AtomicLong errors = new AtomicLong();
+   private final AtomicLong totalNanos = new AtomicLong();
+   private final AtomicLong maxNanos = new AtomicLong();
+   private final AtomicLongArray buckets = new AtomicLongArray(BucketBounds.length + 1);
+
+   public VerbHandle(String name, Class<? extends Verb> verbClass, boolean isUIVerb) {
+      this.name = name;
+      this.verbClass = verbClass;
+      this.isUIVerb = isUIVerb;
+   }
+
+   public String getName() {
+      return name;
+   }
+
+   public Class<? extends Verb> getVerbClass() {
+      return verbClass;
+   }
+
+   public boolean isUIVerb() {
+      return isUIVerb;
+   }
+
+   /**
+    * Run the verb for the test item on a new instance of the verb and record the invocation's statistics
+    * @param testItem
+    * @throws Exception
+    */
+   public void invoke(TestItem testItem) throws Exception {
+      long start = System.nanoTime();
+      boolean failed = true;
+      try {
+         Verb verb = verbClass.newInstance();
+         verb.basicDoIt(testItem);
+         failed = testItem.hasErrors() || testItem.hasException();
+      }
+      finally {
+         record(System.nanoTime() - start, failed);
+      }
+   }
+
+   private void record(long nanos, boolean failed) {
+      invocations.incrementAndGet();
+      if (failed)
+         errors.incrementAndGet();
+      totalNanos.addAndGet(nanos);
+
+      long max = maxNanos.get();
+      while (nanos > max && !maxNanos.compareAndSet(max, nanos))
+         max = maxNanos.get();
+
+      long millis = nanos / 1000000L;
+      int bucket = 0;
+      while (bucket < BucketBounds.length && millis >= BucketBounds[bucket])
+         bucket++;
+      buckets.incrementAndGet(bucket);
+   }
+
+   public long invocations() {
+      return invocations.get();
+   }
+
+   public long errors() {
+      return errors.get();
+   }
+
+   public double meanMillis() {
+      long n = invocations();
+      return (n == 0L) ? 0.0 : (totalNanos.get() / 1000000.0) / n;
+   }
+
+   public double maxMillis() {
+      return maxNanos.get() / 1000000.0;
+   }
+
+   /**
+    * @return The upper bounds (in milliseconds) of the histogram's buckets - histogram() has one more (open ended) bucket
+    */
+   public static long[] bucketBounds() {
+      return BucketBounds.clone();
+   }
+
+   /**
+    * @return A snapshot of the latency histogram - the number of invocations in each of the buckets (see bucketBounds())
+    */
+   public long[] histogram() {
+      long[] result = new long[buckets.length()];
+      for (int i = 0; i < result.length; i++)
+         result[i] = buckets.get(i);
+      return result;
+   }
+
+   /**
+    * @param percent - (e.g. 50, 90, 99)
+    * @return The upper bound (in milliseconds) of the bucket containing the given percentile - the max when it falls in the open ended bucket
+    */
+   public double percentileMillis(double percent) {
+      long[] counts = histogram();
+      long total = 0L;
+      for (long count : counts)
+         total += count;
+      if (total == 0L)
+         return 0.0;
+
+      long rank = (long) Math.ceil(total * percent / 100.0);
+      long seen = 0L;
+      for (int i = 0; i < BucketBounds.length; i++) {
+         seen += counts[i];
+         if (seen >= rank)
+            return BucketBounds[i];
+      }
+      return maxMillis();
+   }
+
+   public void reset() {
+      invocations.set(0L);
+      errors.set(0L);
+      totalNanos.set(0L);
+      maxNanos.set(0L);
+      for (int i = 0; i < buckets.length(); i++)
+         buckets.set(i, 0L);
+   }
+
+   public String toString() {
+      return String.format("%-24s %8d invocation(s) %6d error(s)  mean: %9.1fms  p50: %8.1fms  p90: %8.1fms  p99: %8.1fms  max: %9.1fms",
+            name, invocations(), errors(), meanMillis(), percentileMillis(50), percentileMillis(90), percentileMillis(99), maxMillis());
+   }
+}
@@ -55,6 +55,8 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
  * 09/23/16    |Bey      |Fixed 'between' bug & avoid reversal of specs definition errors
  * 10/16/16    |Bey      |Adjust ddtSettings getters.
  * 01/23/17    |Bey      |Added File Verifier.
+ * 10/17/26    |agent    |compile() - precompiled verification predicate (see VerifierPredicate)
+ * 10/17/26    |agent    |Evaluate %date% expected values through DDTDateCache
  * ============|=========|==================crypt==================
  */
 public class Verifier extends DDTBase{
@@ -323,6 +325,13 @@ public class Verifier extends DDTBase{
       return isValid();
    }
 
+   /**
+    * @return The compiled form of this instance's specifications - for verifying many actual values against them (see VerifierPredicate)
+    */
+   public VerifierPredicate compile() {
+      return VerifierPredicate.compile(this);
+   }
+
    public void verifyBlank() {
       switch (getComp().toLowerCase()) {
          case "isblank" :case "isnull" :case "isempty":case "blank":case "null":case "empty":
@@ -492,9 +501,9 @@ public class Verifier extends DDTBase{
          // Convert the input to date components per the specs.
          // Expected value is string representation of date or its component(s)
          try {
-            DDTDate dateParser = new DDTDate(getEv());
-            if (dateParser.hasException()) {
-               addError(dateParser.getException().getMessage().toString());
+            DDTDateCache.Evaluation dateParser = DDTDateCache.evaluate(getEv());
+            if (dateParser.hasError()) {
+               addError(dateParser.getError());
                return;
             }
             setEv(dateParser.getOutput());
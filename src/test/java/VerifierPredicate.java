@@ -0,0 +1,487 @@
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Created with IntelliJ IDEA.
+ * User: agent
+ * Date: 10/17/26
+ * Selenium Based Automation
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * The compiled form of a Verifier (see Verifier.compile()) - whatever does not depend on the actual value is worked out once:
+ * the class and comparison mode are resolved, the %date expected value evaluated, white space stripped, case folded, numbers and dates
+ * parsed and 'matches' patterns compiled. Testing an actual value then only converts and compares the actual value.
+ * test() passes and fails exactly where Verifier.verify() (followed by isPass()) would - including the expected failure (shouldFail) reversal.
+ * Cases the compiled form does not cover (file verification, an actual value that is not a valid number or date, specifications
+ * Verifier.verify() would trip over) are tested by a Verifier of their own.
+ * Used where many candidates are verified against the same specifications (UILocatorByTag, FindCell) - the Verifier itself is still used
+ * to word the comments or errors of the candidates reported.
+ *
+ * History
+ * When        |Who      |What
+ * ============|=========|====================================
+ * 10/17/26    |agent    |Initial Version
+ * ============|=========|====================================
+ */
+public final class VerifierPredicate {
+
+   private enum Kind {FALLBACK, CONSTANT, BLANK, NOT_BLANK, STRING, INTEGER, LONG, DECIMAL, CURRENCY, DATE}
+
+   private enum Mode {EQ, NE, STARTS, ENDS, CONTAINS, NOT_CONTAINS, LOWER, UPPER, MATCHES, BETWEEN, GT, GE, LT, LE}
+
+   private static final String EmptyComparisons = ",blank,isblank,empty,isempty,null,isnull,";
+   private static final String NotEmptyComparisons = ",notblank,notempty,notnull,";
+
+   // The specifications (for the verifiers of the cases not compiled)
+   private final String ev;
+   private final String comp;
+   private final String opt;
+   private final String cls;
+   private final boolean stripWhiteSpace;
+   private final boolean shouldFail;
+
+   private final Kind kind;
+   private final Mode mode;
+   // Constant outcome (CONSTANT kind) and whether it is a specification error (not subject to the shouldFail reversal)
+   private final boolean constantPass;
+   private final boolean isSpecError;
+
+   // String comparisons
+   private final String expected;
+   private final boolean ignoreCase;
+   private final Pattern pattern;
+   private final String from;
+   private final String to;
+
+   // Numeric and date comparisons
+   private final String groupingSeparator;
+   private final String currencySymbol;
+   private final BigDecimal expectedNumber;
+   private final int expectedInt;
+   private final long expectedLong;
+   private final double fromNumber;
+   private final double toNumber;
+   private final SimpleDateFormat dateFormat;
+   private final long expectedTime;
+   private final long fromTime;
+   private final long toTime;
+
+   /**
+    * Accumulates the compiled values while compiling
+    */
+   private static class Builder {
+      private Kind kind = Kind.FALLBACK;
+      private Mode mode;
+      private boolean constantPass;
+      private boolean isSpecError;
+      private String expected;
+      private boolean ignoreCase;
+      private Pattern pattern;
+      private String from;
+      private String to;
+      private String groupingSeparator;
+      private String currencySymbol;
+      private BigDecimal expectedNumber;
+      private int expectedInt;
+      private long expectedLong;
+      private double fromNumber;
+      private double toNumber;
+      private SimpleDateFormat dateFormat;
+      private long expectedTime;
+      private long fromTime;
+      private long toTime;
+
+      private Builder constant(boolean pass, boolean specError) {
+         kind = Kind.CONSTANT;
+         constantPass = pass;
+         isSpecError = specError;
+         return this;
+      }
+
+      private Builder fallback() {
+         kind = Kind.FALLBACK;
+         return this;
+      }
+   }
+
+   private VerifierPredicate(Verifier template, Builder b) {
+      ev = template.getEv();
+      comp = template.getComp();
+      opt = template.getOpt();
+      cls = template.getCls();
+      stripWhiteSpace = template.getStripWhiteSpace();
+      shouldFail = template.getShouldFail();
+      kind = b.kind;
+      mode = b.mode;
+      constantPass = b.constantPass;
+      isSpecError = b.isSpecError;
+      expected = b.expected;
+      ignoreCase = b.ignoreCase;
+      pattern = b.pattern;
+      from = b.from;
+      to = b.to;
+      groupingSeparator = b.groupingSeparator;
+      currencySymbol = b.currencySymbol;
+      expectedNumber = b.expectedNumber;
+      expectedInt = b.expectedInt;
+      expectedLong = b.expectedLong;
+      fromNumber = b.fromNumber;
+      toNumber = b.toNumber;
+      dateFormat = b.dateFormat;
+      expectedTime = b.expectedTime;
+      fromTime = b.fromTime;
+      toTime = b.toTime;
+   }
+
+   /**
+    * @param template - a Verifier set up with the specifications (its actual value is ignored)
+    * @return The compiled predicate of the template's specifications
+    */
+   public static VerifierPredicate compile(Verifier template) {
+      Builder b;
+      try {
+         b = compiled(template);
+      }
+      catch (Exception e) {
+         b = new Builder().fallback();
+      }
+      return new VerifierPredicate(template, b);
+   }
+
+   private static Builder compiled(Verifier template) throws Exception {
+      String compareMode = template.getComp().toLowerCase();
+      if (EmptyComparisons.contains("," + compareMode + ",")) {
+         Builder b = new Builder();
+         b.kind = Kind.BLANK;
+         return b;
+      }
+      if (NotEmptyComparisons.contains("," + compareMode + ",")) {
+         Builder b = new Builder();
+         b.kind = Kind.NOT_BLANK;
+         return b;
+      }
+
+      switch (template.getCls().toLowerCase()) {
+         case "" : case "string" : return compiledString(template, compareMode);
+         case "int" : case "integer" : return compiledNumber(template, compareMode, Kind.INTEGER);
+         case "long" : return compiledNumber(template, compareMode, Kind.LONG);
+         case "double" : case "float" : case "decimal" : return compiledNumber(template, compareMode, Kind.DECIMAL);
+         case "currency" : return compiledNumber(template, compareMode, Kind.CURRENCY);
+         case "date" : return compiledDate(template, compareMode);
+         case "file" : return new Builder().fallback();
+         // Invalid class - an error that is subject to the expected failure reversal
+         default: return new Builder().constant(false, false);
+      }
+   }
+
+   private static Builder compiledString(Verifier template, String compareMode) throws Exception {
+      Builder b = new Builder();
+      String exp = template.getEv();
+
+      if (exp.toLowerCase().startsWith("%date")) {
+         DDTDateCache.Evaluation dateParser = DDTDateCache.evaluate(template.getEv());
+         if (dateParser.hasError())
+            return b.constant(false, false);
+         exp = dateParser.getOutput();
+      }
+
+      if (isBlank(exp))
+         exp = "";
+      if (template.getStripWhiteSpace())
+         exp = Util.stripWhiteSpace(exp);
+      // As in Verifier.verifyStrings - case is folded for all comparison modes
+      b.ignoreCase = template.getOpt().toLowerCase().equals("ignorecase");
+      if (b.ignoreCase)
+         exp = exp.toLowerCase();
+      b.expected = exp;
+      b.kind = Kind.STRING;
+
+      switch (compareMode) {
+         case "equals" : case "equal" : case "is" : case "eq": case "=" : case "isenabled" :case "isdisplayed" :case "isselected" :
+            b.mode = Mode.EQ; break;
+         case "ne" :case "notequalsto" : case "notequalto" : case "notequal" :case "notequals" :case "!=" :case "<>":
+            b.mode = Mode.NE; break;
+         case "startswith" :case "startwith" : b.mode = Mode.STARTS; break;
+         case "endswith" :case "endwith" : b.mode = Mode.ENDS; break;
+         case "contains" : case "contain" : b.mode = Mode.CONTAINS; break;
+         case "notcontains" :case "notcontain" : b.mode = Mode.NOT_CONTAINS; break;
+         case "islowercase" : b.mode = Mode.LOWER; break;
+         case "isuppercase" : b.mode = Mode.UPPER; break;
+         case "matches" :case "match" :
+            b.mode = Mode.MATCHES;
+            b.pattern = Pattern.compile(exp);
+            break;
+         case "between" :
+            if (template.getValues().length != 2)
+               return b.constant(false, true);
+            b.mode = Mode.BETWEEN;
+            b.from = template.getValues()[0];
+            b.to = template.getValues()[1];
+            break;
+         default: return b.constant(false, true);
+      }
+      return b;
+   }
+
+   private static Mode numericMode(String compareMode) {
+      switch (compareMode) {
+         case "equals" :case "equal" : case "is" :case "=" : case "eq" : case "==" : return Mode.EQ;
+         case "gt" : case "greaterthan" : case ">" : return Mode.GT;
+         case "ge" : case "greaterthanorequalsto" : case "greaterthanorequalto" :case ">=": case "=>" : return Mode.GE;
+         case "lt" :case "lessthan" :case "<": return Mode.LT;
+         case "le" :case "lessthanorequalsto" : case "lessthanorequalto" :case "<=" : case "=<" : return Mode.LE;
+         case "ne" :case "notequalsto" : case "notequalto" :case "!=" : return Mode.NE;
+         case "between" : return Mode.BETWEEN;
+         default: return null;
+      }
+   }
+
+   private String numericText(String value) {
+      String result = value.replace(groupingSeparator, "").replaceAll("\\s", "");
+      return (currencySymbol == null) ? result : result.replace(currencySymbol, "");
+   }
+
+   private static String numericText(Builder b, String value, boolean withCurrency) {
+      String result = value.replace(b.groupingSeparator, "").replaceAll("\\s", "");
+      return (b.currencySymbol == null || !withCurrency) ? result : result.replace(b.currencySymbol, "");
+   }
+
+   private static Builder compiledNumber(Verifier template, String compareMode, Kind kind) throws Exception {
+      Builder b = new Builder();
+      b.kind = kind;
+      b.groupingSeparator = String.valueOf(new DecimalFormat().getDecimalFormatSymbols().getGroupingSeparator());
+      if (kind == Kind.CURRENCY)
+         b.currencySymbol = Currency.getInstance(Locale.getDefault()).getSymbol();
+
+      boolean isBetween = compareMode.equals("between");
+      String exp = numericText(b, template.getEv(), true);
+      if (!isBetween) {
+         try {
+            switch (kind) {
+               case INTEGER: b.expectedInt = Integer.valueOf(exp); break;
+               case LONG: b.expectedLong = Long.valueOf(exp); break;
+               default: b.expectedNumber = BigDecimal.valueOf(Double.valueOf(exp));
+            }
+         }
+         catch (Exception e) {
+            // Invalid expected value - a specification error, every verification fails (expected failures too)
+            return b.constant(false, true);
+         }
+      }
+
+      b.mode = numericMode(compareMode);
+      if (b.mode == null)
+         return b.constant(false, true);
+
+      if (isBetween) {
+         // The verifier trips over between specifications of other than two values
+         if (template.getValues().length != 2)
+            return b.fallback();
+         // (As in Verifier.AmountVerifier the currency symbol is not removed from between values)
+         try {
+            b.fromNumber = BigDecimal.valueOf(Double.valueOf(numericText(b, template.getValues()[0], false))).doubleValue();
+            b.toNumber = BigDecimal.valueOf(Double.valueOf(numericText(b, template.getValues()[1], false))).doubleValue();
+         }
+         catch (Exception e) {
+            return b.constant(false, true);
+         }
+      }
+      return b;
+   }
+
+   private static Builder compiledDate(Verifier template, String compareMode) throws Exception {
+      Builder b = new Builder();
+      String format = template.getOpt();
+      if (isBlank(format))
+         format = DDTSettings.Settings().dateFormat();
+      b.dateFormat = new SimpleDateFormat(format);
+      try {
+         b.expectedTime = b.dateFormat.parse(template.getEv()).getTime();
+      }
+      catch (ParseException e) {
+         return b.fallback();
+      }
+      b.kind = Kind.DATE;
+
+      switch (compareMode) {
+         case "equals" :case "is" :case "equal":case "=" : case "eq" : b.mode = Mode.EQ; break;
+         case "gt" : case "greaterthan" : case ">" :case "after" : b.mode = Mode.GT; break;
+         case "ge" : case "greaterthanorequalsto" : case "greaterthanorequalto" :case ">=":case "=>" : case "onorafter": b.mode = Mode.GE; break;
+         case "lt" :case "lessthan" :case "<":case "before": b.mode = Mode.LT; break;
+         case "le" :case "lessthanorequalsto" : case "lessthanorequalto" :case "<=" : case "onorbefore": b.mode = Mode.LE; break;
+         case "between" :
+            if (template.getValues().length != 2)
+               return b.fallback();
+            try {
+               b.fromTime = b.dateFormat.parse(template.getValues()[0]).getTime();
+               b.toTime = b.dateFormat.parse(template.getValues()[1]).getTime();
+            }
+            catch (ParseException e) {
+               return b.fallback();
+            }
+            b.mode = Mode.BETWEEN;
+            break;
+         // Not equal dates are left to the verifier
+         case "ne" :case "notequalsto" : case "notequalto" : case "noton" :case "!=" : return b.fallback();
+         // Invalid comparison modes are left to the verifier as well
+         default: return b.fallback();
+      }
+      return b;
+   }
+
+   /**
+    * @return Indicates whether tests are evaluated by the compiled predicate (rather than by a verifier of their own)
+    */
+   public boolean isCompiled() {
+      return kind != Kind.FALLBACK;
+   }
+
+   /**
+    * @param actual - The actual value to verify
+    * @return Whether a Verifier of the specifications would pass the actual value
+    * @throws Exception - where the Verifier would
+    */
+   public boolean test(String actual) throws Exception {
+      Boolean result;
+      switch (kind) {
+         case CONSTANT:
+            return (isSpecError || !shouldFail) ? constantPass : !constantPass;
+         case BLANK: result = isBlank(actual); break;
+         case NOT_BLANK: result = !isBlank(actual); break;
+         case STRING: return (isStringMatch(actual) != shouldFail);
+         case INTEGER: case LONG: case DECIMAL: case CURRENCY: result = isNumberMatch(actual); break;
+         case DATE: result = isDateMatch(actual); break;
+         default: result = null;
+      }
+      if (result == null)
+         return verified(actual);
+      return result != shouldFail;
+   }
+
+   private boolean isStringMatch(String actual) {
+      String act = isBlank(actual) ? "" : actual;
+      if (stripWhiteSpace)
+         act = Util.stripWhiteSpace(act);
+      if (ignoreCase)
+         act = act.toLowerCase();
+
+      switch (mode) {
+         case EQ: return act.equals(expected);
+         case NE: return !act.equals(expected);
+         case STARTS: return act.startsWith(expected);
+         case ENDS: return act.endsWith(expected);
+         case CONTAINS: return act.contains(expected);
+         case NOT_CONTAINS: return !act.contains(expected);
+         case LOWER: return act.toLowerCase().equals(act);
+         case UPPER: return act.toUpperCase().equals(act);
+         case MATCHES: return pattern.matcher(act).matches();
+         case BETWEEN: return !(from.hashCode() > act.hashCode() || to.hashCode() < act.hashCode());
+         default: return false;
+      }
+   }
+
+   /**
+    * @param actual
+    * @return Whether the actual number matches - null if the actual value is not a valid number (left to the verifier)
+    */
+   private Boolean isNumberMatch(String actual) {
+      String act = numericText(actual == null ? "" : actual);
+      int comparison;
+      double value;
+      try {
+         switch (kind) {
+            case INTEGER: {
+               int n = Integer.valueOf(act);
+               comparison = (n == expectedInt) ? 0 : ((n > expectedInt) ? 1 : -1);
+               value = n;
+               break;
+            }
+            case LONG: {
+               long n = Long.valueOf(act);
+               comparison = Long.valueOf(n).compareTo(expectedLong);
+               value = n;
+               break;
+            }
+            default: {
+               BigDecimal n = BigDecimal.valueOf(Double.valueOf(act));
+               comparison = (expectedNumber == null) ? 0 : n.compareTo(expectedNumber);
+               value = n.doubleValue();
+            }
+         }
+      }
+      catch (Exception e) {
+         return null;
+      }
+      switch (mode) {
+         case EQ: return comparison == 0;
+         case GT: return comparison == 1;
+         case GE: return comparison > -1;
+         case LT: return comparison == -1;
+         // As in Verifier.NumberVerifier
+         case LE: return comparison < 0;
+         case NE: return comparison != 0;
+         case BETWEEN: return !(fromNumber > value || toNumber < value);
+         default: return false;
+      }
+   }
+
+   /**
+    * @param actual
+    * @return Whether the actual date matches - null if the actual value is not a valid date (left to the verifier)
+    */
+   private Boolean isDateMatch(String actual) {
+      long time;
+      try {
+         synchronized (dateFormat) {
+            time = dateFormat.parse(actual).getTime();
+         }
+      }
+      catch (Exception e) {
+         return null;
+      }
+      switch (mode) {
+         case EQ: return time == expectedTime;
+         case GT: return time > expectedTime;
+         case GE: return time >= expectedTime;
+         case LT: return time < expectedTime;
+         case LE: return time <= expectedTime;
+         case BETWEEN: return !(fromTime > time || toTime < time);
+         default: return false;
+      }
+   }
+
+   /**
+    * The cases not compiled - verify the actual value with a verifier of its own
+    * @param actual
+    * @return
+    * @throws Exception
+    */
+   private boolean verified(String actual) throws Exception {
+      Verifier verifier = new Verifier(ev, actual, comp, opt, cls, stripWhiteSpace, shouldFail);
+      verifier.verify();
+      return verifier.isPass();
+   }
+}
@@ -0,0 +1,179 @@
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * Created by agent on 10/17/26.
+ * Selenium Based Automation Project
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * VerifierPredicate - the compiled predicate passes and fails exactly where Verifier.verify() does
+ * (with and without the expected failure reversal, and on specification errors)
+ *
+ * When      |Who            |What
+ * ==========|===============|========================================================
+ * 10/17/26  |agent          |Initial Version
+ * ==========|===============|========================================================
+ */
+public class VerifierPredicateTest {
+
+   // Class, comparison mode, expected value, option
+   private static final String[][] StringSpecs = {
+         {"", "eq", "Hello World", ""},
+         {"", "eq", "hello world", "ignorecase"},
+         {"", "ne", "Hello World", ""},
+         {"", "startswith", "Hello", ""},
+         {"", "endswith", "World", ""},
+         {"", "contains", "lo Wo", ""},
+         {"", "notcontains", "lo Wo", ""},
+         {"", "islowercase", "", ""},
+         {"", "isuppercase", "", ""},
+         {"", "matches", "H.*d", ""},
+         {"", "isblank", "", ""},
+         {"", "notblank", "", ""}
+   };
+
+   private static final String[] StringActuals = {"Hello World", "hello world", "HELLO WORLD", " Hello  World ", "Help", "", null};
+
+   private static final String[][] NumberSpecs = {
+         {"int", "eq", "42", ""},
+         {"int", "gt", "42", ""},
+         {"int", "le", "42", ""},
+         {"long", "ne", "42", ""},
+         {"decimal", "ge", "3.14", ""},
+         {"decimal", "lt", "3.14", ""}
+   };
+
+   private static final String[] NumberActuals = {"42", "41", "43", "3.14", "3.15", "-1", "abc", ""};
+
+   private static final String[][] DateSpecs = {
+         {"date", "eq", "01/03/2014", ""},
+         {"date", "gt", "01/03/2014", ""},
+         {"date", "lt", "01/03/2014", ""}
+   };
+
+   private static final String[] DateActuals = {"01/03/2014", "01/04/2014", "12/31/2013", "not a date", ""};
+
+   // Specifications a Verifier reports as errors - never reversed by shouldFail
+   private static final String[][] ErrorSpecs = {
+         {"bogus", "eq", "42", ""},
+         {"int", "eq", "not a number", ""},
+         {"int", "bogus", "42", ""},
+         {"long", "eq", "", ""},
+         {"decimal", "gt", "", ""},
+         {"decimal", "between", "1.and.x", ""},
+         {"", "bogus", "Hello", ""},
+         {"", "between", "a", ""},
+         {"", "eq", "%date:bogus%", ""},
+         {"currency", "eq", "not an amount", ""},
+         {"date", "eq", "not a date", ""},
+         {"date", "bogus", "01/03/2014", ""}
+   };
+
+   private static final String[] ErrorActuals = {"42", "3.14", "01/03/2014", ""};
+
+   /**
+    * @return Whether a Verifier of the specifications passes the actual value - null if it throws
+    */
+   private static Boolean verified(String[] spec, String actual, boolean stripWhiteSpace, boolean shouldFail) {
+      Verifier verifier = new Verifier(spec[2], actual, spec[1], spec[3], spec[0], stripWhiteSpace, shouldFail);
+      try {
+         verifier.verify();
+         return verifier.isPass();
+      }
+      catch (Exception e) {
+         return null;
+      }
+   }
+
+   /**
+    * @return Whether the compiled predicate of the specifications passes the actual value - null if it throws
+    */
+   private static Boolean tested(String[] spec, String actual, boolean stripWhiteSpace, boolean shouldFail) {
+      VerifierPredicate predicate = new Verifier(spec[2], "", spec[1], spec[3], spec[0], stripWhiteSpace, shouldFail).compile();
+      try {
+         return predicate.test(actual);
+      }
+      catch (Exception e) {
+         return null;
+      }
+   }
+
+   private static void assertSameOutcomes(String[][] specs, String[] actuals) {
+      StringBuilder mismatches = new StringBuilder();
+      for (String[] spec : specs) {
+         for (String actual : actuals) {
+            for (boolean stripWhiteSpace : new boolean[] {false, true}) {
+               for (boolean shouldFail : new boolean[] {false, true}) {
+                  Boolean expected = verified(spec, actual, stripWhiteSpace, shouldFail);
+                  Boolean result = tested(spec, actual, stripWhiteSpace, shouldFail);
+                  if (result == null ? expected != null : !result.equals(expected))
+                     mismatches.append("\ncls=" + Util.sq(spec[0]) + " md=" + Util.sq(spec[1]) + " ev=" + Util.sq(spec[2]) + " opt=" + Util.sq(spec[3]) +
+                           " av=" + Util.sq(actual) + " stripWhiteSpace=" + stripWhiteSpace + " shouldFail=" + shouldFail +
+                           " - verifier: " + expected + ", predicate: " + result);
+               }
+            }
+         }
+      }
+      assertTrue(mismatches.length() == 0, "Predicate and verifier differ:" + mismatches);
+   }
+
+   @Test
+   public void stringComparisons() {
+      assertSameOutcomes(StringSpecs, StringActuals);
+   }
+
+   @Test
+   public void numberComparisons() {
+      assertSameOutcomes(NumberSpecs, NumberActuals);
+   }
+
+   @Test
+   public void dateComparisons() {
+      assertSameOutcomes(DateSpecs, DateActuals);
+   }
+
+   @Test
+   public void specificationErrors() {
+      assertSameOutcomes(ErrorSpecs, ErrorActuals);
+   }
+
+   @Test
+   public void expectedFailureReversesOutcome() {
+      String[] spec = {"", "eq", "Hello", ""};
+      assertEquals(tested(spec, "Hello", false, false), Boolean.TRUE);
+      assertEquals(tested(spec, "Hello", false, true), Boolean.FALSE);
+      assertEquals(tested(spec, "Help", false, true), Boolean.TRUE);
+   }
+
+   @Test
+   public void invalidClassIsReversed() {
+      // As with the verifier, an invalid class is a failure rather than a specification error
+      String[] spec = {"bogus", "eq", "42", ""};
+      assertEquals(tested(spec, "42", false, false), Boolean.FALSE);
+      assertEquals(tested(spec, "42", false, true), Boolean.TRUE);
+   }
+
+   @Test
+   public void specificationErrorIsNotReversed() {
+      String[] spec = {"int", "eq", "not a number", ""};
+      assertEquals(tested(spec, "42", false, false), Boolean.FALSE);
+      assertEquals(tested(spec, "42", false, true), Boolean.FALSE);
+   }
+}
@@ -0,0 +1,175 @@
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.testng.Assert.*;
+
+/**
+ * Created by agent on 10/17/26.
+ * Selenium Based Automation Project
+ *
+ * =============================================================================
+ * Copyright 2014 Avraham (Bey) Melamed.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =============================================================================
+ *
+ * Description
+ * FileTestStringsProvider.XMLTestStringsProvider - files parsed in parts (XmlSplitSize of 0, XmlSplitWorkers above 1) provide the
+ * same test strings as files parsed as a whole, attributes carried over from item to item (and from part to part) included
+ *
+ * When      |Who            |What
+ * ==========|===============|========================================================
+ * 10/17/26  |agent          |Initial Version
+ * ==========|===============|========================================================
+ */
+public class XMLTestStringsProviderTest {
+
+   private static final String XmlSplitSize = DDTSettings.SystemOverridePrefix + "XmlSplitSize";
+   private static final String XmlSplitWorkers = DDTSettings.SystemOverridePrefix + "XmlSplitWorkers";
+   private static final String[] Attributes = {"Id", "Action", "LocType", "LocSpecs", "QryFunction", "Active", "Params", "Description"};
+   private static final int NItems = 23;
+
+   private File file;
+
+   @BeforeMethod
+   public void setUp() throws IOException {
+      TestStringsCache.clear();
+      file = File.createTempFile("ddt", ".xml");
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void tearDown() {
+      System.clearProperty(XmlSplitSize);
+      System.clearProperty(XmlSplitWorkers);
+      DDTSettings.reset();
+      TestStringsCache.clear();
+      file.delete();
+   }
+
+   private void write(String content) throws IOException {
+      FileOutputStream stream = new FileOutputStream(file);
+      try {
+         stream.write(content.getBytes("UTF-8"));
+      }
+      finally {
+         stream.close();
+      }
+   }
+
+   /**
+    * @return The start of a TestItem element - the item sets some of the attributes only (the others carry over from the previous items)
+    */
+   private static String item(int n) {
+      return item(n, -1, null);
+   }
+
+   /**
+    * @return The start of a TestItem element that sets the column's attribute to the (escaped) value
+    */
+   private static String item(int n, int column, String value) {
+      StringBuilder sb = new StringBuilder("<TestItem");
+      for (int i = 0; i < Attributes.length; i++) {
+         if (i == column)
+            sb.append(" " + Attributes[i] + "=" + value);
+         // The first item sets some attributes only as well
+         else if ((n + i) % 3 == 0 || (n % 5 == 0 && i > 3))
+            sb.append(" " + Attributes[i] + "=\"" + Attributes[i] + " " + n + "\"");
+      }
+      return sb.toString();
+   }
+
+   private static String document(String prolog, String items) {
+      return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" + prolog + "<TestCase Description=\"Split test\">\n" + items + "</TestCase>\n";
+   }
+
+   /**
+    * Items of several forms - empty and self closing elements, content, comments, CDATA sections and markup in attribute values
+    */
+   private static String items() {
+      StringBuilder sb = new StringBuilder();
+      for (int n = 0; n < NItems; n++) {
+         switch (n % 6) {
+            case 0 : sb.append("  " + item(n) + "/>\n"); break;
+            case 1 : sb.append("  " + item(n) + "></TestItem>\n"); break;
+            case 2 : sb.append("  <!-- <TestItem Id=\"commented out\"/> -->\n  " + item(n, 6, "\"a &amp; b &lt;TestItem/&gt; \u00e9\u4e2d\"") + "/>\n"); break;
+            case 3 : sb.append("  " + item(n) + ">Text <![CDATA[<TestItem Id=\"in CDATA\"/>]]></TestItem>\n"); break;
+            case 4 : sb.append("  " + item(n, 3, "'//div[@id=\"a\"]/TestItem'") + " xmlns:x=\"urn:x\" x:Id=\"other\"/>\n"); break;
+            default : sb.append("  <?pi <TestItem?>\n  " + item(n) + ">\n    <Note Id=\"nested\"/>\n  </TestItem>\n");
+         }
+      }
+      return sb.toString();
+   }
+
+   private String[][] provided(int nWorkers) {
+      System.setProperty(XmlSplitSize, "0");
+      System.setProperty(XmlSplitWorkers, Integer.toString(nWorkers));
+      DDTSettings.reset();
+      TestStringsCache.clear();
+      String[][] result = TestStringsProvider.provideTestStrings("File!" + file.getAbsolutePath() + "!Items", DDTSettings.Settings().dataFolder());
+      TestStringsCache.clear();
+      return result;
+   }
+
+   private void assertSplitAsWhole(int nItems) {
+      String[][] expected = provided(1);
+      assertNotNull(expected);
+      assertEquals(expected.length, nItems);
+      for (int nWorkers : new int[] {2, 3, 4, 7, nItems, nItems + 1})
+         assertEquals(provided(nWorkers), expected, "Parsed in " + nWorkers + " parts");
+   }
+
+   @Test
+   public void itemsCarryOverAttributes() throws IOException {
+      write(document("", "  <TestItem Id=\"First\" LocType=\"xpath\"/>\n  <TestItem Action=\"Second\"/>\n"));
+      String[][] strings = provided(1);
+      assertEquals(strings[0][0], "First");
+      assertEquals(strings[1][0], "First");
+      assertEquals(strings[1][1], "Second");
+      assertEquals(strings[1][2], "xpath");
+      // Attributes no item set are blank
+      assertEquals(strings[0][1], "");
+      assertEquals(strings[1][3], "");
+   }
+
+   @Test
+   public void splitAsWhole() throws IOException {
+      write(document("", items()));
+      assertSplitAsWhole(NItems);
+   }
+
+   @Test
+   public void splitGroupedItemsAsWhole() throws IOException {
+      write(document("", "  <Group>\n" + items() + "  </Group>\n"));
+      assertSplitAsWhole(NItems);
+   }
+
+   @Test
+   public void unsplittableFilesAsWhole() throws IOException {
+      // Items at different depths
+      write(document("", items() + "  <Group>\n" + items() + "  </Group>\n"));
+      assertSplitAsWhole(2 * NItems);
+
+      // Items of different groups (parts would end and start groups)
+      write(document("", "  <Group>\n" + items() + "  </Group>\n  <Group>\n" + items() + "  </Group>\n"));
+      assertSplitAsWhole(2 * NItems);
+
+      // A DTD (default attributes)
+      write(document("<!DOCTYPE TestCase [<!ATTLIST TestItem Active CDATA \"Yes\">]>\n", items()));
+      assertSplitAsWhole(NItems);
+   }
+}